@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen.processor;
+
+import com.netflix.hollow.api.codegen.AbstractHollowAPIGeneratorBuilder;
+import com.netflix.hollow.api.codegen.HollowAPIGenerator;
+import com.netflix.hollow.api.codegen.HollowConsumerJavaFileGenerator;
+import com.netflix.hollow.api.codegen.HollowJavaFileGenerator;
+import com.netflix.hollow.core.HollowDataset;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.Set;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+
+/**
+ * A {@link HollowAPIGenerator} which creates the generated source files with the {@link Filer} of an annotation
+ * processor, rather than in a directory.  Not intended for external consumption.
+ */
+class FilerHollowAPIGenerator extends HollowAPIGenerator {
+    private final Filer filer;
+    private final Element[] originatingElements;
+
+    private FilerHollowAPIGenerator(String apiClassname, String packageName, HollowDataset dataset,
+            Set<String> parameterizedTypes, boolean parameterizeAllClassNames, boolean useErgonomicShortcuts,
+            Filer filer, Element[] originatingElements) {
+        // the destination is never written to; it only satisfies generateSourceFiles()
+        super(apiClassname, packageName, dataset, parameterizedTypes, parameterizeAllClassNames, useErgonomicShortcuts,
+                Paths.get(""));
+        this.filer = filer;
+        this.originatingElements = originatingElements;
+    }
+
+    @Override
+    protected void generateFile(File directory, HollowJavaFileGenerator generator) throws IOException {
+        String filePackageName = packageName == null ? "" : packageName.trim();
+        if (!filePackageName.isEmpty() && config.isUsePackageGrouping() && (generator instanceof HollowConsumerJavaFileGenerator)) {
+            HollowConsumerJavaFileGenerator consumerCodeGenerator = (HollowConsumerJavaFileGenerator)generator;
+            if (hasCollectionsInDataSet) consumerCodeGenerator.useCollectionsImport();
+            if (!consumerCodeGenerator.getSubPackageName().isEmpty())
+                filePackageName = filePackageName + "." + consumerCodeGenerator.getSubPackageName();
+        }
+
+        String className = filePackageName.isEmpty() ? generator.getClassName() : filePackageName + "." + generator.getClassName();
+        JavaFileObject file = filer.createSourceFile(className, originatingElements);
+        try (Writer writer = file.openWriter()) {
+            writer.write(generator.generate());
+        }
+    }
+
+    static class Builder extends AbstractHollowAPIGeneratorBuilder<Builder, FilerHollowAPIGenerator> {
+        private final Filer filer;
+        private final Element[] originatingElements;
+
+        Builder(Filer filer, Element... originatingElements) {
+            this.filer = filer;
+            this.originatingElements = originatingElements;
+        }
+
+        @Override
+        protected FilerHollowAPIGenerator instantiateGenerator() {
+            return new FilerHollowAPIGenerator(apiClassname, packageName, dataset, parameterizedTypes,
+                    parameterizeAllClassNames, useErgonomicShortcuts, filer, originatingElements);
+        }
+
+        @Override
+        protected Builder getBuilder() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a consumer API is generated at compile time, by the {@link HollowAPIProcessor}, for the data model
+ * rooted at a POJO class.
+ * <p>
+ * The data model is the one a {@link com.netflix.hollow.core.write.objectmapper.HollowObjectMapper} would derive for
+ * the class.  All of the classes annotated with the same {@link #apiClassname()} and {@link #packageName()} contribute
+ * to the data model of a single API, and must specify the same options.
+ * <p>
+ * The options correspond to those of {@link com.netflix.hollow.api.codegen.HollowAPIGenerator.Builder}, and have
+ * the same defaults, except for {@link #directAccess()} which is enabled by default.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateHollowAPI {
+
+    /**
+     * @return the simple name of the generated API class
+     */
+    String apiClassname();
+
+    /**
+     * @return the package of the generated API, or the empty string for the package of the annotated class
+     */
+    String packageName() default "";
+
+    String classPostfix() default "";
+
+    String getterPrefix() default "";
+
+    boolean parameterizeAllClassNames() default false;
+
+    boolean aggressiveSubstitutions() default false;
+
+    boolean ergonomicShortcuts() default false;
+
+    boolean packageGrouping() default false;
+
+    boolean booleanFieldErgonomics() default false;
+
+    boolean reservePrimaryKeyIndexForTypeWithPrimaryKey() default false;
+
+    /**
+     * NOTE: Has to be enabled with {@link #ergonomicShortcuts()}
+     *
+     * @return whether the API is restricted to the field types
+     */
+    boolean restrictApiToFieldType() default false;
+
+    boolean hollowPrimitiveTypes() default false;
+
+    boolean verboseToString() default false;
+
+    /**
+     * Whether the accessors of the generated object type APIs are final, and read each field directly through a
+     * {@link com.netflix.hollow.core.read.engine.object.HollowObjectFieldReader} whose field index is resolved once,
+     * rather than through the type's data access.  Reads through direct accessors are not sampled.
+     *
+     * @return whether the generated API reads fields directly
+     * @see com.netflix.hollow.api.codegen.HollowAPIGenerator.Builder#withDirectAccess()
+     */
+    boolean directAccess() default true;
+}
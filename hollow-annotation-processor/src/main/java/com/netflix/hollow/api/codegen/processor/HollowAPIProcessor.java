@@ -0,0 +1,156 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen.processor;
+
+import com.netflix.hollow.api.codegen.processor.HollowElementSchemaMapper.HollowElementSchemaException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * An annotation processor which generates a consumer API at compile time, for the data model of the classes
+ * annotated with {@link GenerateHollowAPI}.
+ * <p>
+ * The generated API, including its primary key, unique key and hash indexes, is the same as the one a
+ * {@link com.netflix.hollow.api.codegen.HollowAPIGenerator} generates for the classes with the same options, so the
+ * separate code generation step can be removed from a build.  The processor is registered as a service, and is run
+ * by javac when this module is on the annotation processor path.
+ */
+@SupportedAnnotationTypes("com.netflix.hollow.api.codegen.processor.GenerateHollowAPI")
+public class HollowAPIProcessor extends AbstractProcessor {
+
+    private final Set<String> generatedAPIs = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<String, List<TypeElement>> apis = new LinkedHashMap<>();
+        for(Element element : roundEnv.getElementsAnnotatedWith(GenerateHollowAPI.class)) {
+            if(element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.ENUM) {
+                error("@GenerateHollowAPI is only supported on classes", element);
+                continue;
+            }
+            TypeElement typeElement = (TypeElement) element;
+            apis.computeIfAbsent(qualifiedAPIClassname(typeElement), k -> new ArrayList<>()).add(typeElement);
+        }
+
+        for(Map.Entry<String, List<TypeElement>> entry : apis.entrySet()) {
+            if(!generatedAPIs.add(entry.getKey())) {
+                error("The API " + entry.getKey() + " has already been generated", entry.getValue().get(0));
+                continue;
+            }
+            generateAPI(entry.getValue());
+        }
+        return true;
+    }
+
+    private void generateAPI(List<TypeElement> elements) {
+        TypeElement first = elements.get(0);
+        GenerateHollowAPI options = first.getAnnotation(GenerateHollowAPI.class);
+        for(TypeElement element : elements) {
+            if(!sameOptions(options, element.getAnnotation(GenerateHollowAPI.class))) {
+                error("@GenerateHollowAPI options for " + options.apiClassname() + " differ from those on " + first.getQualifiedName(), element);
+                return;
+            }
+        }
+
+        HollowElementSchemaMapper schemaMapper = new HollowElementSchemaMapper(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+        try {
+            for(TypeElement element : elements)
+                schemaMapper.addType(element);
+        } catch(HollowElementSchemaException e) {
+            error(e.getMessage(), e.getElement());
+            return;
+        }
+
+        FilerHollowAPIGenerator.Builder builder = new FilerHollowAPIGenerator.Builder(processingEnv.getFiler(), elements.toArray(new Element[0]))
+                .withAPIClassname(options.apiClassname())
+                .withPackageName(packageName(first))
+                .withDataModel(schemaMapper.getDataset())
+                .withClassPostfix(options.classPostfix())
+                .withGetterPrefix(options.getterPrefix())
+                .withParameterizeAllClassNames(options.parameterizeAllClassNames())
+                .withAggressiveSubstitutions(options.aggressiveSubstitutions())
+                .withBooleanFieldErgonomics(options.booleanFieldErgonomics())
+                .reservePrimaryKeyIndexForTypeWithPrimaryKey(options.reservePrimaryKeyIndexForTypeWithPrimaryKey())
+                .withHollowPrimitiveTypes(options.hollowPrimitiveTypes())
+                .withVerboseToString(options.verboseToString());
+        if(options.ergonomicShortcuts())
+            builder.withErgonomicShortcuts();
+        if(options.packageGrouping())
+            builder.withPackageGrouping();
+        if(options.restrictApiToFieldType())
+            builder.withRestrictApiToFieldType();
+        if(options.directAccess())
+            builder.withDirectAccess();
+
+        try {
+            builder.build().generateSourceFiles();
+        } catch(IOException | IllegalStateException e) {
+            error("Unable to generate " + options.apiClassname() + ": " + e.getMessage(), first);
+        }
+    }
+
+    private String qualifiedAPIClassname(TypeElement element) {
+        String packageName = packageName(element);
+        String apiClassname = element.getAnnotation(GenerateHollowAPI.class).apiClassname();
+        return packageName.isEmpty() ? apiClassname : packageName + "." + apiClassname;
+    }
+
+    private String packageName(TypeElement element) {
+        String packageName = element.getAnnotation(GenerateHollowAPI.class).packageName();
+        if(!packageName.isEmpty())
+            return packageName;
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    private static boolean sameOptions(GenerateHollowAPI a, GenerateHollowAPI b) {
+        return Objects.equals(a.classPostfix(), b.classPostfix())
+                && Objects.equals(a.getterPrefix(), b.getterPrefix())
+                && a.parameterizeAllClassNames() == b.parameterizeAllClassNames()
+                && a.aggressiveSubstitutions() == b.aggressiveSubstitutions()
+                && a.ergonomicShortcuts() == b.ergonomicShortcuts()
+                && a.packageGrouping() == b.packageGrouping()
+                && a.booleanFieldErgonomics() == b.booleanFieldErgonomics()
+                && a.reservePrimaryKeyIndexForTypeWithPrimaryKey() == b.reservePrimaryKeyIndexForTypeWithPrimaryKey()
+                && a.restrictApiToFieldType() == b.restrictApiToFieldType()
+                && a.hollowPrimitiveTypes() == b.hollowPrimitiveTypes()
+                && a.verboseToString() == b.verboseToString()
+                && a.directAccess() == b.directAccess();
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
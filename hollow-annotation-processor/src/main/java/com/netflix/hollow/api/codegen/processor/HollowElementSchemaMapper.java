@@ -0,0 +1,337 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen.processor;
+
+import com.netflix.hollow.core.schema.HollowListSchema;
+import com.netflix.hollow.core.schema.HollowMapSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSetSchema;
+import com.netflix.hollow.core.write.HollowListTypeWriteState;
+import com.netflix.hollow.core.write.HollowMapTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowSetTypeWriteState;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowHashKey;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.core.write.objectmapper.HollowTransient;
+import com.netflix.hollow.core.write.objectmapper.HollowTypeName;
+import com.netflix.hollow.core.write.objectmapper.NullablePrimitiveBoolean;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Derives the schemas of a data model from the elements of POJO classes, following the rules with which a
+ * {@link com.netflix.hollow.core.write.objectmapper.HollowObjectMapper} derives them from the loaded classes.
+ * Not intended for external consumption.
+ */
+class HollowElementSchemaMapper {
+
+    private static final Map<String, FieldType> BOXED_WRAPPERS = new HashMap<>();
+    static {
+        BOXED_WRAPPERS.put(Boolean.class.getName(), FieldType.BOOLEAN);
+        BOXED_WRAPPERS.put(Integer.class.getName(), FieldType.INT);
+        BOXED_WRAPPERS.put(Short.class.getName(), FieldType.INT);
+        BOXED_WRAPPERS.put(Byte.class.getName(), FieldType.INT);
+        BOXED_WRAPPERS.put(Character.class.getName(), FieldType.INT);
+        BOXED_WRAPPERS.put(Long.class.getName(), FieldType.LONG);
+        BOXED_WRAPPERS.put(Float.class.getName(), FieldType.FLOAT);
+        BOXED_WRAPPERS.put(Double.class.getName(), FieldType.DOUBLE);
+        BOXED_WRAPPERS.put(String.class.getName(), FieldType.STRING);
+    }
+
+    private final Types types;
+    private final TypeMirror listType;
+    private final TypeMirror setType;
+    private final TypeMirror mapType;
+    private final HollowWriteStateEngine dataset;
+    private final Set<String> typesInProgress;
+
+    HollowElementSchemaMapper(Elements elements, Types types) {
+        this.types = types;
+        this.listType = types.erasure(elements.getTypeElement(List.class.getName()).asType());
+        this.setType = types.erasure(elements.getTypeElement(Set.class.getName()).asType());
+        this.mapType = types.erasure(elements.getTypeElement(Map.class.getName()).asType());
+        this.dataset = new HollowWriteStateEngine();
+        this.typesInProgress = new HashSet<>();
+    }
+
+    /**
+     * Add the schema of a POJO class, and the schemas of the types it references, to the data model.
+     *
+     * @param element the POJO class
+     * @throws HollowElementSchemaException if a schema cannot be derived
+     */
+    void addType(TypeElement element) {
+        mapType(element.asType(), null, null, element);
+    }
+
+    /**
+     * @return the data model
+     */
+    HollowWriteStateEngine getDataset() {
+        return dataset;
+    }
+
+    private String mapType(TypeMirror type, String declaredName, String[] hashKeyFieldPaths, Element source) {
+        if(type.getKind() != TypeKind.DECLARED)
+            throw new HollowElementSchemaException("Unable to map type " + type + "; only classes and parameterized collections are supported", source);
+
+        String typeName = declaredName != null ? declaredName : defaultTypeName(type, source);
+        if(dataset.getTypeState(typeName) != null)
+            return typeName;
+        if(!typesInProgress.add(typeName))
+            throw new HollowElementSchemaException("circular reference detected on type " + typeName + "; this type of relationship is not supported", source);
+
+        HollowSchema schema;
+        DeclaredType declaredType = (DeclaredType) type;
+        if(isCollection(declaredType, listType)) {
+            String elementType = mapType(typeArgument(declaredType, 0, source), null, null, source);
+            schema = new HollowListSchema(typeName, elementType);
+        } else if(isCollection(declaredType, setType)) {
+            String elementType = mapType(typeArgument(declaredType, 0, source), null, null, source);
+            if(hashKeyFieldPaths == null)
+                hashKeyFieldPaths = defaultElementHashKey(elementType);
+            schema = new HollowSetSchema(typeName, elementType, hashKeyFieldPaths);
+        } else if(isCollection(declaredType, mapType)) {
+            String keyType = mapType(typeArgument(declaredType, 0, source), null, null, source);
+            String valueType = mapType(typeArgument(declaredType, 1, source), null, null, source);
+            if(hashKeyFieldPaths == null)
+                hashKeyFieldPaths = defaultElementHashKey(keyType);
+            schema = new HollowMapSchema(typeName, keyType, valueType, hashKeyFieldPaths);
+        } else {
+            schema = objectSchema(typeName, (TypeElement) declaredType.asElement(), source);
+        }
+
+        typesInProgress.remove(typeName);
+        addTypeState(schema);
+        return typeName;
+    }
+
+    private HollowObjectSchema objectSchema(String typeName, TypeElement element, Element source) {
+        String className = element.getQualifiedName().toString();
+
+        List<String> fieldNames = new ArrayList<>();
+        List<FieldType> fieldTypes = new ArrayList<>();
+        List<String> referencedTypes = new ArrayList<>();
+
+        if(BOXED_WRAPPERS.containsKey(className) || className.equals(Date.class.getName())) {
+            fieldNames.add("value");
+            fieldTypes.add(className.equals(Date.class.getName()) ? FieldType.LONG : BOXED_WRAPPERS.get(className));
+            referencedTypes.add(null);
+        } else if(className.startsWith("java.")) {
+            throw new HollowElementSchemaException("Unable to map " + className + "; only boxed primitives, String and Date are supported from the java packages", source);
+        } else {
+            TypeElement currentElement = element;
+            while(!isObjectOrEnum(currentElement)) {
+                if(currentElement.getKind() == ElementKind.INTERFACE)
+                    throw new HollowElementSchemaException("Unexpected interface " + currentElement.getSimpleName() + " passed as field.", source);
+
+                for(Element enclosed : currentElement.getEnclosedElements()) {
+                    if(enclosed.getKind() != ElementKind.FIELD)
+                        continue;
+                    Set<Modifier> modifiers = enclosed.getModifiers();
+                    if(modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+                            || "__assigned_ordinal".equals(enclosed.getSimpleName().toString())
+                            || enclosed.getAnnotation(HollowTransient.class) != null)
+                        continue;
+
+                    VariableElement field = (VariableElement) enclosed;
+                    String referencedType = null;
+                    FieldType fieldType = fieldType(field);
+                    if(fieldType == FieldType.REFERENCE) {
+                        HollowTypeName typeNameAnnotation = field.getAnnotation(HollowTypeName.class);
+                        HollowHashKey hashKeyAnnotation = field.getAnnotation(HollowHashKey.class);
+                        referencedType = mapType(field.asType(),
+                                typeNameAnnotation != null ? typeNameAnnotation.name() : null,
+                                hashKeyAnnotation != null ? hashKeyAnnotation.fields() : null,
+                                field);
+                    }
+                    fieldNames.add(field.getSimpleName().toString());
+                    fieldTypes.add(fieldType);
+                    referencedTypes.add(referencedType);
+                }
+
+                if(currentElement.getKind() == ElementKind.ENUM) {
+                    fieldNames.add("_name");
+                    fieldTypes.add(FieldType.STRING);
+                    referencedTypes.add(null);
+                }
+
+                currentElement = (TypeElement) types.asElement(currentElement.getSuperclass());
+            }
+        }
+
+        HollowPrimaryKey primaryKey = element.getAnnotation(HollowPrimaryKey.class);
+        HollowObjectSchema schema = new HollowObjectSchema(typeName, fieldNames.size(), primaryKey == null ? null : primaryKey.fields());
+        for(int i=0;i<fieldNames.size();i++) {
+            if(fieldTypes.get(i) == FieldType.REFERENCE)
+                schema.addField(fieldNames.get(i), FieldType.REFERENCE, referencedTypes.get(i));
+            else
+                schema.addField(fieldNames.get(i), fieldTypes.get(i));
+        }
+        return schema;
+    }
+
+    private FieldType fieldType(VariableElement field) {
+        TypeMirror type = field.asType();
+        switch(type.getKind()) {
+            case INT:
+            case SHORT:
+            case BYTE:
+            case CHAR:
+                return FieldType.INT;
+            case LONG:
+                return FieldType.LONG;
+            case BOOLEAN:
+                return FieldType.BOOLEAN;
+            case FLOAT:
+                return FieldType.FLOAT;
+            case DOUBLE:
+                return FieldType.DOUBLE;
+            case ARRAY:
+                TypeKind componentKind = ((ArrayType) type).getComponentType().getKind();
+                if(componentKind == TypeKind.BYTE)
+                    return FieldType.BYTES;
+                if(componentKind == TypeKind.CHAR)
+                    return FieldType.STRING;
+                throw new HollowElementSchemaException("Unexpected array " + type + " passed as field. Consider using collections or marking as transient.", field);
+            default:
+                break;
+        }
+
+        String className = type.getKind() == TypeKind.DECLARED
+                ? ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString() : null;
+        if(field.getAnnotation(HollowInline.class) != null) {
+            FieldType inlinedType = BOXED_WRAPPERS.get(className);
+            if(inlinedType == null)
+                throw new HollowElementSchemaException("@HollowInline annotation defined on field " + field.getSimpleName() + ", which is not either a String or boxed primitive.", field);
+            return inlinedType;
+        }
+        if(NullablePrimitiveBoolean.class.getName().equals(className))
+            return FieldType.BOOLEAN;
+        return FieldType.REFERENCE;
+    }
+
+    private String defaultTypeName(TypeMirror type, Element source) {
+        if(type.getKind() != TypeKind.DECLARED)
+            throw new HollowElementSchemaException("Unable to map type " + type + "; only classes and parameterized collections are supported", source);
+
+        DeclaredType declaredType = (DeclaredType) type;
+        if(declaredType.getTypeArguments().isEmpty()) {
+            HollowTypeName explicitTypeName = declaredType.asElement().getAnnotation(HollowTypeName.class);
+            if(explicitTypeName != null)
+                return explicitTypeName.name();
+            return declaredType.asElement().getSimpleName().toString();
+        }
+
+        if(isCollection(declaredType, listType))
+            return "ListOf" + defaultTypeName(typeArgument(declaredType, 0, source), source);
+        if(isCollection(declaredType, setType))
+            return "SetOf" + defaultTypeName(typeArgument(declaredType, 0, source), source);
+        if(isCollection(declaredType, mapType))
+            return "MapOf" + defaultTypeName(typeArgument(declaredType, 0, source), source)
+                    + "To" + defaultTypeName(typeArgument(declaredType, 1, source), source);
+
+        return declaredType.asElement().getSimpleName().toString();
+    }
+
+    private boolean isCollection(DeclaredType type, TypeMirror collectionType) {
+        return types.isAssignable(types.erasure(type), collectionType);
+    }
+
+    private TypeMirror typeArgument(DeclaredType type, int index, Element source) {
+        List<? extends TypeMirror> typeArguments = type.getTypeArguments();
+        if(typeArguments.size() <= index)
+            throw new HollowElementSchemaException("Unable to map raw collection type " + type + "; collections must be parameterized", source);
+        return typeArguments.get(index);
+    }
+
+    private boolean isObjectOrEnum(TypeElement element) {
+        String className = element.getQualifiedName().toString();
+        return className.equals(Object.class.getName()) || className.equals(Enum.class.getName());
+    }
+
+    /**
+     * @return the hash key with which a set or map of an element type is hashed, if none is declared
+     */
+    private String[] defaultElementHashKey(String elementType) {
+        HollowSchema schema = dataset.getSchema(elementType);
+        if(!(schema instanceof HollowObjectSchema))
+            return null;
+
+        HollowObjectSchema objectSchema = (HollowObjectSchema) schema;
+        if(objectSchema.getPrimaryKey() != null)
+            return objectSchema.getPrimaryKey().getFieldPaths();
+        if(objectSchema.numFields() == 1 && objectSchema.getFieldType(0) != FieldType.REFERENCE)
+            return new String[] { objectSchema.getFieldName(0) };
+        return null;
+    }
+
+    private void addTypeState(HollowSchema schema) {
+        switch(schema.getSchemaType()) {
+            case OBJECT:
+                dataset.addTypeState(new HollowObjectTypeWriteState((HollowObjectSchema) schema));
+                break;
+            case LIST:
+                dataset.addTypeState(new HollowListTypeWriteState((HollowListSchema) schema));
+                break;
+            case SET:
+                dataset.addTypeState(new HollowSetTypeWriteState((HollowSetSchema) schema));
+                break;
+            case MAP:
+                dataset.addTypeState(new HollowMapTypeWriteState((HollowMapSchema) schema));
+                break;
+        }
+    }
+
+    /**
+     * Thrown when the schema of a type cannot be derived; identifies the element at which it cannot.
+     */
+    static class HollowElementSchemaException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        HollowElementSchemaException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+
+        Element getElement() {
+            return element;
+        }
+    }
+}
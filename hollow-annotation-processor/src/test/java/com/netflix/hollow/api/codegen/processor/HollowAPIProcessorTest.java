@@ -0,0 +1,256 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen.processor;
+
+import com.netflix.hollow.api.codegen.HollowAPIGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowAPIProcessorTest {
+    private static final String ANNOTATION = "@GenerateHollowAPI(apiClassname=\"MovieAPI\", packageName=\"procgen.api\", "
+            + "ergonomicShortcuts=true, packageGrouping=true, reservePrimaryKeyIndexForTypeWithPrimaryKey=true)";
+
+    private static final String MOVIE_SOURCE = String.join("\n",
+            "package procgen;",
+            "",
+            "import com.netflix.hollow.api.codegen.processor.GenerateHollowAPI;",
+            "import com.netflix.hollow.core.write.objectmapper.*;",
+            "import java.util.*;",
+            "",
+            ANNOTATION,
+            "@HollowPrimaryKey(fields=\"id\")",
+            "public class Movie {",
+            "    static int ignoredStatic;",
+            "    int id;",
+            "    String title;",
+            "    short s; byte b; char c; long l; boolean flag; float f; double d;",
+            "    byte[] bytes; char[] chars;",
+            "    Integer boxedInt; Long boxedLong; Date released;",
+            "    @HollowInline Integer inlinedInt; @HollowInline String inlinedString;",
+            "    NullablePrimitiveBoolean nullableBoolean;",
+            "    Rating rating;",
+            "    @HollowTypeName(name=\"Director\") Actor director;",
+            "    List<Actor> cast;",
+            "    Set<String> tags;",
+            "    @HollowHashKey(fields=\"name\") Set<Actor> leads;",
+            "    Map<String, List<Actor>> roles;",
+            "    transient int ignored;",
+            "    @HollowTransient int alsoIgnored;",
+            "}",
+            "");
+
+    private static final String ACTOR_SOURCE = String.join("\n",
+            "package procgen;",
+            "",
+            "import com.netflix.hollow.api.codegen.processor.GenerateHollowAPI;",
+            "",
+            ANNOTATION,
+            "public class Actor extends Person {",
+            "    int age;",
+            "}",
+            "",
+            "class Person {",
+            "    String name;",
+            "}",
+            "",
+            "enum Rating {",
+            "    G, PG, R;",
+            "    int minimumAge;",
+            "}",
+            "");
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("procgen").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void generatesTheSameAPIAsTheGenerator() throws Exception {
+        File generatedDir = new File(dir, "generated");
+        File classDir = new File(dir, "classes");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Assert.assertTrue(errors(diagnostics), compile(generatedDir, classDir, diagnostics,
+                source("Movie.java", MOVIE_SOURCE), source("Actor.java", ACTOR_SOURCE)));
+
+        File expectedDir = new File(dir, "expected");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classDir.toURI().toURL() }, getClass().getClassLoader())) {
+            new HollowAPIGenerator.Builder()
+                    .withAPIClassname("MovieAPI")
+                    .withPackageName("procgen.api")
+                    .withDataModel(loader.loadClass("procgen.Movie"), loader.loadClass("procgen.Actor"))
+                    .withErgonomicShortcuts()
+                    .withPackageGrouping()
+                    .reservePrimaryKeyIndexForTypeWithPrimaryKey(true)
+                    .withDirectAccess()
+                    .withDestination(expectedDir.toPath())
+                    .build()
+                    .generateSourceFiles();
+
+            // the generated API was compiled along with the model
+            Assert.assertNotNull(loader.loadClass("procgen.api.MovieAPI"));
+            Assert.assertNotNull(loader.loadClass("procgen.api.core.MovieTypeAPI"));
+            Assert.assertNotNull(loader.loadClass("procgen.api.index.MovieAPIHashIndex"));
+        }
+
+        Map<String, String> expected = sources(expectedDir);
+        Map<String, String> generated = sources(generatedDir);
+        Assert.assertTrue(expected.containsKey("procgen/api/Director.java"));
+        Assert.assertTrue(expected.containsKey("procgen/api/collections/SetOfActor.java"));
+        Assert.assertTrue(expected.containsKey("procgen/api/index/MovieUniqueKeyIndex.java"));
+        Assert.assertEquals(expected.keySet(), generated.keySet());
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getKey(), entry.getValue(), generated.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void generatesDirectAccessorsByDefault() throws Exception {
+        File generatedDir = new File(dir, "generated");
+        File classDir = new File(dir, "classes");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Assert.assertTrue(errors(diagnostics), compile(generatedDir, classDir, diagnostics,
+                source("Movie.java", MOVIE_SOURCE), source("Actor.java", ACTOR_SOURCE)));
+
+        String movieTypeAPI = sources(generatedDir).get("procgen/api/core/MovieTypeAPI.java");
+        Assert.assertTrue(movieTypeAPI.contains("import com.netflix.hollow.core.read.engine.object.HollowObjectFieldReader;"));
+        Assert.assertTrue(movieTypeAPI.contains("public final int getId(int ordinal) {"));
+        Assert.assertTrue(movieTypeAPI.contains("public final String getInlinedString(int ordinal) {"));
+        Assert.assertTrue(movieTypeAPI.contains("return fieldReader0.readInt(ordinal);"));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classDir.toURI().toURL() }, getClass().getClassLoader())) {
+            Method getId = loader.loadClass("procgen.api.core.MovieTypeAPI").getMethod("getId", int.class);
+            Assert.assertTrue(Modifier.isFinal(getId.getModifiers()));
+        }
+    }
+
+    @Test
+    public void generatesDelegatingAccessorsWithoutDirectAccess() throws Exception {
+        String source = "package procgen; @com.netflix.hollow.api.codegen.processor.GenerateHollowAPI(apiClassname=\"API\", packageName=\"procgen.api\", directAccess=false) public class A { int id; }";
+
+        File generatedDir = new File(dir, "generated");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Assert.assertTrue(errors(diagnostics), compile(generatedDir, new File(dir, "classes"), diagnostics, source("A.java", source)));
+
+        String typeAPI = sources(generatedDir).get("procgen/api/ATypeAPI.java");
+        Assert.assertTrue(typeAPI.contains("public int getId(int ordinal) {"));
+        Assert.assertFalse(typeAPI.contains("HollowObjectFieldReader"));
+    }
+
+    @Test
+    public void reportsCircularReferences() throws Exception {
+        String source = String.join("\n",
+                "package procgen;",
+                "",
+                "@com.netflix.hollow.api.codegen.processor.GenerateHollowAPI(apiClassname=\"NodeAPI\")",
+                "public class Node {",
+                "    Node next;",
+                "}",
+                "");
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Assert.assertFalse(compile(new File(dir, "generated"), new File(dir, "classes"), diagnostics, source("Node.java", source)));
+        Assert.assertTrue(errors(diagnostics), errors(diagnostics).contains("circular reference"));
+    }
+
+    @Test
+    public void reportsConflictingOptions() throws Exception {
+        String a = "package procgen; @com.netflix.hollow.api.codegen.processor.GenerateHollowAPI(apiClassname=\"API\") public class A { int id; }";
+        String b = "package procgen; @com.netflix.hollow.api.codegen.processor.GenerateHollowAPI(apiClassname=\"API\", classPostfix=\"Hollow\") public class B { int id; }";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Assert.assertFalse(compile(new File(dir, "generated"), new File(dir, "classes"), diagnostics, source("A.java", a), source("B.java", b)));
+        Assert.assertTrue(errors(diagnostics), errors(diagnostics).contains("options for API differ"));
+    }
+
+    private File source(String fileName, String source) throws IOException {
+        File packageDir = new File(dir, "src/procgen");
+        packageDir.mkdirs();
+        File file = new File(packageDir, fileName);
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static boolean compile(File generatedDir, File classDir, DiagnosticCollector<JavaFileObject> diagnostics, File... sources) throws IOException {
+        generatedDir.mkdirs();
+        classDir.mkdirs();
+        List<String> options = new ArrayList<>(Arrays.asList(
+                "-classpath", System.getProperty("java.class.path"),
+                "-s", generatedDir.getAbsolutePath(),
+                "-d", classDir.getAbsolutePath()));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(sources));
+            task.setProcessors(Collections.singletonList(new HollowAPIProcessor()));
+            return task.call();
+        }
+    }
+
+    private static String errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(null))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static Map<String, String> sources(File root) throws IOException {
+        Map<String, String> sources = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root.toPath())) {
+            for (Path path : paths.filter(p -> p.toString().endsWith(".java")).collect(Collectors.toList())) {
+                String relativePath = root.toPath().relativize(path).toString().replace(File.separatorChar, '/');
+                sources.put(relativePath, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            }
+        }
+        return sources;
+    }
+}
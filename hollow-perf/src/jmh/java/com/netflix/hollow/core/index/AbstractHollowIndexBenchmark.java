@@ -87,6 +87,10 @@ public abstract class AbstractHollowIndexBenchmark<T> {
         return indexes[random.nextInt(indexes.length)];
     }
 
+    protected int nextKey() {
+        return getKey(random.nextInt(size));
+    }
+
     protected Object[] nextKeys() {
         int key = getKey(random.nextInt(size));
         Integer[] keys = new Integer[querySize];
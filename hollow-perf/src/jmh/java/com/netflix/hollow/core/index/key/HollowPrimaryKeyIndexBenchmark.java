@@ -3,6 +3,8 @@ package com.netflix.hollow.core.index.key;
 import com.netflix.hollow.core.index.AbstractHollowIndexBenchmark;
 import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -32,6 +34,48 @@ public class HollowPrimaryKeyIndexBenchmark {
         public int getMatchingOrdinalMissing() {
             return nextIndex().getMatchingOrdinal(missingKeys());
         }
+
+        @Benchmark
+        public int getMatchingOrdinalUnboxed() {
+            return nextIndex().getMatchingOrdinal(nextKey());
+        }
+
+        @Benchmark
+        public int getMatchingOrdinalUnboxedMissing() {
+            return nextIndex().getMatchingOrdinal(-1);
+        }
+    }
+
+    public static class BatchHollowPrimaryKeyIndexBenchmark extends AbstractHollowPrimaryKeyIndexBenchmark {
+        @Param( {"1000"})
+        public int batchSize;
+
+        private long[] keys;
+        private int[] ordinals;
+
+        @Setup
+        public void setupKeys() {
+            keys = new long[batchSize];
+            ordinals = new int[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                keys[i] = nextKey();
+            }
+        }
+
+        @Benchmark
+        public int[] getMatchingOrdinalEach() {
+            HollowPrimaryKeyIndex index = nextIndex();
+            for (int i = 0; i < keys.length; i++) {
+                ordinals[i] = index.getMatchingOrdinal(keys[i]);
+            }
+            return ordinals;
+        }
+
+        @Benchmark
+        public int[] getMatchingOrdinals() {
+            nextIndex().getMatchingOrdinals(keys, ordinals);
+            return ordinals;
+        }
     }
 
     public static class AbstractHollowPrimaryKeyIndexBenchmark
@@ -37,6 +37,8 @@ public class HashCodesBenchmark {
     long longKey;
     String stringKey;
     String multibyteStringKey;
+    StringBuilder charSequenceKey;
+    StringBuilder multibyteCharSequenceKey;
 
     @Setup
     public void setup() {
@@ -48,6 +50,8 @@ public class HashCodesBenchmark {
         }
         stringKey = new String(charData);
         multibyteStringKey = new String(multibyteCharData);
+        charSequenceKey = new StringBuilder(stringKey);
+        multibyteCharSequenceKey = new StringBuilder(multibyteStringKey);
     }
 
     @Benchmark
@@ -70,6 +74,16 @@ public class HashCodesBenchmark {
         return HashCodes.hashCode(multibyteStringKey);
     }
 
+    @Benchmark
+    public int hashCharSequence() {
+        return HashCodes.hashCode(charSequenceKey);
+    }
+
+    @Benchmark
+    public int hashCharSequenceMultibyte() {
+        return HashCodes.hashCode(multibyteCharSequenceKey);
+    }
+
     @Benchmark
     public int hashBytes() {
         return HashCodes.hashCode(charData);
@@ -0,0 +1,99 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading two fields of every record through a generic object, through the type state, and with
+ * field readers, as the getters of an API generated with direct access do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HollowObjectFieldReaderBenchmark {
+    HollowReadStateEngine readStateEngine;
+    HollowObjectTypeReadState typeState;
+    HollowObjectFieldReader idReader;
+    HollowObjectFieldReader valueReader;
+    int maxOrdinal;
+
+    @Param({ "100000" })
+    int countRecords;
+
+    @Param({ "1", "4" })
+    int numShards;
+
+    @Setup
+    public void setUp() throws IOException {
+        HollowWriteStateEngine writeStateEngine = new HollowWriteStateEngine();
+        HollowObjectMapper objectMapper = new HollowObjectMapper(writeStateEngine);
+        for (int i = 0; i < countRecords; i++) {
+            objectMapper.add(new Record(i, i * 31L));
+        }
+
+        readStateEngine = new HollowReadStateEngine();
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine, null);
+        typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("Record");
+        typeState.reshard(numShards);
+        idReader = typeState.createFieldReader("id");
+        valueReader = typeState.createFieldReader("value");
+        maxOrdinal = typeState.maxOrdinal();
+    }
+
+    @Benchmark
+    public long genericObject() {
+        long sum = 0;
+        for (int ordinal = 0; ordinal <= maxOrdinal; ordinal++) {
+            GenericHollowObject record = new GenericHollowObject(readStateEngine, "Record", ordinal);
+            sum += record.getInt("id") + record.getLong("value");
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long typeState() {
+        long sum = 0;
+        for (int ordinal = 0; ordinal <= maxOrdinal; ordinal++) {
+            sum += typeState.readInt(ordinal, 0) + typeState.readLong(ordinal, 1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long fieldReader() {
+        long sum = 0;
+        for (int ordinal = 0; ordinal <= maxOrdinal; ordinal++) {
+            sum += idReader.readInt(ordinal) + valueReader.readLong(ordinal);
+        }
+        return sum;
+    }
+
+    static class Record {
+        int id;
+        long value;
+
+        Record(int id, long value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
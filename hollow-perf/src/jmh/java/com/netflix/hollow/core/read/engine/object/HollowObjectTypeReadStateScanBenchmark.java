@@ -0,0 +1,89 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading one field of every populated record with per-ordinal reads and with column scans.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HollowObjectTypeReadStateScanBenchmark {
+    HollowObjectTypeReadState typeState;
+    BitSet populatedOrdinals;
+    long[] values;
+
+    @Param({ "100000" })
+    int countRecords;
+
+    @Setup
+    public void setUp() throws IOException {
+        HollowWriteStateEngine writeStateEngine = new HollowWriteStateEngine();
+        HollowObjectMapper objectMapper = new HollowObjectMapper(writeStateEngine);
+        for (int i = 0; i < countRecords; i++) {
+            objectMapper.add(new Record(i, i * 31L));
+        }
+
+        HollowReadStateEngine readStateEngine = new HollowReadStateEngine();
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine, null);
+        typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("Record");
+        populatedOrdinals = typeState.getPopulatedOrdinals();
+        values = new long[typeState.maxOrdinal() + 1];
+    }
+
+    @Benchmark
+    public long sumReadLong() {
+        long sum = 0;
+        for (int ordinal = populatedOrdinals.nextSetBit(0); ordinal != -1; ordinal = populatedOrdinals.nextSetBit(ordinal + 1)) {
+            sum += typeState.readLong(ordinal, 1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumReadLongs() {
+        typeState.readLongs(1, 0, values.length, values);
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumScanLongs() {
+        long[] sum = new long[1];
+        typeState.scanLongs(1, populatedOrdinals, (ordinal, value) -> sum[0] += value);
+        return sum[0];
+    }
+
+    static class Record {
+        int id;
+        long value;
+
+        Record(int id, long value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.filter.TypeFilter;
 import com.netflix.hollow.core.schema.HollowSchemaHash;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -60,8 +61,11 @@ public class HollowClientUpdater {
     private final HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
 
     private boolean skipTypeShardUpdateWithNoAdditions;
+    private File sharedMemoryStagingDirectory;
+    private int snapshotLoadParallelism = 1;
+    private int deltaApplyParallelism = 1;
 
-    private TypeFilter filter;
+    private volatile TypeFilter filter;
 
     public HollowClientUpdater(HollowConsumer.BlobRetriever transitionCreator,
                                List<HollowConsumer.RefreshListener> refreshListeners,
@@ -97,6 +101,21 @@ public class HollowClientUpdater {
             dataHolder.getStateEngine().setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions);
     }
 
+    public void setSharedMemoryStagingDirectory(File sharedMemoryStagingDirectory) {
+        this.sharedMemoryStagingDirectory = sharedMemoryStagingDirectory;
+        HollowDataHolder dataHolder = hollowDataHolderVolatile;
+        if(dataHolder != null)
+            dataHolder.getStateEngine().setSharedMemoryStagingDirectory(sharedMemoryStagingDirectory);
+    }
+
+    public void setSnapshotLoadParallelism(int snapshotLoadParallelism) {
+        this.snapshotLoadParallelism = snapshotLoadParallelism;
+    }
+
+    public void setDeltaApplyParallelism(int deltaApplyParallelism) {
+        this.deltaApplyParallelism = deltaApplyParallelism;
+    }
+
     /**
      * Updates the client's state to the requested version, or to the version closest to but less than the requested version.
      *
@@ -300,7 +319,10 @@ public class HollowClientUpdater {
                 doubleSnapshotConfig, failedTransitionTracker,
                 staleReferenceDetector, objectLongevityConfig)
                 .setFilter(filter)
-                .setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions);
+                .setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions)
+                .setSharedMemoryStagingDirectory(sharedMemoryStagingDirectory)
+                .setSnapshotLoadParallelism(snapshotLoadParallelism)
+                .setDeltaApplyParallelism(deltaApplyParallelism);
     }
 
     private HollowReadStateEngine newStateEngine() {
@@ -31,6 +31,7 @@ import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.filter.TypeFilter;
 import com.netflix.hollow.tools.history.HollowHistoricalStateCreator;
 import com.netflix.hollow.tools.history.HollowHistoricalStateDataAccess;
+import java.io.File;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.logging.Logger;
@@ -105,6 +106,21 @@ class HollowDataHolder {
         return this;
     }
 
+    HollowDataHolder setSharedMemoryStagingDirectory(File sharedMemoryStagingDirectory) {
+        this.stateEngine.setSharedMemoryStagingDirectory(sharedMemoryStagingDirectory);
+        return this;
+    }
+
+    HollowDataHolder setSnapshotLoadParallelism(int snapshotLoadParallelism) {
+        this.reader.setSnapshotLoadParallelism(snapshotLoadParallelism);
+        return this;
+    }
+
+    HollowDataHolder setDeltaApplyParallelism(int deltaApplyParallelism) {
+        this.reader.setDeltaApplyParallelism(deltaApplyParallelism);
+        return this;
+    }
+
     void update(HollowUpdatePlan updatePlan, HollowConsumer.RefreshListener[] refreshListeners,
             Runnable apiInitCallback) throws Throwable {
         // Only fail if double snapshot is configured.
@@ -206,11 +222,6 @@ class HollowDataHolder {
     }
 
     private void applyDeltaTransition(HollowConsumer.Blob blob, boolean isSnapshotPlan, HollowConsumer.RefreshListener[] refreshListeners) throws Throwable {
-        if (!memoryMode.equals(MemoryMode.ON_HEAP)) {
-            LOG.warning("Skipping delta transition in shared-memory mode");
-            return;
-        }
-
         try (HollowBlobInput in = HollowBlobInput.modeBasedSelector(memoryMode, blob);
              OptionalBlobPartInput optionalPartIn = blob.getOptionalBlobPartInputs()) {
             applyStateEngineTransition(in, optionalPartIn, blob, refreshListeners);
@@ -132,6 +132,18 @@ public abstract class AbstractHollowAPIGeneratorBuilder<B extends AbstractHollow
         return getBuilder();
     }
 
+    /**
+     * Generate type APIs whose field getters read fixed length values directly from the shards of the type state,
+     * with a {@link com.netflix.hollow.core.read.engine.object.HollowObjectFieldReader} for each field, rather than
+     * through the type's data access.  Reads of these fields are not recorded by the field access samplers.
+     *
+     * @return this builder
+     */
+    public B withDirectAccess() {
+        config.setUseDirectAccess(true);
+        return getBuilder();
+    }
+
     public B withDestination(String destinationPath) {
         return withDestination(Paths.get(destinationPath));
     }
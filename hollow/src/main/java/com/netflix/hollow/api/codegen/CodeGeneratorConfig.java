@@ -27,6 +27,7 @@ public class CodeGeneratorConfig {
     private boolean useHollowPrimitiveTypes = false;
     private boolean restrictApiToFieldType = false;
     private boolean useVerboseToString = false;
+    private boolean useDirectAccess = false;
 
     public CodeGeneratorConfig() {}
 
@@ -121,6 +122,14 @@ public class CodeGeneratorConfig {
         this.useVerboseToString = useVerboseToString;
     }
 
+    public boolean isUseDirectAccess() {
+        return useDirectAccess;
+    }
+
+    public void setUseDirectAccess(boolean useDirectAccess) {
+        this.useDirectAccess = useDirectAccess;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -134,6 +143,7 @@ public class CodeGeneratorConfig {
         result = prime * result + (useHollowPrimitiveTypes ? 1231 : 1237);
         result = prime * result + (usePackageGrouping ? 1231 : 1237);
         result = prime * result + (useVerboseToString ? 1231 : 1237);
+        result = prime * result + (useDirectAccess ? 1231 : 1237);
         return result;
     }
 
@@ -170,6 +180,8 @@ public class CodeGeneratorConfig {
             return false;
         if (useVerboseToString != other.useVerboseToString)
             return false;
+        if (useDirectAccess != other.useDirectAccess)
+            return false;
         return true;
     }
 
@@ -194,6 +206,8 @@ public class CodeGeneratorConfig {
         builder.append(restrictApiToFieldType);
         builder.append(", useVerboseToString=");
         builder.append(useVerboseToString);
+        builder.append(", useDirectAccess=");
+        builder.append(useDirectAccess);
         builder.append("]");
         return builder.toString();
     }
@@ -420,7 +420,6 @@ public class HollowAPIGenerator {
                 directory = new File(directory, packageDir);
             }
         }
-        directory.mkdirs();
 
         HollowAPIClassJavaGenerator apiClassGenerator = new HollowAPIClassJavaGenerator(packageName, apiClassname,
                 dataset, parameterizeClassNames, config);
@@ -0,0 +1,240 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen;
+
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.uppercase;
+
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectRecordWriter;
+import com.netflix.hollow.core.write.objectmapper.HollowTransient;
+import com.netflix.hollow.core.write.objectmapper.NullablePrimitiveBoolean;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class contains template logic for generating a {@link HollowObjectRecordWriter} for a POJO class.  Not intended
+ * for external consumption.
+ * <p>
+ * The generated writer copies the fields which a {@link com.netflix.hollow.core.write.objectmapper.HollowObjectMapper}
+ * maps for the class, in the same order.  Each field is read directly if it is accessible from the package of the
+ * class, or otherwise with its getter.
+ *
+ * @see HollowObjectRecordWriterGenerator
+ */
+public class HollowObjectRecordWriterClassGenerator implements HollowJavaFileGenerator {
+    private final Class<?> clazz;
+    private final String packageName;
+    private final String className;
+
+    public HollowObjectRecordWriterClassGenerator(Class<?> clazz) {
+        if(!isPOJOClass(clazz))
+            throw new IllegalArgumentException("A writer can only be generated for a POJO class; class=" + clazz.getName());
+        if(Modifier.isPrivate(clazz.getModifiers()) || clazz.isLocalClass() || clazz.isAnonymousClass())
+            throw new IllegalArgumentException("A writer cannot be generated for a class which is not accessible from its package; class=" + clazz.getName());
+
+        String writerClassName = HollowObjectRecordWriter.writerClassName(clazz);
+        int lastDot = writerClassName.lastIndexOf('.');
+        this.clazz = clazz;
+        this.packageName = lastDot == -1 ? null : writerClassName.substring(0, lastDot);
+        this.className = writerClassName.substring(lastDot + 1);
+    }
+
+    /**
+     * @return the name of the package of the generated writer, or null for the default package
+     */
+    public String getPackageName() {
+        return packageName;
+    }
+
+    @Override
+    public String getClassName() {
+        return className;
+    }
+
+    @Override
+    public String generate() {
+        List<Field> fields = mappedFields(clazz);
+        String pojoClassName = clazz.getCanonicalName();
+
+        StringBuilder builder = new StringBuilder();
+        if(packageName != null)
+            builder.append("package ").append(packageName).append(";\n\n");
+        builder.append("import ").append(HollowObjectWriteRecord.class.getName()).append(";\n");
+        builder.append("import ").append(HollowObjectRecordWriter.class.getName()).append(";\n\n");
+
+        builder.append("@SuppressWarnings(\"all\")\n");
+        builder.append("public class ").append(className).append(" implements HollowObjectRecordWriter<").append(pojoClassName).append("> {\n\n");
+
+        builder.append("    private static final String[] FIELD_NAMES = {");
+        for(int i=0;i<fields.size();i++) {
+            builder.append(i == 0 ? " " : ", ").append('"').append(fields.get(i).getName()).append('"');
+        }
+        builder.append(" };\n\n");
+
+        builder.append("    @Override\n");
+        builder.append("    public String[] getFieldNames() {\n");
+        builder.append("        return FIELD_NAMES.clone();\n");
+        builder.append("    }\n\n");
+
+        builder.append("    @Override\n");
+        builder.append("    public void write(").append(pojoClassName).append(" obj, HollowObjectWriteRecord rec, ReferenceWriter references) {\n");
+        for(int i=0;i<fields.size();i++) {
+            appendWriteField(builder, fields.get(i), i);
+        }
+        builder.append("    }\n");
+        builder.append("}");
+
+        return builder.toString();
+    }
+
+    private void appendWriteField(StringBuilder builder, Field field, int fieldIndex) {
+        Class<?> type = field.getType();
+        String value = accessor(field);
+        String local = "f" + fieldIndex;
+
+        if(type == int.class || type == short.class || type == byte.class || type == char.class) {
+            builder.append("        rec.setInt(").append(fieldIndex).append(", ").append(value).append(");\n");
+        } else if(type == long.class) {
+            builder.append("        rec.setLong(").append(fieldIndex).append(", ").append(value).append(");\n");
+        } else if(type == boolean.class) {
+            builder.append("        rec.setBoolean(").append(fieldIndex).append(", ").append(value).append(");\n");
+        } else if(type == float.class) {
+            builder.append("        float ").append(local).append(" = ").append(value).append(";\n");
+            builder.append("        if(!Float.isNaN(").append(local).append("))\n");
+            builder.append("            rec.setFloat(").append(fieldIndex).append(", ").append(local).append(");\n");
+        } else if(type == double.class) {
+            builder.append("        double ").append(local).append(" = ").append(value).append(";\n");
+            builder.append("        if(!Double.isNaN(").append(local).append("))\n");
+            builder.append("            rec.setDouble(").append(fieldIndex).append(", ").append(local).append(");\n");
+        } else if(type == byte[].class) {
+            builder.append("        rec.setBytes(").append(fieldIndex).append(", ").append(value).append(");\n");
+        } else if(type == char[].class) {
+            builder.append("        char[] ").append(local).append(" = ").append(value).append(";\n");
+            builder.append("        if(").append(local).append(" != null)\n");
+            builder.append("            rec.setString(").append(fieldIndex).append(", new String(").append(local).append("));\n");
+        } else if(field.isAnnotationPresent(HollowInline.class)) {
+            String setter = inlinedSetter(field);
+            builder.append("        ").append(type.getName()).append(" ").append(local).append(" = ").append(value).append(";\n");
+            builder.append("        if(").append(local).append(" != null)\n");
+            builder.append("            rec.").append(setter).append("(").append(fieldIndex).append(", ").append(local).append(");\n");
+        } else if(type == NullablePrimitiveBoolean.class) {
+            builder.append("        ").append(NullablePrimitiveBoolean.class.getName()).append(" ").append(local).append(" = ").append(value).append(";\n");
+            builder.append("        if(").append(local).append(" != null)\n");
+            builder.append("            rec.setBoolean(").append(fieldIndex).append(", ").append(local).append(".getBooleanValue());\n");
+        } else {
+            builder.append("        Object ").append(local).append(" = ").append(value).append(";\n");
+            builder.append("        if(").append(local).append(" != null)\n");
+            builder.append("            rec.setReference(").append(fieldIndex).append(", references.writeReference(").append(fieldIndex).append(", ").append(local).append("));\n");
+        }
+    }
+
+    private static String inlinedSetter(Field field) {
+        Class<?> type = field.getType();
+        if(type == Integer.class || type == Short.class || type == Byte.class || type == Character.class)
+            return "setInt";
+        if(type == Long.class)
+            return "setLong";
+        if(type == Boolean.class)
+            return "setBoolean";
+        if(type == Float.class)
+            return "setFloat";
+        if(type == Double.class)
+            return "setDouble";
+        if(type == String.class)
+            return "setString";
+        throw new IllegalArgumentException("@HollowInline annotation defined on field " + field + ", which is not either a String or boxed primitive.");
+    }
+
+    /**
+     * @return the expression with which the generated writer reads the value of a field of {@code obj}
+     */
+    private String accessor(Field field) {
+        if(isAccessible(field.getModifiers(), field.getDeclaringClass()))
+            return "obj." + field.getName();
+
+        Method getter = findGetter(field);
+        if(getter == null)
+            throw new IllegalArgumentException("Field " + field.getName() + " of " + clazz.getName()
+                    + " is not accessible from package " + packageName + " and has no accessible getter");
+        return "obj." + getter.getName() + "()";
+    }
+
+    private Method findGetter(Field field) {
+        List<String> names = new ArrayList<>();
+        names.add("get" + uppercase(field.getName()));
+        if(field.getType() == boolean.class)
+            names.add("is" + uppercase(field.getName()));
+
+        for(Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for(Method method : c.getDeclaredMethods()) {
+                if(names.contains(method.getName()) && method.getParameterCount() == 0
+                        && method.getReturnType() == field.getType()
+                        && !Modifier.isStatic(method.getModifiers())
+                        && isAccessible(method.getModifiers(), c))
+                    return method;
+            }
+        }
+        return null;
+    }
+
+    private boolean isAccessible(int modifiers, Class<?> declaringClass) {
+        if(Modifier.isPublic(modifiers))
+            return true;
+        return !Modifier.isPrivate(modifiers) && Objects.equals(packageName(declaringClass), packageName(clazz));
+    }
+
+    private static String packageName(Class<?> c) {
+        return c.getPackage() == null ? null : c.getPackage().getName();
+    }
+
+    /**
+     * @return the fields of a class which are mapped by a HollowObjectMapper, in the order of the fields of its schema
+     */
+    static List<Field> mappedFields(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        Set<String> fieldNames = new HashSet<>();
+        for(Class<?> currentClass = clazz; currentClass != Object.class; currentClass = currentClass.getSuperclass()) {
+            for(Field field : currentClass.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if(!Modifier.isTransient(modifiers) && !Modifier.isStatic(modifiers) &&
+                        !"__assigned_ordinal".equals(field.getName()) &&
+                        !field.isAnnotationPresent(HollowTransient.class)) {
+                    if(!fieldNames.add(field.getName()))
+                        throw new IllegalArgumentException("Field " + field.getName() + " of " + clazz.getName() + " hides a field of the same name");
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return true if a class is mapped by a HollowObjectMapper to an OBJECT type with the fields of the class
+     */
+    static boolean isPOJOClass(Class<?> clazz) {
+        return !clazz.isPrimitive() && !clazz.isArray() && !clazz.isInterface() && !clazz.isEnum()
+                && !clazz.isAnnotation() && clazz != NullablePrimitiveBoolean.class
+                && !clazz.getName().startsWith("java.");
+    }
+}
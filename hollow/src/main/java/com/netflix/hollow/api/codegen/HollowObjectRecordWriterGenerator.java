@@ -0,0 +1,162 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen;
+
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectRecordWriter;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class is used to generate java code which defines a {@link HollowObjectRecordWriter} for each of a set of POJO
+ * classes, and the POJO classes which they reference.
+ * <p>
+ * A {@link HollowObjectMapper} uses the generated writer for a class, rather than reflection, to copy the fields of
+ * its instances into records.  Typically the writers are generated for the {@link HollowPrimaryKey}-annotated top
+ * level types of a data model, and compiled along with the data model.  A writer must be regenerated when the fields
+ * of its class change; until then, the mapper ignores it.
+ * <p>
+ * Each writer is generated in the package of its class, and reads fields which are private, or otherwise not
+ * accessible from the package, with their getters.
+ * <p>
+ * You may also run the main() method directly.
+ */
+public class HollowObjectRecordWriterGenerator {
+    /**
+     * An enumeration of possible arguments to the code generator when being called via the main
+     * function. Not expected to be used outside the library itself, except for documentation
+     * purposes.
+     * Unless otherwise noted, having repeated parameters results in the previous value being
+     * overwritten.
+     */
+    public enum GeneratorArguments {
+        /**
+         * Add a class for which to generate a writer. Takes the fully qualified class name. This class must be
+         * available on the classpath. Having multiple of this parameter results in writers being generated for
+         * multiple classes.
+         */
+        addToDataModel,
+        /**
+         * Sets the source root in which the files will be generated.
+         */
+        pathToGeneratedFiles;
+    }
+
+    private final Set<Class<?>> classes;
+
+    /**
+     * @param classes the POJO classes for which to generate writers, in addition to the POJO classes they reference
+     */
+    public HollowObjectRecordWriterGenerator(Class<?>... classes) {
+        this.classes = new LinkedHashSet<>();
+        for(Class<?> clazz : classes)
+            addClass(clazz);
+    }
+
+    /**
+     * Usage: java HollowObjectRecordWriterGenerator --argName1=argValue1 --argName2==argValue2. See
+     * {@link GeneratorArguments} for available arguments.
+     * @param args the arguments
+     * @throws IOException if the writers cannot be created
+     * @throws ClassNotFoundException if a class cannot be loaded
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length == 0) {
+            System.out.println("Usage:\n"
+                    + "java " + HollowObjectRecordWriterGenerator.class.getName() + " --arg1=value1 --arg2=value2\n"
+                    + "see " + GeneratorArguments.class.getName() + " for available arguments.");
+            return;
+        }
+        List<Class<?>> classes = new ArrayList<>();
+        String pathToGeneratedFiles = null;
+        ArgumentParser<GeneratorArguments> argumentParser = new ArgumentParser(GeneratorArguments.class, args);
+        for (ArgumentParser<GeneratorArguments>.ParsedArgument arg : argumentParser.getParsedArguments()) {
+            switch (arg.getKey()) {
+                case addToDataModel:
+                    classes.add(HollowObjectRecordWriterGenerator.class.getClassLoader().loadClass(arg.getValue()));
+                    break;
+                case pathToGeneratedFiles:
+                    pathToGeneratedFiles = arg.getValue();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unhandled argument " + arg.getKey());
+            }
+        }
+        new HollowObjectRecordWriterGenerator(classes.toArray(new Class<?>[0])).generateFiles(pathToGeneratedFiles);
+    }
+
+    /**
+     * @return the classes for which writers will be generated
+     */
+    public Set<Class<?>> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Generate the writers into a source root, in the directory of the package of each class.
+     *
+     * @param directory the source root
+     * @throws IOException if a writer cannot be written
+     * @throws IllegalArgumentException if a writer cannot be generated for a class
+     */
+    public void generateFiles(String directory) throws IOException {
+        generateFiles(new File(directory));
+    }
+
+    public void generateFiles(File directory) throws IOException {
+        for(Class<?> clazz : classes) {
+            HollowObjectRecordWriterClassGenerator generator = new HollowObjectRecordWriterClassGenerator(clazz);
+            File packageDirectory = generator.getPackageName() == null ? directory
+                    : new File(directory, generator.getPackageName().replace(".", File.separator));
+            if (!packageDirectory.exists()) packageDirectory.mkdirs();
+
+            String source = generator.generate();
+            try(FileWriter writer = new FileWriter(new File(packageDirectory, generator.getClassName() + ".java"))) {
+                writer.write(source);
+            }
+        }
+    }
+
+    private void addClass(Class<?> clazz) {
+        if(!classes.add(clazz))
+            return;
+        for(Field field : HollowObjectRecordWriterClassGenerator.mappedFields(clazz)) {
+            if(!field.isAnnotationPresent(HollowInline.class))
+                addReferencedClasses(field.getGenericType());
+        }
+    }
+
+    private void addReferencedClasses(Type type) {
+        if(type instanceof ParameterizedType) {
+            addReferencedClasses(((ParameterizedType) type).getRawType());
+            for(Type typeArgument : ((ParameterizedType) type).getActualTypeArguments())
+                addReferencedClasses(typeArgument);
+        } else if(type instanceof Class && HollowObjectRecordWriterClassGenerator.isPOJOClass((Class<?>) type)) {
+            addClass((Class<?>) type);
+        }
+    }
+}
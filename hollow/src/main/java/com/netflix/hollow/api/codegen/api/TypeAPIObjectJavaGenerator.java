@@ -27,6 +27,7 @@ import com.netflix.hollow.api.custom.HollowAPI;
 import com.netflix.hollow.api.custom.HollowObjectTypeAPI;
 import com.netflix.hollow.core.HollowDataset;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.engine.object.HollowObjectFieldReader;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import java.util.Comparator;
@@ -44,6 +45,7 @@ import java.util.TreeSet;
 public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
     private final HollowObjectSchema objectSchema;
+    private final boolean useDirectAccess;
 
     private final Set<Class<?>> importClasses = new TreeSet<Class<?>>(new Comparator<Class<?>>() {
         @Override
@@ -56,9 +58,12 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
             HollowDataset dataset, CodeGeneratorConfig config) {
         super(apiClassname, packageName, schema, dataset, config);
         this.objectSchema = schema;
+        this.useDirectAccess = config.isUseDirectAccess();
 
         this.importClasses.add(HollowObjectTypeAPI.class);
         this.importClasses.add(HollowObjectTypeDataAccess.class);
+        if(useDirectAccess)
+            this.importClasses.add(HollowObjectFieldReader.class);
     }
 
     @Override
@@ -68,7 +73,12 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         classBodyBuilder.append("@SuppressWarnings(\"all\")\n");
         classBodyBuilder.append("public class " + className + " extends HollowObjectTypeAPI {\n\n");
 
-        classBodyBuilder.append("    private final ").append(delegateLookupClassname(objectSchema)).append(" delegateLookupImpl;\n\n");
+        classBodyBuilder.append("    private final ").append(delegateLookupClassname(objectSchema)).append(" delegateLookupImpl;\n");
+        if(useDirectAccess) {
+            for(int i=0;i<objectSchema.numFields();i++)
+                classBodyBuilder.append("    private final HollowObjectFieldReader ").append(fieldReader(i)).append(";\n");
+        }
+        classBodyBuilder.append("\n");
 
         classBodyBuilder.append(generateConstructor());
         classBodyBuilder.append("\n\n");
@@ -145,17 +155,44 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         builder.append("        });\n");
         builder.append("        this.delegateLookupImpl = new ").append(delegateLookupClassname(objectSchema)).append("(this);\n");
+        if(useDirectAccess) {
+            for(int i=0;i<objectSchema.numFields();i++)
+                builder.append("        this.").append(fieldReader(i)).append(" = fieldReader(").append(i).append(");\n");
+        }
         builder.append("    }");
 
         return builder.toString();
     }
 
+    private String methodModifiers() {
+        return useDirectAccess ? "public final " : "public ";
+    }
+
+    private static String fieldReader(int fieldNum) {
+        return "fieldReader" + fieldNum;
+    }
+
+    /**
+     * Append the statement with which a getter reads a field directly, if the field has a reader.
+     */
+    private void appendDirectRead(StringBuilder builder, int fieldNum, String read) {
+        appendDirectRead(builder, fieldNum, "", read);
+    }
+
+    private void appendDirectRead(StringBuilder builder, int fieldNum, String prefix, String read) {
+        if(!useDirectAccess)
+            return;
+        builder.append("        if(").append(fieldReader(fieldNum)).append(" != null)\n");
+        builder.append("            return ").append(prefix).append(fieldReader(fieldNum)).append(".").append(read).append(";\n");
+    }
+
     private String generateByteArrayFieldAccessor(int fieldNum) {
         StringBuilder builder = new StringBuilder();
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
-        builder.append("    public byte[] get" + uppercase(fieldName) + "(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "byte[] get" + uppercase(fieldName) + "(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readBytes(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleBytes(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
@@ -170,14 +207,16 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
-        builder.append("    public String get" + uppercase(fieldName) + "(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "String get" + uppercase(fieldName) + "(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readString(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleString(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
         builder.append("        return getTypeDataAccess().readString(ordinal, fieldIndex[" + fieldNum + "]);\n");
         builder.append("    }\n\n");
 
-        builder.append("    public boolean is" + uppercase(fieldName) + "Equal(int ordinal, String testValue) {\n");
+        builder.append("    " + methodModifiers() + "boolean is" + uppercase(fieldName) + "Equal(int ordinal, String testValue) {\n");
+        appendDirectRead(builder, fieldNum, "isStringFieldEqual(ordinal, testValue)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleStringEquals(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\", testValue);\n");
         builder.append("        return getTypeDataAccess().isStringFieldEqual(ordinal, fieldIndex[" + fieldNum + "], testValue);\n");
@@ -192,13 +231,14 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
         String referencedType = substituteInvalidChars(objectSchema.getReferencedType(fieldNum));
 
-        builder.append("    public int get"+ uppercase(fieldName) + "Ordinal(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "int get"+ uppercase(fieldName) + "Ordinal(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readOrdinal(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleReferencedOrdinal(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        return getTypeDataAccess().readOrdinal(ordinal, fieldIndex[" + fieldNum + "]);\n");
         builder.append("    }\n\n");
 
-        builder.append("    public " + typeAPIClassname(referencedType) + " get" + uppercase(fieldName) + "TypeAPI() {\n");
+        builder.append("    " + methodModifiers() + typeAPIClassname(referencedType) + " get" + uppercase(fieldName) + "TypeAPI() {\n");
         builder.append("        return getAPI().get").append(uppercase(referencedType)).append("TypeAPI();\n");
         builder.append("    }");
 
@@ -210,15 +250,22 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
-        builder.append("    public double get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "double get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readDouble(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleDouble(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        return getTypeDataAccess().readDouble(ordinal, fieldIndex["+fieldNum+"]);\n");
         builder.append("    }\n\n");
 
-        builder.append("    public Double get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "Double get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        double d;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        if(useDirectAccess) {
+            builder.append("        if(").append(fieldReader(fieldNum)).append(" != null) {\n");
+            builder.append("            d = ").append(fieldReader(fieldNum)).append(".readDouble(ordinal);\n");
+            builder.append("        } else if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        } else {
+            builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        }
         builder.append("            d = missingDataHandler().handleDouble(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
         builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
@@ -237,15 +284,22 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
-        builder.append("    public float get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "float get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readFloat(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleFloat(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        return getTypeDataAccess().readFloat(ordinal, fieldIndex["+fieldNum+"]);\n");
         builder.append("    }\n\n");
 
-        builder.append("    public Float get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "Float get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        float f;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        if(useDirectAccess) {
+            builder.append("        if(").append(fieldReader(fieldNum)).append(" != null) {\n");
+            builder.append("            f = ").append(fieldReader(fieldNum)).append(".readFloat(ordinal);\n");
+            builder.append("        } else if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        } else {
+            builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        }
         builder.append("            f = missingDataHandler().handleFloat(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
         builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
@@ -264,15 +318,22 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
-        builder.append("    public long get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "long get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readLong(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleLong(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        return getTypeDataAccess().readLong(ordinal, fieldIndex[" + fieldNum + "]);\n");
         builder.append("    }\n\n");
 
-        builder.append("    public Long get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "Long get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        long l;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        if(useDirectAccess) {
+            builder.append("        if(").append(fieldReader(fieldNum)).append(" != null) {\n");
+            builder.append("            l = ").append(fieldReader(fieldNum)).append(".readLong(ordinal);\n");
+            builder.append("        } else if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        } else {
+            builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        }
         builder.append("            l = missingDataHandler().handleLong(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
         builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
@@ -291,15 +352,22 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
-        builder.append("    public int get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "int get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readInt(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleInt(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        return getTypeDataAccess().readInt(ordinal, fieldIndex[" + fieldNum + "]);\n");
         builder.append("    }\n\n");
 
-        builder.append("    public Integer get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "Integer get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        int i;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        if(useDirectAccess) {
+            builder.append("        if(").append(fieldReader(fieldNum)).append(" != null) {\n");
+            builder.append("            i = ").append(fieldReader(fieldNum)).append(".readInt(ordinal);\n");
+            builder.append("        } else if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        } else {
+            builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        }
         builder.append("            i = missingDataHandler().handleInt(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
         builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
@@ -318,13 +386,15 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
-        builder.append("    public boolean get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "boolean get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "Boolean.TRUE.equals(", "readBoolean(ordinal))");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return Boolean.TRUE.equals(missingDataHandler().handleBoolean(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\"));\n");
         builder.append("        return Boolean.TRUE.equals(getTypeDataAccess().readBoolean(ordinal, fieldIndex[" + fieldNum + "]));\n");
         builder.append("    }\n\n");
 
-        builder.append("    public Boolean get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
+        builder.append("    " + methodModifiers() + "Boolean get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
+        appendDirectRead(builder, fieldNum, "readBoolean(ordinal)");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleBoolean(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        return getTypeDataAccess().readBoolean(ordinal, fieldIndex[" + fieldNum + "]);\n");
@@ -27,6 +27,7 @@ import com.netflix.hollow.api.client.HollowClientUpdater;
 import com.netflix.hollow.api.client.StaleHollowReferenceDetector;
 import com.netflix.hollow.api.codegen.HollowAPIClassJavaGenerator;
 import com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever;
+import com.netflix.hollow.api.consumer.fs.HollowPrefetchingBlobRetriever;
 import com.netflix.hollow.api.custom.HollowAPI;
 import com.netflix.hollow.api.metrics.HollowConsumerMetrics;
 import com.netflix.hollow.api.metrics.HollowMetricsCollector;
@@ -203,6 +204,9 @@ public class HollowConsumer {
         updater.setFilter(builder.typeFilter);
         if(builder.skipTypeShardUpdateWithNoAdditions)
             updater.setSkipShardUpdateWithNoAdditions(true);
+        updater.setSharedMemoryStagingDirectory(builder.sharedMemoryStagingDirectory);
+        updater.setSnapshotLoadParallelism(builder.snapshotLoadParallelism);
+        updater.setDeltaApplyParallelism(builder.deltaApplyParallelism);
         this.announcementWatcher = builder.announcementWatcher;
         this.refreshExecutor = builder.refreshExecutor;
         this.refreshLock = new ReentrantReadWriteLock();
@@ -379,6 +383,20 @@ public class HollowConsumer {
         updater.forceDoubleSnapshotNextUpdate();
     }
 
+    /**
+     * Sets the type filter applied when this consumer next loads a snapshot, on a double snapshot or otherwise.  The
+     * data already loaded is not affected.  Replaces any filter specified by the builder.
+     *
+     * @param typeFilter the type filter, or null to load all types
+     * @throws UnsupportedOperationException if the memory mode of this consumer does not support filtering
+     * @see #forceDoubleSnapshotNextUpdate()
+     */
+    public void setTypeFilter(TypeFilter typeFilter) {
+        if(typeFilter != null && !memoryMode.supportsFiltering())
+            throw new UnsupportedOperationException("Filtering is not supported in " + memoryMode + " mode");
+        updater.setFilter(typeFilter);
+    }
+
     /**
      * Clear any failed transitions from the {@link FailedTransitionTracker}, so that they may be reattempted when an update is triggered.
      */
@@ -1080,11 +1098,17 @@ public class HollowConsumer {
         protected HollowConsumer.ObjectLongevityConfig objectLongevityConfig = ObjectLongevityConfig.DEFAULT_CONFIG;
         protected HollowConsumer.ObjectLongevityDetector objectLongevityDetector = ObjectLongevityDetector.DEFAULT_DETECTOR;
         protected File localBlobStoreDir = null;
+        protected File blobPrefetchDir = null;
+        protected long blobPrefetchPollIntervalMillis = HollowPrefetchingBlobRetriever.DEFAULT_POLL_INTERVAL_MILLIS;
+        protected int maxPrefetchedDeltas = HollowPrefetchingBlobRetriever.DEFAULT_MAX_PREFETCHED_DELTAS;
         protected boolean useExistingStaleSnapshot;
         protected Executor refreshExecutor = null;
         protected MemoryMode memoryMode = MemoryMode.ON_HEAP;
         protected HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
         protected boolean skipTypeShardUpdateWithNoAdditions = false;
+        protected File sharedMemoryStagingDirectory = null;
+        protected int snapshotLoadParallelism = 1;
+        protected int deltaApplyParallelism = 1;
 
         public B withBlobRetriever(HollowConsumer.BlobRetriever blobRetriever) {
             this.blobRetriever = blobRetriever;
@@ -1141,6 +1165,53 @@ public class HollowConsumer {
             return withLocalBlobStore(new File(localBlobStoreDir), useExistingStaleSnapshot);
         }
 
+        /**
+         * Provide a directory to which blobs are prefetched from the configured {@link HollowConsumer.BlobRetriever}.
+         *
+         * When this is supplied, all deltas of an update plan are downloaded concurrently, and deltas published after
+         * the consumer's current version are downloaded as soon as they are published, ahead of their announcement.
+         * Prefetched blobs are deleted from {@code blobPrefetchDir} once the consumer no longer needs them.
+         * <p>
+         * The remote store is polled for newly published deltas every
+         * {@link HollowPrefetchingBlobRetriever#DEFAULT_POLL_INTERVAL_MILLIS} milliseconds, and at most
+         * {@link HollowPrefetchingBlobRetriever#DEFAULT_MAX_PREFETCHED_DELTAS} deltas are prefetched.
+         *
+         * @param blobPrefetchDir the directory to which blobs are prefetched. This will be created
+         *   if it does not already exist.
+         * @see #withBlobPrefetching(File, long, int)
+         * @see HollowPrefetchingBlobRetriever
+         */
+        public B withBlobPrefetching(File blobPrefetchDir) {
+            return withBlobPrefetching(blobPrefetchDir,
+                    HollowPrefetchingBlobRetriever.DEFAULT_POLL_INTERVAL_MILLIS,
+                    HollowPrefetchingBlobRetriever.DEFAULT_MAX_PREFETCHED_DELTAS);
+        }
+
+        /**
+         * Provide a directory to which blobs are prefetched from the configured {@link HollowConsumer.BlobRetriever},
+         * and how eagerly deltas are prefetched.
+         *
+         * @param blobPrefetchDir the directory to which blobs are prefetched. This will be created
+         *   if it does not already exist.
+         * @param pollIntervalMillis the interval at which the remote store is polled for newly published deltas, or
+         *   zero if deltas should only be prefetched after each refresh
+         * @param maxPrefetchedDeltas the maximum number of deltas beyond the consumer's current version which are
+         *   speculatively prefetched
+         * @see #withBlobPrefetching(File)
+         */
+        public B withBlobPrefetching(File blobPrefetchDir, long pollIntervalMillis, int maxPrefetchedDeltas) {
+            if (pollIntervalMillis < 0) {
+                throw new IllegalArgumentException("Blob prefetch poll interval must not be negative");
+            }
+            if (maxPrefetchedDeltas < 0) {
+                throw new IllegalArgumentException("Max prefetched deltas must not be negative");
+            }
+            this.blobPrefetchDir = blobPrefetchDir;
+            this.blobPrefetchPollIntervalMillis = pollIntervalMillis;
+            this.maxPrefetchedDeltas = maxPrefetchedDeltas;
+            return (B)this;
+        }
+
         public B withAnnouncementWatcher(HollowConsumer.AnnouncementWatcher announcementWatcher) {
             this.announcementWatcher = announcementWatcher;
             return (B)this;
@@ -1342,6 +1413,54 @@ public class HollowConsumer {
             return (B)this;
         }
 
+        /**
+         * Sets the directory in which a consumer running in a shared memory mode stages the data it assembles on heap,
+         * during a delta transition or a re-shard, before mapping it back into virtual memory. A staged copy of a type
+         * can be as large as the type itself, so the directory should be on a volume with room for it.
+         * <p>
+         * By default data is staged in the directory of the snapshot blob the consumer was initialized from.
+         *
+         * @param sharedMemoryStagingDirectory the staging directory
+         * @return this builder
+         */
+        public B withSharedMemoryStagingDirectory(File sharedMemoryStagingDirectory) {
+            this.sharedMemoryStagingDirectory = sharedMemoryStagingDirectory;
+            return (B)this;
+        }
+
+        /**
+         * Experimental: Read the type states of a snapshot with the given number of threads.
+         * <p>
+         * In a shared memory mode each type state is read by its own worker.  In {@link MemoryMode#ON_HEAP} mode the
+         * snapshot is read as a stream, so only optional blob parts are read concurrently with the main blob.
+         *
+         * @param snapshotLoadParallelism the number of threads used to read a snapshot
+         * @return this builder
+         */
+        public B withSnapshotLoadParallelism(int snapshotLoadParallelism) {
+            if(snapshotLoadParallelism < 1)
+                throw new IllegalArgumentException("Snapshot load parallelism must be at least 1");
+            this.snapshotLoadParallelism = snapshotLoadParallelism;
+            return (B)this;
+        }
+
+        /**
+         * Experimental: Apply the type states of a delta with the given number of threads.
+         * <p>
+         * The delta is still read as a stream, but the shards of each type are updated concurrently with the reading
+         * of subsequent types.  Memory released by the prior state is only reused once the whole delta is applied,
+         * so the peak heap footprint of a delta transition is higher than when deltas are applied serially.
+         *
+         * @param deltaApplyParallelism the number of threads used to apply a delta
+         * @return this builder
+         */
+        public B withDeltaApplyParallelism(int deltaApplyParallelism) {
+            if(deltaApplyParallelism < 1)
+                throw new IllegalArgumentException("Delta apply parallelism must be at least 1");
+            this.deltaApplyParallelism = deltaApplyParallelism;
+            return (B)this;
+        }
+
         @Deprecated
         public B withHashCodeFinder(HollowObjectHashCodeFinder hashCodeFinder) {
             this.hashCodeFinder = hashCodeFinder;
@@ -1358,6 +1477,17 @@ public class HollowConsumer {
                         "A HollowBlobRetriever or local blob store directory must be specified when building a HollowClient");
             }
 
+            if (blobPrefetchDir != null) {
+                if (blobRetriever == null) {
+                    throw new IllegalArgumentException("A HollowBlobRetriever must be specified to prefetch blobs");
+                }
+                HollowPrefetchingBlobRetriever prefetchingBlobRetriever =
+                        new HollowPrefetchingBlobRetriever(blobPrefetchDir.toPath(), blobRetriever,
+                                blobPrefetchPollIntervalMillis, maxPrefetchedDeltas);
+                this.blobRetriever = prefetchingBlobRetriever;
+                refreshListeners.add(prefetchingBlobRetriever);
+            }
+
             BlobRetriever blobRetriever = this.blobRetriever;
             if (localBlobStoreDir != null) {
                 this.blobRetriever = new HollowFilesystemBlobRetriever(
@@ -1373,7 +1503,7 @@ public class HollowConsumer {
             }
 
             if ((filterConfig != null || typeFilter != null) && !memoryMode.supportsFiltering()) {
-                throw new UnsupportedOperationException("Filtering is not supported in shared memory mode");
+                throw new UnsupportedOperationException("Filtering is not supported in " + memoryMode + " mode");
             }
         }
 
@@ -0,0 +1,450 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.fs;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.core.read.OptionalBlobPartInput;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A blob retriever which retrieves blobs from peer consumers before falling back to a remote origin store.<p>
+ *
+ * The origin blob retriever is consulted to determine which blob should be loaded, but the blob's data is first
+ * requested from a few of the configured peers, chosen at random, and is only downloaded from the origin if none of
+ * them serves it.  A peer which is itself transferring the blob asks the caller to retry, and the caller waits for
+ * that peer rather than downloading the blob from the origin.  Each retrieved blob is stored in a local directory
+ * along with its SHA-256 checksum, from which it may be served to other peers with a {@link HollowPeerBlobServer}.
+ * A blob received from a peer is only used if its data matches the checksum the peer recorded when the blob was
+ * originally downloaded from the origin.<p>
+ *
+ * When every consumer misses the same blob at once, for example on a fleet-wide double snapshot, no peer has
+ * started transferring it, and each would download it from the origin.  A fleet should then configure a tier of
+ * seeders, whose servers retrieve a blob from the origin when it is first requested, as the peers of all other
+ * consumers; see {@link HollowPeerBlobServer#HollowPeerBlobServer(HollowPeerBlobRetriever, java.net.InetAddress,
+ * int, int, boolean)}.<p>
+ *
+ * As with the {@link HollowFilesystemBlobRetriever}, retrieved blobs are never deleted from the local directory.
+ *
+ * @see HollowPeerBlobServer
+ */
+public class HollowPeerBlobRetriever implements HollowConsumer.BlobRetriever {
+    private static final Logger LOG = Logger.getLogger(HollowPeerBlobRetriever.class.getName());
+
+    static final String CHECKSUM_HEADER = "X-Hollow-Blob-SHA256";
+    static final String CHECKSUM_SUFFIX = ".sha256";
+    static final Pattern BLOB_NAME = Pattern.compile("(snapshot|delta|reversedelta)-(\\d+)(?:-(\\d+))?");
+
+    public static final int DEFAULT_MAX_PEERS_PER_BLOB = 3;
+    public static final long DEFAULT_MAX_PEER_WAIT_MILLIS = 5 * 60 * 1000;
+
+    private static final long RETRIEVED = 0;
+    private static final long UNAVAILABLE = -1;
+
+    private final Path blobStorePath;
+    private final List<URI> peers;
+    private final HollowConsumer.BlobRetriever originBlobRetriever;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final int maxPeersPerBlob;
+    private final long maxPeerWaitMillis;
+
+    /// the names of the blobs whose data is being transferred to the local directory, from the origin or a peer
+    private final Set<String> transfers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Object> retrievalLocks = new ConcurrentHashMap<>();
+
+    /**
+     * A new HollowPeerBlobRetriever with a one second connect timeout and a thirty second read timeout for peers,
+     * which tries up to three peers per blob.
+     *
+     * @param blobStorePath the directory in which retrieved blobs are stored
+     * @param peers the base URIs of the {@link HollowPeerBlobServer}s of peer consumers
+     * @param originBlobRetriever the blob retriever of the origin store
+     */
+    public HollowPeerBlobRetriever(Path blobStorePath, List<URI> peers, HollowConsumer.BlobRetriever originBlobRetriever) {
+        this(blobStorePath, peers, originBlobRetriever, 1000, 30000);
+    }
+
+    /**
+     * A new HollowPeerBlobRetriever.
+     *
+     * @param blobStorePath the directory in which retrieved blobs are stored
+     * @param peers the base URIs of the {@link HollowPeerBlobServer}s of peer consumers
+     * @param originBlobRetriever the blob retriever of the origin store
+     * @param connectTimeoutMillis the timeout for connecting to a peer
+     * @param readTimeoutMillis the timeout for reading from a peer
+     */
+    public HollowPeerBlobRetriever(Path blobStorePath, List<URI> peers, HollowConsumer.BlobRetriever originBlobRetriever,
+            int connectTimeoutMillis, int readTimeoutMillis) {
+        this(blobStorePath, peers, originBlobRetriever, connectTimeoutMillis, readTimeoutMillis,
+                DEFAULT_MAX_PEERS_PER_BLOB, DEFAULT_MAX_PEER_WAIT_MILLIS);
+    }
+
+    /**
+     * A new HollowPeerBlobRetriever.
+     *
+     * @param blobStorePath the directory in which retrieved blobs are stored
+     * @param peers the base URIs of the {@link HollowPeerBlobServer}s of peer consumers
+     * @param originBlobRetriever the blob retriever of the origin store
+     * @param connectTimeoutMillis the timeout for connecting to a peer
+     * @param readTimeoutMillis the timeout for reading from a peer
+     * @param maxPeersPerBlob the maximum number of peers, chosen at random, from which a blob is requested before it
+     * is downloaded from the origin
+     * @param maxPeerWaitMillis the maximum time to wait for peers which are transferring a blob to serve it, before
+     * it is downloaded from the origin
+     */
+    public HollowPeerBlobRetriever(Path blobStorePath, List<URI> peers, HollowConsumer.BlobRetriever originBlobRetriever,
+            int connectTimeoutMillis, int readTimeoutMillis, int maxPeersPerBlob, long maxPeerWaitMillis) {
+        this.blobStorePath = blobStorePath;
+        this.peers = new ArrayList<>(peers);
+        this.originBlobRetriever = originBlobRetriever;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.maxPeersPerBlob = maxPeersPerBlob;
+        this.maxPeerWaitMillis = maxPeerWaitMillis;
+
+        try {
+            Files.createDirectories(blobStorePath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create folder for blobRetriever; path=" + blobStorePath, e);
+        }
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+        return peerBlob(originBlobRetriever.retrieveSnapshotBlob(desiredVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+        return peerBlob(originBlobRetriever.retrieveDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+        return peerBlob(originBlobRetriever.retrieveReverseDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public Set<String> configuredOptionalBlobParts() {
+        return originBlobRetriever.configuredOptionalBlobParts();
+    }
+
+    @Override
+    public HollowConsumer.HeaderBlob retrieveHeaderBlob(long currentVersion) {
+        return originBlobRetriever.retrieveHeaderBlob(currentVersion);
+    }
+
+    private HollowConsumer.Blob peerBlob(HollowConsumer.Blob originBlob) {
+        return originBlob == null ? null : new PeerBlob(originBlob);
+    }
+
+    static String blobName(HollowConsumer.Blob blob) {
+        if(blob.isSnapshot())
+            return blob.getBlobType().getType() + "-" + blob.getToVersion();
+        return blob.getBlobType().getType() + "-" + blob.getFromVersion() + "-" + blob.getToVersion();
+    }
+
+    Path getBlobStorePath() {
+        return blobStorePath;
+    }
+
+    /**
+     * @return true if the data of the named blob is being transferred to the local directory
+     */
+    boolean isTransferring(String name) {
+        return transfers.contains(name);
+    }
+
+    /**
+     * Start retrieving the named blob from the origin, unless it is already retrieved or being transferred.
+     *
+     * @return true if the blob is being transferred, false if it is already retrieved or is not in the origin
+     */
+    boolean seed(String name, Executor executor) {
+        Path path = blobStorePath.resolve(name);
+        if(isRetrieved(path) || isTransferring(name))
+            return isTransferring(name);
+
+        HollowConsumer.Blob originBlob = originBlob(name);
+        if(originBlob == null)
+            return false;
+
+        if(!transfers.add(name))
+            return true;
+        try {
+            executor.execute(() -> {
+                try {
+                    synchronized(retrievalLock(name)) {
+                        if(!isRetrieved(path))
+                            retrieveFromOrigin(originBlob, name, path);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    LOG.log(Level.WARNING, "Could not seed " + name + " from the origin", e);
+                } finally {
+                    transfers.remove(name);
+                }
+            });
+        } catch (RuntimeException e) {
+            transfers.remove(name);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * @return the origin blob with the given name, or null if the origin does not have it
+     */
+    private HollowConsumer.Blob originBlob(String name) {
+        Matcher matcher = BLOB_NAME.matcher(name);
+        if(!matcher.matches())
+            return null;
+
+        long version = Long.parseLong(matcher.group(2));
+        HollowConsumer.Blob blob;
+        switch(matcher.group(1)) {
+            case "snapshot":
+                blob = originBlobRetriever.retrieveSnapshotBlob(version);
+                break;
+            case "delta":
+                blob = originBlobRetriever.retrieveDeltaBlob(version);
+                break;
+            default:
+                blob = originBlobRetriever.retrieveReverseDeltaBlob(version);
+        }
+        // the origin may return another blob, such as an earlier snapshot
+        return blob != null && blobName(blob).equals(name) ? blob : null;
+    }
+
+    private Object retrievalLock(String name) {
+        return retrievalLocks.computeIfAbsent(name, n -> new Object());
+    }
+
+    private static boolean isRetrieved(Path path) {
+        // the checksum is written once the blob is in place, so marks a complete blob
+        return Files.exists(path.resolveSibling(path.getFileName() + CHECKSUM_SUFFIX));
+    }
+
+    /**
+     * Retrieve a blob to the local directory from a few randomly chosen peers, or else the origin.
+     */
+    private Path retrieve(HollowConsumer.Blob originBlob, String name, Path path) throws IOException {
+        synchronized(retrievalLock(name)) {
+            if(isRetrieved(path))
+                return path;
+
+            List<URI> shuffledPeers = new ArrayList<>(peers);
+            Collections.shuffle(shuffledPeers);
+            long waitDeadline = System.currentTimeMillis() + maxPeerWaitMillis;
+            for(URI peer : shuffledPeers.subList(0, Math.min(maxPeersPerBlob, shuffledPeers.size()))) {
+                if(retrieveFromPeer(peer, name, path, waitDeadline))
+                    return path;
+            }
+
+            retrieveFromOrigin(originBlob, name, path);
+            return path;
+        }
+    }
+
+    private void retrieveFromOrigin(HollowConsumer.Blob originBlob, String name, Path path) throws IOException {
+        transfers.add(name);
+        try(InputStream is = originBlob.getInputStream()) {
+            writeChecksum(path, copyToPath(is, path, null));
+        } finally {
+            transfers.remove(name);
+        }
+    }
+
+    /**
+     * Download a blob from a peer, waiting until the deadline while the peer is transferring the blob itself.
+     *
+     * @return true if the blob was downloaded to the destination path
+     */
+    private boolean retrieveFromPeer(URI peer, String name, Path path, long waitDeadline) throws IOException {
+        while(true) {
+            long result = requestFromPeer(peer, name, path);
+            if(result == RETRIEVED)
+                return true;
+            if(result == UNAVAILABLE || System.currentTimeMillis() + result > waitDeadline)
+                return false;
+
+            try {
+                Thread.sleep(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for peer " + peer + " to transfer " + name);
+            }
+        }
+    }
+
+    /**
+     * Request a blob from a peer, verifying that its data matches the checksum sent by the peer.
+     *
+     * @return {@link #RETRIEVED} if the blob was downloaded to the destination path, {@link #UNAVAILABLE} if the
+     * peer does not serve it, or else the number of milliseconds after which to retry while the peer transfers it
+     */
+    private long requestFromPeer(URI peer, String name, Path path) {
+        URI uri = URI.create(peer.toString().endsWith("/") ? peer.toString() : peer + "/").resolve(name);
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) uri.toURL().openConnection();
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+
+            int responseCode = connection.getResponseCode();
+            if(responseCode == HttpURLConnection.HTTP_UNAVAILABLE)
+                return retryAfterMillis(connection.getHeaderField("Retry-After"));
+            if(responseCode != HttpURLConnection.HTTP_OK)
+                return UNAVAILABLE;
+
+            String expectedChecksum = connection.getHeaderField(CHECKSUM_HEADER);
+            if(expectedChecksum == null) {
+                LOG.warning("Peer " + peer + " did not send a checksum for " + name);
+                return UNAVAILABLE;
+            }
+
+            String checksum;
+            transfers.add(name);
+            try(InputStream is = connection.getInputStream()) {
+                checksum = copyToPath(is, path, expectedChecksum);
+            } finally {
+                transfers.remove(name);
+            }
+            if(!checksum.equals(expectedChecksum)) {
+                LOG.warning("Checksum mismatch for " + name + " from peer " + peer
+                        + ": expected " + expectedChecksum + ", received " + checksum);
+                return UNAVAILABLE;
+            }
+
+            writeChecksum(path, checksum);
+            return RETRIEVED;
+        } catch (IOException e) {
+            LOG.log(Level.INFO, "Could not retrieve " + name + " from peer " + peer, e);
+            return UNAVAILABLE;
+        } finally {
+            if(connection != null)
+                connection.disconnect();
+        }
+    }
+
+    private static long retryAfterMillis(String retryAfter) {
+        try {
+            return retryAfter == null ? 1000 : Math.max(1, Long.parseLong(retryAfter.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            return 1000;
+        }
+    }
+
+    /**
+     * Copy a stream to the destination path, via a temporary file which is moved into place only once complete and,
+     * if a checksum is expected, only if the checksum of the data matches.
+     *
+     * @return the SHA-256 checksum of the data
+     */
+    private static String copyToPath(InputStream is, Path path, String expectedChecksum) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + "-" + UUID.randomUUID());
+        try {
+            DigestInputStream digestStream = new DigestInputStream(is, sha256());
+            Files.copy(digestStream, tempPath, REPLACE_EXISTING);
+            String checksum = toHex(digestStream.getMessageDigest().digest());
+            if(expectedChecksum == null || expectedChecksum.equals(checksum))
+                Files.move(tempPath, path, REPLACE_EXISTING);
+            return checksum;
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private static void writeChecksum(Path path, String checksum) throws IOException {
+        Files.write(path.resolveSibling(path.getFileName() + CHECKSUM_SUFFIX), checksum.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for(byte b : bytes)
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+
+    /**
+     * A blob whose data is retrieved to the local directory, from a peer or else the origin, when it is first read.
+     */
+    private class PeerBlob extends HollowConsumer.Blob {
+        private final HollowConsumer.Blob originBlob;
+        private final String name;
+        private final Path path;
+
+        PeerBlob(HollowConsumer.Blob originBlob) {
+            super(originBlob.getFromVersion(), originBlob.getToVersion());
+            this.originBlob = originBlob;
+            this.name = blobName(originBlob);
+            this.path = blobStorePath.resolve(name);
+        }
+
+        private Path retrieve() throws IOException {
+            return HollowPeerBlobRetriever.this.retrieve(originBlob, name, path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new BufferedInputStream(Files.newInputStream(retrieve()));
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return retrieve().toFile();
+        }
+
+        @Override
+        public OptionalBlobPartInput getOptionalBlobPartInputs() throws IOException {
+            return originBlob.getOptionalBlobPartInputs();
+        }
+    }
+}
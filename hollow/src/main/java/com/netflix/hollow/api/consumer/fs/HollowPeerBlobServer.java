@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.fs;
+
+import static com.netflix.hollow.api.consumer.fs.HollowPeerBlobRetriever.BLOB_NAME;
+import static com.netflix.hollow.api.consumer.fs.HollowPeerBlobRetriever.CHECKSUM_HEADER;
+import static com.netflix.hollow.api.consumer.fs.HollowPeerBlobRetriever.CHECKSUM_SUFFIX;
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the blobs retrieved by a {@link HollowPeerBlobRetriever} to the retrievers of peer consumers over HTTP.<p>
+ *
+ * A blob is requested by its name, for example {@code GET /snapshot-<version>}, relative to the base URI of the
+ * server.  Only blobs which have been completely retrieved, and so have a recorded checksum, are served, with their
+ * checksum sent in the {@code X-Hollow-Blob-SHA256} header.<p>
+ *
+ * A server which serves the blobs of a retriever responds {@code 503} with a {@code Retry-After} header while the
+ * retriever is transferring a requested blob, so that peers wait for it rather than download it from the origin.  A
+ * seeder also starts retrieving a requested blob from the origin if it does not have it.
+ */
+public class HollowPeerBlobServer implements Closeable {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Path blobStorePath;
+    private final HollowPeerBlobRetriever retriever;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ExecutorService seedExecutor;
+
+    /**
+     * Start serving the blobs in a directory on the loopback interface.
+     *
+     * @param blobStorePath the directory in which a {@link HollowPeerBlobRetriever} stores retrieved blobs
+     * @param port the port on which to serve blobs, or zero to choose an available port
+     * @param numThreads the number of threads with which requests are served
+     * @throws IOException if the server could not be started
+     */
+    public HollowPeerBlobServer(Path blobStorePath, int port, int numThreads) throws IOException {
+        this(blobStorePath, InetAddress.getLoopbackAddress(), port, numThreads);
+    }
+
+    /**
+     * Start serving the blobs in a directory.
+     *
+     * @param blobStorePath the directory in which a {@link HollowPeerBlobRetriever} stores retrieved blobs
+     * @param bindAddress the address on which to serve blobs
+     * @param port the port on which to serve blobs, or zero to choose an available port
+     * @param numThreads the number of threads with which requests are served
+     * @throws IOException if the server could not be started
+     */
+    public HollowPeerBlobServer(Path blobStorePath, InetAddress bindAddress, int port, int numThreads) throws IOException {
+        this(blobStorePath, null, bindAddress, port, numThreads, false);
+    }
+
+    /**
+     * Start serving the blobs retrieved by a retriever, and report the blobs it is transferring as in progress.
+     *
+     * @param retriever the retriever whose blobs are served
+     * @param bindAddress the address on which to serve blobs
+     * @param port the port on which to serve blobs, or zero to choose an available port
+     * @param numThreads the number of threads with which requests are served
+     * @param seed whether to retrieve a requested blob from the origin if the retriever does not have it
+     * @throws IOException if the server could not be started
+     */
+    public HollowPeerBlobServer(HollowPeerBlobRetriever retriever, InetAddress bindAddress, int port, int numThreads,
+            boolean seed) throws IOException {
+        this(retriever.getBlobStorePath(), retriever, bindAddress, port, numThreads, seed);
+    }
+
+    private HollowPeerBlobServer(Path blobStorePath, HollowPeerBlobRetriever retriever, InetAddress bindAddress,
+            int port, int numThreads, boolean seed) throws IOException {
+        this.blobStorePath = blobStorePath;
+        this.retriever = retriever;
+        this.executor = Executors.newFixedThreadPool(numThreads,
+                r -> daemonThread(r, HollowPeerBlobServer.class, "serve; path=" + blobStorePath));
+        this.seedExecutor = seed ? Executors.newCachedThreadPool(
+                r -> daemonThread(r, HollowPeerBlobServer.class, "seed; path=" + blobStorePath)) : null;
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * @return the port on which blobs are served
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the base URI of this server at its bind address, or at the loopback address if it is bound to all
+     * interfaces
+     */
+    public URI getURI() {
+        InetAddress address = server.getAddress().getAddress();
+        if(address.isAnyLocalAddress())
+            address = InetAddress.getLoopbackAddress();
+        try {
+            return new URI("http", null, address.getHostAddress(), getPort(), "/", null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if(!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            String name = exchange.getRequestURI().getPath().substring(1);
+            if(!BLOB_NAME.matcher(name).matches()) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            Path checksumPath = blobStorePath.resolve(name + CHECKSUM_SUFFIX);
+            Path path = blobStorePath.resolve(name);
+            if(!Files.exists(checksumPath) || !Files.exists(path)) {
+                if(retriever != null && (retriever.isTransferring(name)
+                        || (seedExecutor != null && retriever.seed(name, seedExecutor)))) {
+                    exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+                    exchange.sendResponseHeaders(503, -1);
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+                return;
+            }
+
+            String checksum = new String(Files.readAllBytes(checksumPath), StandardCharsets.US_ASCII);
+            exchange.getResponseHeaders().set(CHECKSUM_HEADER, checksum);
+            exchange.sendResponseHeaders(200, Files.size(path));
+            try(OutputStream os = exchange.getResponseBody()) {
+                Files.copy(path, os);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Stop serving blobs.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        if(seedExecutor != null)
+            seedExecutor.shutdownNow();
+    }
+}
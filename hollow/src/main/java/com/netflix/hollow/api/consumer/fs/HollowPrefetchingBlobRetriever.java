@@ -0,0 +1,367 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.fs;
+
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.read.OptionalBlobPartInput;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A blob retriever which downloads blobs from a remote store to a local directory ahead of their use.<p>
+ *
+ * Every delta retrieved through this retriever begins downloading as soon as it is retrieved, so all deltas in an
+ * update plan are downloaded concurrently while the plan is being built and applied, and reading a delta only waits for
+ * its own download to complete.  A snapshot begins downloading when it is first read, since an update plan which
+ * retrieves a snapshot may be discarded in favor of a delta plan.<p>
+ *
+ * This retriever is also a refresh listener.  Once registered with the consumer (which the consumer builder does when
+ * configured with {@link HollowConsumer.Builder#withBlobPrefetching(File, long, int)}), after each successful refresh it
+ * speculatively follows the delta chain from the consumer's current version, and periodically polls the remote store
+ * for deltas published after the chain's end, downloading each delta as soon as it is found.  A delta which is
+ * published before it is announced is therefore usually local by the time the consumer is asked to refresh to it.
+ * Prefetched deltas from versions prior to the consumer's current version, and snapshots once the refresh for which
+ * they were retrieved has completed, are removed from the local directory.
+ */
+public class HollowPrefetchingBlobRetriever extends HollowConsumer.AbstractRefreshListener
+        implements HollowConsumer.BlobRetriever, Closeable {
+    private static final Logger LOG = Logger.getLogger(HollowPrefetchingBlobRetriever.class.getName());
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_MAX_PREFETCHED_DELTAS = 32;
+
+    private final Path prefetchPath;
+    private final HollowConsumer.BlobRetriever remoteBlobRetriever;
+    private final int maxPrefetchedDeltas;
+    private final ExecutorService downloadExecutor;
+    private final ScheduledExecutorService pollExecutor;
+
+    private final Map<Long, PrefetchedBlob> deltasByFromVersion;
+    private final Map<Long, PrefetchedBlob> reverseDeltasByFromVersion;
+    private final Queue<PrefetchedBlob> snapshots;
+
+    private volatile long currentVersion = HollowConstants.VERSION_NONE;
+
+    /**
+     * A new HollowPrefetchingBlobRetriever which polls for newly published deltas every
+     * {@link #DEFAULT_POLL_INTERVAL_MILLIS} milliseconds.
+     *
+     * @param prefetchPath the directory to which blobs are downloaded
+     * @param remoteBlobRetriever the remote blob retriever from which blobs are downloaded
+     */
+    public HollowPrefetchingBlobRetriever(Path prefetchPath, HollowConsumer.BlobRetriever remoteBlobRetriever) {
+        this(prefetchPath, remoteBlobRetriever, DEFAULT_POLL_INTERVAL_MILLIS, DEFAULT_MAX_PREFETCHED_DELTAS);
+    }
+
+    /**
+     * A new HollowPrefetchingBlobRetriever.
+     *
+     * @param prefetchPath the directory to which blobs are downloaded
+     * @param remoteBlobRetriever the remote blob retriever from which blobs are downloaded
+     * @param pollIntervalMillis the interval at which the remote store is polled for newly published deltas, or zero
+     *                           if deltas should only be prefetched after each refresh
+     * @param maxPrefetchedDeltas the maximum number of deltas beyond the consumer's current version which are
+     *                            speculatively prefetched
+     */
+    public HollowPrefetchingBlobRetriever(Path prefetchPath, HollowConsumer.BlobRetriever remoteBlobRetriever,
+            long pollIntervalMillis, int maxPrefetchedDeltas) {
+        if(remoteBlobRetriever == null)
+            throw new IllegalArgumentException("A remote blob retriever must be specified");
+
+        this.prefetchPath = prefetchPath;
+        this.remoteBlobRetriever = remoteBlobRetriever;
+        this.maxPrefetchedDeltas = maxPrefetchedDeltas;
+        this.downloadExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                r -> daemonThread(r, HollowPrefetchingBlobRetriever.class, "download; path=" + prefetchPath));
+        this.deltasByFromVersion = new ConcurrentHashMap<>();
+        this.reverseDeltasByFromVersion = new ConcurrentHashMap<>();
+        this.snapshots = new ConcurrentLinkedQueue<>();
+
+        try {
+            Files.createDirectories(prefetchPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create folder for blob prefetching; path=" + prefetchPath, e);
+        }
+
+        if(pollIntervalMillis > 0) {
+            this.pollExecutor = Executors.newScheduledThreadPool(1,
+                    r -> daemonThread(r, HollowPrefetchingBlobRetriever.class, "poll; path=" + prefetchPath));
+            this.pollExecutor.scheduleWithFixedDelay(this::prefetchDeltas, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.pollExecutor = null;
+        }
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+        HollowConsumer.Blob remoteBlob = remoteBlobRetriever.retrieveSnapshotBlob(desiredVersion);
+        if(remoteBlob == null)
+            return null;
+
+        PrefetchedBlob prefetchedBlob = new PrefetchedBlob(remoteBlob, blobPath(remoteBlob));
+        snapshots.add(prefetchedBlob);
+        return prefetchedBlob;
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+        return retrieve(deltasByFromVersion, currentVersion, false);
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+        return retrieve(reverseDeltasByFromVersion, currentVersion, true);
+    }
+
+    @Override
+    public Set<String> configuredOptionalBlobParts() {
+        return remoteBlobRetriever.configuredOptionalBlobParts();
+    }
+
+    @Override
+    public HollowConsumer.HeaderBlob retrieveHeaderBlob(long currentVersion) {
+        return remoteBlobRetriever.retrieveHeaderBlob(currentVersion);
+    }
+
+    private PrefetchedBlob retrieve(Map<Long, PrefetchedBlob> blobsByFromVersion, long fromVersion, boolean reverse) {
+        PrefetchedBlob blob = blobsByFromVersion.get(fromVersion);
+        if(blob != null) {
+            if(!blob.download.isCompletedExceptionally())
+                return blob;
+            blobsByFromVersion.remove(fromVersion, blob);
+        }
+
+        HollowConsumer.Blob remoteBlob = reverse
+                ? remoteBlobRetriever.retrieveReverseDeltaBlob(fromVersion)
+                : remoteBlobRetriever.retrieveDeltaBlob(fromVersion);
+        if(remoteBlob == null)
+            return null;
+
+        PrefetchedBlob prefetchedBlob = new PrefetchedBlob(remoteBlob, blobPath(remoteBlob));
+        PrefetchedBlob existingBlob = blobsByFromVersion.putIfAbsent(fromVersion, prefetchedBlob);
+        if(existingBlob != null)
+            return existingBlob;
+        return prefetchedBlob.start();
+    }
+
+    @Override
+    public void refreshSuccessful(long beforeVersion, long afterVersion, long requestedVersion) {
+        currentVersion = afterVersion;
+
+        evict(deltasByFromVersion, afterVersion, false);
+        evict(reverseDeltasByFromVersion, afterVersion, true);
+        evictSnapshots();
+
+        downloadExecutor.execute(this::prefetchDeltas);
+    }
+
+    @Override
+    public void refreshFailed(long beforeVersion, long afterVersion, long requestedVersion, Throwable failureCause) {
+        evictSnapshots();
+    }
+
+    /**
+     * Follow the delta chain from the consumer's current version, starting the download of each delta which has not
+     * already been retrieved, until the end of the published chain or the maximum number of prefetched deltas.
+     */
+    private void prefetchDeltas() {
+        long version = currentVersion;
+        if(version == HollowConstants.VERSION_NONE)
+            return;
+
+        try {
+            for(int i=0;i<maxPrefetchedDeltas;i++) {
+                HollowConsumer.Blob delta = retrieveDeltaBlob(version);
+                if(delta == null)
+                    return;
+                version = delta.getToVersion();
+            }
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Failed to prefetch deltas from version " + version, e);
+        }
+    }
+
+    /**
+     * Remove prefetched deltas which the consumer has moved past, and reverse deltas which no longer apply to the
+     * consumer's current version.
+     */
+    private void evict(Map<Long, PrefetchedBlob> blobsByFromVersion, long version, boolean reverse) {
+        Iterator<Map.Entry<Long, PrefetchedBlob>> iter = blobsByFromVersion.entrySet().iterator();
+        while(iter.hasNext()) {
+            Map.Entry<Long, PrefetchedBlob> entry = iter.next();
+            if(reverse ? entry.getKey() != version : entry.getKey() < version) {
+                iter.remove();
+                entry.getValue().delete();
+            }
+        }
+    }
+
+    /**
+     * Remove snapshots, which are only retrieved for the refresh in which they are applied.
+     */
+    private void evictSnapshots() {
+        PrefetchedBlob snapshot;
+        while((snapshot = snapshots.poll()) != null)
+            snapshot.delete();
+    }
+
+    private Path blobPath(HollowConsumer.Blob blob) {
+        switch(blob.getBlobType()) {
+            case SNAPSHOT:
+                return prefetchPath.resolve("snapshot-" + blob.getToVersion());
+            case DELTA:
+                return prefetchPath.resolve("delta-" + blob.getFromVersion() + "-" + blob.getToVersion());
+            case REVERSE_DELTA:
+                return prefetchPath.resolve("reversedelta-" + blob.getFromVersion() + "-" + blob.getToVersion());
+            default:
+                throw new IllegalArgumentException("Unknown BlobType: " + blob.getBlobType());
+        }
+    }
+
+    /**
+     * Stop polling for and downloading blobs.
+     */
+    @Override
+    public void close() {
+        if(pollExecutor != null)
+            pollExecutor.shutdownNow();
+        downloadExecutor.shutdownNow();
+    }
+
+    /**
+     * A blob whose data is downloaded in the background from the time it is started, or from the time it is first read
+     * if it was not started before then.
+     */
+    private class PrefetchedBlob extends HollowConsumer.Blob {
+        private final HollowConsumer.Blob remoteBlob;
+        private final Path path;
+        private final CompletableFuture<Path> download;
+        private final AtomicBoolean started;
+
+        PrefetchedBlob(HollowConsumer.Blob remoteBlob, Path path) {
+            super(remoteBlob.getFromVersion(), remoteBlob.getToVersion());
+            this.remoteBlob = remoteBlob;
+            this.path = path;
+            this.download = new CompletableFuture<>();
+            this.started = new AtomicBoolean();
+        }
+
+        PrefetchedBlob start() {
+            if(!started.compareAndSet(false, true))
+                return this;
+
+            downloadExecutor.execute(() -> {
+                try {
+                    download.complete(download());
+                } catch (Throwable t) {
+                    download.completeExceptionally(t);
+                }
+            });
+            return this;
+        }
+
+        private Path download() {
+            Path tempPath = path.resolveSibling(path.getFileName() + "-" + UUID.randomUUID());
+            try {
+                try(InputStream is = remoteBlob.getInputStream()) {
+                    Files.copy(is, tempPath, REPLACE_EXISTING);
+                }
+                Files.move(tempPath, path, REPLACE_EXISTING);
+                return path;
+            } catch (IOException e) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw new UncheckedIOException("Failed to download " + path.getFileName(), e);
+            }
+        }
+
+        private Path awaitDownload() throws IOException {
+            start();
+            try {
+                return download.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof UncheckedIOException)
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                throw new IOException(e.getCause());
+            }
+        }
+
+        void delete() {
+            if(started.compareAndSet(false, true)) {
+                download.completeExceptionally(new IOException("Prefetched blob was removed before it was read: " + path.getFileName()));
+                return;
+            }
+
+            download.whenComplete((p, t) -> {
+                try {
+                    if(p != null)
+                        Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Failed to delete prefetched blob " + p, e);
+                }
+            });
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new BufferedInputStream(Files.newInputStream(awaitDownload()));
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return awaitDownload().toFile();
+        }
+
+        @Override
+        public OptionalBlobPartInput getOptionalBlobPartInputs() throws IOException {
+            return remoteBlob.getOptionalBlobPartInputs();
+        }
+    }
+}
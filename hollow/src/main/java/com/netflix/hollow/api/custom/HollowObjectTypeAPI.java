@@ -23,6 +23,8 @@ import com.netflix.hollow.api.sampling.HollowSamplingDirector;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
 import com.netflix.hollow.core.read.dataaccess.missing.HollowObjectMissingDataAccess;
+import com.netflix.hollow.core.read.engine.object.HollowObjectFieldReader;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.missing.MissingDataHandler;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
@@ -95,6 +97,17 @@ public abstract class HollowObjectTypeAPI extends HollowTypeAPI {
         boxedFieldAccessSampler.setUpdateThread(t);
     }
 
+    /**
+     * @param fieldNum the position of the field in the field names of this type API
+     * @return a reader of the field, or null if the field is missing or the type's data is not read directly from a
+     * {@link HollowObjectTypeReadState}
+     */
+    protected HollowObjectFieldReader fieldReader(int fieldNum) {
+        if(fieldIndex[fieldNum] == -1 || !(typeDataAccess instanceof HollowObjectTypeReadState))
+            return null;
+        return ((HollowObjectTypeReadState) typeDataAccess).createFieldReader(fieldNames[fieldNum]);
+    }
+
     protected MissingDataHandler missingDataHandler() {
         return api.getDataAccess().getMissingDataHandler();
     }
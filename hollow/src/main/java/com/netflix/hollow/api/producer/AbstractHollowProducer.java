@@ -47,6 +47,7 @@ import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
 import com.netflix.hollow.core.write.objectmapper.RecordPrimaryKey;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -86,6 +87,9 @@ abstract class AbstractHollowProducer {
     long lastSuccessfulCycle = 0;
     final HollowObjectHashCodeFinder hashCodeFinder;
     final boolean doIntegrityCheck;
+    final boolean incrementalIntegrityCheck;
+    final boolean offHeapWriteStateStorage;
+    final File offHeapWriteStateStorageDir;
     // Count to track number of cycles run by a primary producer. In the future, this can be useful in determining stickiness of a
     // producer instance.
     int cycleCountSincePrimaryStatus = 0;
@@ -101,7 +105,7 @@ abstract class AbstractHollowProducer {
                 new VersionMinterWithCounter(), null, 0,
                 DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE, false, null,
                 new DummyBlobStorageCleaner(), new BasicSingleProducerEnforcer(),
-                null, true);
+                null, true, false, false, null);
     }
 
     // The only constructor should be that which accepts a builder
@@ -113,7 +117,8 @@ abstract class AbstractHollowProducer {
                 b.versionMinter, b.snapshotPublishExecutor,
                 b.numStatesBetweenSnapshots, b.targetMaxTypeShardSize, b.focusHoleFillInFewestShards,
                 b.metricsCollector, b.blobStorageCleaner, b.singleProducerEnforcer,
-                b.hashCodeFinder, b.doIntegrityCheck);
+                b.hashCodeFinder, b.doIntegrityCheck, b.incrementalIntegrityCheck,
+                b.offHeapWriteStateStorage, b.offHeapWriteStateStorageDir);
     }
 
     private AbstractHollowProducer(
@@ -130,7 +135,10 @@ abstract class AbstractHollowProducer {
             HollowProducer.BlobStorageCleaner blobStorageCleaner,
             SingleProducerEnforcer singleProducerEnforcer,
             HollowObjectHashCodeFinder hashCodeFinder,
-            boolean doIntegrityCheck) {
+            boolean doIntegrityCheck,
+            boolean incrementalIntegrityCheck,
+            boolean offHeapWriteStateStorage,
+            File offHeapWriteStateStorageDir) {
         this.publisher = publisher;
         this.announcer = announcer;
         this.versionMinter = versionMinter;
@@ -140,12 +148,16 @@ abstract class AbstractHollowProducer {
         this.numStatesBetweenSnapshots = numStatesBetweenSnapshots;
         this.hashCodeFinder = hashCodeFinder;
         this.doIntegrityCheck = doIntegrityCheck;
+        this.incrementalIntegrityCheck = incrementalIntegrityCheck;
+        this.offHeapWriteStateStorage = offHeapWriteStateStorage;
+        this.offHeapWriteStateStorageDir = offHeapWriteStateStorageDir;
 
         HollowWriteStateEngine writeEngine = hashCodeFinder == null
                 ? new HollowWriteStateEngine()
                 : new HollowWriteStateEngine(hashCodeFinder);
         writeEngine.setTargetMaxTypeShardSize(targetMaxTypeShardSize);
         writeEngine.setFocusHoleFillInFewestShards(focusHoleFillInFewestShards);
+        writeEngine.setOffHeapStorage(offHeapWriteStateStorage, offHeapWriteStateStorageDir);
 
         this.objectMapper = new HollowObjectMapper(writeEngine);
         if (hashCodeFinder != null) {
@@ -283,6 +295,7 @@ abstract class AbstractHollowProducer {
                 HollowWriteStateEngine writeEngine = hashCodeFinder == null
                         ? new HollowWriteStateEngine()
                         : new HollowWriteStateEngine(hashCodeFinder);
+                writeEngine.setOffHeapStorage(offHeapWriteStateStorage, offHeapWriteStateStorageDir);
                 HollowWriteStateCreator.populateStateEngineWithTypeWriteStates(writeEngine, schemas);
                 HollowObjectMapper newObjectMapper = new HollowObjectMapper(writeEngine);
                 if (hashCodeFinder != null) {
@@ -567,7 +580,7 @@ abstract class AbstractHollowProducer {
         try {
             // We want a header to be created for all states.
             artifacts.header = blobStager.openHeader(toVersion);
-            if(!readStates.hasCurrent() || doIntegrityCheck || numStatesUntilNextSnapshot <= 0)
+            if(!readStates.hasCurrent() || requiresSnapshotForIntegrityCheck() || numStatesUntilNextSnapshot <= 0)
                 artifacts.snapshot = stageBlob(listeners, blobStager.openSnapshot(toVersion));
 
             publishHeaderBlob(artifacts.header);
@@ -734,6 +747,12 @@ abstract class AbstractHollowProducer {
             boolean schemaChangedFromPriorVersion) throws Exception {
         Status.StageWithStateBuilder status = listeners.fireIntegrityCheckStart(readStates.pending());
         try {
+            if (incrementalIntegrityCheck && readStates.hasCurrent() && !schemaChangedFromPriorVersion) {
+                ReadStateHelper result = checkIntegrityIncrementally(readStates, artifacts);
+                status.success();
+                return result;
+            }
+
             ReadStateHelper result = readStates;
             HollowReadStateEngine pending = readStates.pending().getStateEngine();
             readSnapshot(artifacts.snapshot, pending);
@@ -789,6 +808,48 @@ abstract class AbstractHollowProducer {
         }
     }
 
+    /**
+     * Given these read states
+     *
+     * * S(cur) at the currently announced version
+     *
+     * Ensure that:
+     *   - S(cur).apply(forwardDelta) matches the write state's records of this cycle
+     *   - S(cur).apply(forwardDelta).apply(reverseDelta) matches the write state's records of the prior cycle
+     *
+     * Only the records added by each delta are compared, so S(pnd) is never read from the snapshot.
+     *
+     * @return S(cur) and S(pnd), swapped
+     */
+    private ReadStateHelper checkIntegrityIncrementally(ReadStateHelper readStates, Artifacts artifacts) throws IOException {
+        if (!artifacts.hasDelta() || !artifacts.hasReverseDelta()) {
+            throw new IllegalStateException("Both a delta and reverse delta are required");
+        }
+
+        HollowReadStateEngine current = readStates.current().getStateEngine();
+        IncrementalIntegrityCheck check = new IncrementalIntegrityCheck(getWriteEngine());
+
+        applyDelta(artifacts.delta, current);
+        if (!check.validateDelta(current)) {
+            throw new HollowProducer.ChecksumValidationException(HollowProducer.Blob.Type.DELTA);
+        }
+
+        applyDelta(artifacts.reverseDelta, current);
+        if (!check.validateReverseDelta(current)) {
+            throw new HollowProducer.ChecksumValidationException(HollowProducer.Blob.Type.REVERSE_DELTA);
+        }
+
+        applyDelta(artifacts.delta, current);
+        return readStates.swap();
+    }
+
+    private boolean requiresSnapshotForIntegrityCheck() {
+        if (!doIntegrityCheck)
+            return false;
+        // an incremental integrity check falls back to the full check when the data model changes
+        return !incrementalIntegrityCheck || !getWriteEngine().hasIdenticalSchemas(readStates.current().getStateEngine());
+    }
+
     private ReadStateHelper noIntegrityCheck(ReadStateHelper readStates, Artifacts artifacts) throws IOException {
         ReadStateHelper result = readStates;
 
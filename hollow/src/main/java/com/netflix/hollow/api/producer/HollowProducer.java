@@ -28,6 +28,8 @@ import com.netflix.hollow.api.producer.listener.HollowProducerEventListener;
 import com.netflix.hollow.api.producer.validation.ValidatorListener;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.util.BlockCompressedInputStream;
+import com.netflix.hollow.core.util.BlockCompressedOutputStream;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
 import com.netflix.hollow.core.write.HollowBlobWriter;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
@@ -38,6 +40,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -557,6 +560,28 @@ public class HollowProducer extends AbstractHollowProducer {
             }
         };
 
+        /**
+         * Compresses blobs into a block compressed container, whose blocks are compressed independently.  Consumers
+         * detect the container and decompress it without configuration, decompressing blocks in parallel.
+         *
+         * @see BlockCompressedOutputStream
+         */
+        BlobCompressor BLOCK_COMPRESSION = new BlobCompressor() {
+            @Override
+            public OutputStream compress(OutputStream os) {
+                try {
+                    return new BlockCompressedOutputStream(os);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public InputStream decompress(InputStream is) {
+                return BlockCompressedInputStream.decompressIfBlockCompressed(is);
+            }
+        };
+
         /**
          * This method provides an opportunity to wrap the OutputStream used to write the blob (e.g. with a GZIPOutputStream).
          *
@@ -609,6 +634,39 @@ public class HollowProducer extends AbstractHollowProducer {
         }
     }
 
+    /**
+     * A {@link Publisher} which receives the contents of each snapshot, delta and reverse delta as they are written,
+     * for example to upload a blob in parts while the producer is still serializing the remaining types.
+     * <p>
+     * {@link #publish(PublishArtifact)} is still called for each blob once it has been completely written and staged,
+     * at which point the publisher should complete the upload of a streamed blob.  Headers are not streamed.
+     */
+    public interface StreamingPublisher extends Publisher {
+
+        /**
+         * Returns a stream to which the compressed contents of the given blob will be written as they are staged.
+         * The stream is closed only once the blob has been completely written.  If the blob could not be completely
+         * written the stream is not closed, and {@link #abortStream(HollowProducer.Blob, OutputStream)} is called
+         * instead.
+         *
+         * @param blob the blob which is being written
+         * @return the stream to write the blob's contents to
+         * @throws IOException if the stream could not be opened
+         */
+        OutputStream openStream(HollowProducer.Blob blob) throws IOException;
+
+        /**
+         * Called in place of closing the stream opened for the given blob when the blob could not be completely
+         * written.  The publisher should discard the contents written so far, for example by aborting a multipart
+         * upload, and release the stream.
+         *
+         * @param blob the blob which failed to be written
+         * @param stream the stream which was opened for the blob
+         * @throws IOException if the stream could not be released
+         */
+        void abortStream(HollowProducer.Blob blob, OutputStream stream) throws IOException;
+    }
+
     public interface PublishArtifact {
         void cleanup();
         void write(HollowBlobWriter blobWriter) throws IOException;
@@ -720,12 +778,15 @@ public class HollowProducer extends AbstractHollowProducer {
         Executor snapshotPublishExecutor = null;
         int numStatesBetweenSnapshots = 0;
         boolean focusHoleFillInFewestShards = false;
+        boolean offHeapWriteStateStorage = false;
+        File offHeapWriteStateStorageDir = null;
         long targetMaxTypeShardSize = DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE;
         HollowMetricsCollector<HollowProducerMetrics> metricsCollector;
         BlobStorageCleaner blobStorageCleaner = new DummyBlobStorageCleaner();
         SingleProducerEnforcer singleProducerEnforcer = new BasicSingleProducerEnforcer();
         HollowObjectHashCodeFinder hashCodeFinder = null;
         boolean doIntegrityCheck = true;
+        boolean incrementalIntegrityCheck = false;
         ProducerOptionalBlobPartConfig optionalPartConfig = null;
 
         public B withBlobStager(HollowProducer.BlobStager stager) {
@@ -855,6 +916,34 @@ public class HollowProducer extends AbstractHollowProducer {
             return (B) this;
         }
 
+        /**
+         * Retain the producer's serialized records in direct memory, outside of the JVM heap.  Direct memory is
+         * limited by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size, and should be raised
+         * to hold the serialized records.
+         *
+         * @return this builder
+         * @see HollowWriteStateEngine#setOffHeapStorage(boolean, File)
+         */
+        public B withOffHeapWriteStateStorage() {
+            this.offHeapWriteStateStorage = true;
+            this.offHeapWriteStateStorageDir = null;
+            return (B) this;
+        }
+
+        /**
+         * Retain the producer's serialized records in memory mapped files created in the given directory,
+         * outside of the JVM heap.
+         *
+         * @param dir the directory in which to create the memory mapped files
+         * @return this builder
+         * @see HollowWriteStateEngine#setOffHeapStorage(boolean, File)
+         */
+        public B withOffHeapWriteStateStorage(File dir) {
+            this.offHeapWriteStateStorage = true;
+            this.offHeapWriteStateStorageDir = dir;
+            return (B) this;
+        }
+
         public B withMetricsCollector(HollowMetricsCollector<HollowProducerMetrics> metricsCollector) {
             this.metricsCollector = metricsCollector;
             return (B) this;
@@ -886,6 +975,21 @@ public class HollowProducer extends AbstractHollowProducer {
             return (B) this;
         }
 
+        /**
+         * Check the integrity of each delta and reverse delta by validating only the records they add against the
+         * write state, rather than by reading the snapshot and comparing checksums of two complete read states.
+         * <p>
+         * The populated ordinals of every type are still compared in full, but hash positions of SET and MAP
+         * elements are not validated.  Cycles in which the data model changes fall back to the full integrity check.
+         *
+         * @return this builder
+         */
+        public B withIncrementalIntegrityCheck() {
+            this.doIntegrityCheck = true;
+            this.incrementalIntegrityCheck = true;
+            return (B) this;
+        }
+
         protected void checkArguments() {
             if (stager != null && compressor != null) {
                 throw new IllegalArgumentException(
@@ -903,7 +1007,8 @@ public class HollowProducer extends AbstractHollowProducer {
             if (this.stager == null) {
                 BlobCompressor compressor = this.compressor != null ? this.compressor : BlobCompressor.NO_COMPRESSION;
                 File stagingDir = this.stagingDir != null ? this.stagingDir : new File(System.getProperty("java.io.tmpdir"));
-                this.stager = new HollowFilesystemBlobStager(stagingDir.toPath(), compressor, optionalPartConfig);
+                StreamingPublisher streamingPublisher = publisher instanceof StreamingPublisher ? (StreamingPublisher) publisher : null;
+                this.stager = new HollowFilesystemBlobStager(stagingDir.toPath(), compressor, optionalPartConfig, streamingPublisher);
             }
         }
 
@@ -0,0 +1,166 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer;
+
+import static com.netflix.hollow.core.write.HollowHashableWriteRecord.HashBehavior.IGNORED_HASHES;
+
+import com.netflix.hollow.core.memory.ByteDataArray;
+import com.netflix.hollow.core.memory.ThreadSafeBitSet;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
+import com.netflix.hollow.core.write.HollowHashableWriteRecord;
+import com.netflix.hollow.core.write.HollowTypeWriteState;
+import com.netflix.hollow.core.write.HollowWriteRecord;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.copy.HollowRecordCopier;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import com.netflix.hollow.tools.combine.IdentityOrdinalRemapper;
+import java.util.BitSet;
+import java.util.Vector;
+import java.util.logging.Logger;
+
+/**
+ * Validates a delta or reverse delta, once applied to a read state, against the write state from which it was
+ * produced.<p>
+ *
+ * Only the records added by the transition are examined.  For each type, the populated ordinals of the read state
+ * must exactly match those expected by the write state, and per-shard checksums of the added records must match
+ * per-shard checksums of the corresponding records held by the write state.  Hash positions of SET and MAP elements
+ * are not incorporated into the checksums.
+ */
+final class IncrementalIntegrityCheck {
+    private static final Logger log = Logger.getLogger(IncrementalIntegrityCheck.class.getName());
+
+    private final HollowWriteStateEngine writeEngine;
+
+    IncrementalIntegrityCheck(HollowWriteStateEngine writeEngine) {
+        this.writeEngine = writeEngine;
+    }
+
+    /**
+     * Validate a read state to which the delta from the prior cycle to this cycle has been applied.
+     *
+     * @param readEngine the read state
+     * @return true if the read state matches the records populated in this cycle
+     */
+    boolean validateDelta(HollowReadStateEngine readEngine) {
+        return validate(readEngine, true);
+    }
+
+    /**
+     * Validate a read state to which the reverse delta from this cycle to the prior cycle has been applied.
+     *
+     * @param readEngine the read state
+     * @return true if the read state matches the records populated in the prior cycle
+     */
+    boolean validateReverseDelta(HollowReadStateEngine readEngine) {
+        return validate(readEngine, false);
+    }
+
+    private boolean validate(HollowReadStateEngine readEngine, boolean forward) {
+        final Vector<String> mismatchedTypes = new Vector<>();
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "incremental-integrity-check");
+
+        for(final HollowTypeWriteState writeState : writeEngine.getOrderedTypeStates()) {
+            final HollowTypeReadState readState = readEngine.getTypeState(writeState.getSchema().getName());
+            if(readState == null) {
+                mismatchedTypes.add(writeState.getSchema().getName());
+                continue;
+            }
+
+            executor.execute(() -> {
+                ThreadSafeBitSet expected = forward ? writeState.getPopulatedBitSet() : writeState.getPreviousCyclePopulatedBitSet();
+                ThreadSafeBitSet prior = forward ? writeState.getPreviousCyclePopulatedBitSet() : writeState.getPopulatedBitSet();
+
+                if(!validateType(readState, writeState, expected.toBitSet(), expected.andNot(prior)))
+                    mismatchedTypes.add(writeState.getSchema().getName());
+            });
+        }
+
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        if(!mismatchedTypes.isEmpty()) {
+            log.warning("INCREMENTAL INTEGRITY CHECK FAILED FOR TYPES: " + mismatchedTypes);
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean validateType(HollowTypeReadState readState, HollowTypeWriteState writeState,
+            BitSet expectedOrdinals, ThreadSafeBitSet addedOrdinals) {
+        if(!readState.getSchema().equals(writeState.getSchema()))
+            return false;
+        if(!readState.getPopulatedOrdinals().equals(expectedOrdinals))
+            return false;
+
+        int numShards = readState.numShards();
+        HollowChecksum[] readChecksums = new HollowChecksum[numShards];
+        HollowChecksum[] writeChecksums = new HollowChecksum[numShards];
+        for(int i=0;i<numShards;i++) {
+            readChecksums[i] = new HollowChecksum();
+            writeChecksums[i] = new HollowChecksum();
+        }
+
+        HollowRecordCopier copier = HollowRecordCopier.createCopier(readState, IdentityOrdinalRemapper.INSTANCE, false);
+        ByteDataArray scratch = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+
+        int ordinal = addedOrdinals.nextSetBit(0);
+        while(ordinal != -1) {
+            int shard = ordinal & (numShards - 1);
+
+            HollowWriteRecord rec = copier.copy(ordinal);
+            if(rec instanceof HollowHashableWriteRecord)
+                ((HollowHashableWriteRecord) rec).writeDataTo(scratch, IGNORED_HASHES);
+            else
+                rec.writeDataTo(scratch);
+            applyRecord(readChecksums[shard], ordinal, scratch);
+            scratch.reset();
+
+            writeState.writeRecordWithoutHashesTo(ordinal, scratch);
+            applyRecord(writeChecksums[shard], ordinal, scratch);
+            scratch.reset();
+
+            ordinal = addedOrdinals.nextSetBit(ordinal + 1);
+        }
+
+        scratch.getUnderlyingArray().destroy();
+
+        for(int i=0;i<numShards;i++) {
+            if(!readChecksums[i].equals(writeChecksums[i])) {
+                log.warning("Checksum mismatch for type " + writeState.getSchema().getName() + " shard " + i
+                        + ": read " + readChecksums[i] + ", write " + writeChecksums[i]);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void applyRecord(HollowChecksum checksum, int ordinal, ByteDataArray record) {
+        checksum.applyInt(ordinal);
+        checksum.applyLong(record.length());
+        checksum.applyInt(HashCodes.hashCode(record));
+    }
+}
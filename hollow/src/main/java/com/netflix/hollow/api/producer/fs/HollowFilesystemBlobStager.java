@@ -25,6 +25,7 @@ import com.netflix.hollow.api.producer.HollowProducer.Blob;
 import com.netflix.hollow.api.producer.HollowProducer.BlobCompressor;
 import com.netflix.hollow.api.producer.HollowProducer.BlobStager;
 import com.netflix.hollow.api.producer.HollowProducer.HeaderBlob;
+import com.netflix.hollow.api.producer.HollowProducer.StreamingPublisher;
 import com.netflix.hollow.api.producer.ProducerOptionalBlobPartConfig;
 import com.netflix.hollow.core.HollowConstants;
 import com.netflix.hollow.core.write.HollowBlobWriter;
@@ -47,6 +48,7 @@ public class HollowFilesystemBlobStager implements BlobStager {
     protected Path stagingPath;
     protected BlobCompressor compressor;
     protected ProducerOptionalBlobPartConfig optionalPartConfig;
+    protected StreamingPublisher streamingPublisher;
 
     /**
      * Constructor to create a new HollowFilesystemBlobStager with default disk path
@@ -69,9 +71,26 @@ public class HollowFilesystemBlobStager implements BlobStager {
     }
 
     public HollowFilesystemBlobStager(Path stagingPath, BlobCompressor compressor, ProducerOptionalBlobPartConfig optionalPartConfig) throws RuntimeException {
+        this(stagingPath, compressor, optionalPartConfig, null);
+    }
+
+    /**
+     * Constructor to create a new HollowFilesystemBlobStager with specified disk
+     * path and compression for Hollow blobs, which streams the contents of each snapshot,
+     * delta and reverse delta to a publisher as they are written.
+     *
+     * @param stagingPath the path where to stage blobs
+     * @param compressor the blob compressor
+     * @param optionalPartConfig the optional blob part config, or null
+     * @param streamingPublisher the publisher to stream blobs to, or null
+     * @throws RuntimeException if errors occur when creating the specified path
+     */
+    public HollowFilesystemBlobStager(Path stagingPath, BlobCompressor compressor, ProducerOptionalBlobPartConfig optionalPartConfig,
+            StreamingPublisher streamingPublisher) throws RuntimeException {
         this.stagingPath = stagingPath;
         this.compressor = compressor;
         this.optionalPartConfig = optionalPartConfig;
+        this.streamingPublisher = streamingPublisher;
 
         try {
             if (!Files.exists(stagingPath))
@@ -98,17 +117,17 @@ public class HollowFilesystemBlobStager implements BlobStager {
 
     @Override
     public HollowProducer.Blob openSnapshot(long version) {
-        return new FilesystemBlob(HollowConstants.VERSION_NONE, version, SNAPSHOT, stagingPath, compressor, optionalPartConfig);
+        return new FilesystemBlob(HollowConstants.VERSION_NONE, version, SNAPSHOT, stagingPath, compressor, optionalPartConfig, streamingPublisher);
     }
 
     @Override
     public HollowProducer.Blob openDelta(long fromVersion, long toVersion) {
-        return new FilesystemBlob(fromVersion, toVersion, DELTA, stagingPath, compressor, optionalPartConfig);
+        return new FilesystemBlob(fromVersion, toVersion, DELTA, stagingPath, compressor, optionalPartConfig, streamingPublisher);
     }
 
     @Override
     public HollowProducer.Blob openReverseDelta(long fromVersion, long toVersion) {
-        return new FilesystemBlob(fromVersion, toVersion, REVERSE_DELTA, stagingPath, compressor, optionalPartConfig);
+        return new FilesystemBlob(fromVersion, toVersion, REVERSE_DELTA, stagingPath, compressor, optionalPartConfig, streamingPublisher);
     }
 
     @Override
@@ -173,10 +192,14 @@ public class HollowFilesystemBlobStager implements BlobStager {
         protected final Path path;
         protected final Map<String, Path> optionalPartPaths;
         private final BlobCompressor compressor;
+        private final StreamingPublisher streamingPublisher;
 
-        private FilesystemBlob(long fromVersion, long toVersion, Type type, Path dirPath, BlobCompressor compressor, ProducerOptionalBlobPartConfig optionalPartConfig) {
+        private FilesystemBlob(long fromVersion, long toVersion, Type type, Path dirPath, BlobCompressor compressor,
+                ProducerOptionalBlobPartConfig optionalPartConfig, StreamingPublisher streamingPublisher) {
             super(fromVersion, toVersion, type, optionalPartConfig);
 
+            this.streamingPublisher = streamingPublisher;
+
             this.optionalPartPaths = optionalPartConfig == null ? Collections.emptyMap() : new HashMap<>();
 
             this.compressor = compressor;
@@ -245,7 +268,23 @@ public class HollowFilesystemBlobStager implements BlobStager {
                 }
             }
 
-            try (OutputStream os = new BufferedOutputStream(compressor.compress(Files.newOutputStream(path)))) {
+            OutputStream stagedStream = Files.newOutputStream(path);
+            TeeOutputStream teeStream = null;
+            if (streamingPublisher != null) {
+                try {
+                    teeStream = new TeeOutputStream(stagedStream, streamingPublisher.openStream(this), streamingPublisher, this);
+                } catch (Throwable t) {
+                    closeOnFailure(stagedStream, t);
+                    if (optionalPartStreams != null)
+                        optionalPartStreams.close();
+                    throw t;
+                }
+                stagedStream = teeStream;
+            }
+
+            OutputStream os = null;
+            try {
+                os = new BufferedOutputStream(compressor.compress(stagedStream));
                 switch (type) {
                 case SNAPSHOT:
                     writer.writeSnapshot(os, optionalPartStreams);
@@ -259,6 +298,19 @@ public class HollowFilesystemBlobStager implements BlobStager {
                 default:
                     throw new IllegalStateException("unknown type, type=" + type);
                 }
+                // only a completely written blob closes, and so completes, the stream of a streaming publisher
+                os.close();
+            } catch (Throwable t) {
+                if (teeStream != null) {
+                    try {
+                        teeStream.abort();
+                    } catch (Throwable suppressed) {
+                        t.addSuppressed(suppressed);
+                    }
+                } else {
+                    closeOnFailure(os != null ? os : stagedStream, t);
+                }
+                throw t;
             } finally {
                 if (optionalPartStreams != null)
                     optionalPartStreams.close();
@@ -266,6 +318,14 @@ public class HollowFilesystemBlobStager implements BlobStager {
 
         }
 
+        private void closeOnFailure(OutputStream os, Throwable failure) {
+            try {
+                os.close();
+            } catch (Throwable suppressed) {
+                failure.addSuppressed(suppressed);
+            }
+        }
+
         @Override
         public InputStream newInputStream() throws IOException {
             return new BufferedInputStream(compressor.decompress(Files.newInputStream(this.path)));
@@ -306,4 +366,61 @@ public class HollowFilesystemBlobStager implements BlobStager {
         }
     }
 
+    /**
+     * Writes to both the staged file and the stream of a {@link StreamingPublisher}.  Closing the stream completes the
+     * streamed blob, while aborting it hands the stream back to the publisher to discard.
+     */
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream staged;
+        private final OutputStream streamed;
+        private final StreamingPublisher streamingPublisher;
+        private final Blob blob;
+        private boolean finished;
+
+        TeeOutputStream(OutputStream staged, OutputStream streamed, StreamingPublisher streamingPublisher, Blob blob) {
+            this.staged = staged;
+            this.streamed = streamed;
+            this.streamingPublisher = streamingPublisher;
+            this.blob = blob;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            staged.write(b);
+            streamed.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            staged.write(b, off, len);
+            streamed.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            staged.flush();
+            streamed.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (finished)
+                return;
+            staged.close();
+            finished = true;
+            streamed.close();
+        }
+
+        void abort() throws IOException {
+            if (finished)
+                return;
+            finished = true;
+            try {
+                staged.close();
+            } finally {
+                streamingPublisher.abortStream(blob, streamed);
+            }
+        }
+    }
+
 }
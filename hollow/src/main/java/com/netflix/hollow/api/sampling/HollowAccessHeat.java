@@ -0,0 +1,262 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.sampling;
+
+import com.netflix.hollow.core.index.FieldPaths;
+import com.netflix.hollow.core.index.FieldPaths.ObjectFieldSegment;
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.core.schema.HollowMapSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSetSchema;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The access heat of the types and fields of a dataset, aggregated by a {@link HollowAccessHeatProfiler} over a
+ * time window, and the {@link TypeFilter} which would exclude the types and fields which were never accessed.
+ * <p>
+ * A type which was never accessed is only excluded if at least {@code minSamples} accesses of all types were sampled,
+ * and a field which was never accessed only if at least {@code minSamples} accesses of its type were sampled, since
+ * with fewer samples a rarely accessed type or field cannot be told apart from an unused one.
+ * <p>
+ * A type is accessed if any of its fields, or for a collection any of its elements, was accessed.  The fields of
+ * the primary key of an accessed type, and the fields of the hash key of an accessed set or map, are retained
+ * whether or not they were accessed, since indexes read them without the access being sampled.
+ * <p>
+ * The heap saved by the filter is estimated from the approximate heap footprint of the excluded types and fields,
+ * at the time the heat was reported.
+ */
+public class HollowAccessHeat {
+
+    public static final long DEFAULT_MIN_SAMPLES = 10000;
+
+    private final long windowStartMillis;
+    private final long windowEndMillis;
+    private final long minSamples;
+    private final Map<String, Long> typeAccessCounts;
+    private final Map<String, Map<String, Long>> fieldAccessCounts;
+    private final Set<String> excludedTypes;
+    private final Map<String, Set<String>> excludedFields;
+    private final Map<String, Set<String>> retainedFields;
+    private final Map<String, Long> estimatedHeapSavedInBytes;
+
+    HollowAccessHeat(HollowReadStateEngine stateEngine, long windowStartMillis, long windowEndMillis,
+            Map<String, Long> typeAccessCounts, Map<String, Map<String, Long>> fieldAccessCounts, long minSamples) {
+        this.windowStartMillis = windowStartMillis;
+        this.windowEndMillis = windowEndMillis;
+        this.minSamples = minSamples;
+        this.typeAccessCounts = new TreeMap<>();
+        this.fieldAccessCounts = new TreeMap<>();
+        this.excludedTypes = new TreeSet<>();
+        this.excludedFields = new TreeMap<>();
+        this.retainedFields = new TreeMap<>();
+        this.estimatedHeapSavedInBytes = new TreeMap<>();
+
+        for(HollowTypeReadState typeState : stateEngine.getTypeStates()) {
+            String type = typeState.getSchema().getName();
+            this.typeAccessCounts.put(type, typeAccessCounts.getOrDefault(type, 0L));
+            if(typeState.getSchema() instanceof HollowObjectSchema) {
+                HollowObjectSchema schema = (HollowObjectSchema) typeState.getSchema();
+                Map<String, Long> counts = fieldAccessCounts.getOrDefault(type, Collections.emptyMap());
+                Map<String, Long> fieldCounts = new TreeMap<>();
+                for(int i=0;i<schema.numFields();i++)
+                    fieldCounts.put(schema.getFieldName(i), counts.getOrDefault(schema.getFieldName(i), 0L));
+                this.fieldAccessCounts.put(type, fieldCounts);
+            }
+        }
+
+        Map<String, Set<String>> retainedKeyFields = retainedKeyFields(stateEngine);
+        boolean sampledAllTypes = getTotalSamples() >= minSamples;
+
+        for(HollowTypeReadState typeState : stateEngine.getTypeStates()) {
+            String type = typeState.getSchema().getName();
+            long typeSamples = this.typeAccessCounts.get(type);
+            // too few samples to tell a rarely accessed type or field apart from an unused one
+            if(typeSamples == 0 ? !sampledAllTypes : typeSamples < minSamples)
+                continue;
+
+            if(typeSamples == 0 && !retainedKeyFields.containsKey(type)) {
+                excludedTypes.add(type);
+                estimatedHeapSavedInBytes.put(type, typeState.getApproximateHeapFootprintInBytes());
+            } else if(typeState instanceof HollowObjectTypeReadState) {
+                HollowObjectTypeReadState objectTypeState = (HollowObjectTypeReadState) typeState;
+                HollowObjectSchema schema = objectTypeState.getSchema();
+                Set<String> retained = retainedKeyFields.getOrDefault(type, Collections.emptySet());
+                Set<String> fields = new TreeSet<>();
+                Set<String> keptFields = new TreeSet<>();
+                long heapSaved = 0;
+                for(int i=0;i<schema.numFields();i++) {
+                    String field = schema.getFieldName(i);
+                    if(this.fieldAccessCounts.get(type).get(field) == 0 && !retained.contains(field)) {
+                        fields.add(field);
+                        heapSaved += objectTypeState.getApproximateHeapFootprintInBytes(i);
+                    } else {
+                        keptFields.add(field);
+                    }
+                }
+                if(!fields.isEmpty()) {
+                    excludedFields.put(type, fields);
+                    retainedFields.put(type, keptFields);
+                    estimatedHeapSavedInBytes.put(type, heapSaved);
+                }
+            }
+        }
+    }
+
+    /**
+     * The fields of the keys of the accessed types, by the types which declare them.
+     */
+    private Map<String, Set<String>> retainedKeyFields(HollowReadStateEngine stateEngine) {
+        Map<String, Set<String>> retained = new HashMap<>();
+        for(HollowSchema schema : stateEngine.getSchemas()) {
+            if(typeAccessCounts.get(schema.getName()) == 0)
+                continue;
+
+            PrimaryKey key = null;
+            if(schema instanceof HollowObjectSchema)
+                key = ((HollowObjectSchema) schema).getPrimaryKey();
+            else if(schema instanceof HollowSetSchema)
+                key = ((HollowSetSchema) schema).getHashKey();
+            else if(schema instanceof HollowMapSchema)
+                key = ((HollowMapSchema) schema).getHashKey();
+            if(key == null)
+                continue;
+
+            for(String fieldPath : key.getFieldPaths()) {
+                try {
+                    for(ObjectFieldSegment segment : FieldPaths.createFieldPathForPrimaryKey(stateEngine, key.getType(), fieldPath).getSegments())
+                        retained.computeIfAbsent(segment.getEnclosingSchema().getName(), k -> new HashSet<>()).add(segment.getName());
+                } catch(IllegalArgumentException e) {
+                    // the key does not bind to the types loaded by the consumer, and cannot be used by an index
+                }
+            }
+        }
+        return retained;
+    }
+
+    public long getWindowStartMillis() {
+        return windowStartMillis;
+    }
+
+    public long getWindowEndMillis() {
+        return windowEndMillis;
+    }
+
+    /**
+     * @return the number of sampled accesses below which no type, or none of a type's fields, is excluded
+     */
+    public long getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * @return the number of sampled accesses of all types
+     */
+    public long getTotalSamples() {
+        long total = 0;
+        for(long samples : typeAccessCounts.values())
+            total += samples;
+        return total;
+    }
+
+    /**
+     * @return the number of sampled accesses of each type
+     */
+    public Map<String, Long> getTypeAccessCounts() {
+        return Collections.unmodifiableMap(typeAccessCounts);
+    }
+
+    /**
+     * @return the number of sampled accesses of each field, for each object type
+     */
+    public Map<String, Map<String, Long>> getFieldAccessCounts() {
+        return Collections.unmodifiableMap(fieldAccessCounts);
+    }
+
+    /**
+     * @return the types which the recommended filter excludes
+     */
+    public Set<String> getExcludedTypes() {
+        return Collections.unmodifiableSet(excludedTypes);
+    }
+
+    /**
+     * @return the fields which the recommended filter excludes, for each object type which it does not exclude
+     */
+    public Map<String, Set<String>> getExcludedFields() {
+        return Collections.unmodifiableMap(excludedFields);
+    }
+
+    /**
+     * @return a type filter which excludes the types and fields which were not accessed.  Types which were not loaded
+     * when the heat was reported are included.
+     */
+    public TypeFilter getRecommendedTypeFilter() {
+        TypeFilter.Builder builder = TypeFilter.newTypeFilter();
+        for(String type : excludedTypes)
+            builder.exclude(type);
+        // a type's fields are filtered by excluding the type and including the fields it retains
+        for(Map.Entry<String, Set<String>> entry : retainedFields.entrySet()) {
+            builder.exclude(entry.getKey());
+            for(String field : entry.getValue())
+                builder.include(entry.getKey(), field);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the estimated heap saved by the recommended filter, for each type which it excludes or excludes
+     * fields of
+     */
+    public Map<String, Long> getEstimatedHeapSavedInBytesPerType() {
+        return Collections.unmodifiableMap(estimatedHeapSavedInBytes);
+    }
+
+    /**
+     * @return the estimated heap saved by the recommended filter
+     */
+    public long getEstimatedHeapSavedInBytes() {
+        long total = 0;
+        for(long bytes : estimatedHeapSavedInBytes.values())
+            total += bytes;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Access heat over ").append(windowEndMillis - windowStartMillis).append("ms");
+        builder.append(" (").append(getTotalSamples()).append(" samples): ");
+        builder.append(excludedTypes.size()).append(" types and ");
+        int numFields = 0;
+        for(Set<String> fields : excludedFields.values())
+            numFields += fields.size();
+        builder.append(numFields).append(" fields not accessed, estimated ");
+        builder.append(getEstimatedHeapSavedInBytes()).append(" bytes of heap");
+        return builder.toString();
+    }
+}
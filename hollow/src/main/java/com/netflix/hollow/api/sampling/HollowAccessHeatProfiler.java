@@ -0,0 +1,203 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.sampling;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.custom.HollowAPI;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Profiles which types and fields of a consumer's data are accessed, and recommends or applies a
+ * {@link com.netflix.hollow.core.read.filter.TypeFilter} which excludes those which are not.
+ * <p>
+ * Profiling samples accesses through the samplers of the consumer's type states from {@link #start()} until
+ * {@link #stop()}.  Unless another director is given every access is recorded, so that rarely accessed fields are not
+ * mistaken for unused ones.  The sample counts survive double snapshots, which replace the type states.  While
+ * profiling, the samplers of the consumer's type states are reserved for the profiler.
+ * <p>
+ * No type or field is recommended for exclusion until enough accesses have been sampled to tell it apart from one
+ * which is merely rarely accessed: a type only once {@code minSamples} accesses of all types have been sampled, and a
+ * field only once {@code minSamples} accesses of its type have been sampled.
+ * <p>
+ * The window should be long enough for every access pattern of the application to be sampled, since a field which
+ * is filtered out reads as missing.  Reads through an API generated with direct access are not sampled, and such an
+ * API should not be profiled.
+ * <p>
+ * Once profiled, {@link #applyRecommendedFilter()} sets the recommended filter on the consumer, to be applied on its
+ * next double snapshot:
+ * <pre>{@code
+ * HollowAccessHeatProfiler profiler = new HollowAccessHeatProfiler(consumer);
+ * profiler.start();
+ * ...
+ * profiler.stop();
+ * HollowAccessHeat heat = profiler.applyRecommendedFilter();
+ * consumer.forceDoubleSnapshotNextUpdate();
+ * }</pre>
+ */
+public class HollowAccessHeatProfiler extends HollowConsumer.AbstractRefreshListener {
+    private static final Logger LOG = Logger.getLogger(HollowAccessHeatProfiler.class.getName());
+
+    private final HollowConsumer consumer;
+    private final HollowSamplingDirector director;
+    private final long minSamples;
+
+    private final Map<String, Long> typeAccessCounts = new HashMap<>();
+    private final Map<String, Map<String, Long>> fieldAccessCounts = new HashMap<>();
+
+    private HollowReadStateEngine profiledStateEngine;
+    private HollowAPI profiledAPI;
+    private boolean profiling;
+    private long windowStartMillis = -1;
+    private long windowEndMillis = -1;
+
+    public HollowAccessHeatProfiler(HollowConsumer consumer) {
+        this(consumer, new EnabledSamplingDirector());
+    }
+
+    /**
+     * @param consumer the consumer to profile
+     * @param director the director which decides when accesses are sampled.  A director which records only some
+     * accesses, such as a {@link TimeSliceSamplingDirector}, is more likely to miss rarely accessed fields.
+     */
+    public HollowAccessHeatProfiler(HollowConsumer consumer, HollowSamplingDirector director) {
+        this(consumer, director, HollowAccessHeat.DEFAULT_MIN_SAMPLES);
+    }
+
+    /**
+     * @param consumer the consumer to profile
+     * @param director the director which decides when accesses are sampled
+     * @param minSamples the number of sampled accesses below which no type, or none of a type's fields, is recommended
+     * for exclusion
+     */
+    public HollowAccessHeatProfiler(HollowConsumer consumer, HollowSamplingDirector director, long minSamples) {
+        this.consumer = consumer;
+        this.director = director;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Start, or resume, sampling accesses to the consumer's data.
+     */
+    public synchronized void start() {
+        if(profiling)
+            return;
+        profiling = true;
+        if(windowStartMillis == -1)
+            windowStartMillis = System.currentTimeMillis();
+        consumer.addRefreshListener(this);
+        profile(consumer.getAPI(), consumer.getStateEngine());
+    }
+
+    /**
+     * Stop sampling accesses to the consumer's data, and report the heat aggregated since profiling first started.
+     *
+     * @return the access heat
+     */
+    public synchronized HollowAccessHeat stop() {
+        if(profiling) {
+            profiling = false;
+            windowEndMillis = System.currentTimeMillis();
+            consumer.removeRefreshListener(this);
+            profile(null, null);
+        }
+        return getAccessHeat();
+    }
+
+    /**
+     * @return the access heat aggregated since profiling first started, for the types the consumer has loaded
+     * @throws IllegalStateException if profiling has not started or the consumer has not loaded any data
+     */
+    public synchronized HollowAccessHeat getAccessHeat() {
+        HollowReadStateEngine stateEngine = consumer.getStateEngine();
+        if(windowStartMillis == -1 || stateEngine == null)
+            throw new IllegalStateException("No access heat has been profiled");
+
+        Map<String, Long> typeCounts = new HashMap<>(typeAccessCounts);
+        Map<String, Map<String, Long>> fieldCounts = new HashMap<>();
+        for(Map.Entry<String, Map<String, Long>> entry : fieldAccessCounts.entrySet())
+            fieldCounts.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        if(profiledStateEngine != null)
+            aggregate(profiledStateEngine, typeCounts, fieldCounts);
+
+        long windowEnd = profiling ? System.currentTimeMillis() : windowEndMillis;
+        return new HollowAccessHeat(stateEngine, windowStartMillis, windowEnd, typeCounts, fieldCounts, minSamples);
+    }
+
+    /**
+     * Set the filter recommended by the access heat aggregated so far on the consumer, so that it is applied on the
+     * next double snapshot.
+     *
+     * @return the access heat from which the filter was recommended
+     * @see HollowConsumer#setTypeFilter(com.netflix.hollow.core.read.filter.TypeFilter)
+     */
+    public synchronized HollowAccessHeat applyRecommendedFilter() {
+        HollowAccessHeat heat = getAccessHeat();
+        consumer.setTypeFilter(heat.getRecommendedTypeFilter());
+        LOG.info(heat + "; the filter will be applied on the next double snapshot");
+        return heat;
+    }
+
+    @Override
+    public synchronized void snapshotUpdateOccurred(HollowAPI api, HollowReadStateEngine stateEngine, long version) {
+        if(profiling && stateEngine != profiledStateEngine)
+            profile(api, stateEngine);
+    }
+
+    /**
+     * Aggregate the accesses sampled from the state being profiled, and start sampling the given state.
+     */
+    private void profile(HollowAPI api, HollowReadStateEngine stateEngine) {
+        if(profiledStateEngine != null) {
+            aggregate(profiledStateEngine, typeAccessCounts, fieldAccessCounts);
+            setSamplingDirector(profiledAPI, profiledStateEngine, DisabledSamplingDirector.INSTANCE);
+        }
+
+        profiledAPI = api;
+        profiledStateEngine = stateEngine;
+        if(stateEngine != null) {
+            stateEngine.resetSampling();
+            setSamplingDirector(api, stateEngine, director);
+        }
+    }
+
+    private static void setSamplingDirector(HollowAPI api, HollowReadStateEngine stateEngine, HollowSamplingDirector director) {
+        if(api != null)
+            api.setSamplingDirector(director);
+        for(HollowTypeReadState typeState : stateEngine.getTypeStates())
+            typeState.setSamplingDirector(director);
+    }
+
+    private static void aggregate(HollowReadStateEngine stateEngine,
+            Map<String, Long> typeCounts, Map<String, Map<String, Long>> fieldCounts) {
+        for(HollowTypeReadState typeState : stateEngine.getTypeStates()) {
+            String type = typeState.getSchema().getName();
+            boolean isObject = typeState.getSchema() instanceof HollowObjectSchema;
+            for(SampleResult result : typeState.getSampler().getSampleResults()) {
+                typeCounts.merge(type, result.getNumSamples(), Long::sum);
+                if(isObject) {
+                    String field = result.getIdentifier().substring(type.length() + 1);
+                    fieldCounts.computeIfAbsent(type, t -> new HashMap<>()).merge(field, result.getNumSamples(), Long::sum);
+                }
+            }
+        }
+    }
+}
@@ -28,6 +28,9 @@ import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import java.util.BitSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A HollowHashIndex is used for indexing non-primary-key data.  This type of index can map multiple keys to a single matching record, and/or
@@ -38,9 +41,19 @@ import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
  * <i>actors</i>, each elements contained therein, and finally each actors <i>actorId</i> field.
  */
 public class HollowHashIndex implements HollowTypeStateListener {
+    private static final Logger LOG = Logger.getLogger(HollowHashIndex.class.getName());
+
+    private static final boolean ALLOW_DELTA_UPDATE =
+            !Boolean.getBoolean("com.netflix.hollow.core.index.HollowHashIndex.disableDeltaUpdate");
+
+    /// the fraction of populated records which may change in a delta for the index to be updated rather than rebuilt
+    private static final double MAX_DELTA_UPDATE_CHANGE_FRACTION = 0.1d;
 
     private volatile HollowHashIndexState hashStateVolatile;
 
+    private final BitSet removedOrdinals = new BitSet();
+    private final BitSet addedOrdinals = new BitSet();
+
     private final HollowDataAccess hollowDataAccess;
     private final HollowObjectTypeDataAccess typeState;
     private final String type;
@@ -104,13 +117,7 @@ public class HollowHashIndex implements HollowTypeStateListener {
      * found.
      */
     public HollowHashIndexResult findMatches(Object... query) {
-        int hashCode = 0;
-
-        for(int i=0;i<query.length;i++) {
-            if(query[i] == null)
-                throw new IllegalArgumentException("querying by null unsupported; i=" + i);
-            hashCode ^= HashCodes.hashInt(keyHashCode(query[i], i));
-        }
+        int hashCode = queryHashCode(query);
 
         HollowHashIndexResult result;
         HollowHashIndexState hashState;
@@ -139,6 +146,88 @@ public class HollowHashIndex implements HollowTypeStateListener {
         return result;
     }
 
+    /**
+     * Query the index for each of a batch of queries.  The result of each query is placed at the same position in the
+     * results array, or {@code null} if no matches were found for the query.
+     * <p>
+     * Looking up many queries at once is faster than querying for each in turn, since the hash table loads for
+     * different queries are interleaved rather than each waiting for the last.
+     *
+     * @param queries the match field values of each query
+     * @param results the array to populate with the hash index results, at least as long as the queries
+     * @throws IllegalArgumentException if the results array is shorter than the queries
+     */
+    public void findMatches(Object[][] queries, HollowHashIndexResult[] results) {
+        if(results.length < queries.length)
+            throw new IllegalArgumentException("results array is shorter than the queries; queries=" + queries.length + ", results=" + results.length);
+
+        int chunkSize = Math.min(queries.length, PrimaryKeyIndexBatchLookup.CHUNK_SIZE);
+        int[] hashCodes = new int[chunkSize];
+        long[] buckets = new long[chunkSize];
+        boolean[] bucketIsEmpty = new boolean[chunkSize];
+        int[] pending = new int[chunkSize];
+
+        for(int from=0;from<queries.length;from+=chunkSize) {
+            int to = Math.min(queries.length, from + chunkSize);
+
+            for(int i=from;i<to;i++)
+                hashCodes[i - from] = queryHashCode(queries[i]);
+
+            HollowHashIndexState hashState;
+            do {
+                hashState = hashStateVolatile;
+                FixedLengthElementArray matchHashTable = hashState.getMatchHashTable();
+                int numPending = to - from;
+                for(int i=0;i<numPending;i++) {
+                    buckets[i] = hashCodes[i] & hashState.getMatchHashMask();
+                    pending[i] = i;
+                    results[from + i] = null;
+                }
+
+                while(numPending > 0) {
+                    // read the bucket of every pending query before comparing any, so that the loads are independent
+                    for(int p=0;p<numPending;p++) {
+                        int i = pending[p];
+                        long hashBucketBit = buckets[i] * hashState.getBitsPerMatchHashEntry();
+                        bucketIsEmpty[i] = matchHashTable.getElementValue(hashBucketBit, hashState.getBitsPerTraverserField()[0]) == 0;
+                    }
+
+                    int stillPending = 0;
+                    for(int p=0;p<numPending;p++) {
+                        int i = pending[p];
+                        if(bucketIsEmpty[i])
+                            continue;
+
+                        long hashBucketBit = buckets[i] * hashState.getBitsPerMatchHashEntry();
+                        if(matchIsEqual(matchHashTable, hashBucketBit, queries[from + i])) {
+                            int selectSize = (int) matchHashTable.getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey(), hashState.getBitsPerSelectTableSize());
+                            long selectBucketPointer = matchHashTable.getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey() + hashState.getBitsPerSelectTableSize(), hashState.getBitsPerSelectTablePointer());
+
+                            results[from + i] = new HollowHashIndexResult(hashState, selectBucketPointer, selectSize);
+                            continue;
+                        }
+
+                        buckets[i] = (buckets[i] + 1) & hashState.getMatchHashMask();
+                        pending[stillPending++] = i;
+                    }
+                    numPending = stillPending;
+                }
+            } while(hashState != hashStateVolatile);
+        }
+    }
+
+    private int queryHashCode(Object[] query) {
+        int hashCode = 0;
+
+        for(int i=0;i<query.length;i++) {
+            if(query[i] == null)
+                throw new IllegalArgumentException("querying by null unsupported; i=" + i);
+            hashCode ^= HashCodes.hashInt(keyHashCode(query[i], i));
+        }
+
+        return hashCode;
+    }
+
     private int keyHashCode(Object key, int fieldIdx) {
         HollowHashIndexState hashState = hashStateVolatile;
         switch(hashState.getMatchFields()[fieldIdx].getFieldType()) {
@@ -198,6 +287,9 @@ public class HollowHashIndex implements HollowTypeStateListener {
      * <p>
      * This method should be called <b>before</b> any subsequent deltas occur after the index is created.
      * <p>
+     * When the select field is the indexed type, the records added and removed by a delta are applied to a copy of the
+     * current index, unless they exceed a tenth of the populated records.  Otherwise the index is rebuilt after each delta.
+     * <p>
      * In order to prevent memory leaks, if this method is called and the index is no longer needed, call detachFromDeltaUpdates() before
      * discarding the index.
      */
@@ -219,17 +311,45 @@ public class HollowHashIndex implements HollowTypeStateListener {
     }
 
     @Override
-    public void beginUpdate() { }
+    public void beginUpdate() {
+        removedOrdinals.clear();
+        addedOrdinals.clear();
+    }
 
     @Override
-    public void addedOrdinal(int ordinal) { }
+    public void addedOrdinal(int ordinal) {
+        addedOrdinals.set(ordinal);
+    }
 
     @Override
-    public void removedOrdinal(int ordinal) { }
+    public void removedOrdinal(int ordinal) {
+        removedOrdinals.set(ordinal);
+    }
 
     @Override
     public void endUpdate() {
-       reindexHashIndex();
+        HollowHashIndexState hashState = null;
+        if(ALLOW_DELTA_UPDATE && shouldPerformDeltaUpdate()) {
+            try {
+                hashState = new HollowHashIndexDeltaUpdater(hollowDataAccess, type, selectField, matchFields,
+                        hashStateVolatile, removedOrdinals, addedOrdinals).update();
+            } catch(RuntimeException e) {
+                LOG.log(Level.SEVERE, "Delta update of hash index failed.  Performing a full reindex", e);
+            }
+        }
+
+        if(hashState != null)
+            hashStateVolatile = hashState;
+        else
+            reindexHashIndex();
+
+        removedOrdinals.clear();
+        addedOrdinals.clear();
+    }
+
+    private boolean shouldPerformDeltaUpdate() {
+        int numChangedRecords = removedOrdinals.cardinality() + addedOrdinals.cardinality();
+        return numChangedRecords <= typeState.getTypeState().getPopulatedOrdinals().cardinality() * MAX_DELTA_UPDATE_CHANGE_FRACTION;
     }
 
     /**
@@ -270,6 +390,9 @@ public class HollowHashIndex implements HollowTypeStateListener {
         private final int[] offsetPerTraverserField;
         private final int bitsPerSelectTableSize;
         private final int bitsPerSelectTablePointer;
+        private final int matchCount;
+        private final long numSelectBuckets;
+        private final long numUnusedSelectBuckets;
 
         public HollowHashIndexState(HollowHashIndexBuilder builder) {
             matchHashTable = builder.getFinalMatchHashTable();
@@ -283,6 +406,27 @@ public class HollowHashIndex implements HollowTypeStateListener {
             bitsPerSelectTableSize = builder.getFinalBitsPerSelectTableSize();
             bitsPerSelectTablePointer = builder.getFinalBitsPerSelectTablePointer();
             bitsPerSelectHashEntry = builder.getBitsPerSelectHashEntry();
+            matchCount = builder.getMatchCount();
+            numSelectBuckets = builder.getFinalNumSelectBuckets();
+            numUnusedSelectBuckets = 0;
+        }
+
+        HollowHashIndexState(HollowHashIndexState previous, FixedLengthElementArray matchHashTable, FixedLengthElementArray selectHashArray,
+                int matchCount, long numSelectBuckets, long numUnusedSelectBuckets) {
+            this.matchHashTable = matchHashTable;
+            this.selectHashArray = selectHashArray;
+            this.matchFields = previous.matchFields;
+            this.matchHashMask = previous.matchHashMask;
+            this.bitsPerMatchHashKey = previous.bitsPerMatchHashKey;
+            this.bitsPerMatchHashEntry = previous.bitsPerMatchHashEntry;
+            this.bitsPerTraverserField = previous.bitsPerTraverserField;
+            this.offsetPerTraverserField = previous.offsetPerTraverserField;
+            this.bitsPerSelectTableSize = previous.bitsPerSelectTableSize;
+            this.bitsPerSelectTablePointer = previous.bitsPerSelectTablePointer;
+            this.bitsPerSelectHashEntry = previous.bitsPerSelectHashEntry;
+            this.matchCount = matchCount;
+            this.numSelectBuckets = numSelectBuckets;
+            this.numUnusedSelectBuckets = numUnusedSelectBuckets;
         }
 
         public FixedLengthElementArray getSelectHashArray() {
@@ -328,5 +472,20 @@ public class HollowHashIndex implements HollowTypeStateListener {
         public int getBitsPerSelectTablePointer() {
             return bitsPerSelectTablePointer;
         }
+
+        int getMatchCount() {
+            return matchCount;
+        }
+
+        long getNumSelectBuckets() {
+            return numSelectBuckets;
+        }
+
+        /**
+         * @return the number of buckets in the select array no longer referenced after delta updates
+         */
+        long getNumUnusedSelectBuckets() {
+            return numUnusedSelectBuckets;
+        }
     }
 }
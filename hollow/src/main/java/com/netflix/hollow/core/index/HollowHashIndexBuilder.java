@@ -29,11 +29,20 @@ import com.netflix.hollow.core.read.HollowReadFieldUtils;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
 
 
 public class HollowHashIndexBuilder {
 
+    /// the minimum number of populated ordinals traversed by each thread when building an index in parallel
+    private static final int MIN_ORDINALS_PER_PARTITION = 1 << 16;
+
+    private final HollowDataAccess stateEngine;
+    private final String type;
+    private final String selectField;
+    private final String[] matchFields;
     private final HollowPreindexer preindexer;
 
     private final int[] bitsPerTraverserField;
@@ -49,8 +58,10 @@ public class HollowHashIndexBuilder {
     private int finalBitsPerMatchHashEntry;
     private int finalBitsPerSelectTableSize;
     private int finalBitsPerSelectTablePointer;
+    private long finalNumSelectBuckets;
 
     private GrowingSegmentedLongArray matchIndexHashAndSizeArray;
+    private MultiLinkedElementArray intermediateSelectLists;
     private FixedLengthElementArray intermediateMatchHashTable;
     private int intermediateMatchHashTableSize;
     private int bitsPerIntermediateListIdentifier;
@@ -80,6 +91,10 @@ public class HollowHashIndexBuilder {
     /// this means merging the common roots of path from the same base field, and pushing all unique base fields down
     /// to the leaves.
     public HollowHashIndexBuilder(HollowDataAccess stateEngine, String type, String selectField, String... matchFields) {
+        this.stateEngine = stateEngine;
+        this.type = type;
+        this.selectField = selectField;
+        this.matchFields = matchFields;
         this.preindexer = new HollowPreindexer(stateEngine, type, selectField, matchFields);
         preindexer.buildFieldSpecifications();
 
@@ -103,13 +118,74 @@ public class HollowHashIndexBuilder {
         this.bitsPerSelectHashEntry = bitsPerTraverserField[preindexer.getSelectFieldSpec().getBaseIteratorFieldIdx()];
     }
 
+    /**
+     * Build the index, partitioning the traversal of the populated records across threads when there are enough of them.
+     */
     public void buildIndex() {
-        matchIndexHashAndSizeArray = new GrowingSegmentedLongArray(memoryRecycler);
+        int numPopulatedOrdinals = preindexer.getHollowTypeDataAccess().getTypeState().getPopulatedOrdinals().cardinality();
+        buildIndex(Math.min(Runtime.getRuntime().availableProcessors(), numPopulatedOrdinals / MIN_ORDINALS_PER_PARTITION));
+    }
 
+    /**
+     * Build the index, partitioning the traversal of the populated records across the specified number of threads.
+     * <p>
+     * Each partition traverses a contiguous range of ordinals into its own intermediate match table and select lists.
+     * The partitions are then merged by comparing their canonical matches, without traversing the records again.
+     *
+     * @param parallelism the number of threads used to traverse the populated records
+     */
+    public void buildIndex(int parallelism) {
         BitSet populatedOrdinals = preindexer.getHollowTypeDataAccess().getTypeState().getPopulatedOrdinals();
 
-        /// an initial guess at how big this table might be -- one match per top-level element.
-        int guessNumberOfMatches = populatedOrdinals.cardinality();
+        if(parallelism <= 1) {
+            buildIntermediateIndex(populatedOrdinals, 0, populatedOrdinals.length(), populatedOrdinals.cardinality());
+        } else {
+            HollowHashIndexBuilder[] partitions = buildIntermediateIndexPartitions(populatedOrdinals, parallelism);
+
+            int guessNumberOfMatches = 0;
+            for(HollowHashIndexBuilder partition : partitions)
+                guessNumberOfMatches += partition.matchCount;
+            initializeIntermediateIndex(guessNumberOfMatches);
+            for(HollowHashIndexBuilder partition : partitions)
+                mergeIntermediateIndex(partition);
+        }
+
+        buildFinalIndex();
+    }
+
+    private HollowHashIndexBuilder[] buildIntermediateIndexPartitions(BitSet populatedOrdinals, int numPartitions) {
+        HollowHashIndexBuilder[] partitions = new HollowHashIndexBuilder[numPartitions];
+        int ordinalsPerPartition = (populatedOrdinals.length() + numPartitions - 1) / numPartitions;
+        int guessNumberOfMatches = populatedOrdinals.cardinality() / numPartitions;
+
+        SimultaneousExecutor executor = new SimultaneousExecutor(numPartitions, HollowHashIndexBuilder.class, "build-index");
+        for(int i=0;i<numPartitions;i++) {
+            int partitionIdx = i;
+            executor.execute(() -> {
+                /// each partition requires its own traverser
+                HollowHashIndexBuilder partition = new HollowHashIndexBuilder(stateEngine, type, selectField, matchFields);
+                int fromOrdinal = partitionIdx * ordinalsPerPartition;
+                int toOrdinal = Math.min(fromOrdinal + ordinalsPerPartition, populatedOrdinals.length());
+                partition.buildIntermediateIndex(populatedOrdinals, fromOrdinal, toOrdinal, guessNumberOfMatches);
+                partitions[partitionIdx] = partition;
+            });
+        }
+
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch(ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        return partitions;
+    }
+
+    private void initializeIntermediateIndex(int guessNumberOfMatches) {
+        matchIndexHashAndSizeArray = new GrowingSegmentedLongArray(memoryRecycler);
+
         intermediateMatchHashTableSize = HashCodes.hashTableSize(guessNumberOfMatches);
         bitsPerIntermediateListIdentifier =  bitsRequiredToRepresentValue(intermediateMatchHashTableSize - 1);
         bitsPerIntermediateMatchHashEntry = bitsPerMatchHashKey + bitsPerIntermediateListIdentifier;
@@ -122,13 +198,18 @@ public class HollowHashIndexBuilder {
         intermediateMatchHashTable = new FixedLengthElementArray(memoryRecycler, (long)intermediateMatchHashTableSize * bitsPerIntermediateMatchHashEntry);
 
         /// a data structure which tracks lists of matches under canonical matches.
-        MultiLinkedElementArray intermediateSelectLists = new MultiLinkedElementArray(memoryRecycler);
+        intermediateSelectLists = new MultiLinkedElementArray(memoryRecycler);
+    }
+
+    private void buildIntermediateIndex(BitSet populatedOrdinals, int fromOrdinal, int toOrdinal, int guessNumberOfMatches) {
+        /// an initial guess at how big this table might be -- one match per top-level element.
+        initializeIntermediateIndex(guessNumberOfMatches);
 
         HollowIndexerValueTraverser traverser = preindexer.getTraverser();
 
 
-        int ordinal = populatedOrdinals.nextSetBit(0);
-        while(ordinal != HollowConstants.ORDINAL_NONE) {
+        int ordinal = populatedOrdinals.nextSetBit(fromOrdinal);
+        while(ordinal != HollowConstants.ORDINAL_NONE && ordinal < toOrdinal) {
             traverser.traverse(ordinal);
 
             for(int i=0;i<traverser.getNumMatches();i++) {
@@ -177,8 +258,72 @@ public class HollowHashIndexBuilder {
 
             ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
         }
+    }
+
+    /**
+     * Add the canonical matches and select lists of a partition to this builder's intermediate data structures.
+     */
+    private void mergeIntermediateIndex(HollowHashIndexBuilder partition) {
+        for(int partitionListIdx=0;partitionListIdx<partition.matchCount;partitionListIdx++) {
+            int matchHash = (int)partition.matchIndexHashAndSizeArray.get(partitionListIdx);
+            long partitionHashBucketBit = partition.intermediateMatchHashBucketBit(partitionListIdx, matchHash);
+
+            long bucket = matchHash & intermediateMatchHashMask;
+            long hashBucketBit = bucket * bitsPerIntermediateMatchHashEntry;
+            boolean bucketIsEmpty = intermediateMatchHashTable.getElementValue(hashBucketBit, bitsPerTraverserField[0]) == 0;
+
+            while(!bucketIsEmpty) {
+                int bucketMatchListIdx = (int)intermediateMatchHashTable.getElementValue(hashBucketBit + bitsPerMatchHashKey, bitsPerIntermediateListIdentifier);
+                if((int)matchIndexHashAndSizeArray.get(bucketMatchListIdx) == matchHash
+                        && intermediateKeysAreEqual(hashBucketBit, partition.intermediateMatchHashTable, partitionHashBucketBit))
+                    break;
+
+                bucket = (bucket + 1) & intermediateMatchHashMask;
+                hashBucketBit = bucket * bitsPerIntermediateMatchHashEntry;
+                bucketIsEmpty = intermediateMatchHashTable.getElementValue(hashBucketBit, bitsPerTraverserField[0]) == 0;
+            }
 
+            int matchListIdx;
 
+            if(bucketIsEmpty) {
+                matchListIdx = intermediateSelectLists.newList();
+                for(int j=0;j<preindexer.getNumMatchTraverserFields();j++) {
+                    long matchOrdinal = partition.intermediateMatchHashTable.getElementValue(partitionHashBucketBit + offsetPerTraverserField[j], bitsPerTraverserField[j]);
+                    intermediateMatchHashTable.setElementValue(hashBucketBit + offsetPerTraverserField[j], bitsPerTraverserField[j], matchOrdinal);
+                }
+
+                intermediateMatchHashTable.setElementValue(hashBucketBit + bitsPerMatchHashKey, bitsPerIntermediateListIdentifier, matchListIdx);
+
+                matchIndexHashAndSizeArray.set(matchListIdx, matchHash);
+                matchCount++;
+
+                if(matchCount > intermediateMatchHashTableSizeBeforeGrow) {
+                    growIntermediateHashTable();
+                }
+            } else {
+                matchListIdx = (int)intermediateMatchHashTable.getElementValue(hashBucketBit + bitsPerMatchHashKey, bitsPerIntermediateListIdentifier);
+            }
+
+            HollowOrdinalIterator selectOrdinalIter = partition.intermediateSelectLists.iterator(partitionListIdx);
+            int selectOrdinal = selectOrdinalIter.next();
+            while(selectOrdinal != HollowOrdinalIterator.NO_MORE_ORDINALS) {
+                intermediateSelectLists.add(matchListIdx, selectOrdinal);
+                selectOrdinal = selectOrdinalIter.next();
+            }
+        }
+    }
+
+    private long intermediateMatchHashBucketBit(int matchListIdx, int matchHash) {
+        long bucket = matchHash & intermediateMatchHashMask;
+        long hashBucketBit = bucket * bitsPerIntermediateMatchHashEntry;
+        while(intermediateMatchHashTable.getElementValue(hashBucketBit + bitsPerMatchHashKey, bitsPerIntermediateListIdentifier) != matchListIdx) {
+            bucket = (bucket + 1) & intermediateMatchHashMask;
+            hashBucketBit = bucket * bitsPerIntermediateMatchHashEntry;
+        }
+        return hashBucketBit;
+    }
+
+    private void buildFinalIndex() {
         /// turn those data structures into a compact one optimized for hash lookup
         long totalNumberOfSelectBucketsAndBitsRequiredForSelectTableSize = calculateDedupedSizesAndTotalNumberOfSelectBuckets(intermediateSelectLists, matchIndexHashAndSizeArray);
         long totalNumberOfSelectBuckets = totalNumberOfSelectBucketsAndBitsRequiredForSelectTableSize & 0xFFFFFFFFFFFFFFL;
@@ -253,6 +398,7 @@ public class HollowHashIndexBuilder {
         this.finalBitsPerSelectTablePointer = bitsPerFinalSelectBucketPointer;
         this.finalBitsPerSelectTableSize = bitsPerSelectTableSize;
         this.finalMatchHashMask = finalMatchHashMask;
+        this.finalNumSelectBuckets = totalNumberOfSelectBuckets;
     }
 
     private void growIntermediateHashTable() {
@@ -361,32 +507,49 @@ public class HollowHashIndexBuilder {
             int matchOrdinal = preindexer.getTraverser().getMatchOrdinal(matchIdx, field.getBaseIteratorFieldIdx());
             int hashOrdinal = (int)intermediateMatchHashTable.getElementValue(hashBucketBit + offsetPerTraverserField[field.getBaseIteratorFieldIdx()], bitsPerTraverserField[field.getBaseIteratorFieldIdx()]) - 1;
 
-            FieldPathSegment[] fieldPath = field.getSchemaFieldPositionPath();
+            if(!fieldIsEqual(field, matchOrdinal, hashOrdinal))
+                return false;
+        }
 
-            if(fieldPath.length == 0) {
-                if(matchOrdinal != hashOrdinal)
-                    return false;
-            } else {
-                for(int j=0;j<fieldPath.length - 1;j++) {
-                    FieldPathSegment fieldPathSegment = fieldPath[j];
-                    if(matchOrdinal != HollowConstants.ORDINAL_NONE) {
-                        matchOrdinal = fieldPathSegment.getOrdinalForField(matchOrdinal);
-                    }
-                    if(hashOrdinal != HollowConstants.ORDINAL_NONE) {
-                        hashOrdinal = fieldPathSegment.getOrdinalForField(hashOrdinal);
-                    }
-                }
+        return true;
+    }
 
-                if(matchOrdinal != hashOrdinal) {
-                    FieldPathSegment lastPathElement = fieldPath[fieldPath.length - 1];
-                    if(isAnyFieldNull(matchOrdinal, hashOrdinal) || !HollowReadFieldUtils.fieldsAreEqual(
-                            lastPathElement.getObjectTypeDataAccess(), matchOrdinal, lastPathElement.getSegmentFieldPosition(),
-                            lastPathElement.getObjectTypeDataAccess(), hashOrdinal, lastPathElement.getSegmentFieldPosition()))
-                        return false;
-                }
+    private boolean intermediateKeysAreEqual(long hashBucketBit, FixedLengthElementArray otherMatchHashTable, long otherHashBucketBit) {
+        for(int i=0;i<preindexer.getMatchFieldSpecs().length;i++) {
+            HollowHashIndexField field = preindexer.getMatchFieldSpecs()[i];
+            int matchOrdinal = (int)otherMatchHashTable.getElementValue(otherHashBucketBit + offsetPerTraverserField[field.getBaseIteratorFieldIdx()], bitsPerTraverserField[field.getBaseIteratorFieldIdx()]) - 1;
+            int hashOrdinal = (int)intermediateMatchHashTable.getElementValue(hashBucketBit + offsetPerTraverserField[field.getBaseIteratorFieldIdx()], bitsPerTraverserField[field.getBaseIteratorFieldIdx()]) - 1;
+
+            if(!fieldIsEqual(field, matchOrdinal, hashOrdinal))
+                return false;
+        }
+
+        return true;
+    }
+
+    private boolean fieldIsEqual(HollowHashIndexField field, int matchOrdinal, int hashOrdinal) {
+        FieldPathSegment[] fieldPath = field.getSchemaFieldPositionPath();
+
+        if(fieldPath.length == 0)
+            return matchOrdinal == hashOrdinal;
+
+        for(int j=0;j<fieldPath.length - 1;j++) {
+            FieldPathSegment fieldPathSegment = fieldPath[j];
+            if(matchOrdinal != HollowConstants.ORDINAL_NONE) {
+                matchOrdinal = fieldPathSegment.getOrdinalForField(matchOrdinal);
+            }
+            if(hashOrdinal != HollowConstants.ORDINAL_NONE) {
+                hashOrdinal = fieldPathSegment.getOrdinalForField(hashOrdinal);
             }
         }
 
+        if(matchOrdinal != hashOrdinal) {
+            FieldPathSegment lastPathElement = fieldPath[fieldPath.length - 1];
+            return !isAnyFieldNull(matchOrdinal, hashOrdinal) && HollowReadFieldUtils.fieldsAreEqual(
+                    lastPathElement.getObjectTypeDataAccess(), matchOrdinal, lastPathElement.getSegmentFieldPosition(),
+                    lastPathElement.getObjectTypeDataAccess(), hashOrdinal, lastPathElement.getSegmentFieldPosition());
+        }
+
         return true;
     }
 
@@ -450,6 +613,14 @@ public class HollowHashIndexBuilder {
         return finalSelectHashArray;
     }
 
+    public long getFinalNumSelectBuckets() {
+        return finalNumSelectBuckets;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
     public HollowHashIndexField getSelectField() {
         return preindexer.getSelectFieldSpec();
     }
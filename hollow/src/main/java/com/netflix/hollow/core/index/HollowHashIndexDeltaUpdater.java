@@ -0,0 +1,574 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import static com.netflix.hollow.core.memory.FixedLengthData.bitsRequiredToRepresentValue;
+
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowHashIndex.HollowHashIndexState;
+import com.netflix.hollow.core.index.HollowHashIndexField.FieldPathSegment;
+import com.netflix.hollow.core.index.traversal.HollowIndexerValueTraverser;
+import com.netflix.hollow.core.memory.CopyOnWriteFixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import com.netflix.hollow.core.read.HollowReadFieldUtils;
+import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
+import com.netflix.hollow.core.util.IntList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the records added to and removed from the indexed type by a delta to a {@link HollowHashIndexState}, rather
+ * than traversing every populated record to build the index from scratch.
+ * <p>
+ * The match and select tables of the updated state share the segments of those of the current state, and only the
+ * segments which are patched are copied, so that queries against the current state are unaffected while the update is
+ * in progress.  Removed records are traversed using their data retained from the
+ * prior state, which remains readable until the following delta is applied.
+ * <p>
+ * The index is only updated in place when the select field is the indexed type, so each selected ordinal is contributed
+ * by exactly one record.  {@link #update()} returns null whenever the result cannot be represented in the layout of the
+ * current state, in which case the index should be rebuilt.
+ */
+class HollowHashIndexDeltaUpdater {
+
+    private final HollowHashIndexState state;
+    private final HollowIndexerValueTraverser traverser;
+    private final HollowHashIndexField[] matchFields;
+    private final HollowHashIndexField selectField;
+    private final int numMatchTraverserFields;
+    private final BitSet removedOrdinals;
+    private final BitSet addedOrdinals;
+    private final ArraySegmentRecycler memoryRecycler;
+
+    private final int[] bitsPerTraverserField;
+    private final int[] offsetPerTraverserField;
+    private final int bitsPerMatchHashKey;
+    private final int bitsPerMatchHashEntry;
+    private final int bitsPerSelectTableSize;
+    private final int bitsPerSelectTablePointer;
+    private final int bitsPerSelectHashEntry;
+    private final long matchHashMask;
+
+    /// changes to the match entries of the current state, keyed by the pointer to their select table
+    private final Map<Long, MatchEntryChange> existingEntryChanges = new HashMap<>();
+    /// match entries which are introduced by the delta, keyed by their match hash
+    private final Map<Integer, List<MatchEntryChange>> newEntryChanges = new HashMap<>();
+
+    HollowHashIndexDeltaUpdater(HollowDataAccess hollowDataAccess, String type, String selectField, String[] matchFields,
+            HollowHashIndexState state, BitSet removedOrdinals, BitSet addedOrdinals) {
+        HollowPreindexer preindexer = new HollowPreindexer(hollowDataAccess, type, selectField, matchFields);
+        preindexer.buildFieldSpecifications();
+
+        this.state = state;
+        this.traverser = preindexer.getTraverser();
+        this.matchFields = preindexer.getMatchFieldSpecs();
+        this.selectField = preindexer.getSelectFieldSpec();
+        this.numMatchTraverserFields = preindexer.getNumMatchTraverserFields();
+        this.removedOrdinals = removedOrdinals;
+        this.addedOrdinals = addedOrdinals;
+        this.memoryRecycler = WastefulRecycler.DEFAULT_INSTANCE;
+
+        this.bitsPerTraverserField = state.getBitsPerTraverserField();
+        this.offsetPerTraverserField = state.getOffsetPerTraverserField();
+        this.bitsPerMatchHashKey = state.getBitsPerMatchHashKey();
+        this.bitsPerMatchHashEntry = state.getBitsPerMatchHashEntry();
+        this.bitsPerSelectTableSize = state.getBitsPerSelectTableSize();
+        this.bitsPerSelectTablePointer = state.getBitsPerSelectTablePointer();
+        this.bitsPerSelectHashEntry = state.getBitsPerSelectHashEntry();
+        this.matchHashMask = state.getMatchHashMask();
+    }
+
+    /**
+     * @return the updated state, or null if the index must be rebuilt
+     */
+    HollowHashIndexState update() {
+        if(removedOrdinals.isEmpty() && addedOrdinals.isEmpty())
+            return state;
+
+        if(!isUpdatable())
+            return null;
+
+        if(!collectRemovals() || !collectAdditions())
+            return null;
+
+        return applyChanges();
+    }
+
+    private boolean isUpdatable() {
+        if(numMatchTraverserFields == 0 || traverser.getNumFieldPaths() != bitsPerTraverserField.length)
+            return false;
+
+        /// each selected ordinal must be contributed by exactly one record of the indexed type
+        if(selectField.getSchemaFieldPositionPath().length != 0 || !"".equals(traverser.getFieldPath(selectField.getBaseIteratorFieldIdx())))
+            return false;
+
+        /// the ordinals of each traversed type must be representable in the current table layout
+        for(int i=0;i<traverser.getNumFieldPaths();i++) {
+            int maxOrdinal = traverser.getFieldTypeDataAccess(i).getTypeState().maxOrdinal();
+            if(bitsRequiredToRepresentValue(maxOrdinal + 1) > bitsPerTraverserField[i])
+                return false;
+        }
+
+        return !removedOrdinals.intersects(addedOrdinals);
+    }
+
+    private boolean collectRemovals() {
+        FixedLengthElementArray matchHashTable = state.getMatchHashTable();
+
+        int ordinal = removedOrdinals.nextSetBit(0);
+        while(ordinal != HollowConstants.ORDINAL_NONE) {
+            traverser.traverse(ordinal);
+
+            for(int i=0;i<traverser.getNumMatches();i++) {
+                int[] key = matchKey(i);
+                int matchHash = keyHash(key);
+                long matchBucketBit = findMatchBucketBit(matchHashTable, matchHash, key);
+                if(matchBucketBit == -1)
+                    return false;
+
+                long selectTablePointer = selectTablePointer(matchHashTable, matchBucketBit);
+                MatchEntryChange change = existingEntryChanges.get(selectTablePointer);
+                if(change == null) {
+                    change = new MatchEntryChange(matchHash, matchBucketBit, selectTablePointer, selectTableSize(matchHashTable, matchBucketBit));
+                    existingEntryChanges.put(selectTablePointer, change);
+                }
+                change.removedSelectOrdinals.add(traverser.getMatchOrdinal(i, selectField.getBaseIteratorFieldIdx()));
+            }
+
+            ordinal = removedOrdinals.nextSetBit(ordinal + 1);
+        }
+
+        return true;
+    }
+
+    private boolean collectAdditions() {
+        FixedLengthElementArray matchHashTable = state.getMatchHashTable();
+
+        int ordinal = addedOrdinals.nextSetBit(0);
+        while(ordinal != HollowConstants.ORDINAL_NONE) {
+            traverser.traverse(ordinal);
+
+            for(int i=0;i<traverser.getNumMatches();i++) {
+                int[] key = matchKey(i);
+                int matchHash = keyHash(key);
+                long matchBucketBit = findMatchBucketBit(matchHashTable, matchHash, key);
+
+                MatchEntryChange change;
+                if(matchBucketBit != -1) {
+                    long selectTablePointer = selectTablePointer(matchHashTable, matchBucketBit);
+                    change = existingEntryChanges.get(selectTablePointer);
+                    if(change == null) {
+                        change = new MatchEntryChange(matchHash, matchBucketBit, selectTablePointer, selectTableSize(matchHashTable, matchBucketBit));
+                        existingEntryChanges.put(selectTablePointer, change);
+                    }
+                } else {
+                    change = findOrCreateNewEntryChange(matchHash, key);
+                }
+                change.addedSelectOrdinals.add(traverser.getMatchOrdinal(i, selectField.getBaseIteratorFieldIdx()));
+            }
+
+            ordinal = addedOrdinals.nextSetBit(ordinal + 1);
+        }
+
+        return true;
+    }
+
+    private MatchEntryChange findOrCreateNewEntryChange(int matchHash, int[] key) {
+        List<MatchEntryChange> changes = newEntryChanges.computeIfAbsent(matchHash, h -> new ArrayList<>());
+        for(MatchEntryChange change : changes) {
+            if(keysAreEqual(change.key, key))
+                return change;
+        }
+
+        MatchEntryChange change = new MatchEntryChange(matchHash, -1, -1, 0);
+        change.key = key;
+        changes.add(change);
+        return change;
+    }
+
+    private HollowHashIndexState applyChanges() {
+        long numMatchBuckets = matchHashMask + 1;
+        long maxSelectTableSize = (1L << bitsPerSelectTableSize) - 1;
+        int matchCount = state.getMatchCount();
+        long numSelectBuckets = state.getNumSelectBuckets();
+        long numUnusedSelectBuckets = state.getNumUnusedSelectBuckets();
+        long numAppendedSelectBuckets = 0;
+
+        /// size the changes before touching any data, so that the layout of the current state can be validated
+        for(MatchEntryChange change : existingEntryChanges.values()) {
+            dedup(change.removedSelectOrdinals);
+            dedup(change.addedSelectOrdinals);
+            change.newSelectTableSize = change.selectTableSize - change.removedSelectOrdinals.size() + change.addedSelectOrdinals.size();
+
+            int selectTableBuckets = HashCodes.hashTableSize(change.selectTableSize);
+            if(change.newSelectTableSize == 0) {
+                matchCount--;
+                numUnusedSelectBuckets += selectTableBuckets;
+            } else if(HashCodes.hashTableSize(change.newSelectTableSize) != selectTableBuckets) {
+                numAppendedSelectBuckets += HashCodes.hashTableSize(change.newSelectTableSize);
+                numUnusedSelectBuckets += selectTableBuckets;
+            }
+
+            if(change.newSelectTableSize < 0 || change.newSelectTableSize > maxSelectTableSize)
+                return null;
+        }
+
+        List<MatchEntryChange> addedEntries = new ArrayList<>();
+        for(List<MatchEntryChange> changes : newEntryChanges.values()) {
+            for(MatchEntryChange change : changes) {
+                dedup(change.addedSelectOrdinals);
+                change.newSelectTableSize = change.addedSelectOrdinals.size();
+                if(change.newSelectTableSize > maxSelectTableSize)
+                    return null;
+
+                matchCount++;
+                numAppendedSelectBuckets += HashCodes.hashTableSize(change.newSelectTableSize);
+                addedEntries.add(change);
+            }
+        }
+
+        long newNumSelectBuckets = numSelectBuckets + numAppendedSelectBuckets;
+        if(HashCodes.hashTableSize(matchCount) > numMatchBuckets
+                || bitsRequiredToRepresentValue(newNumSelectBuckets) > bitsPerSelectTablePointer
+                || numUnusedSelectBuckets > newNumSelectBuckets / 2)
+            return null;
+
+        FixedLengthElementArray matchHashTable = new CopyOnWriteFixedLengthElementArray(memoryRecycler, state.getMatchHashTable(), numMatchBuckets * bitsPerMatchHashEntry);
+        FixedLengthElementArray selectHashArray = new CopyOnWriteFixedLengthElementArray(memoryRecycler, state.getSelectHashArray(), newNumSelectBuckets * bitsPerSelectHashEntry);
+
+        long nextSelectBucket = numSelectBuckets;
+
+        /// update the select tables of existing entries while the match table is laid out as it was when they were found
+        List<MatchEntryChange> removedEntries = new ArrayList<>();
+        for(MatchEntryChange change : existingEntryChanges.values()) {
+            if(change.newSelectTableSize == 0) {
+                removedEntries.add(change);
+                continue;
+            }
+
+            long selectTablePointer = change.selectTablePointer;
+            int selectTableBuckets = HashCodes.hashTableSize(change.selectTableSize);
+            int newSelectTableBuckets = HashCodes.hashTableSize(change.newSelectTableSize);
+
+            if(newSelectTableBuckets == selectTableBuckets) {
+                for(int i=0;i<change.removedSelectOrdinals.size();i++)
+                    removeSelectOrdinal(selectHashArray, selectTablePointer, selectTableBuckets, change.removedSelectOrdinals.get(i));
+            } else {
+                selectTablePointer = nextSelectBucket;
+                nextSelectBucket += newSelectTableBuckets;
+
+                FixedLengthElementArray previousSelectHashArray = state.getSelectHashArray();
+                for(long bucket=change.selectTablePointer;bucket<change.selectTablePointer + selectTableBuckets;bucket++) {
+                    int selectOrdinal = (int)previousSelectHashArray.getElementValue(bucket * bitsPerSelectHashEntry, bitsPerSelectHashEntry) - 1;
+                    if(selectOrdinal != HollowConstants.ORDINAL_NONE && change.removedSelectOrdinals.binarySearch(selectOrdinal) < 0)
+                        addSelectOrdinal(selectHashArray, selectTablePointer, newSelectTableBuckets, selectOrdinal);
+                }
+            }
+
+            for(int i=0;i<change.addedSelectOrdinals.size();i++)
+                addSelectOrdinal(selectHashArray, selectTablePointer, newSelectTableBuckets, change.addedSelectOrdinals.get(i));
+
+            clearBits(matchHashTable, change.matchBucketBit + bitsPerMatchHashKey, bitsPerSelectTableSize + bitsPerSelectTablePointer);
+            writeSelectTable(matchHashTable, change.matchBucketBit, change.newSelectTableSize, selectTablePointer);
+
+            if(change.removedSelectOrdinals.size() != 0)
+                ensureKeyIsPopulated(matchHashTable, change.matchBucketBit, selectHashArray, selectTablePointer, newSelectTableBuckets);
+        }
+
+        for(MatchEntryChange change : removedEntries)
+            removeMatchEntry(matchHashTable, change);
+
+        for(MatchEntryChange change : addedEntries) {
+            long selectTablePointer = nextSelectBucket;
+            int selectTableBuckets = HashCodes.hashTableSize(change.newSelectTableSize);
+            nextSelectBucket += selectTableBuckets;
+
+            for(int i=0;i<change.addedSelectOrdinals.size();i++)
+                addSelectOrdinal(selectHashArray, selectTablePointer, selectTableBuckets, change.addedSelectOrdinals.get(i));
+
+            long bucket = change.matchHash & matchHashMask;
+            while(!isEmptyMatchBucket(matchHashTable, bucket * bitsPerMatchHashEntry))
+                bucket = (bucket + 1) & matchHashMask;
+
+            long matchBucketBit = bucket * bitsPerMatchHashEntry;
+            writeKey(matchHashTable, matchBucketBit, change.key);
+            writeSelectTable(matchHashTable, matchBucketBit, change.newSelectTableSize, selectTablePointer);
+        }
+
+        return new HollowHashIndexState(state, matchHashTable, selectHashArray, matchCount, newNumSelectBuckets, numUnusedSelectBuckets);
+    }
+
+    /**
+     * The key of a match entry refers to the ordinals of the record which first contributed to it.  If those ordinals
+     * are no longer populated, they may be reused by a later delta, so the key is replaced with that of a remaining record.
+     */
+    private void ensureKeyIsPopulated(FixedLengthElementArray matchHashTable, long matchBucketBit,
+            FixedLengthElementArray selectHashArray, long selectTablePointer, int selectTableBuckets) {
+        int[] key = readKey(matchHashTable, matchBucketBit);
+        if(isPopulated(key))
+            return;
+
+        int selectOrdinal = HollowConstants.ORDINAL_NONE;
+        for(long bucket=selectTablePointer;selectOrdinal == HollowConstants.ORDINAL_NONE;bucket++)
+            selectOrdinal = (int)selectHashArray.getElementValue(bucket * bitsPerSelectHashEntry, bitsPerSelectHashEntry) - 1;
+
+        traverser.traverse(selectOrdinal);
+        for(int i=0;i<traverser.getNumMatches();i++) {
+            int[] matchKey = matchKey(i);
+            if(keysAreEqual(key, matchKey)) {
+                clearBits(matchHashTable, matchBucketBit, bitsPerMatchHashKey);
+                writeKey(matchHashTable, matchBucketBit, matchKey);
+                return;
+            }
+        }
+
+        throw new IllegalStateException("Could not find a populated key for a hash index match entry");
+    }
+
+    private boolean isPopulated(int[] key) {
+        for(int i=0;i<key.length;i++) {
+            if(key[i] != HollowConstants.ORDINAL_NONE && !traverser.getFieldTypeDataAccess(i).getTypeState().getPopulatedOrdinals().get(key[i]))
+                return false;
+        }
+        return true;
+    }
+
+    private void removeMatchEntry(FixedLengthElementArray matchHashTable, MatchEntryChange change) {
+        long bucket = change.matchHash & matchHashMask;
+        for(long i=0;isEmptyMatchBucket(matchHashTable, bucket * bitsPerMatchHashEntry)
+                || selectTablePointer(matchHashTable, bucket * bitsPerMatchHashEntry) != change.selectTablePointer;i++) {
+            if(i > matchHashMask)
+                throw new IllegalStateException("Could not find a hash index match entry to remove");
+            bucket = (bucket + 1) & matchHashMask;
+        }
+
+        clearBits(matchHashTable, bucket * bitsPerMatchHashEntry, bitsPerMatchHashEntry);
+        long emptyBucket = bucket;
+        bucket = (bucket + 1) & matchHashMask;
+
+        while(!isEmptyMatchBucket(matchHashTable, bucket * bitsPerMatchHashEntry)) {
+            long naturalBucket = keyHash(readKey(matchHashTable, bucket * bitsPerMatchHashEntry)) & matchHashMask;
+            if(!bucketInRange(emptyBucket, bucket, naturalBucket)) {
+                matchHashTable.copyBits(matchHashTable, bucket * bitsPerMatchHashEntry, emptyBucket * bitsPerMatchHashEntry, bitsPerMatchHashEntry);
+                clearBits(matchHashTable, bucket * bitsPerMatchHashEntry, bitsPerMatchHashEntry);
+                emptyBucket = bucket;
+            }
+
+            bucket = (bucket + 1) & matchHashMask;
+        }
+    }
+
+    private void addSelectOrdinal(FixedLengthElementArray selectHashArray, long selectTablePointer, int selectTableBuckets, int selectOrdinal) {
+        int bucketMask = selectTableBuckets - 1;
+        int bucket = HashCodes.hashInt(selectOrdinal) & bucketMask;
+        while(selectHashArray.getElementValue((selectTablePointer + bucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry) != 0)
+            bucket = (bucket + 1) & bucketMask;
+
+        selectHashArray.setElementValue((selectTablePointer + bucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry, selectOrdinal + 1);
+    }
+
+    private void removeSelectOrdinal(FixedLengthElementArray selectHashArray, long selectTablePointer, int selectTableBuckets, int selectOrdinal) {
+        int bucketMask = selectTableBuckets - 1;
+        int bucket = HashCodes.hashInt(selectOrdinal) & bucketMask;
+        for(int i=0;selectHashArray.getElementValue((selectTablePointer + bucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry) != selectOrdinal + 1;i++) {
+            if(i > bucketMask)
+                throw new IllegalStateException("Could not find ordinal " + selectOrdinal + " in a hash index select table");
+            bucket = (bucket + 1) & bucketMask;
+        }
+
+        selectHashArray.clearElementValue((selectTablePointer + bucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry);
+        int emptyBucket = bucket;
+        bucket = (bucket + 1) & bucketMask;
+        int moveOrdinal = (int)selectHashArray.getElementValue((selectTablePointer + bucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry) - 1;
+
+        while(moveOrdinal != HollowConstants.ORDINAL_NONE) {
+            int naturalBucket = HashCodes.hashInt(moveOrdinal) & bucketMask;
+            if(!bucketInRange(emptyBucket, bucket, naturalBucket)) {
+                selectHashArray.setElementValue((selectTablePointer + emptyBucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry, moveOrdinal + 1);
+                selectHashArray.clearElementValue((selectTablePointer + bucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry);
+                emptyBucket = bucket;
+            }
+
+            bucket = (bucket + 1) & bucketMask;
+            moveOrdinal = (int)selectHashArray.getElementValue((selectTablePointer + bucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry) - 1;
+        }
+    }
+
+    private boolean bucketInRange(long fromBucket, long toBucket, long testBucket) {
+        if(toBucket > fromBucket) {
+            return testBucket > fromBucket && testBucket <= toBucket;
+        } else {
+            return testBucket > fromBucket || testBucket <= toBucket;
+        }
+    }
+
+    private long findMatchBucketBit(FixedLengthElementArray matchHashTable, int matchHash, int[] key) {
+        long bucket = matchHash & matchHashMask;
+        long matchBucketBit = bucket * bitsPerMatchHashEntry;
+
+        while(!isEmptyMatchBucket(matchHashTable, matchBucketBit)) {
+            if(keysAreEqual(readKey(matchHashTable, matchBucketBit), key))
+                return matchBucketBit;
+
+            bucket = (bucket + 1) & matchHashMask;
+            matchBucketBit = bucket * bitsPerMatchHashEntry;
+        }
+
+        return -1;
+    }
+
+    private boolean isEmptyMatchBucket(FixedLengthElementArray matchHashTable, long matchBucketBit) {
+        return matchHashTable.getElementValue(matchBucketBit, bitsPerTraverserField[0]) == 0;
+    }
+
+    private int selectTableSize(FixedLengthElementArray matchHashTable, long matchBucketBit) {
+        return (int)matchHashTable.getElementValue(matchBucketBit + bitsPerMatchHashKey, bitsPerSelectTableSize);
+    }
+
+    private long selectTablePointer(FixedLengthElementArray matchHashTable, long matchBucketBit) {
+        return matchHashTable.getElementValue(matchBucketBit + bitsPerMatchHashKey + bitsPerSelectTableSize, bitsPerSelectTablePointer);
+    }
+
+    private void writeSelectTable(FixedLengthElementArray matchHashTable, long matchBucketBit, int selectTableSize, long selectTablePointer) {
+        matchHashTable.setElementValue(matchBucketBit + bitsPerMatchHashKey, bitsPerSelectTableSize, selectTableSize);
+        matchHashTable.setElementValue(matchBucketBit + bitsPerMatchHashKey + bitsPerSelectTableSize, bitsPerSelectTablePointer, selectTablePointer);
+    }
+
+    private int[] matchKey(int matchIdx) {
+        int[] key = new int[numMatchTraverserFields];
+        for(int i=0;i<numMatchTraverserFields;i++)
+            key[i] = traverser.getMatchOrdinal(matchIdx, i);
+        return key;
+    }
+
+    private int[] readKey(FixedLengthElementArray matchHashTable, long matchBucketBit) {
+        int[] key = new int[numMatchTraverserFields];
+        for(int i=0;i<numMatchTraverserFields;i++)
+            key[i] = (int)matchHashTable.getElementValue(matchBucketBit + offsetPerTraverserField[i], bitsPerTraverserField[i]) - 1;
+        return key;
+    }
+
+    private void writeKey(FixedLengthElementArray matchHashTable, long matchBucketBit, int[] key) {
+        for(int i=0;i<numMatchTraverserFields;i++)
+            matchHashTable.setElementValue(matchBucketBit + offsetPerTraverserField[i], bitsPerTraverserField[i], key[i] + 1);
+    }
+
+    /**
+     * Equivalent to the match hash computed by the {@link HollowHashIndexBuilder} and for queries of the {@link HollowHashIndex}.
+     */
+    private int keyHash(int[] key) {
+        int matchHash = 0;
+
+        for(HollowHashIndexField field : matchFields) {
+            int ordinal = key[field.getBaseIteratorFieldIdx()];
+            FieldPathSegment[] fieldPath = field.getSchemaFieldPositionPath();
+
+            if(fieldPath.length == 0) {
+                matchHash ^= HashCodes.hashInt(ordinal);
+            } else {
+                for(int j=0;j<fieldPath.length-1;j++) {
+                    ordinal = fieldPath[j].getOrdinalForField(ordinal);
+                    if(ordinal == HollowConstants.ORDINAL_NONE)
+                        break;
+                }
+
+                FieldPathSegment lastPathElement = field.getLastFieldPositionPathElement();
+                int fieldHashCode = ordinal == HollowConstants.ORDINAL_NONE ? HollowConstants.ORDINAL_NONE : HollowReadFieldUtils.fieldHashCode(lastPathElement.getObjectTypeDataAccess(), ordinal, lastPathElement.getSegmentFieldPosition());
+                matchHash ^= HashCodes.hashInt(fieldHashCode);
+            }
+        }
+
+        return matchHash;
+    }
+
+    private boolean keysAreEqual(int[] key, int[] otherKey) {
+        for(HollowHashIndexField field : matchFields) {
+            int ordinal = key[field.getBaseIteratorFieldIdx()];
+            int otherOrdinal = otherKey[field.getBaseIteratorFieldIdx()];
+            FieldPathSegment[] fieldPath = field.getSchemaFieldPositionPath();
+
+            if(fieldPath.length == 0) {
+                if(ordinal != otherOrdinal)
+                    return false;
+            } else {
+                for(int j=0;j<fieldPath.length - 1;j++) {
+                    if(ordinal != HollowConstants.ORDINAL_NONE)
+                        ordinal = fieldPath[j].getOrdinalForField(ordinal);
+                    if(otherOrdinal != HollowConstants.ORDINAL_NONE)
+                        otherOrdinal = fieldPath[j].getOrdinalForField(otherOrdinal);
+                }
+
+                if(ordinal != otherOrdinal) {
+                    FieldPathSegment lastPathElement = fieldPath[fieldPath.length - 1];
+                    if(ordinal == HollowConstants.ORDINAL_NONE || otherOrdinal == HollowConstants.ORDINAL_NONE
+                            || !HollowReadFieldUtils.fieldsAreEqual(
+                                    lastPathElement.getObjectTypeDataAccess(), ordinal, lastPathElement.getSegmentFieldPosition(),
+                                    lastPathElement.getObjectTypeDataAccess(), otherOrdinal, lastPathElement.getSegmentFieldPosition()))
+                        return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static void clearBits(FixedLengthElementArray array, long startBit, int numBits) {
+        while(numBits > 0) {
+            int bitsToClear = Math.min(numBits, 32);
+            array.clearElementValue(startBit, bitsToClear);
+            startBit += bitsToClear;
+            numBits -= bitsToClear;
+        }
+    }
+
+    /**
+     * A record may match the same key more than once, so the ordinals it contributes are deduplicated.
+     */
+    private static void dedup(IntList ordinals) {
+        ordinals.sort();
+        int size = 0;
+        for(int i=0;i<ordinals.size();i++) {
+            if(size == 0 || ordinals.get(size - 1) != ordinals.get(i))
+                ordinals.set(size++, ordinals.get(i));
+        }
+        ordinals.expandTo(size);
+    }
+
+    private static class MatchEntryChange {
+        private final int matchHash;
+        private final long matchBucketBit;
+        private final long selectTablePointer;
+        private final int selectTableSize;
+        private final IntList removedSelectOrdinals = new IntList();
+        private final IntList addedSelectOrdinals = new IntList();
+        private int[] key;
+        private int newSelectTableSize;
+
+        MatchEntryChange(int matchHash, long matchBucketBit, long selectTablePointer, int selectTableSize) {
+            this.matchHash = matchHash;
+            this.matchBucketBit = matchBucketBit;
+            this.selectTablePointer = selectTablePointer;
+            this.selectTableSize = selectTableSize;
+        }
+    }
+}
@@ -297,6 +297,260 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener, TestableU
         return ordinal;
     }
 
+    /**
+     * Query an index with a single INT, LONG or REFERENCE field, without boxing the key.  The returned value with be
+     * the ordinal of the matching record.
+     * <p>
+     * Use a generated API or the Generic Object API to use the returned ordinal.
+     *
+     * @param key the field key
+     * @return the matching ordinal for the key, otherwise -1 if the key is not present
+     */
+    public int getMatchingOrdinal(int key) {
+        if(fieldPathIndexes.length != 1 || !isIntegralField(0))
+            return getMatchingOrdinal((Object) key);
+        return getMatchingIntegralOrdinal(key);
+    }
+
+    /**
+     * Query an index with a single INT, LONG or REFERENCE field, without boxing the key.  The returned value with be
+     * the ordinal of the matching record.
+     * <p>
+     * Use a generated API or the Generic Object API to use the returned ordinal.
+     *
+     * @param key the field key
+     * @return the matching ordinal for the key, otherwise -1 if the key is not present
+     */
+    public int getMatchingOrdinal(long key) {
+        if(fieldPathIndexes.length != 1 || !isIntegralField(0))
+            return getMatchingOrdinal((Object) key);
+        return getMatchingIntegralOrdinal(key);
+    }
+
+    private int getMatchingIntegralOrdinal(long key) {
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key, 0);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(keyDeriver.keyMatches(key, ordinal, 0))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with a single STRING field, without the key needing to be held in a String.  The returned value
+     * with be the ordinal of the matching record.
+     * <p>
+     * Use a generated API or the Generic Object API to use the returned ordinal.
+     *
+     * @param key the field key
+     * @return the matching ordinal for the key, otherwise -1 if the key is not present
+     */
+    public int getMatchingOrdinal(CharSequence key) {
+        if(fieldPathIndexes.length != 1 || fieldTypes[0] != FieldType.STRING)
+            return getMatchingOrdinal((Object) key);
+
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = HashCodes.hashCode(key);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(keyDeriver.keyMatches(key, ordinal, 0))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with two INT, LONG or REFERENCE fields, without boxing the keys.  The returned value with be the
+     * ordinal of the matching record.
+     * <p>
+     * Use a generated API or the Generic Object API to use the returned ordinal.
+     *
+     * @param key1 the first field key
+     * @param key2 the second field key
+     * @return the matching ordinal for the two keys, otherwise -1 if the key is not present
+     */
+    public int getMatchingOrdinal(long key1, int key2) {
+        if(fieldPathIndexes.length != 2 || !isIntegralField(0) || !isIntegralField(1))
+            return getMatchingOrdinal((Object) key1, (Object) key2);
+        return getMatchingIntegralOrdinal(key1, key2);
+    }
+
+    /**
+     * Query an index with two INT, LONG or REFERENCE fields, without boxing the keys.  The returned value with be the
+     * ordinal of the matching record.
+     * <p>
+     * Use a generated API or the Generic Object API to use the returned ordinal.
+     *
+     * @param key1 the first field key
+     * @param key2 the second field key
+     * @return the matching ordinal for the two keys, otherwise -1 if the key is not present
+     */
+    public int getMatchingOrdinal(long key1, long key2) {
+        if(fieldPathIndexes.length != 2 || !isIntegralField(0) || !isIntegralField(1))
+            return getMatchingOrdinal((Object) key1, (Object) key2);
+        return getMatchingIntegralOrdinal(key1, key2);
+    }
+
+    private int getMatchingIntegralOrdinal(long key1, long key2) {
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key1, 0);
+        hashCode ^= keyHashCode(key2, 1);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with a single specified field for each of a batch of keys.  The ordinal of the record matching
+     * each key is placed at the same position in the ordinals array, otherwise -1 if the key is not present.
+     * <p>
+     * Looking up many keys at once is faster than querying for each key in turn, since the hash table loads for
+     * different keys are interleaved rather than each waiting for the last.
+     *
+     * @param keys the field keys
+     * @param ordinals the array to populate with the matching ordinals, at least as long as the keys
+     * @throws IllegalArgumentException if the ordinals array is shorter than the keys
+     */
+    public void getMatchingOrdinals(Object[] keys, int[] ordinals) {
+        PrimaryKeyIndexBatchLookup.checkBatchLength(keys.length, ordinals);
+        if(fieldPathIndexes.length != 1) {
+            Arrays.fill(ordinals, 0, keys.length, -1);
+            return;
+        }
+
+        new PrimaryKeyIndexBatchLookup(keys.length).lookup(() -> hashTableVolatile, keys.length, ordinals,
+                keyIdx -> keyHashCode(keys[keyIdx], 0),
+                (keyIdx, ordinal) -> keyDeriver.keyMatches(keys[keyIdx], ordinal, 0));
+    }
+
+    /**
+     * Query an index with a single INT, LONG or REFERENCE field for each of a batch of keys, without boxing the keys.
+     * The ordinal of the record matching each key is placed at the same position in the ordinals array, otherwise -1
+     * if the key is not present.
+     *
+     * @param keys the field keys
+     * @param ordinals the array to populate with the matching ordinals, at least as long as the keys
+     * @throws IllegalArgumentException if the ordinals array is shorter than the keys
+     * @see #getMatchingOrdinals(Object[], int[])
+     */
+    public void getMatchingOrdinals(long[] keys, int[] ordinals) {
+        PrimaryKeyIndexBatchLookup.checkBatchLength(keys.length, ordinals);
+        if(fieldPathIndexes.length != 1 || !isIntegralField(0)) {
+            for(int i=0;i<keys.length;i++)
+                ordinals[i] = getMatchingOrdinal((Object) keys[i]);
+            return;
+        }
+
+        new PrimaryKeyIndexBatchLookup(keys.length).lookup(() -> hashTableVolatile, keys.length, ordinals,
+                keyIdx -> keyHashCode(keys[keyIdx], 0),
+                (keyIdx, ordinal) -> keyDeriver.keyMatches(keys[keyIdx], ordinal, 0));
+    }
+
+    /**
+     * Query an index with a single STRING field for each of a batch of keys.  The ordinal of the record matching each
+     * key is placed at the same position in the ordinals array, otherwise -1 if the key is not present.
+     *
+     * @param keys the field keys
+     * @param ordinals the array to populate with the matching ordinals, at least as long as the keys
+     * @throws IllegalArgumentException if the ordinals array is shorter than the keys
+     * @see #getMatchingOrdinals(Object[], int[])
+     */
+    public void getMatchingOrdinals(CharSequence[] keys, int[] ordinals) {
+        if(fieldPathIndexes.length != 1 || fieldTypes[0] != FieldType.STRING) {
+            getMatchingOrdinals((Object[]) keys, ordinals);
+            return;
+        }
+        PrimaryKeyIndexBatchLookup.checkBatchLength(keys.length, ordinals);
+
+        new PrimaryKeyIndexBatchLookup(keys.length).lookup(() -> hashTableVolatile, keys.length, ordinals,
+                keyIdx -> HashCodes.hashCode(keys[keyIdx]),
+                (keyIdx, ordinal) -> keyDeriver.keyMatches(keys[keyIdx], ordinal, 0));
+    }
+
+    /**
+     * Query an index with all of its fields for each of a batch of keys.  Each element of the keys array holds the
+     * field keys of one query, in the order of the fields of the primary key.  The ordinal of the record matching each
+     * query is placed at the same position in the ordinals array, otherwise -1 if the key is not present.
+     *
+     * @param keys the field keys of each query
+     * @param ordinals the array to populate with the matching ordinals, at least as long as the keys
+     * @throws IllegalArgumentException if the ordinals array is shorter than the keys
+     * @see #getMatchingOrdinals(Object[], int[])
+     */
+    public void getMatchingOrdinals(Object[][] keys, int[] ordinals) {
+        PrimaryKeyIndexBatchLookup.checkBatchLength(keys.length, ordinals);
+
+        new PrimaryKeyIndexBatchLookup(keys.length).lookup(() -> hashTableVolatile, keys.length, ordinals,
+                keyIdx -> {
+                    int hashCode = 0;
+                    for(int i=0;i<keys[keyIdx].length && i<fieldPathIndexes.length;i++)
+                        hashCode ^= keyHashCode(keys[keyIdx][i], i);
+                    return hashCode;
+                },
+                (keyIdx, ordinal) -> keys[keyIdx].length == fieldPathIndexes.length && keyDeriver.keyMatches(ordinal, keys[keyIdx]));
+    }
+
+    private boolean isIntegralField(int fieldIdx) {
+        switch(fieldTypes[fieldIdx]) {
+            case INT:
+            case LONG:
+            case REFERENCE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private int readOrdinal(PrimaryKeyIndexHashTable hashTable, int bucket) {
         return (int)hashTable.hashTable.getElementValue((long)hashTable.bitsPerElement * (long)bucket, hashTable.bitsPerElement) - 1;
     }
@@ -324,6 +578,23 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener, TestableU
         throw new IllegalArgumentException("I don't know how to hash a " + fieldTypes[fieldIdx]);
     }
 
+    /**
+     * Hash an integral key as the value of an INT, LONG or REFERENCE field, equivalently to {@link #fieldHash(int, int)}.
+     * A key outside the range of an INT or REFERENCE field is hashed as its truncated value, which cannot match.
+     */
+    private int keyHashCode(long key, int fieldIdx) {
+        switch(fieldTypes[fieldIdx]) {
+            case INT:
+                return HashCodes.hashInt(HollowReadFieldUtils.intHashCode((int)key));
+            case LONG:
+                return HashCodes.hashInt(HollowReadFieldUtils.longHashCode(key));
+            case REFERENCE:
+                return HashCodes.hashInt((int)key);
+            default:
+                throw new IllegalArgumentException("I don't know how to hash a " + fieldTypes[fieldIdx] + " with a long key");
+        }
+    }
+
     private void setHashTable(PrimaryKeyIndexHashTable hashTable) {
         this.hashTableVolatile = hashTable;
     }
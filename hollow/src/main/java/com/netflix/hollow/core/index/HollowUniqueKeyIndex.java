@@ -38,6 +38,7 @@ import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
@@ -378,6 +379,53 @@ public class HollowUniqueKeyIndex implements HollowTypeStateListener, TestableUn
         return ordinal;
     }
 
+    /**
+     * Query an index with a single specified field for each of a batch of keys.  The ordinal of the record matching
+     * each key is placed at the same position in the ordinals array, otherwise -1 if the key is not present.
+     * <p>
+     * Looking up many keys at once is faster than querying for each key in turn, since the hash table loads for
+     * different keys are interleaved rather than each waiting for the last.
+     *
+     * @param keys the field keys
+     * @param ordinals the array to populate with the matching ordinals, at least as long as the keys
+     * @throws IllegalArgumentException if the ordinals array is shorter than the keys
+     */
+    public void getMatchingOrdinals(Object[] keys, int[] ordinals) {
+        PrimaryKeyIndexBatchLookup.checkBatchLength(keys.length, ordinals);
+        if (fields.length != 1) {
+            Arrays.fill(ordinals, 0, keys.length, ORDINAL_NONE);
+            return;
+        }
+
+        FieldType fieldType = fields[0].getFieldType();
+        new PrimaryKeyIndexBatchLookup(keys.length).lookup(() -> hashTableVolatile, keys.length, ordinals,
+                keyIdx -> generateKeyHashCode(keys[keyIdx], fieldType),
+                (keyIdx, ordinal) -> keyMatches(keys[keyIdx], ordinal, 0));
+    }
+
+    /**
+     * Query an index with all of its fields for each of a batch of keys.  Each element of the keys array holds the
+     * field keys of one query, in the order of the fields of the primary key.  The ordinal of the record matching each
+     * query is placed at the same position in the ordinals array, otherwise -1 if the key is not present.
+     *
+     * @param keys the field keys of each query
+     * @param ordinals the array to populate with the matching ordinals, at least as long as the keys
+     * @throws IllegalArgumentException if the ordinals array is shorter than the keys
+     * @see #getMatchingOrdinals(Object[], int[])
+     */
+    public void getMatchingOrdinals(Object[][] keys, int[] ordinals) {
+        PrimaryKeyIndexBatchLookup.checkBatchLength(keys.length, ordinals);
+
+        new PrimaryKeyIndexBatchLookup(keys.length).lookup(() -> hashTableVolatile, keys.length, ordinals,
+                keyIdx -> {
+                    int hashCode = 0;
+                    for (int fieldIdx = 0; fieldIdx < keys[keyIdx].length && fieldIdx < fields.length; fieldIdx++)
+                        hashCode ^= generateKeyHashCode(keys[keyIdx][fieldIdx], fields[fieldIdx].getFieldType());
+                    return hashCode;
+                },
+                (keyIdx, ordinal) -> keys[keyIdx].length == fields.length && keysAllMatch(ordinal, keys[keyIdx]));
+    }
+
     private boolean isProvidedKeyCountNotEqualToIndexedFieldsCount(int keyCount) {
         // mismatched number of fields or the table is empty
         return this.fields.length != keyCount || this.hashTableVolatile.bitsPerElement == 0;
@@ -0,0 +1,116 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex.PrimaryKeyIndexHashTable;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Looks up the ordinals of a batch of keys in a {@link PrimaryKeyIndexHashTable}.
+ * <p>
+ * Rather than probing the table for each key in turn, the keys are looked up in chunks.  The hash codes of all of the
+ * keys in a chunk are computed first, then the first bucket of every key is read, then each candidate record is
+ * compared and only the keys which did not match advance to their next bucket.  The loads of each round are independent
+ * of each other, so their cache misses may be overlapped by the processor rather than being paid one after another.
+ */
+class PrimaryKeyIndexBatchLookup {
+
+    static final int CHUNK_SIZE = 256;
+
+    interface KeyHasher {
+        int hashCode(int keyIdx);
+    }
+
+    interface KeyMatcher {
+        boolean keyMatches(int keyIdx, int ordinal);
+    }
+
+    private final int[] hashCodes;
+    private final int[] buckets;
+    private final int[] pending;
+
+    PrimaryKeyIndexBatchLookup(int numKeys) {
+        int chunkSize = Math.min(numKeys, CHUNK_SIZE);
+        this.hashCodes = new int[chunkSize];
+        this.buckets = new int[chunkSize];
+        this.pending = new int[chunkSize];
+    }
+
+    static void checkBatchLength(int numKeys, int[] ordinals) {
+        if(ordinals.length < numKeys)
+            throw new IllegalArgumentException("ordinals array is shorter than the keys; keys=" + numKeys + ", ordinals=" + ordinals.length);
+    }
+
+    /**
+     * Look up the ordinals of keys.
+     *
+     * @param hashTables supplies the current hash table of the index; the lookup of a chunk is repeated if it changes
+     * @param numKeys the number of keys
+     * @param ordinals the array populated with the matching ordinal of each key, or -1 if the key is not present
+     * @param hasher the hash code of each key
+     * @param matcher whether each key matches a record
+     */
+    void lookup(Supplier<PrimaryKeyIndexHashTable> hashTables, int numKeys, int[] ordinals, KeyHasher hasher, KeyMatcher matcher) {
+        for(int from=0;from<numKeys;from+=hashCodes.length) {
+            int to = Math.min(numKeys, from + hashCodes.length);
+
+            for(int i=from;i<to;i++)
+                hashCodes[i - from] = hasher.hashCode(i);
+
+            PrimaryKeyIndexHashTable hashTable;
+            do {
+                hashTable = hashTables.get();
+                if(hashTable.bitsPerElement == 0) {
+                    Arrays.fill(ordinals, from, to, ORDINAL_NONE);
+                    break;
+                }
+                probe(hashTable, from, to, ordinals, matcher);
+            } while(hashTables.get() != hashTable);
+        }
+    }
+
+    private void probe(PrimaryKeyIndexHashTable hashTable, int from, int to, int[] ordinals, KeyMatcher matcher) {
+        int numPending = to - from;
+        for(int i=0;i<numPending;i++) {
+            buckets[i] = hashCodes[i] & hashTable.hashMask;
+            ordinals[from + i] = readOrdinal(hashTable, buckets[i]);
+            pending[i] = i;
+        }
+
+        while(numPending > 0) {
+            int stillPending = 0;
+            for(int p=0;p<numPending;p++) {
+                int i = pending[p];
+                int ordinal = ordinals[from + i];
+                if(ordinal == ORDINAL_NONE || matcher.keyMatches(from + i, ordinal))
+                    continue;
+
+                buckets[i] = (buckets[i] + 1) & hashTable.hashMask;
+                ordinals[from + i] = readOrdinal(hashTable, buckets[i]);
+                pending[stillPending++] = i;
+            }
+            numPending = stillPending;
+        }
+    }
+
+    private static int readOrdinal(PrimaryKeyIndexHashTable hashTable, int bucket) {
+        return (int)hashTable.hashTable.getElementValue((long)hashTable.bitsPerElement * (long)bucket, hashTable.bitsPerElement) - 1;
+    }
+}
@@ -93,6 +93,68 @@ public class HollowPrimaryKeyValueDeriver {
         return keyMatches(key, fieldTypes[fieldIdx], lastFieldIdx, ordinal, typeState);
     }
 
+    /**
+     * Determine whether the specified field of the specified ordinal matches an integral key, without boxing the key.
+     * INT, LONG and REFERENCE fields may be matched.
+     *
+     * @param key the key
+     * @param ordinal the ordinal
+     * @param fieldIdx the index of the field in the primary key
+     * @return true if the field matches the key
+     */
+    public boolean keyMatches(long key, int ordinal, int fieldIdx) {
+        HollowObjectTypeReadState typeState = this.typeState;
+        HollowObjectSchema schema = typeState.getSchema();
+
+        int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
+        for(int i=0;i<lastFieldPath;i++) {
+            int fieldPosition = fieldPathIndexes[fieldIdx][i];
+            ordinal = typeState.readOrdinal(ordinal, fieldPosition);
+            typeState = (HollowObjectTypeReadState) schema.getReferencedTypeState(fieldPosition);
+            schema = typeState.getSchema();
+        }
+
+        int lastFieldIdx = fieldPathIndexes[fieldIdx][lastFieldPath];
+
+        switch(fieldTypes[fieldIdx]) {
+            case INT:
+                return typeState.readInt(ordinal, lastFieldIdx) == key;
+            case LONG:
+                return typeState.readLong(ordinal, lastFieldIdx) == key;
+            case REFERENCE:
+                return typeState.readOrdinal(ordinal, lastFieldIdx) == key;
+        }
+
+        throw new IllegalArgumentException("I don't know how to compare a " + fieldTypes[fieldIdx] + " with a long key");
+    }
+
+    /**
+     * Determine whether the specified STRING field of the specified ordinal matches a key, without the key needing to
+     * be held in a String.
+     *
+     * @param key the key
+     * @param ordinal the ordinal
+     * @param fieldIdx the index of the field in the primary key
+     * @return true if the field matches the key
+     */
+    public boolean keyMatches(CharSequence key, int ordinal, int fieldIdx) {
+        HollowObjectTypeReadState typeState = this.typeState;
+        HollowObjectSchema schema = typeState.getSchema();
+
+        int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
+        for(int i=0;i<lastFieldPath;i++) {
+            int fieldPosition = fieldPathIndexes[fieldIdx][i];
+            ordinal = typeState.readOrdinal(ordinal, fieldPosition);
+            typeState = (HollowObjectTypeReadState) schema.getReferencedTypeState(fieldPosition);
+            schema = typeState.getSchema();
+        }
+
+        if(fieldTypes[fieldIdx] != FieldType.STRING)
+            throw new IllegalArgumentException("I don't know how to compare a " + fieldTypes[fieldIdx] + " with a CharSequence key");
+
+        return typeState.isStringFieldEqual(ordinal, fieldPathIndexes[fieldIdx][lastFieldPath], key);
+    }
+
     @SuppressWarnings("UnnecessaryUnboxing")
     public static boolean keyMatches(Object key, FieldType fieldType, int lastFieldIdx, int ordinal, HollowObjectTypeDataAccess dataAccess) {
         switch(fieldType) {
@@ -21,7 +21,9 @@ import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * This data structure maps byte sequences to ordinals.  This is a hash table.
@@ -33,6 +35,11 @@ import java.util.concurrent.atomic.AtomicLongArray;
  * of the byte sequence in the ByteDataBuffer.  Each byte sequence is preceded by a variable-length integer
  * (see {@link VarInt}), indicating the length of the sequence.<p>
  *
+ * New byte sequences may be assigned ordinals by many threads concurrently.  Each thread appends to its own region
+ * of the {@link ByteDataArray}, reserved in bulk, and publishes a key by a compare-and-set on an empty bucket.  Only
+ * the assignment of an ordinal together with the publication of its key, and growth of the key array, are
+ * serialized.<p>
+ *
  * @author dkoszewnik
  */
 public class ByteArrayOrdinalMap {
@@ -45,6 +52,11 @@ public class ByteArrayOrdinalMap {
     private static final long ORDINAL_MASK = (1L << BITS_PER_ORDINAL) - 1;
     private static final long MAX_BYTE_DATA_LENGTH = 1L << BITS_PER_POINTER;
 
+    private static final int WRITE_REGION_SIZE = 1 << 13;
+    /// Records at least this long are appended directly to the byte data rather than to a write region, so no more than
+    /// this many bytes are left unused at the end of each region.
+    private static final int MAX_REGION_RECORD_LENGTH = WRITE_REGION_SIZE >> 4;
+
     /// Thread safety:  We need volatile access semantics to the individual elements in the
     /// pointersAndOrdinals array.
     /// Ordinal is the high 29 bits.  Pointer to byte data is the low 35 bits.
@@ -52,8 +64,17 @@ public class ByteArrayOrdinalMap {
     private volatile AtomicLongArray pointersAndOrdinals;
     private final ByteDataArray byteData;
     private final FreeOrdinalTracker freeOrdinalTracker;
-    private int size;
-    private int sizeBeforeGrow;
+    private final AtomicInteger size;
+    private volatile int sizeBeforeGrow;
+
+    /// Writers hold the read lock while probing and publishing keys, growth of the key array holds the write lock.
+    private final StampedLock resizeLock;
+
+    /// Each writing thread appends byte sequences to its own region of byteData, regions are
+    /// invalidated when byteData is compacted.
+    private final ThreadLocal<WriteRegion> writeRegions;
+    private final int byteSegmentSize;
+    private volatile int writeRegionGeneration;
 
     private BitSet unusedPreviousOrdinals;
 
@@ -72,13 +93,25 @@ public class ByteArrayOrdinalMap {
      * rounded up to the nearest power of two, and a load factor of 70%.
      */
     public ByteArrayOrdinalMap(int size) {
+        this(size, new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE));
+    }
+
+    /**
+     * Creates a byte array ordinal map with an initial capacity of a given size
+     * rounded up to the nearest power of two, and a load factor of 70%, which
+     * retains byte sequences in the given (empty) byte data.
+     */
+    public ByteArrayOrdinalMap(int size, ByteDataArray byteData) {
         size = bucketSize(size);
 
         this.freeOrdinalTracker = new FreeOrdinalTracker();
-        this.byteData = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+        this.byteData = byteData;
         this.pointersAndOrdinals = emptyKeyArray(size);
         this.sizeBeforeGrow = (int) (((float) size) * 0.7); /// 70% load factor
-        this.size = 0;
+        this.size = new AtomicInteger();
+        this.resizeLock = new StampedLock();
+        this.writeRegions = ThreadLocal.withInitial(WriteRegion::new);
+        this.byteSegmentSize = 1 << byteData.getUnderlyingArray().getLog2OfSegmentSize();
     }
 
     private static int bucketSize(int x) {
@@ -116,72 +149,92 @@ public class ByteArrayOrdinalMap {
         return ordinal != -1 ? ordinal : assignOrdinal(serializedRepresentation, hash, preferredOrdinal);
     }
 
-    /// acquire the lock before writing.
-    private synchronized int assignOrdinal(ByteDataArray serializedRepresentation, int hash, int preferredOrdinal) {
+    private int assignOrdinal(ByteDataArray serializedRepresentation, int hash, int preferredOrdinal) {
         if (preferredOrdinal < -1 || preferredOrdinal > ORDINAL_MASK) {
             throw new IllegalArgumentException(String.format(
                     "The given preferred ordinal %s is out of bounds and not within the closed interval [-1, %s]",
                     preferredOrdinal, ORDINAL_MASK));
         }
-        if (size > sizeBeforeGrow) {
-            growKeyArray();
-        }
 
-        /// check to make sure that after acquiring the lock, the element still does not exist.
-        /// this operation is akin to double-checked locking which is 'fixed' with the JSR 133 memory model in JVM >= 1.5.
-        /// Note that this also requires pointersAndOrdinals be volatile so resizes are also visible
-        AtomicLongArray pao = pointersAndOrdinals;
+        int length = (int) serializedRepresentation.length();
+        int recordLength = VarInt.sizeOfVInt(length) + length;
 
-        int modBitmask = pao.length() - 1;
-        int bucket = hash & modBitmask;
-        long key = pao.get(bucket);
+        long pointer = -1;
 
-        while (key != EMPTY_BUCKET_VALUE) {
-            if (compare(serializedRepresentation, key)) {
-                return (int) (key >>> BITS_PER_POINTER);
+        while (true) {
+            if (size.get() > sizeBeforeGrow) {
+                growKeyArrayIfNecessary();
             }
 
-            bucket = (bucket + 1) & modBitmask;
-            key = pao.get(bucket);
-        }
+            long stamp = resizeLock.readLock();
+            try {
+                /// another writer may have filled the key array past its load factor in the meantime
+                if (size.get() > sizeBeforeGrow) {
+                    continue;
+                }
 
-        /// the ordinal for this object still does not exist in the list, even after the lock has been acquired.
-        /// it is up to this thread to add it at the current bucket position.
-        int ordinal = findFreeOrdinal(preferredOrdinal);
-        if (ordinal > ORDINAL_MASK) {
-            throw new IllegalStateException(String.format(
-                    "Ordinal cannot be assigned. The to be assigned ordinal, %s, is greater than the maximum supported ordinal value of %s",
-                    ordinal, ORDINAL_MASK));
-        }
+                /// check to make sure that the element still does not exist.
+                /// Note that this requires pointersAndOrdinals be volatile so resizes are also visible
+                AtomicLongArray pao = pointersAndOrdinals;
 
-        long pointer = byteData.length();
+                int modBitmask = pao.length() - 1;
+                int bucket = hash & modBitmask;
+                long key = pao.get(bucket);
+
+                while (true) {
+                    if (key == EMPTY_BUCKET_VALUE) {
+                        if (pointer == -1) {
+                            pointer = writeRecord(serializedRepresentation, recordLength);
+                        }
+
+                        /// an ordinal is only taken while its key can be published, so an ordinal returned by a
+                        /// writer which lost the race is the next one assigned and the ordinals are left without holes
+                        synchronized (freeOrdinalTracker) {
+                            boolean reusedPreviousOrdinal = preferredOrdinal != -1 && unusedPreviousOrdinals.get(preferredOrdinal);
+                            int ordinal = findFreeOrdinal(preferredOrdinal);
+                            if (ordinal > ORDINAL_MASK) {
+                                throw new IllegalStateException(String.format(
+                                        "Ordinal cannot be assigned. The to be assigned ordinal, %s, is greater than the maximum supported ordinal value of %s",
+                                        ordinal, ORDINAL_MASK));
+                            }
+
+                            /// the compare-and-set on the AtomicLongArray has volatile semantics (i.e. behaves like a monitor release).
+                            /// Any other thread reading this element in the AtomicLongArray will have visibility to all memory writes this thread has made up to this point.
+                            /// This means the entire byte sequence is guaranteed to be visible to any thread which reads the pointer to that data.
+                            if (pao.compareAndSet(bucket, EMPTY_BUCKET_VALUE, ((long) ordinal << BITS_PER_POINTER) | pointer)) {
+                                size.incrementAndGet();
+                                commitRecord(pointer, recordLength);
+                                return ordinal;
+                            }
+
+                            returnUnassignedOrdinal(ordinal, reusedPreviousOrdinal);
+                        }
+
+                        /// another thread claimed this bucket first, it may have added the same byte sequence
+                        key = pao.get(bucket);
+                        continue;
+                    }
+
+                    if (compare(serializedRepresentation, key)) {
+                        /// the byte sequence was concurrently added by another thread.  Bytes written to this
+                        /// thread's region are not committed and will be overwritten by its next record.
+                        return (int) (key >>> BITS_PER_POINTER);
+                    }
 
-        VarInt.writeVInt(byteData, (int) serializedRepresentation.length());
-        /// Copying might cause a resize to the segmented array held by byteData
-        /// A reading thread may observe a null value for a segment during the creation
-        /// of a new segments array (see SegmentedByteArray.ensureCapacity).
-        serializedRepresentation.copyTo(byteData);
-        if (byteData.length() > MAX_BYTE_DATA_LENGTH) {
-            throw new IllegalStateException(String.format(
-                    "The number of bytes for the serialized representations, %s, is too large and is greater than the maximum of %s bytes",
-                    byteData.length(), MAX_BYTE_DATA_LENGTH));
+                    bucket = (bucket + 1) & modBitmask;
+                    key = pao.get(bucket);
+                }
+            } finally {
+                resizeLock.unlockRead(stamp);
+            }
         }
-
-        key = ((long) ordinal << BITS_PER_POINTER) | pointer;
-
-        size++;
-
-        /// this set on the AtomicLongArray has volatile semantics (i.e. behaves like a monitor release).
-        /// Any other thread reading this element in the AtomicLongArray will have visibility to all memory writes this thread has made up to this point.
-        /// This means the entire byte sequence is guaranteed to be visible to any thread which reads the pointer to that data.
-        pao.set(bucket, key);
-
-        return ordinal;
     }
 
     /**
      * If the preferredOrdinal has not already been used, mark it and use it.  Otherwise,
      * delegate to the FreeOrdinalTracker.
+     * <p>
+     * The caller must hold the lock on the FreeOrdinalTracker.
      */
     private int findFreeOrdinal(int preferredOrdinal) {
         if (preferredOrdinal != -1 && unusedPreviousOrdinals.get(preferredOrdinal)) {
@@ -192,6 +245,91 @@ public class ByteArrayOrdinalMap {
         return freeOrdinalTracker.getFreeOrdinal();
     }
 
+    /**
+     * Return an ordinal which was obtained from {@link #findFreeOrdinal(int)} but lost the race to publish its key.
+     * <p>
+     * The caller must hold the lock on the FreeOrdinalTracker.
+     */
+    private void returnUnassignedOrdinal(int ordinal, boolean reusedPreviousOrdinal) {
+        if (reusedPreviousOrdinal) {
+            unusedPreviousOrdinals.set(ordinal);
+        } else {
+            freeOrdinalTracker.returnOrdinalToPool(ordinal);
+        }
+    }
+
+    /**
+     * Write a record, preceded by its length, and return its position.  A record shorter than
+     * {@link #MAX_REGION_RECORD_LENGTH} is written to the calling thread's write region, reserving a new region if the
+     * current one cannot fit it, and is retained only once it is committed.  A longer record is written to space reserved
+     * for it alone, leaving the calling thread's region for the records which follow.
+     */
+    private long writeRecord(ByteDataArray serializedRepresentation, int recordLength) {
+        long pointer;
+        if (recordLength >= MAX_REGION_RECORD_LENGTH) {
+            pointer = reserve(recordLength);
+        } else {
+            WriteRegion region = writeRegions.get();
+            if (region.generation != writeRegionGeneration || region.end - region.position < recordLength) {
+                region.position = reserve(WRITE_REGION_SIZE);
+                region.end = region.position + WRITE_REGION_SIZE;
+                region.generation = writeRegionGeneration;
+            }
+            pointer = region.position;
+        }
+
+        writeRecord(serializedRepresentation, pointer);
+        return pointer;
+    }
+
+    private void commitRecord(long pointer, int recordLength) {
+        if (recordLength < MAX_REGION_RECORD_LENGTH) {
+            writeRegions.get().position = pointer + recordLength;
+        }
+    }
+
+    /**
+     * Reserve the given number of bytes at the end of the byte data, and return the position of the first.
+     */
+    private long reserve(int numBytes) {
+        synchronized (byteData) {
+            long start = byteData.length();
+            long end = start + numBytes;
+            if (end > MAX_BYTE_DATA_LENGTH) {
+                throw new IllegalStateException(String.format(
+                        "The number of bytes for the serialized representations, %s, is too large and is greater than the maximum of %s bytes",
+                        end, MAX_BYTE_DATA_LENGTH));
+            }
+
+            /// allocate all segments spanned by the reserved bytes up front, so the reserving thread will not
+            /// resize the segmented array held by byteData while writing to it.
+            SegmentedByteArray arr = byteData.getUnderlyingArray();
+            for (long i = start; i < end; i += byteSegmentSize) {
+                arr.set(i, (byte) 0);
+            }
+            arr.set(end - 1, (byte) 0);
+            byteData.setPosition(end);
+
+            return start;
+        }
+    }
+
+    /**
+     * Write the length of the byte sequence followed by the byte sequence, at the given position.
+     */
+    private void writeRecord(ByteDataArray serializedRepresentation, long pointer) {
+        SegmentedByteArray arr = byteData.getUnderlyingArray();
+        int length = (int) serializedRepresentation.length();
+
+        if (length > 0x0FFFFFFF) arr.set(pointer++, (byte) (0x80 | ((length >>> 28))));
+        if (length > 0x1FFFFF)   arr.set(pointer++, (byte) (0x80 | ((length >>> 21) & 0x7F)));
+        if (length > 0x3FFF)     arr.set(pointer++, (byte) (0x80 | ((length >>> 14) & 0x7F)));
+        if (length > 0x7F)       arr.set(pointer++, (byte) (0x80 | ((length >>>  7) & 0x7F)));
+        arr.set(pointer++, (byte) (length & 0x7F));
+
+        arr.copy(serializedRepresentation.getUnderlyingArray(), 0, pointer, length);
+    }
+
     /**
      * Assign a predefined ordinal to a serialized representation.<p>
      * <p>
@@ -207,7 +345,7 @@ public class ByteArrayOrdinalMap {
                     "The given ordinal %s is out of bounds and not within the closed interval [0, %s]",
                     ordinal, ORDINAL_MASK));
         }
-        if (size > sizeBeforeGrow) {
+        if (size.get() > sizeBeforeGrow) {
             growKeyArray();
         }
 
@@ -236,7 +374,7 @@ public class ByteArrayOrdinalMap {
 
         key = ((long) ordinal << BITS_PER_POINTER) | pointer;
 
-        size++;
+        size.incrementAndGet();
 
         pao.set(bucket, key);
     }
@@ -359,7 +497,7 @@ public class ByteArrayOrdinalMap {
      * @param usedOrdinals a bit set representing the ordinals which are currently referenced by any image.
      */
     public void compact(ThreadSafeBitSet usedOrdinals, int numShards, boolean focusHoleFillInFewestShards) {
-        long[] populatedReverseKeys = new long[size];
+        long[] populatedReverseKeys = new long[size.get()];
 
         int counter = 0;
         AtomicLongArray pao = pointersAndOrdinals;
@@ -398,6 +536,7 @@ public class ByteArrayOrdinalMap {
         }
 
         byteData.setPosition(currentCopyPointer);
+        writeRegionGeneration++;
 
         if(focusHoleFillInFewestShards && numShards > 1)
             freeOrdinalTracker.sort(numShards);
@@ -411,7 +550,7 @@ public class ByteArrayOrdinalMap {
             pao.lazySet(i, EMPTY_BUCKET_VALUE);
         }
         populateNewHashArray(pao, populatedReverseKeys);
-        size = usedOrdinals.cardinality();
+        size.set(usedOrdinals.cardinality());
 
         pointersByOrdinal = null;
         unusedPreviousOrdinals = null;
@@ -422,6 +561,11 @@ public class ByteArrayOrdinalMap {
         return pointer + VarInt.nextVLongSize(byteData.getUnderlyingArray(), pointer);
     }
 
+    public int getDataLength(int ordinal) {
+        long pointer = pointersByOrdinal[ordinal] & POINTER_MASK;
+        return VarInt.readVInt(byteData.getUnderlyingArray(), pointer);
+    }
+
     public boolean isReadyForWriting() {
         return pointersByOrdinal != null;
     }
@@ -491,6 +635,20 @@ public class ByteArrayOrdinalMap {
         }
     }
 
+    /**
+     * Grow the key array if it is still above its load factor once concurrent writers have released the array.
+     */
+    private void growKeyArrayIfNecessary() {
+        long stamp = resizeLock.writeLock();
+        try {
+            if (size.get() > sizeBeforeGrow) {
+                growKeyArray();
+            }
+        } finally {
+            resizeLock.unlockWrite(stamp);
+        }
+    }
+
     /**
      * Grow the key array.  All of the values in the current array must be re-hashed and added to the new array.
      */
@@ -512,7 +670,7 @@ public class ByteArrayOrdinalMap {
 
         AtomicLongArray newKeys = emptyKeyArray(newSize);
 
-        long[] valuesToAdd = new long[size];
+        long[] valuesToAdd = new long[size.get()];
 
         int counter = 0;
 
@@ -591,6 +749,15 @@ public class ByteArrayOrdinalMap {
         return byteData;
     }
 
+    /**
+     * Release the memory holding the serialized records.  For off-heap storage this also closes the file backing the
+     * records, rather than leaving it open until the map is garbage collected.  The map must not be used once it has
+     * been destroyed.
+     */
+    public void destroy() {
+        byteData.getUnderlyingArray().destroy();
+    }
+
     public AtomicLongArray getPointersAndOrdinals() {
         return pointersAndOrdinals;
     }
@@ -607,4 +774,13 @@ public class ByteArrayOrdinalMap {
         return (int) (pointerAndOrdinal >>> BITS_PER_POINTER);
     }
 
+    /**
+     * A range of byteData reserved for appends by a single thread.
+     */
+    private static class WriteRegion {
+        long position;
+        long end;
+        int generation = -1;
+    }
+
 }
\ No newline at end of file
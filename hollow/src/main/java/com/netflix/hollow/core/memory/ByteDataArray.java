@@ -39,6 +39,10 @@ public class ByteDataArray {
         buf = new SegmentedByteArray(memoryRecycler);
     }
 
+    public ByteDataArray(SegmentedByteArray buf) {
+        this.buf = buf;
+    }
+
     public void write(byte b) {
         buf.set(position++, b);
     }
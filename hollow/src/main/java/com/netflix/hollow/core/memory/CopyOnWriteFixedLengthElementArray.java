@@ -0,0 +1,104 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+
+/**
+ * A {@link FixedLengthElementArray} which initially shares the segments of another array, and copies a shared segment
+ * the first time it is written.  Only the segments which are changed are duplicated, and the source array is never
+ * modified, so it may continue to be read while this array is being written.
+ * <p>
+ * The source array must not be modified while it is shared.
+ */
+public class CopyOnWriteFixedLengthElementArray extends FixedLengthElementArray {
+
+    private final ArraySegmentRecycler memoryRecycler;
+    private final boolean[] ownedSegments;
+
+    /**
+     * @param memoryRecycler the recycler from which segments are allocated, which must be of the source's segment size
+     * @param source the array whose contents are copied on write
+     * @param numBits the number of bits in this array, which may be more than in the source
+     */
+    public CopyOnWriteFixedLengthElementArray(ArraySegmentRecycler memoryRecycler, FixedLengthElementArray source, long numBits) {
+        super(memoryRecycler, source, numBits);
+        this.memoryRecycler = memoryRecycler;
+        this.ownedSegments = new boolean[segments.length];
+        for(int i=source.segments.length;i<segments.length;i++)
+            ownedSegments[i] = true;
+    }
+
+    @Override
+    public void set(long index, long value) {
+        int segmentIndex = (int)(index >>> log2OfSegmentSize);
+        ensureOwned(segmentIndex);
+        /// the fencepost long at the end of the previous segment is also written
+        if((index & bitmask) == 0 && segmentIndex != 0)
+            ensureOwned(segmentIndex - 1);
+        super.set(index, value);
+    }
+
+    @Override
+    public void increment(long index, long increment) {
+        int segmentIndex = (int)(index >>> (log2OfSegmentSize + 6));
+        for(int i=Math.max(segmentIndex - 1, 0);i<=Math.min(segmentIndex + 1, segments.length - 1);i++)
+            ensureOwned(i);
+        super.increment(index, increment);
+    }
+
+    @Override
+    public void fill(long value) {
+        for(int i=0;i<segments.length;i++)
+            ensureOwned(i);
+        super.fill(value);
+    }
+
+    /**
+     * Recycles only the segments which are not shared with the source array.
+     */
+    @Override
+    public void destroy(ArraySegmentRecycler memoryRecycler) {
+        for(int i=0;i<segments.length;i++) {
+            if(ownedSegments[i] && segments[i] != null)
+                memoryRecycler.recycleLongArray(segments[i]);
+        }
+    }
+
+    /**
+     * @return the number of segments which have been allocated for this array rather than shared with the source
+     */
+    public int getNumOwnedSegments() {
+        int numOwned = 0;
+        for(boolean owned : ownedSegments) {
+            if(owned)
+                numOwned++;
+        }
+        return numOwned;
+    }
+
+    private void ensureOwned(int segmentIndex) {
+        if(ownedSegments[segmentIndex])
+            return;
+
+        long[] copy = memoryRecycler.getLongArray();
+        System.arraycopy(segments[segmentIndex], 0, copy, 0, copy.length);
+        segments[segmentIndex] = copy;
+        ownedSegments[segmentIndex] = true;
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import sun.misc.Unsafe;
+
+/**
+ * A {@link SegmentedByteArray} whose segments are allocated outside of the JVM heap, either as direct memory or
+ * as memory mapped files.<p>
+ *
+ * This is intended for producers which retain a large amount of serialized data across cycles, keeping that
+ * data out of reach of the garbage collector.  Segments are sliced from regions which double in size as the array
+ * grows, up to a maximum region size, so that a large array is backed by few allocations.  When a backing directory
+ * is given, the regions are mapped from a single file which is unlinked as soon as it is opened, so the operating
+ * system may page the data out to disk under memory pressure and reclaims the file once the array is destroyed.
+ * Otherwise the regions are allocated from direct memory, which is limited by {@code -XX:MaxDirectMemorySize}.<p>
+ *
+ * As with the on-heap array, segments are allocated when first written to and are never relocated.
+ */
+@SuppressWarnings("restriction")
+public class OffHeapSegmentedByteArray extends SegmentedByteArray {
+
+    public static final int DEFAULT_LOG2_SEGMENT_SIZE = 18;
+    public static final int DEFAULT_LOG2_MAX_REGION_SIZE = 30;
+
+    private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
+
+    private ByteBuffer[] segments;
+    private final int log2OfSegmentSize;
+    private final int bitmask;
+    private final int maxSegmentsPerRegion;
+    private final File backingDirectory;
+    private int numAllocatedSegments;
+    private File backingFile;
+    private FileChannel backingChannel;
+
+    /**
+     * @param backingDirectory the directory in which to create the memory mapped backing file, or null to allocate
+     * segments from direct memory
+     */
+    public OffHeapSegmentedByteArray(File backingDirectory) {
+        this(DEFAULT_LOG2_SEGMENT_SIZE, backingDirectory);
+    }
+
+    public OffHeapSegmentedByteArray(int log2OfSegmentSize, File backingDirectory) {
+        this(log2OfSegmentSize, Math.max(log2OfSegmentSize, DEFAULT_LOG2_MAX_REGION_SIZE), backingDirectory);
+    }
+
+    /**
+     * @param log2OfSegmentSize the log2 of the size of each segment
+     * @param log2OfMaxRegionSize the log2 of the maximum size of the regions from which segments are sliced, which
+     * must be at least the segment size and less than 2GB
+     * @param backingDirectory the directory in which to create the memory mapped backing file, or null to allocate
+     * segments from direct memory
+     */
+    public OffHeapSegmentedByteArray(int log2OfSegmentSize, int log2OfMaxRegionSize, File backingDirectory) {
+        super(WastefulRecycler.SMALL_ARRAY_RECYCLER);
+        if(log2OfMaxRegionSize < log2OfSegmentSize || log2OfMaxRegionSize > 30)
+            throw new IllegalArgumentException("Invalid log2 of max region size: " + log2OfMaxRegionSize);
+        this.segments = new ByteBuffer[2];
+        this.log2OfSegmentSize = log2OfSegmentSize;
+        this.bitmask = (1 << log2OfSegmentSize) - 1;
+        this.maxSegmentsPerRegion = 1 << (log2OfMaxRegionSize - log2OfSegmentSize);
+        this.backingDirectory = backingDirectory;
+    }
+
+    @Override
+    public void set(long index, byte value) {
+        int segmentIndex = (int)(index >> log2OfSegmentSize);
+        ensureCapacity(segmentIndex);
+        segments[segmentIndex].put((int)(index & bitmask), value);
+    }
+
+    @Override
+    public byte get(long index) {
+        return segments[(int)(index >>> log2OfSegmentSize)].get((int)(index & bitmask));
+    }
+
+    @Override
+    public void copy(ByteData src, long srcPos, long destPos, long length) {
+        if(src instanceof SegmentedByteArray) {
+            copy((SegmentedByteArray) src, srcPos, destPos, length);
+            return;
+        }
+
+        int segmentLength = 1 << log2OfSegmentSize;
+        int currentSegment = (int)(destPos >>> log2OfSegmentSize);
+        int segmentStartPos = (int)(destPos & bitmask);
+
+        while(length > 0) {
+            int bytesToCopyToSegment = (int) Math.min(segmentLength - segmentStartPos, length);
+            ensureCapacity(currentSegment);
+            ByteBuffer segment = segments[currentSegment];
+            for(int i=0;i<bytesToCopyToSegment;i++)
+                segment.put(segmentStartPos + i, src.get(srcPos++));
+
+            length -= bytesToCopyToSegment;
+            segmentStartPos = 0;
+            currentSegment++;
+        }
+    }
+
+    @Override
+    public void copy(SegmentedByteArray src, long srcPos, long destPos, long length) {
+        /// a forward copy is also correct for the overlapping ranges of a compaction, where destPos < srcPos,
+        /// since each run is copied with a bulk transfer which allows its source and destination to overlap
+        int segmentLength = 1 << log2OfSegmentSize;
+        int currentSegment = (int)(destPos >>> log2OfSegmentSize);
+        int segmentStartPos = (int)(destPos & bitmask);
+
+        while(length > 0) {
+            int bytesToCopyToSegment = (int) Math.min(segmentLength - segmentStartPos, length);
+            ensureCapacity(currentSegment);
+            ByteBuffer dest = segments[currentSegment].duplicate();
+            dest.position(segmentStartPos);
+            int copiedBytes = src.copy(srcPos, dest, bytesToCopyToSegment);
+
+            srcPos += copiedBytes;
+            length -= copiedBytes;
+            segmentStartPos = 0;
+            currentSegment++;
+        }
+    }
+
+    @Override
+    protected int copy(long srcPos, ByteBuffer dest, int length) {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
+        int copiedBytes = 0;
+
+        while(length > 0) {
+            ByteBuffer segment = segments[(int)(srcPos >>> log2OfSegmentSize)].duplicate();
+
+            int bytesToCopyFromSegment = Math.min(remainingBytesInSegment, length);
+
+            segment.position((int)(srcPos & bitmask));
+            segment.limit((int)(srcPos & bitmask) + bytesToCopyFromSegment);
+            dest.put(segment);
+
+            copiedBytes += bytesToCopyFromSegment;
+            srcPos += bytesToCopyFromSegment;
+            remainingBytesInSegment = segmentSize;
+            length -= bytesToCopyFromSegment;
+        }
+
+        return copiedBytes;
+    }
+
+    @Override
+    public int copy(long srcPos, byte[] data, int destPos, int length) {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
+        int dataPosition = destPos;
+
+        while(length > 0) {
+            ByteBuffer segment = segments[(int)(srcPos >>> log2OfSegmentSize)].duplicate();
+
+            int bytesToCopyFromSegment = Math.min(remainingBytesInSegment, length);
+
+            segment.position((int)(srcPos & bitmask));
+            segment.get(data, dataPosition, bytesToCopyFromSegment);
+
+            dataPosition += bytesToCopyFromSegment;
+            srcPos += bytesToCopyFromSegment;
+            remainingBytesInSegment = segmentSize - (int)(srcPos & bitmask);
+            length -= bytesToCopyFromSegment;
+        }
+
+        return dataPosition - destPos;
+    }
+
+    @Override
+    public void orderedCopy(VariableLengthData src, long srcPos, long destPos, long length) {
+        copy(src, srcPos, destPos, length);
+        unsafe.storeFence();
+    }
+
+    @Override
+    protected int orderedCopy(long srcPos, byte[] data, int destPos, int length) {
+        int copiedBytes = copy(srcPos, data, destPos, length);
+        unsafe.storeFence();
+        return copiedBytes;
+    }
+
+    @Override
+    public void loadFrom(HollowBlobInput is, long length) throws IOException {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int segment = 0;
+
+        byte scratch[] = new byte[segmentSize];
+
+        while(length > 0) {
+            ensureCapacity(segment);
+            long bytesToCopy = Math.min(segmentSize, length);
+            long bytesCopied = 0;
+            while(bytesCopied < bytesToCopy) {
+                bytesCopied += is.read(scratch, (int)bytesCopied, (int)(bytesToCopy - bytesCopied));
+            }
+            ByteBuffer dest = segments[segment++].duplicate();
+            dest.put(scratch, 0, (int)bytesCopied);
+            length -= bytesCopied;
+        }
+        unsafe.storeFence();
+    }
+
+    @Override
+    public void writeTo(OutputStream os, long startPosition, long len) throws IOException {
+        byte scratch[] = new byte[(int)Math.min(1 << log2OfSegmentSize, len)];
+
+        while(len > 0) {
+            int bytesToCopy = (int)Math.min(scratch.length, len);
+            copy(startPosition, scratch, 0, bytesToCopy);
+            os.write(scratch, 0, bytesToCopy);
+
+            startPosition += bytesToCopy;
+            len -= bytesToCopy;
+        }
+    }
+
+    /**
+     * Ensures that the segment at segmentIndex exists
+     *
+     * @param segmentIndex the segment index
+     */
+    private void ensureCapacity(int segmentIndex) {
+        while(segmentIndex >= numAllocatedSegments) {
+            allocateRegion();
+        }
+    }
+
+    /**
+     * Allocate a region as large as the segments allocated so far, up to the maximum region size, and slice it
+     * into segments.
+     */
+    private void allocateRegion() {
+        int numSegments = Math.min(Math.max(numAllocatedSegments, 1), maxSegmentsPerRegion);
+        int segmentSize = 1 << log2OfSegmentSize;
+
+        while(numAllocatedSegments + numSegments > segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 3 / 2);
+        }
+
+        ByteBuffer region = backingDirectory == null
+                ? ByteBuffer.allocateDirect(numSegments * segmentSize)
+                : mapRegion((long) numAllocatedSegments * segmentSize, numSegments * segmentSize);
+
+        for(int i=0;i<numSegments;i++) {
+            ByteBuffer segment = region.duplicate();
+            segment.position(i * segmentSize);
+            segment.limit((i + 1) * segmentSize);
+            segments[numAllocatedSegments + i] = segment.slice();
+        }
+        numAllocatedSegments += numSegments;
+    }
+
+    private ByteBuffer mapRegion(long position, int size) {
+        try {
+            if(backingChannel == null) {
+                backingFile = File.createTempFile("hollow-segments-", ".bytes", backingDirectory);
+                backingChannel = new RandomAccessFile(backingFile, "rw").getChannel();
+                /// the channel and its mappings remain valid once the file is unlinked
+                if(backingFile.delete())
+                    backingFile = null;
+                else
+                    backingFile.deleteOnExit();
+            }
+            /// the file grows to include each region as it is mapped
+            return backingChannel.map(READ_WRITE, position, size);
+        } catch(IOException e) {
+            throw new UncheckedIOException("Unable to map a region of a segment file in " + backingDirectory, e);
+        }
+    }
+
+    @Override
+    public int getLog2OfSegmentSize() {
+        return log2OfSegmentSize;
+    }
+
+    /**
+     * Release all segments and close the backing file.  The off-heap memory is reclaimed once the segments are
+     * garbage collected.
+     */
+    @Override
+    public void destroy() {
+        Arrays.fill(segments, null);
+        numAllocatedSegments = 0;
+        if(backingChannel != null) {
+            try {
+                backingChannel.close();
+            } catch(IOException ignore) {
+                /// the mappings are unaffected, and the file is reclaimed once they are garbage collected
+            }
+            backingChannel = null;
+            if(backingFile != null)
+                backingFile.delete();
+            backingFile = null;
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for(int i=0;i<segments.length;i++) {
+            if(segments[i] != null)
+                size += segments[i].capacity();
+        }
+
+        return size;
+    }
+
+}
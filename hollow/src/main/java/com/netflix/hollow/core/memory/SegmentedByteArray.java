@@ -20,6 +20,7 @@ import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import sun.misc.Unsafe;
 
@@ -141,6 +142,35 @@ public class SegmentedByteArray implements VariableLengthData {
         return dataPosition - destPos;
     }
     
+    /**
+     * copies exactly length bytes from this SegmentedByteArray into the provided buffer, starting at its position
+     *
+     * @param srcPos the position to begin copying from the source data
+     * @param dest the destination buffer
+     * @param length the length of the data to copy
+     * @return the number of bytes copied
+     */
+    protected int copy(long srcPos, ByteBuffer dest, int length) {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
+        int copiedBytes = 0;
+
+        while(length > 0) {
+            byte[] segment = segments[(int)(srcPos >>> log2OfSegmentSize)];
+
+            int bytesToCopyFromSegment = Math.min(remainingBytesInSegment, length);
+
+            dest.put(segment, (int)(srcPos & bitmask), bytesToCopyFromSegment);
+
+            copiedBytes += bytesToCopyFromSegment;
+            srcPos += bytesToCopyFromSegment;
+            remainingBytesInSegment = segmentSize;
+            length -= bytesToCopyFromSegment;
+        }
+
+        return copiedBytes;
+    }
+
     /**
      * checks equality for a specified range of bytes in two arrays
      * 
@@ -159,6 +189,12 @@ public class SegmentedByteArray implements VariableLengthData {
 
     @Override
     public void orderedCopy(VariableLengthData src, long srcPos, long destPos, long length) {
+        if(!(src instanceof SegmentedByteArray)) {
+            /// e.g. a mapped source in shared memory mode, the destination is not yet visible to other threads
+            copy(src, srcPos, destPos, length);
+            return;
+        }
+
         int segmentLength = 1 << log2OfSegmentSize;
         int currentSegment = (int)(destPos >>> log2OfSegmentSize);
         int segmentStartPos = (int)(destPos & bitmask);
@@ -188,7 +224,7 @@ public class SegmentedByteArray implements VariableLengthData {
      * @param length the length of the data to copy
      * @return the number of bytes copied
      */
-    private int orderedCopy(long srcPos, byte[] data, int destPos, int length) {
+    protected int orderedCopy(long srcPos, byte[] data, int destPos, int length) {
         int segmentSize = 1 << log2OfSegmentSize;
         int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
         int dataPosition = destPos;
@@ -276,6 +312,13 @@ public class SegmentedByteArray implements VariableLengthData {
         }
     }
 
+    /**
+     * @return the log2 of the length of each segment of this array
+     */
+    public int getLog2OfSegmentSize() {
+        return log2OfSegmentSize;
+    }
+
     public void destroy() {
         for(int i=0;i<segments.length;i++) {
             if(segments[i] != null)
@@ -63,6 +63,30 @@ public class SegmentedLongArray {
         this.segments = segments;
     }
 
+    /**
+     * Create an array which shares the segments of {@code source}, followed by newly allocated segments up to
+     * {@code numLongs}.  A write to a shared segment is visible through both arrays.
+     *
+     * @param memoryRecycler the recycler from which new segments are allocated
+     * @param source the array whose segments are shared
+     * @param numLongs the number of longs in this array
+     * @throws IllegalArgumentException if the segments of the source array are not of the recycler's segment size
+     */
+    protected SegmentedLongArray(ArraySegmentRecycler memoryRecycler, SegmentedLongArray source, long numLongs) {
+        this.log2OfSegmentSize = memoryRecycler.getLog2OfLongSegmentSize();
+        if(source.log2OfSegmentSize != log2OfSegmentSize)
+            throw new IllegalArgumentException("Source segments are not of the recycler's segment size");
+        int numSegments = (int)((numLongs - 1) >>> log2OfSegmentSize) + 1;
+        long[][] segments = new long[numSegments][];
+        this.bitmask = (1 << log2OfSegmentSize) - 1;
+
+        for(int i=0;i<segments.length;i++) {
+            segments[i] = i < source.segments.length ? source.segments[i] : memoryRecycler.getLongArray();
+        }
+
+        this.segments = segments;
+    }
+
     /**
      * Set the long at the given index to the specified value
      *
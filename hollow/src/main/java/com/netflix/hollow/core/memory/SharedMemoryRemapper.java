@@ -0,0 +1,149 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Moves data which was assembled on heap, for example the target of a delta transition, back into virtual memory
+ * for consumers running in a shared memory mode.
+ * <p>
+ * Data is appended to a staging file using the same layout as a blob. Once all data has been written, {@link #map()}
+ * maps the file and returns a {@link HollowBlobInput} from which the data can be read back through
+ * {@link FixedLengthDataFactory} and {@link VariableLengthDataFactory}, exactly as it would be read from a snapshot.
+ * The staging file is unlinked as soon as it is mapped, so its disk space is reclaimed once the mapped buffers are
+ * no longer referenced. Since a staged copy of a type can be as large as the type itself, the staging directory should
+ * be on a volume with room for it, typically the volume which holds the blobs.
+ */
+public class SharedMemoryRemapper implements Closeable {
+
+    private final MemoryMode memoryMode;
+    private final File file;
+    private final DataOutputStream dos;
+    private HollowBlobInput in;
+
+    public SharedMemoryRemapper(MemoryMode memoryMode) throws IOException {
+        this(memoryMode, null);
+    }
+
+    /**
+     * @param memoryMode the memory mode the data is remapped into
+     * @param stagingDirectory the directory in which the staging file is created, or null for the default
+     *                         temporary-file directory
+     * @throws IOException if the staging file could not be created
+     */
+    public SharedMemoryRemapper(MemoryMode memoryMode, File stagingDirectory) throws IOException {
+        this.memoryMode = memoryMode;
+        this.file = File.createTempFile("hollow-shared-memory-", ".blob", stagingDirectory);
+        this.dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    }
+
+    /**
+     * Write the first {@code numBits} bits of the given fixed length data, in the layout expected by
+     * {@link FixedLengthDataFactory#get(HollowBlobInput, MemoryMode, ArraySegmentRecycler)}.
+     *
+     * @param data the fixed length data
+     * @param numBits the number of populated bits in the data
+     * @throws IOException if the data could not be written to the staging file
+     */
+    public void write(FixedLengthData data, long numBits) throws IOException {
+        long numLongs = numBits == 0 ? 0 : ((numBits - 1) >>> 6) + 1;
+
+        if(data instanceof SegmentedLongArray) {
+            ((SegmentedLongArray) data).writeTo(dos, numLongs);
+        } else {
+            VarInt.writeVLong(dos, numLongs);
+            for(long i=0;i<numLongs;i++) {
+                dos.writeLong(data.getLargeElementValue(i << 6, 64));
+            }
+        }
+    }
+
+    /**
+     * Write the first {@code length} bytes of the given variable length data, preceded by the length.
+     *
+     * @param data the variable length data
+     * @param length the number of populated bytes in the data
+     * @throws IOException if the data could not be written to the staging file
+     */
+    public void write(VariableLengthData data, long length) throws IOException {
+        VarInt.writeVLong(dos, length);
+
+        if(data instanceof SegmentedByteArray) {
+            ((SegmentedByteArray) data).writeTo(dos, 0, length);
+        } else {
+            for(long i=0;i<length;i++) {
+                dos.write(data.get(i));
+            }
+        }
+    }
+
+    /**
+     * Map the staged data into virtual memory.  No more data may be written after this call.
+     *
+     * @return a random access input positioned at the start of the staged data
+     * @throws IOException if the staging file could not be mapped
+     */
+    public HollowBlobInput map() throws IOException {
+        dos.close();
+        in = HollowBlobInput.randomAccess(file, memoryMode);
+        deleteFile();
+        return in;
+    }
+
+    /**
+     * Read back variable length data which was staged by {@link #write(VariableLengthData, long)}.
+     *
+     * @param in the input returned by {@link #map()}
+     * @param memoryMode the memory mode of the consumer
+     * @param memoryRecycler the memory recycler
+     * @return the variable length data
+     * @throws IOException if the data could not be read
+     */
+    public static VariableLengthData readVariableLengthData(HollowBlobInput in, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) throws IOException {
+        long length = VarInt.readVLong(in);
+        VariableLengthData data = VariableLengthDataFactory.get(memoryMode, memoryRecycler);
+        data.loadFrom(in, length);
+        return data;
+    }
+
+    /**
+     * Releases the staging file.  Data which was already read back from the mapped input remains accessible.
+     *
+     * @throws IOException if the underlying file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        dos.close();
+        if(in != null)
+            in.close();
+        deleteFile();
+    }
+
+    private void deleteFile() {
+        if(file.exists() && !file.delete())
+            file.deleteOnExit();
+    }
+}
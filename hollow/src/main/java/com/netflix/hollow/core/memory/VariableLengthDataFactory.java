@@ -1,18 +1,15 @@
 package com.netflix.hollow.core.memory;
 
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
-import java.util.logging.Logger;
 
 public class VariableLengthDataFactory {
 
-    private static final Logger LOG = Logger.getLogger(VariableLengthDataFactory.class.getName());
-
     public static VariableLengthData get(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
 
         if (memoryMode.equals(MemoryMode.ON_HEAP)) {
             return new SegmentedByteArray(memoryRecycler);
 
-        } else if (memoryMode.equals(MemoryMode.SHARED_MEMORY_LAZY)) {
+        } else if (memoryMode.isSharedMemory()) {
             /// list pointer array
             return new EncodedByteBuffer();
         } else {
@@ -20,11 +17,23 @@ public class VariableLengthDataFactory {
         }
     }
 
+    /**
+     * Allocates writable variable length data. In shared memory mode the data is assembled on heap, and is expected
+     * to be moved back into virtual memory using a {@link SharedMemoryRemapper} once fully populated.
+     */
+    public static VariableLengthData allocate(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
+        if (memoryMode.equals(MemoryMode.ON_HEAP) || memoryMode.isSharedMemory()) {
+            return new SegmentedByteArray(memoryRecycler);
+        } else {
+            throw new UnsupportedOperationException("Memory mode " + memoryMode.name() + " not supported");
+        }
+    }
+
     public static void destroy(VariableLengthData vld) {
         if (vld instanceof SegmentedByteArray) {
             ((SegmentedByteArray) vld).destroy();
         } else if (vld instanceof EncodedByteBuffer) {
-            LOG.warning("Destroy operation is a no-op in shared memory mode");
+            // no-op, the mapped buffer is released once it is no longer referenced
         } else {
             throw new UnsupportedOperationException("Unknown type");
         }
@@ -73,6 +73,21 @@ public final class BlobByteBuffer {
      * @throws IOException
      */
     public static BlobByteBuffer mmapBlob(FileChannel channel, int singleBufferCapacity) throws IOException {
+        return mmapBlob(channel, singleBufferCapacity, false);
+    }
+
+    /**
+     * mmap the entire contents of FileChannel into an array of {@code MappedByteBuffer}s, each of size singleBufferCapacity,
+     * optionally loading the mapped pages into main memory before returning.
+     * @param channel FileChannel for file to be mmap-ed
+     * @param singleBufferCapacity Size of individual MappedByteBuffers in array of {@code MappedByteBuffer}s required
+     *                to map the entire file channel. It must be a power of 2, and due to {@code MappedByteBuffer}
+     *                constraints it is limited to the max integer that is a power of 2.
+     * @param prefetch if true, every page of the mapped file is touched so that subsequent reads do not incur page faults
+     * @return BlobByteBuffer containing an array of {@code MappedByteBuffer}s that mmap-ed the entire file channel
+     * @throws IOException
+     */
+    public static BlobByteBuffer mmapBlob(FileChannel channel, int singleBufferCapacity, boolean prefetch) throws IOException {
         long size = channel.size();
         if (size == 0) {
             throw new IllegalStateException("File to be mmap-ed has no data");
@@ -100,10 +115,8 @@ public final class BlobByteBuffer {
                     ? (int)(size - pos)
                     : bufferCapacity;
             ByteBuffer buffer = channel.map(READ_ONLY, pos, cap);
-            /*
-             * if (!((MappedByteBuffer) buffer).isLoaded()) // TODO(timt): make pre-fetching configurable
-             *    ((MappedByteBuffer) buffer).load();
-             */
+            if (prefetch && !((MappedByteBuffer) buffer).isLoaded())
+                ((MappedByteBuffer) buffer).load();
             spine[i] = buffer;
         }
 
@@ -71,6 +71,13 @@ public class FixedLengthElementArray extends SegmentedLongArray implements Fixed
         this.sizeBits = numBits;
     }
 
+    protected FixedLengthElementArray(ArraySegmentRecycler memoryRecycler, FixedLengthElementArray source, long numBits) {
+        super(memoryRecycler, source, ((numBits - 1) >>> 6) + 1);
+        this.log2OfSegmentSizeInBytes = log2OfSegmentSize + 3;
+        this.byteBitmask = (1 << log2OfSegmentSizeInBytes) - 1;
+        this.sizeBits = numBits;
+    }
+
     public long approxHeapFootprintInBytes() {
         return sizeBits / 8;
     }
@@ -49,6 +49,67 @@ public class HashCodes {
         }
     }
     
+    /**
+     * Hash a sequence of characters without allocation.  The returned value is equal to that returned by
+     * {@link #hashCode(String)} for a String of the same characters.
+     *
+     * @param data the characters to hash
+     * @return the hash code
+     */
+    public static int hashCode(final CharSequence data) {
+        if(data == null)
+            return -1;
+
+        final int c1 = 0xcc9e2d51;
+        final int c2 = 0x1b873593;
+
+        int h1 = MURMURHASH_SEED;
+        int k1 = 0;
+        int len = 0;
+
+        for(int i=0;i<data.length();i++) {
+            int c = data.charAt(i);
+            // the bytes of the char's variable length encoding, most significant group first
+            int numBytes = c > 0x3FFF ? 3 : c > 0x7F ? 2 : 1;
+            for(int b=numBytes-1;b>=0;b--) {
+                int value = b == 0 ? (c & 0x7F) : (0x80 | ((c >>> (7 * b)) & 0x7F));
+                k1 |= value << ((len & 0x03) << 3);
+                len++;
+
+                if((len & 0x03) == 0) {
+                    k1 *= c1;
+                    k1 = (k1 << 15) | (k1 >>> 17); // ROTL32(k1,15);
+                    k1 *= c2;
+
+                    h1 ^= k1;
+                    h1 = (h1 << 13) | (h1 >>> 19); // ROTL32(h1,13);
+                    h1 = h1 * 5 + 0xe6546b64;
+                    k1 = 0;
+                }
+            }
+        }
+
+        // tail
+        if((len & 0x03) != 0) {
+            k1 *= c1;
+            k1 = (k1 << 15) | (k1 >>> 17); // ROTL32(k1,15);
+            k1 *= c2;
+            h1 ^= k1;
+        }
+
+        // finalization
+        h1 ^= len;
+
+        // fmix(h1);
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+
+        return h1;
+    }
+
     public static int hashCode(byte[] data) {
         return hashCode(new ArrayByteData(data), 0, data.length);
     }
@@ -1,12 +1,15 @@
 package com.netflix.hollow.core.read;
 
 import static com.netflix.hollow.core.memory.MemoryMode.ON_HEAP;
+import static com.netflix.hollow.core.memory.MemoryMode.SHARED_MEMORY_EAGER;
 import static com.netflix.hollow.core.memory.MemoryMode.SHARED_MEMORY_LAZY;
 import static com.netflix.hollow.core.memory.encoding.BlobByteBuffer.MAX_SINGLE_BUFFER_CAPACITY;
 
 import com.netflix.hollow.api.consumer.HollowConsumer;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.BlobByteBuffer;
+import com.netflix.hollow.core.util.BlockCompressedInputStream;
+import com.netflix.hollow.core.util.BlockCompressedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
@@ -25,6 +28,8 @@ public class HollowBlobInput implements Closeable {
 
     private Object input;
     private BlobByteBuffer buffer;
+    private File file;
+    private boolean deleteFileOnClose;
 
     private HollowBlobInput(MemoryMode memoryMode) {
         this.memoryMode = memoryMode;
@@ -34,6 +39,13 @@ public class HollowBlobInput implements Closeable {
         return memoryMode;
     }
 
+    /**
+     * @return the file from which this input reads, or null if this input reads from a stream
+     */
+    public File getFile() {
+        return file;
+    }
+
     /**
      * Initialize the Hollow Blob Input object from the Hollow Consumer blob's Input Stream or Random Access File,
      * depending on the configured memory mode. The returned HollowBlobInput object must be closed to free up resources.
@@ -46,8 +58,8 @@ public class HollowBlobInput implements Closeable {
     public static HollowBlobInput modeBasedSelector(MemoryMode mode, HollowConsumer.Blob blob) throws IOException {
         if (mode.equals(ON_HEAP)) {
             return serial(blob.getInputStream());
-        } else if (mode.equals(SHARED_MEMORY_LAZY)) {
-            return randomAccess(blob.getFile());
+        } else if (mode.isSharedMemory()) {
+            return randomAccess(blob.getFile(), mode);
         } else {
             throw new UnsupportedOperationException();
         }
@@ -66,8 +78,8 @@ public class HollowBlobInput implements Closeable {
     public static HollowBlobInput modeBasedSelector(MemoryMode mode, OptionalBlobPartInput input, String partName) throws IOException {
         if (mode.equals(ON_HEAP)) {
             return serial(input.getInputStream(partName));
-        } else if (mode.equals(SHARED_MEMORY_LAZY)) {
-            return randomAccess(input.getFile(partName));
+        } else if (mode.isSharedMemory()) {
+            return randomAccess(input.getFile(partName), mode);
         } else {
             throw new UnsupportedOperationException();
         }
@@ -82,18 +94,76 @@ public class HollowBlobInput implements Closeable {
      * @throws IOException if the mmap operation reported an IOException
      */
     public static HollowBlobInput randomAccess(File f) throws IOException {
-        return randomAccess(f, MAX_SINGLE_BUFFER_CAPACITY);
+        return randomAccess(f, SHARED_MEMORY_LAZY);
+    }
+
+    /**
+     * Initialize a random access Hollow Blob input object from a file for the given shared memory mode. In
+     * {@link MemoryMode#SHARED_MEMORY_EAGER} mode all pages of the file are loaded into main memory before returning.
+     * A file containing a block compressed container is first decompressed, with all blocks decompressed in parallel, to
+     * a temporary file alongside it which is mapped instead.
+     * The returned HollowBlobInput object must be closed to free up resources.
+     *
+     * @param f file containing the Hollow blob
+     * @param mode a shared memory mode
+     * @return a random access HollowBlobInput object
+     * @throws IOException if the mmap operation reported an IOException
+     */
+    public static HollowBlobInput randomAccess(File f, MemoryMode mode) throws IOException {
+        return randomAccess(f, mode, MAX_SINGLE_BUFFER_CAPACITY);
     }
 
     /**
      * Useful for testing with custom buffer capacity
      */
     public static HollowBlobInput randomAccess(File f,int singleBufferCapacity) throws IOException {
-        HollowBlobInput hbi = new HollowBlobInput(SHARED_MEMORY_LAZY);
+        return randomAccess(f, SHARED_MEMORY_LAZY, singleBufferCapacity);
+    }
+
+    private static HollowBlobInput randomAccess(File f, MemoryMode mode, int singleBufferCapacity) throws IOException {
+        if (!mode.isSharedMemory()) {
+            throw new IllegalArgumentException("Random access is not supported in memory mode " + mode);
+        }
+        HollowBlobInput hbi = new HollowBlobInput(mode);
+        if (BlockCompressedInputStream.isBlockCompressed(f)) {
+            // decompress all blocks in parallel to a file alongside the blob, which is mapped in place of the blob
+            File decompressed = File.createTempFile("hollow-decompressed-", ".blob", f.getAbsoluteFile().getParentFile());
+            try {
+                BlockCompressedInputStream.decompress(f, decompressed);
+            } catch (IOException | RuntimeException e) {
+                decompressed.delete();
+                throw e;
+            }
+            f = decompressed;
+            hbi.deleteFileOnClose = true;
+        }
         RandomAccessFile raf = new RandomAccessFile(f, "r");
         hbi.input = raf;
+        hbi.file = f;
         FileChannel channel = ((RandomAccessFile) hbi.input).getChannel();
-        hbi.buffer = BlobByteBuffer.mmapBlob(channel, singleBufferCapacity);
+        hbi.buffer = BlobByteBuffer.mmapBlob(channel, singleBufferCapacity, mode.equals(SHARED_MEMORY_EAGER));
+        return hbi;
+    }
+
+    /**
+     * Initialize a new random access Hollow Blob input object over the same file and mapped memory as this input,
+     * positioned at the current offset of this input. The two inputs can then be read independently, for example from
+     * different threads. The returned HollowBlobInput object must be closed to free up resources.
+     *
+     * @return a random access HollowBlobInput object positioned at the current offset of this input
+     * @throws IOException if the file could not be opened
+     * @throws UnsupportedOperationException if this input is not a random access input
+     */
+    public HollowBlobInput duplicate() throws IOException {
+        if (!(input instanceof RandomAccessFile)) {
+            throw new UnsupportedOperationException("Can not duplicate Hollow Blob Input of type DataInputStream");
+        }
+        HollowBlobInput hbi = new HollowBlobInput(memoryMode);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        raf.seek(getFilePointer());
+        hbi.input = raf;
+        hbi.file = file;
+        hbi.buffer = buffer.duplicate();
         return hbi;
     }
 
@@ -108,13 +178,16 @@ public class HollowBlobInput implements Closeable {
     /**
      * Initialize a serial access Hollow Blob input object from an input stream. The returned HollowBlobInput object
      * must be closed to free up resources.
+     * <p>
+     * If the stream contains a block compressed container written by {@link BlockCompressedOutputStream} then it is
+     * decompressed, with blocks decompressed in parallel ahead of being read.
      *
      * @param is input stream containing for Hollow blob data
      * @return a serial access HollowBlobInput object
      */
     public static HollowBlobInput serial(InputStream is) {
         HollowBlobInput hbi = new HollowBlobInput(ON_HEAP);
-        hbi.input = new DataInputStream(is);
+        hbi.input = new DataInputStream(BlockCompressedInputStream.decompressIfBlockCompressed(is));
         return hbi;
     }
 
@@ -295,6 +368,9 @@ public class HollowBlobInput implements Closeable {
     public void close() throws IOException {
         if (input instanceof RandomAccessFile) {
             ((RandomAccessFile) input).close();
+            // the mapped memory remains valid once the decompressed file is unlinked
+            if (deleteFileOnClose && !file.delete())
+                file.deleteOnExit();
         } else if (input instanceof DataInputStream) {
             ((DataInputStream) input).close();
         } else {
@@ -20,6 +20,7 @@ import com.netflix.hollow.core.HollowBlobHeader;
 import com.netflix.hollow.core.HollowBlobOptionalPartHeader;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.OptionalBlobPartInput;
 import com.netflix.hollow.core.read.engine.list.HollowListTypeReadState;
@@ -33,15 +34,20 @@ import com.netflix.hollow.core.schema.HollowMapSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.schema.HollowSetSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 /**
@@ -55,6 +61,8 @@ public class HollowBlobReader {
     private final HollowReadStateEngine stateEngine;
     private final MemoryMode memoryMode;
     private final HollowBlobHeaderReader headerReader;
+    private int snapshotLoadParallelism = 1;
+    private int deltaApplyParallelism = 1;
 
     public HollowBlobReader(HollowReadStateEngine stateEngine) {
         this(stateEngine, new HollowBlobHeaderReader());
@@ -74,6 +82,45 @@ public class HollowBlobReader {
         this.memoryMode = memoryMode;
     }
 
+    /**
+     * Sets the number of threads used to populate type states when reading a snapshot.  Defaults to 1, in which case
+     * type states are read one after another on the calling thread.
+     * <p>
+     * When greater than 1, type states of a random access (shared memory) input are each read by a worker thread, and
+     * each optional blob part is read by a worker thread concurrently with the main input.
+     * <p>
+     * This should be configured before the state engine is first populated.
+     *
+     * @param snapshotLoadParallelism the number of threads
+     */
+    public void setSnapshotLoadParallelism(int snapshotLoadParallelism) {
+        if(snapshotLoadParallelism < 1)
+            throw new IllegalArgumentException("Snapshot load parallelism must be at least 1");
+        this.snapshotLoadParallelism = snapshotLoadParallelism;
+        if(snapshotLoadParallelism > 1)
+            stateEngine.synchronizeMemoryRecycler();
+    }
+
+    /**
+     * Sets the number of threads used to update type state shards when applying a delta.  Defaults to 1, in which
+     * case types and shards are updated one after another on the calling thread.
+     * <p>
+     * When greater than 1, the delta data is still read from the input on the calling thread, but the shards of all
+     * types are updated concurrently.  Memory released by the previous data of a shard is only reused once the whole
+     * delta has been applied, so a parallel delta transition requires more memory than a serial one.
+     * <p>
+     * This should be configured before the state engine is first populated.
+     *
+     * @param deltaApplyParallelism the number of threads
+     */
+    public void setDeltaApplyParallelism(int deltaApplyParallelism) {
+        if(deltaApplyParallelism < 1)
+            throw new IllegalArgumentException("Delta apply parallelism must be at least 1");
+        this.deltaApplyParallelism = deltaApplyParallelism;
+        if(deltaApplyParallelism > 1)
+            stateEngine.synchronizeMemoryRecycler();
+    }
+
     /**
      * Initialize the state engine using a snapshot blob from the provided input stream.
      *
@@ -145,6 +192,8 @@ public class HollowBlobReader {
 
     public void readSnapshot(HollowBlobInput in, OptionalBlobPartInput optionalParts, TypeFilter filter) throws IOException {
         validateMemoryMode(in.getMemoryMode());
+        if(in.getFile() != null)
+            stateEngine.setSnapshotBlobDirectory(in.getFile().getAbsoluteFile().getParentFile());
         Map<String, HollowBlobInput> optionalPartInputs = null;
         if(optionalParts != null)
             optionalPartInputs = optionalParts.getInputsByPartName(in.getMemoryMode());
@@ -159,21 +208,25 @@ public class HollowBlobReader {
 
         long startTime = System.currentTimeMillis();
 
-        int numStates = VarInt.readVInt(in);
-
         Collection<String> typeNames = new TreeSet<>();
-        for(int i=0;i<numStates;i++) {
-            String typeName = readTypeStateSnapshot(in, filter);
-            typeNames.add(typeName);
-        }
+        if(snapshotLoadParallelism > 1) {
+            readTypeStateSnapshotsInParallel(in, optionalPartInputs, filter, typeNames);
+        } else {
+            int numStates = VarInt.readVInt(in);
+
+            for(int i=0;i<numStates;i++) {
+                String typeName = readTypeStateSnapshot(in, filter);
+                typeNames.add(typeName);
+            }
 
-        if(optionalPartInputs != null) {
-            for(Map.Entry<String, HollowBlobInput> optionalPartEntry : optionalPartInputs.entrySet()) {
-                numStates = VarInt.readVInt(optionalPartEntry.getValue());
+            if(optionalPartInputs != null) {
+                for(Map.Entry<String, HollowBlobInput> optionalPartEntry : optionalPartInputs.entrySet()) {
+                    numStates = VarInt.readVInt(optionalPartEntry.getValue());
 
-                for(int i=0;i<numStates;i++) {
-                    String typeName = readTypeStateSnapshot(optionalPartEntry.getValue(), filter);
-                    typeNames.add(typeName);
+                    for(int i=0;i<numStates;i++) {
+                        String typeName = readTypeStateSnapshot(optionalPartEntry.getValue(), filter);
+                        typeNames.add(typeName);
+                    }
                 }
             }
         }
@@ -229,25 +282,41 @@ public class HollowBlobReader {
 
         long startTime = System.currentTimeMillis();
 
-        int numStates = VarInt.readVInt(in);
+        SimultaneousExecutor executor = deltaApplyParallelism > 1
+                ? new SimultaneousExecutor(deltaApplyParallelism, HollowBlobReader.class, "delta-apply")
+                : null;
 
         Collection<String> typeNames = new TreeSet<String>();
-        for(int i=0;i<numStates;i++) {
-            String typeName = readTypeStateDelta(in);
-            typeNames.add(typeName);
-            stateEngine.getMemoryRecycler().swap();
-        }
-
-        if(optionalPartInputs != null) {
-            for(Map.Entry<String, HollowBlobInput> optionalPartEntry : optionalPartInputs.entrySet()) {
-                numStates = VarInt.readVInt(optionalPartEntry.getValue());
+        try {
+            int numStates = VarInt.readVInt(in);
 
-                for(int i=0;i<numStates;i++) {
-                    String typeName = readTypeStateDelta(optionalPartEntry.getValue());
-                    typeNames.add(typeName);
+            for(int i=0;i<numStates;i++) {
+                String typeName = readTypeStateDelta(in, executor);
+                typeNames.add(typeName);
+                if(executor == null)
                     stateEngine.getMemoryRecycler().swap();
+            }
+
+            if(optionalPartInputs != null) {
+                for(Map.Entry<String, HollowBlobInput> optionalPartEntry : optionalPartInputs.entrySet()) {
+                    numStates = VarInt.readVInt(optionalPartEntry.getValue());
+
+                    for(int i=0;i<numStates;i++) {
+                        String typeName = readTypeStateDelta(optionalPartEntry.getValue(), executor);
+                        typeNames.add(typeName);
+                        if(executor == null)
+                            stateEngine.getMemoryRecycler().swap();
+                    }
                 }
             }
+
+            if(executor != null) {
+                awaitSuccessfulCompletion(executor, "delta");
+                stateEngine.getMemoryRecycler().swap();
+            }
+        } finally {
+            if(executor != null)
+                executor.awaitUninterruptibly();
         }
 
         long endTime = System.currentTimeMillis();
@@ -318,65 +387,163 @@ public class HollowBlobReader {
         }
     }
 
+    private void readTypeStateSnapshotsInParallel(HollowBlobInput in, Map<String, HollowBlobInput> optionalPartInputs,
+            TypeFilter filter, Collection<String> typeNames) throws IOException {
+        ArraySegmentRecycler memoryRecycler = stateEngine.getMemoryRecycler();
+        SimultaneousExecutor executor = new SimultaneousExecutor(snapshotLoadParallelism, HollowBlobReader.class, "snapshot-load");
+        List<HollowBlobInput> duplicatedInputs = new ArrayList<>();
+
+        try {
+            submitTypeStateSnapshots(executor, in, filter, memoryRecycler, typeNames, duplicatedInputs);
+            if(optionalPartInputs != null) {
+                for(HollowBlobInput optionalPartInput : optionalPartInputs.values())
+                    submitTypeStateSnapshots(executor, optionalPartInput, filter, memoryRecycler, typeNames, duplicatedInputs);
+            }
+
+            awaitSuccessfulCompletion(executor, "snapshot");
+        } finally {
+            executor.awaitUninterruptibly();
+            for(HollowBlobInput duplicatedInput : duplicatedInputs)
+                duplicatedInput.close();
+        }
+    }
+
+    private void awaitSuccessfulCompletion(SimultaneousExecutor executor, String blobType) throws IOException {
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + blobType);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * A random access input is scanned on the calling thread to find where each type state begins, which only needs
+     * to read the type headers since all data is skipped, and each type state is then read by a worker from its own
+     * duplicate of the input.  A serial input is read by a single worker.
+     */
+    private void submitTypeStateSnapshots(SimultaneousExecutor executor, HollowBlobInput in, TypeFilter filter,
+            ArraySegmentRecycler memoryRecycler, Collection<String> typeNames, List<HollowBlobInput> duplicatedInputs) throws IOException {
+        if(!in.getMemoryMode().isSharedMemory()) {
+            executor.execute(() -> {
+                try {
+                    int numStates = VarInt.readVInt(in);
+                    for(int i=0;i<numStates;i++) {
+                        String typeName = readTypeStateSnapshot(in, filter, memoryRecycler);
+                        synchronized(typeNames) {
+                            typeNames.add(typeName);
+                        }
+                    }
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return;
+        }
+
+        int numStates = VarInt.readVInt(in);
+        for(int i=0;i<numStates;i++) {
+            HollowSchema schema = HollowSchema.readFrom(in);
+            int numShards = readNumShards(in);
+            HollowTypeReadState typeState = filter.includes(schema.getName()) ? newTypeState(schema, numShards, filter) : null;
+
+            if(typeState != null) {
+                HollowBlobInput typeStateInput = in.duplicate();
+                duplicatedInputs.add(typeStateInput);
+                addTypeState(typeState);
+                executor.execute(() -> {
+                    try {
+                        readTypeStateSnapshot(typeStateInput, typeState, numShards, memoryRecycler);
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+
+            discardSnapshot(in, schema, numShards);
+            synchronized(typeNames) {
+                typeNames.add(schema.getName());
+            }
+        }
+    }
+
     private String readTypeStateSnapshot(HollowBlobInput in, TypeFilter filter) throws IOException {
+        return readTypeStateSnapshot(in, filter, stateEngine.getMemoryRecycler());
+    }
+
+    private String readTypeStateSnapshot(HollowBlobInput in, TypeFilter filter, ArraySegmentRecycler memoryRecycler) throws IOException {
         HollowSchema schema = HollowSchema.readFrom(in);
         int numShards = readNumShards(in);
         String typeName = schema.getName();
 
+        if(!filter.includes(typeName)) {
+            discardSnapshot(in, schema, numShards);
+        } else {
+            HollowTypeReadState typeState = newTypeState(schema, numShards, filter);
+            addTypeState(typeState);
+            readTypeStateSnapshot(in, typeState, numShards, memoryRecycler);
+        }
+
+        return typeName;
+    }
 
+    private HollowTypeReadState newTypeState(HollowSchema schema, int numShards, TypeFilter filter) {
         if(schema instanceof HollowObjectSchema) {
-            if(!filter.includes(typeName)) {
-                HollowObjectTypeReadState.discardSnapshot(in, (HollowObjectSchema)schema, numShards);
-
-            } else {
-                HollowObjectSchema unfilteredSchema = (HollowObjectSchema)schema;
-                HollowObjectSchema filteredSchema = unfilteredSchema.filterSchema(filter);
-                populateTypeStateSnapshotWithNumShards(in, new HollowObjectTypeReadState(stateEngine, memoryMode, filteredSchema, unfilteredSchema), numShards);
+            if (numShards<=0 || ((numShards&(numShards-1))!=0)) {
+                throw new IllegalArgumentException("Number of shards must be a power of 2!");
             }
+
+            HollowObjectSchema unfilteredSchema = (HollowObjectSchema)schema;
+            HollowObjectSchema filteredSchema = unfilteredSchema.filterSchema(filter);
+            return new HollowObjectTypeReadState(stateEngine, memoryMode, filteredSchema, unfilteredSchema);
         } else if (schema instanceof HollowListSchema) {
-            if(!filter.includes(typeName)) {
-                HollowListTypeReadState.discardSnapshot(in, numShards);
-            } else {
-                populateTypeStateSnapshot(in, new HollowListTypeReadState(stateEngine, memoryMode, (HollowListSchema)schema, numShards));
-            }
+            return new HollowListTypeReadState(stateEngine, memoryMode, (HollowListSchema)schema, numShards);
         } else if(schema instanceof HollowSetSchema) {
-            if(!filter.includes(typeName)) {
-                HollowSetTypeReadState.discardSnapshot(in, numShards);
-            } else {
-                populateTypeStateSnapshot(in, new HollowSetTypeReadState(stateEngine, memoryMode, (HollowSetSchema)schema, numShards));
-            }
+            return new HollowSetTypeReadState(stateEngine, memoryMode, (HollowSetSchema)schema, numShards);
         } else if(schema instanceof HollowMapSchema) {
-            if(!filter.includes(typeName)) {
-                HollowMapTypeReadState.discardSnapshot(in, numShards);
-            } else {
-                populateTypeStateSnapshot(in, new HollowMapTypeReadState(stateEngine, memoryMode, (HollowMapSchema)schema, numShards));
-            }
+            return new HollowMapTypeReadState(stateEngine, memoryMode, (HollowMapSchema)schema, numShards);
         }
-
-        return typeName;
+        throw new IllegalArgumentException("Unknown schema type " + schema.getSchemaType());
     }
 
-    private void populateTypeStateSnapshot(HollowBlobInput in, HollowTypeReadState typeState) throws IOException {
-        stateEngine.addTypeState(typeState);
-        typeState.readSnapshot(in, stateEngine.getMemoryRecycler());
+    private void addTypeState(HollowTypeReadState typeState) {
+        synchronized(stateEngine) {
+            stateEngine.addTypeState(typeState);
+        }
     }
 
-    private void populateTypeStateSnapshotWithNumShards(HollowBlobInput in, HollowTypeReadState typeState, int numShards) throws IOException {
-        if (numShards<=0 || ((numShards&(numShards-1))!=0)) {
-            throw new IllegalArgumentException("Number of shards must be a power of 2!");
-        }
+    private void readTypeStateSnapshot(HollowBlobInput in, HollowTypeReadState typeState, int numShards, ArraySegmentRecycler memoryRecycler) throws IOException {
+        if(typeState instanceof HollowObjectTypeReadState)
+            typeState.readSnapshot(in, memoryRecycler, numShards);
+        else
+            typeState.readSnapshot(in, memoryRecycler);
+    }
 
-        stateEngine.addTypeState(typeState);
-        typeState.readSnapshot(in, stateEngine.getMemoryRecycler(), numShards);
+    private void discardSnapshot(HollowBlobInput in, HollowSchema schema, int numShards) throws IOException {
+        if(schema instanceof HollowObjectSchema)
+            HollowObjectTypeReadState.discardSnapshot(in, (HollowObjectSchema)schema, numShards);
+        else if(schema instanceof HollowListSchema)
+            HollowListTypeReadState.discardSnapshot(in, numShards);
+        else if(schema instanceof HollowSetSchema)
+            HollowSetTypeReadState.discardSnapshot(in, numShards);
+        else if(schema instanceof HollowMapSchema)
+            HollowMapTypeReadState.discardSnapshot(in, numShards);
     }
 
-    private String readTypeStateDelta(HollowBlobInput in) throws IOException {
+    private String readTypeStateDelta(HollowBlobInput in, Executor executor) throws IOException {
         HollowSchema schema = HollowSchema.readFrom(in);
 
         int numShards = readNumShards(in);
         HollowTypeReadState typeState = stateEngine.getTypeState(schema.getName());
         if(typeState != null) {
-            typeState.applyDelta(in, schema, stateEngine.getMemoryRecycler(), numShards);
+            if(executor == null)
+                typeState.applyDelta(in, schema, stateEngine.getMemoryRecycler(), numShards);
+            else
+                typeState.applyDelta(in, schema, stateEngine.getMemoryRecycler(), numShards, executor);
         } else {
             discardDelta(in, schema, numShards);
         }
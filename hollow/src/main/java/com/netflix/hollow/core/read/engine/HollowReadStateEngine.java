@@ -20,6 +20,7 @@ import com.netflix.hollow.api.error.SchemaNotFoundException;
 import com.netflix.hollow.core.HollowStateEngine;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.memory.pool.GarbageCollectorAwareRecycler;
+import com.netflix.hollow.core.memory.pool.SynchronizedRecycler;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
 import com.netflix.hollow.core.read.engine.map.HollowMapTypeReadState;
@@ -33,6 +34,7 @@ import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.schema.HollowSetSchema;
 import com.netflix.hollow.core.util.DefaultHashCodeFinder;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -56,6 +58,8 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
     private final HollowObjectHashCodeFinder hashCodeFinder;
     private final boolean listenToAllPopulatedOrdinals;
     private boolean skipTypeShardUpdateWithNoAdditions;
+    private File sharedMemoryStagingDirectory;
+    private File snapshotBlobDirectory;
     private ArraySegmentRecycler memoryRecycler;
     private Map<String,String> headerTags;
     private Set<String> typesWithDefinedHashCodes = new HashSet<String>();
@@ -203,6 +207,15 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
         return memoryRecycler;
     }
 
+    /**
+     * Ensures that the memory recycler of this state engine may be shared by the threads of a parallel snapshot
+     * load or delta transition.
+     */
+    void synchronizeMemoryRecycler() {
+        if(!(memoryRecycler instanceof SynchronizedRecycler))
+            memoryRecycler = new SynchronizedRecycler(memoryRecycler);
+    }
+
     public boolean isListenToAllPopulatedOrdinals() {
         return listenToAllPopulatedOrdinals;
     }
@@ -218,6 +231,29 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
         return skipTypeShardUpdateWithNoAdditions;
     }
 
+    /**
+     * Sets the directory in which a shared memory consumer stages the data it assembles on heap, during a delta
+     * transition or a re-shard, before mapping it back into virtual memory. A staged copy of a type can be as large as
+     * the type itself, so the directory should be on a volume with room for it.
+     *
+     * @param sharedMemoryStagingDirectory the staging directory, or null to stage alongside the snapshot blob
+     */
+    public void setSharedMemoryStagingDirectory(File sharedMemoryStagingDirectory) {
+        this.sharedMemoryStagingDirectory = sharedMemoryStagingDirectory;
+    }
+
+    /**
+     * @return the configured shared memory staging directory, else the directory of the snapshot blob this state engine
+     * was initialized from, else null for the default temporary-file directory
+     */
+    public File getSharedMemoryStagingDirectory() {
+        return sharedMemoryStagingDirectory != null ? sharedMemoryStagingDirectory : snapshotBlobDirectory;
+    }
+
+    void setSnapshotBlobDirectory(File snapshotBlobDirectory) {
+        this.snapshotBlobDirectory = snapshotBlobDirectory;
+    }
+
     @Override
     public List<HollowSchema> getSchemas() {
         List<HollowSchema> schemas = new ArrayList<HollowSchema>();
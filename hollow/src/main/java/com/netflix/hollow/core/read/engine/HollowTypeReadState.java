@@ -28,6 +28,7 @@ import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 /**
@@ -127,10 +128,47 @@ public abstract class HollowTypeReadState implements HollowTypeDataAccess {
 
     public abstract void applyDelta(HollowBlobInput in, HollowSchema deltaSchema, ArraySegmentRecycler memoryRecycler, int deltaNumShards) throws IOException;
 
+    /**
+     * Apply a delta, reading the delta data of every shard from the input on the calling thread and then updating
+     * the shards with the given executor, so that the shards of this type, and of other types, may be updated
+     * concurrently.  The delta is fully applied once all tasks submitted to the executor have completed.
+     * <p>
+     * The memory recycler must be safe for use by multiple threads.  Type states which don't support concurrent
+     * updates apply the delta on the calling thread.
+     *
+     * @param in the input to read the delta from
+     * @param deltaSchema the schema of the type in the delta
+     * @param memoryRecycler the memory recycler
+     * @param deltaNumShards the number of shards of the type in the delta
+     * @param executor the executor with which shards are updated
+     * @throws IOException if the delta could not be read
+     */
+    public void applyDelta(HollowBlobInput in, HollowSchema deltaSchema, ArraySegmentRecycler memoryRecycler, int deltaNumShards, Executor executor) throws IOException {
+        applyDelta(in, deltaSchema, memoryRecycler, deltaNumShards);
+    }
+
     protected boolean shouldReshard(int currNumShards, int deltaNumShards) {
         return currNumShards!=0 && deltaNumShards!=0 && currNumShards!=deltaNumShards;
     }
 
+    /**
+     * Given old and new numShards, this method returns the shard resizing multiplier.
+     */
+    public static int shardingFactor(int oldNumShards, int newNumShards) {
+        if (newNumShards <= 0 || oldNumShards <= 0 || newNumShards == oldNumShards) {
+            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
+        }
+
+        boolean isNewGreater = newNumShards > oldNumShards;
+        int dividend = isNewGreater ? newNumShards : oldNumShards;
+        int divisor = isNewGreater ? oldNumShards : newNumShards;
+
+        if (dividend % divisor != 0) {
+            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
+        }
+        return dividend / divisor;
+    }
+
     public HollowSchema getSchema() {
         return schema;
     }
@@ -147,7 +185,7 @@ public abstract class HollowTypeReadState implements HollowTypeDataAccess {
         return stateEngine;
     }
 
-    protected void notifyListenerAboutDeltaChanges(GapEncodedVariableLengthIntegerReader removals, GapEncodedVariableLengthIntegerReader additions, int shardNumber, int numShards) {
+    protected synchronized void notifyListenerAboutDeltaChanges(GapEncodedVariableLengthIntegerReader removals, GapEncodedVariableLengthIntegerReader additions, int shardNumber, int numShards) {
         for(HollowTypeStateListener stateListener : stateListeners) {
             removals.reset();
             int removedOrdinal = removals.nextElement();
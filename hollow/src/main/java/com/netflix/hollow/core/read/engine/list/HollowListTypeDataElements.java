@@ -19,10 +19,12 @@ package com.netflix.hollow.core.read.engine.list;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryRemapper;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -47,14 +49,26 @@ public class HollowListTypeDataElements {
 
     final ArraySegmentRecycler memoryRecycler;
     final MemoryMode memoryMode;
+    final File sharedMemoryStagingDirectory;
 
     public HollowListTypeDataElements(ArraySegmentRecycler memoryRecycler) {
         this(MemoryMode.ON_HEAP, memoryRecycler);
     }
 
     public HollowListTypeDataElements(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
+        this(memoryMode, memoryRecycler, null);
+    }
+
+    /**
+     * @param memoryMode the memory mode of the data
+     * @param memoryRecycler the recycler of on heap segments
+     * @param sharedMemoryStagingDirectory the directory in which data is staged when it is remapped into shared memory,
+     *                                     or null for the default temporary-file directory
+     */
+    public HollowListTypeDataElements(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler, File sharedMemoryStagingDirectory) {
         this.memoryMode = memoryMode;
         this.memoryRecycler = memoryRecycler;
+        this.sharedMemoryStagingDirectory = sharedMemoryStagingDirectory;
     }
 
     void readSnapshot(HollowBlobInput in) throws IOException {
@@ -105,8 +119,36 @@ public class HollowListTypeDataElements {
         }
     }
 
-    public void applyDelta(HollowListTypeDataElements fromData, HollowListTypeDataElements deltaData) {
+    long getStartElement(int ordinal) {
+        return ordinal == 0 ? 0 : listPointerData.getElementValue(((long)ordinal - 1) * bitsPerListPointer, bitsPerListPointer);
+    }
+
+    long getEndElement(int ordinal) {
+        return listPointerData.getElementValue((long)ordinal * bitsPerListPointer, bitsPerListPointer);
+    }
+
+    public void applyDelta(HollowListTypeDataElements fromData, HollowListTypeDataElements deltaData) throws IOException {
         new HollowListDeltaApplicator(fromData, deltaData, this).applyDelta();
+        if(!memoryMode.equals(MemoryMode.ON_HEAP))
+            remapToSharedMemory();
+    }
+
+    /**
+     * Moves data assembled on heap by a delta transition back into virtual memory.
+     */
+    void remapToSharedMemory() throws IOException {
+        try(SharedMemoryRemapper remapper = new SharedMemoryRemapper(memoryMode, sharedMemoryStagingDirectory)) {
+            remapper.write(listPointerData, ((long)maxOrdinal + 1) * bitsPerListPointer);
+            remapper.write(elementData, totalNumberOfElements * bitsPerElement);
+
+            HollowBlobInput in = remapper.map();
+            FixedLengthData stagedListPointerData = listPointerData;
+            listPointerData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedListPointerData, memoryRecycler);
+            FixedLengthData stagedElementData = elementData;
+            elementData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedElementData, memoryRecycler);
+        }
     }
 
     public void destroy() {
@@ -0,0 +1,97 @@
+package com.netflix.hollow.core.read.engine.list;
+
+import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
+
+
+/**
+ * Join multiple {@code HollowListTypeDataElements}s into 1 {@code HollowListTypeDataElements}.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * The no. of passed data elements must be a power of 2.
+ */
+class HollowListTypeDataElementsJoiner {
+
+    HollowListTypeDataElements join(HollowListTypeDataElements[] from) throws IOException {
+        final int fromMask = from.length - 1;
+        final int fromOrdinalShift = 31 - Integer.numberOfLeadingZeros(from.length);
+
+        if (from.length<=0 || !((from.length&(from.length-1))==0)) {
+            throw new IllegalStateException("No. of DataElements to be joined must be a power of 2");
+        }
+
+        HollowListTypeDataElements to = new HollowListTypeDataElements(from[0].memoryMode, from[0].memoryRecycler, from[0].sharedMemoryStagingDirectory);
+
+        populateStats(to, from);
+
+        GapEncodedVariableLengthIntegerReader[] fromRemovals = new GapEncodedVariableLengthIntegerReader[from.length];
+        for (int i=0;i<from.length;i++) {
+            fromRemovals[i] = from[i].encodedRemovals;
+        }
+        to.encodedRemovals = GapEncodedVariableLengthIntegerReader.join(fromRemovals);
+
+        for (HollowListTypeDataElements elements : from) {
+            if (elements.encodedAdditions != null) {
+                throw new IllegalStateException("Encountered encodedAdditions in data elements joiner- this is not expected " +
+                        "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                        "delta data elements are never split/joined");
+            }
+        }
+
+        long currentWriteElement = 0;
+        for(int ordinal=0;ordinal<=to.maxOrdinal;ordinal++) {
+            int fromIndex = ordinal & fromMask;
+            int fromOrdinal = ordinal >> fromOrdinalShift;
+
+            // lopsided shards could result for consumers that skip type shards with no additions, such ordinals
+            // are written as empty lists
+            if (fromOrdinal <= from[fromIndex].maxOrdinal) {
+                HollowListTypeDataElements source = from[fromIndex];
+                long startElement = source.getStartElement(fromOrdinal);
+                long endElement = source.getEndElement(fromOrdinal);
+
+                if (source.bitsPerElement == to.bitsPerElement) {
+                    to.elementData.copyBits(source.elementData, startElement * source.bitsPerElement,
+                            currentWriteElement * to.bitsPerElement, (endElement - startElement) * source.bitsPerElement);
+                } else {
+                    for(long element=startElement;element<endElement;element++) {
+                        long elementOrdinal = source.elementData.getElementValue(element * source.bitsPerElement, source.bitsPerElement);
+                        to.elementData.setElementValue((currentWriteElement + element - startElement) * to.bitsPerElement, to.bitsPerElement, elementOrdinal);
+                    }
+                }
+                currentWriteElement += endElement - startElement;
+            }
+
+            to.listPointerData.setElementValue((long)to.bitsPerListPointer * ordinal, to.bitsPerListPointer, currentWriteElement);
+        }
+
+        if(!to.memoryMode.equals(MemoryMode.ON_HEAP))
+            to.remapToSharedMemory();
+
+        return to;
+    }
+
+    void populateStats(HollowListTypeDataElements to, HollowListTypeDataElements[] from) {
+        long totalOfListSizes = 0;
+
+        to.maxOrdinal = -1;
+        for(int fromIndex=0;fromIndex<from.length;fromIndex++) {
+            if(from[fromIndex].maxOrdinal != -1)
+                totalOfListSizes += from[fromIndex].getEndElement(from[fromIndex].maxOrdinal);
+
+            // do not assume bitsPerElement will be uniform
+            to.bitsPerElement = Math.max(to.bitsPerElement, from[fromIndex].bitsPerElement);
+
+            int mappedMaxOrdinal = from[fromIndex].maxOrdinal == -1 ? -1 : (from[fromIndex].maxOrdinal * from.length) + fromIndex;
+            to.maxOrdinal = Math.max(to.maxOrdinal, mappedMaxOrdinal);
+        }
+
+        to.bitsPerListPointer = totalOfListSizes == 0 ? 1 : 64 - Long.numberOfLeadingZeros(totalOfListSizes);
+        to.totalNumberOfElements = totalOfListSizes;
+
+        to.listPointerData = FixedLengthDataFactory.get((long)to.bitsPerListPointer * (to.maxOrdinal + 1), to.memoryMode, to.memoryRecycler);
+        to.elementData = FixedLengthDataFactory.get(to.bitsPerElement * to.totalNumberOfElements, to.memoryMode, to.memoryRecycler);
+    }
+}
@@ -0,0 +1,90 @@
+package com.netflix.hollow.core.read.engine.list;
+
+import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
+
+/**
+ * Split a {@code HollowListTypeDataElements} into multiple {@code HollowListTypeDataElements}s.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * {@code numSplits} must be a power of 2.
+ */
+public class HollowListTypeDataElementsSplitter {
+
+    HollowListTypeDataElements[] split(HollowListTypeDataElements from, int numSplits) throws IOException {
+        final int toMask = numSplits - 1;
+        final int toOrdinalShift = 31 - Integer.numberOfLeadingZeros(numSplits);
+
+        if (numSplits<=0 || !((numSplits&(numSplits-1))==0)) {
+            throw new IllegalStateException("Must split by power of 2");
+        }
+
+        HollowListTypeDataElements[] to = new HollowListTypeDataElements[numSplits];
+        for(int i=0;i<to.length;i++) {
+            to[i] = new HollowListTypeDataElements(from.memoryMode, from.memoryRecycler, from.sharedMemoryStagingDirectory);
+            to[i].maxOrdinal = -1;
+        }
+
+        populateStats(to, from, toMask, toOrdinalShift);
+
+        if (from.encodedRemovals != null) {
+            GapEncodedVariableLengthIntegerReader[] splitRemovals = from.encodedRemovals.split(numSplits);
+            for(int i=0;i<to.length;i++) {
+                to[i].encodedRemovals = splitRemovals[i];
+            }
+        }
+        if (from.encodedAdditions != null) {
+            throw new IllegalStateException("Encountered encodedAdditions in data elements splitter- this is not expected " +
+                    "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                    "delta data elements are never split/joined");
+        }
+
+        for(int i=0;i<to.length;i++) {
+            to[i].listPointerData = FixedLengthDataFactory.get((long)to[i].bitsPerListPointer * (to[i].maxOrdinal + 1), to[i].memoryMode, to[i].memoryRecycler);
+            to[i].elementData = FixedLengthDataFactory.get(to[i].bitsPerElement * to[i].totalNumberOfElements, to[i].memoryMode, to[i].memoryRecycler);
+        }
+
+        long[] currentWriteElement = new long[numSplits];
+        for(int ordinal=0;ordinal<=from.maxOrdinal;ordinal++) {
+            int toIndex = ordinal & toMask;
+            int toOrdinal = ordinal >> toOrdinalShift;
+
+            long startElement = from.getStartElement(ordinal);
+            long endElement = from.getEndElement(ordinal);
+            HollowListTypeDataElements target = to[toIndex];
+
+            // element bit widths are retained on split, so elements can be copied in bulk
+            target.elementData.copyBits(from.elementData, startElement * from.bitsPerElement,
+                    currentWriteElement[toIndex] * target.bitsPerElement, (endElement - startElement) * from.bitsPerElement);
+            currentWriteElement[toIndex] += endElement - startElement;
+
+            target.listPointerData.setElementValue((long)target.bitsPerListPointer * toOrdinal, target.bitsPerListPointer, currentWriteElement[toIndex]);
+        }
+
+        if(!from.memoryMode.equals(MemoryMode.ON_HEAP)) {
+            for(int i=0;i<to.length;i++)
+                to[i].remapToSharedMemory();
+        }
+        return to;
+    }
+
+    private void populateStats(HollowListTypeDataElements[] to, HollowListTypeDataElements from, int toMask, int toOrdinalShift) {
+        long[] totalOfListSizes = new long[to.length];
+
+        for(int ordinal=0;ordinal<=from.maxOrdinal;ordinal++) {
+            int toIndex = ordinal & toMask;
+            int toOrdinal = ordinal >> toOrdinalShift;
+            to[toIndex].maxOrdinal = toOrdinal;
+
+            totalOfListSizes[toIndex] += from.getEndElement(ordinal) - from.getStartElement(ordinal);
+        }
+
+        for(int toIndex=0;toIndex<to.length;toIndex++) {
+            to[toIndex].bitsPerElement = from.bitsPerElement;
+            to[toIndex].bitsPerListPointer = totalOfListSizes[toIndex] == 0 ? 1 : 64 - Long.numberOfLeadingZeros(totalOfListSizes[toIndex]);
+            to[toIndex].totalNumberOfElements = totalOfListSizes[toIndex];
+        }
+    }
+}
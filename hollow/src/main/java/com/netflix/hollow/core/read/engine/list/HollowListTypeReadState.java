@@ -20,6 +20,7 @@ import com.netflix.hollow.api.sampling.DisabledSamplingDirector;
 import com.netflix.hollow.api.sampling.HollowListSampler;
 import com.netflix.hollow.api.sampling.HollowSampler;
 import com.netflix.hollow.api.sampling.HollowSamplingDirector;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
@@ -38,7 +39,10 @@ import com.netflix.hollow.core.schema.HollowListSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.Executor;
 
 /**
  * A {@link HollowTypeReadState} for LIST type records.
@@ -47,12 +51,20 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
 
     private final HollowListSampler sampler;
     
-    private final int shardNumberMask;
-    private final int shardOrdinalShift;
-    private final HollowListTypeReadStateShard shards[];
+    volatile ShardsHolder shardsVolatile;
     
     private int maxOrdinal;
 
+    static class ShardsHolder {
+        final HollowListTypeReadStateShard shards[];
+        final int shardNumberMask;
+
+        private ShardsHolder(HollowListTypeReadStateShard[] fromShards) {
+            this.shards = fromShards;
+            this.shardNumberMask = fromShards.length - 1;
+        }
+    }
+
     public HollowListTypeReadState(HollowReadStateEngine stateEngine, HollowListSchema schema, int numShards) {
         this(stateEngine, MemoryMode.ON_HEAP, schema, numShards);
     }
@@ -60,17 +72,16 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     public HollowListTypeReadState(HollowReadStateEngine stateEngine, MemoryMode memoryMode, HollowListSchema schema, int numShards) {
         super(stateEngine, memoryMode, schema);
         this.sampler = new HollowListSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
-        this.shardNumberMask = numShards - 1;
-        this.shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
-        
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+
         if(numShards < 1 || 1 << shardOrdinalShift != numShards)
             throw new IllegalArgumentException("Number of shards must be a power of 2!");
-        
+
         HollowListTypeReadStateShard shards[] = new HollowListTypeReadStateShard[numShards];
         for(int i=0;i<shards.length;i++)
-            shards[i] = new HollowListTypeReadStateShard();
-        
-        this.shards = shards;
+            shards[i] = new HollowListTypeReadStateShard(null, shardOrdinalShift);
+
+        this.shardsVolatile = new ShardsHolder(shards);
     }
 
     @Override
@@ -80,67 +91,189 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
 
     @Override
     public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
-        if(shards.length > 1)
+        if(shardsVolatile.shards.length > 1)
             maxOrdinal = VarInt.readVInt(in);
         
-        for(int i=0;i<shards.length;i++) {
-            HollowListTypeDataElements snapshotData = new HollowListTypeDataElements(memoryMode, memoryRecycler);
+        for(int i=0;i<shardsVolatile.shards.length;i++) {
+            HollowListTypeDataElements snapshotData = new HollowListTypeDataElements(memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
             snapshotData.readSnapshot(in);
-            shards[i].setCurrentData(snapshotData);
+            shardsVolatile.shards[i].setCurrentData(snapshotData);
         }
         
-        if(shards.length == 1)
-            maxOrdinal = shards[0].currentDataElements().maxOrdinal;
+        if(shardsVolatile.shards.length == 1)
+            maxOrdinal = shardsVolatile.shards[0].currentDataElements().maxOrdinal;
         
         SnapshotPopulatedOrdinalsReader.readOrdinals(in, stateListeners);
     }
 
     @Override
     public void applyDelta(HollowBlobInput in, HollowSchema schema, ArraySegmentRecycler memoryRecycler, int deltaNumShards) throws IOException {
-        if (shouldReshard(shards.length, deltaNumShards)) {
-            throw new UnsupportedOperationException("Dynamic type sharding not supported for " + schema.getName()
-                    + ". Current numShards=" + shards.length + ", delta numShards=" + deltaNumShards);
+        applyDelta(in, schema, memoryRecycler, deltaNumShards, null);
+    }
+
+    @Override
+    public void applyDelta(HollowBlobInput in, HollowSchema schema, ArraySegmentRecycler memoryRecycler, int deltaNumShards, Executor executor) throws IOException {
+        if (shouldReshard(shardsVolatile.shards.length, deltaNumShards)) {
+            reshard(deltaNumShards);
         }
-        if(shards.length > 1)
+        if(shardsVolatile.shards.length > 1)
             maxOrdinal = VarInt.readVInt(in);
 
-        for(int i=0; i<shards.length; i++) {
-            HollowListTypeDataElements deltaData = new HollowListTypeDataElements(memoryMode, memoryRecycler);
+        for(int i=0; i<shardsVolatile.shards.length; i++) {
+            HollowListTypeDataElements deltaData = new HollowListTypeDataElements(memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
             deltaData.readDelta(in);
-            if(stateEngine.isSkipTypeShardUpdateWithNoAdditions() && deltaData.encodedAdditions.isEmpty()) {
+            if(executor == null) {
+                applyDeltaToShard(i, deltaData, memoryRecycler);
+                stateEngine.getMemoryRecycler().swap();
+            } else {
+                int shardIndex = i;
+                executor.execute(() -> {
+                    try {
+                        applyDeltaToShard(shardIndex, deltaData, memoryRecycler);
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
 
-                if(!deltaData.encodedRemovals.isEmpty())
-                    notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shards.length);
+    private void applyDeltaToShard(int i, HollowListTypeDataElements deltaData, ArraySegmentRecycler memoryRecycler) throws IOException {
+        if(stateEngine.isSkipTypeShardUpdateWithNoAdditions() && deltaData.encodedAdditions.isEmpty()) {
 
-                HollowListTypeDataElements currentData = shards[i].currentDataElements();
-                GapEncodedVariableLengthIntegerReader oldRemovals = currentData.encodedRemovals == null ? GapEncodedVariableLengthIntegerReader.EMPTY_READER : currentData.encodedRemovals;
-                if(oldRemovals.isEmpty()) {
-                    currentData.encodedRemovals = deltaData.encodedRemovals;
+            if(!deltaData.encodedRemovals.isEmpty())
+                notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
+
+            HollowListTypeDataElements currentData = shardsVolatile.shards[i].currentDataElements();
+            GapEncodedVariableLengthIntegerReader oldRemovals = currentData.encodedRemovals == null ? GapEncodedVariableLengthIntegerReader.EMPTY_READER : currentData.encodedRemovals;
+            if(oldRemovals.isEmpty()) {
+                currentData.encodedRemovals = deltaData.encodedRemovals;
+                oldRemovals.destroy();
+            } else {
+                if(!deltaData.encodedRemovals.isEmpty()) {
+                    currentData.encodedRemovals = GapEncodedVariableLengthIntegerReader.combine(oldRemovals, deltaData.encodedRemovals, memoryRecycler);
                     oldRemovals.destroy();
-                } else {
-                    if(!deltaData.encodedRemovals.isEmpty()) {
-                        currentData.encodedRemovals = GapEncodedVariableLengthIntegerReader.combine(oldRemovals, deltaData.encodedRemovals, memoryRecycler);
-                        oldRemovals.destroy();
-                    }
-                    deltaData.encodedRemovals.destroy();
                 }
+                deltaData.encodedRemovals.destroy();
+            }
 
-                deltaData.encodedAdditions.destroy();
-            } else {
-                HollowListTypeDataElements nextData = new HollowListTypeDataElements(memoryMode, memoryRecycler);
-                HollowListTypeDataElements oldData = shards[i].currentDataElements();
-                nextData.applyDelta(oldData, deltaData);
-                shards[i].setCurrentData(nextData);
-                notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shards.length);
-                deltaData.encodedAdditions.destroy();
-                oldData.destroy();
+            deltaData.encodedAdditions.destroy();
+        } else {
+            HollowListTypeDataElements nextData = new HollowListTypeDataElements(memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
+            HollowListTypeDataElements oldData = shardsVolatile.shards[i].currentDataElements();
+            nextData.applyDelta(oldData, deltaData);
+            shardsVolatile.shards[i].setCurrentData(nextData);
+            notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
+            deltaData.encodedAdditions.destroy();
+            oldData.destroy();
+        }
+        deltaData.destroy();
+
+        if(shardsVolatile.shards.length == 1)
+            maxOrdinal = shardsVolatile.shards[0].currentDataElements().maxOrdinal;
+    }
+
+    /**
+     * Reshards this type state to the desired shard count using O(shard size) space while supporting concurrent reads
+     * into the underlying data elements.
+     *
+     * @param newNumShards The desired number of shards
+     */
+    void reshard(int newNumShards) throws IOException {
+        int prevNumShards = shardsVolatile.shards.length;
+        int shardingFactor = shardingFactor(prevNumShards, newNumShards);
+
+        if (newNumShards>prevNumShards) { // split existing shards
+            // Step 1: Grow the number of shards. Each child shard references the data elements of its original
+            // shard as-is, along with its original shardOrdinalShift, so reads continue to be served correctly.
+            shardsVolatile = expandWithOriginalDataElements(shardsVolatile, shardingFactor);
+
+            // Step 2: Split the data elements of each original shard into N child data elements where N is the
+            // sharding factor, and assign the splits to the child shards. The original data elements can then be
+            // discarded.
+            for(int i=0; i<prevNumShards; i++) {
+                HollowListTypeDataElements originalDataElements = shardsVolatile.shards[i].currentDataElements();
+
+                shardsVolatile = splitDataElementsForOneShard(shardsVolatile, i, prevNumShards, shardingFactor);
+
+                destroyOriginalDataElements(originalDataElements);
+            }
+        } else { // join existing shards
+            // Step 1: Join N data elements to create one, where N is the sharding factor. Each of the N shards is
+            // updated to reference the joined result with a new shardOrdinalShift, so reads land at the right
+            // ordinal in the joined data elements. The pre-join data elements can then be discarded.
+            for (int i=0; i<newNumShards; i++) {
+                HollowListTypeDataElements destroyCandidates[] = joinCandidates(shardsVolatile.shards, i, shardingFactor);
+
+                shardsVolatile = joinDataElementsForOneShard(shardsVolatile, i, shardingFactor);
+
+                for (int j=0; j<shardingFactor; j++) {
+                    destroyOriginalDataElements(destroyCandidates[j]);
+                }
             }
-            deltaData.destroy();
-            stateEngine.getMemoryRecycler().swap();
+
+            // Step 2: Resize the shards array to only keep the first newNumShards shards.
+            shardsVolatile = new ShardsHolder(Arrays.copyOfRange(shardsVolatile.shards, 0, newNumShards));
+        }
+    }
+
+    private HollowListTypeDataElements[] joinCandidates(HollowListTypeReadStateShard[] shards, int indexIntoShards, int shardingFactor) {
+        HollowListTypeDataElements[] result = new HollowListTypeDataElements[shardingFactor];
+        int newNumShards = shards.length / shardingFactor;
+        for (int i=0; i<shardingFactor; i++) {
+            result[i] = shards[indexIntoShards + (newNumShards*i)].currentDataElements();
+        }
+        return result;
+    }
+
+    ShardsHolder joinDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int shardingFactor) throws IOException {
+        int newNumShards = shardsHolder.shards.length / shardingFactor;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowListTypeDataElementsJoiner joiner = new HollowListTypeDataElementsJoiner();
+        HollowListTypeDataElements joined = joiner.join(joinCandidates(shardsHolder.shards, currentIndex, shardingFactor));
+
+        HollowListTypeReadStateShard shard = new HollowListTypeReadStateShard(joined, newShardOrdinalShift);
+        HollowListTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (newNumShards*i)] = shard;
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder expandWithOriginalDataElements(ShardsHolder shardsHolder, int shardingFactor) {
+        int prevNumShards = shardsHolder.shards.length;
+        int newNumShards = prevNumShards * shardingFactor;
+        HollowListTypeReadStateShard[] newShards = new HollowListTypeReadStateShard[newNumShards];
+
+        for(int i=0; i<prevNumShards; i++) {
+            for (int j=0; j<shardingFactor; j++) {
+                newShards[i+(prevNumShards*j)] = shardsHolder.shards[i];
+            }
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder splitDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int prevNumShards, int shardingFactor) throws IOException {
+        int newNumShards = shardsHolder.shards.length;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowListTypeDataElementsSplitter splitter = new HollowListTypeDataElementsSplitter();
+        HollowListTypeDataElements[] splits = splitter.split(shardsHolder.shards[currentIndex].currentDataElements(), shardingFactor);
+
+        HollowListTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            HollowListTypeReadStateShard shard = new HollowListTypeReadStateShard(splits[i], newShardOrdinalShift);
+            newShards[currentIndex + (prevNumShards*i)] = shard;
         }
+        return new ShardsHolder(newShards);
+    }
 
-        if(shards.length == 1)
-            maxOrdinal = shards[0].currentDataElements().maxOrdinal;
+    private void destroyOriginalDataElements(HollowListTypeDataElements dataElements) {
+        dataElements.destroy();
+        if (dataElements.encodedRemovals != null) {
+            dataElements.encodedRemovals.destroy();
+        }
     }
 
     public static void discardSnapshot(HollowBlobInput in, int numShards) throws IOException {
@@ -170,13 +303,35 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     @Override
     public int getElementOrdinal(int ordinal, int listIndex) {
         sampler.recordGet();
-        return shards[ordinal & shardNumberMask].getElementOrdinal(ordinal >> shardOrdinalShift, listIndex);
+
+        ShardsHolder shardsHolder;
+        HollowListTypeReadStateShard shard;
+        int result;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            result = shard.getElementOrdinal(ordinal >> shard.shardOrdinalShift, listIndex);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
     }
 
     @Override
     public int size(int ordinal) {
         sampler.recordSize();
-        return shards[ordinal & shardNumberMask].size(ordinal >> shardOrdinalShift);
+
+        ShardsHolder shardsHolder;
+        HollowListTypeReadStateShard shard;
+        int result;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            result = shard.size(ordinal >> shard.shardOrdinalShift);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
     }
 
     @Override
@@ -209,23 +364,23 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     @Override
     protected void invalidate() {
         stateListeners = EMPTY_LISTENERS;
-        for(int i=0;i<shards.length;i++)
-            shards[i].invalidate();
+        for(int i=0;i<shardsVolatile.shards.length;i++)
+            shardsVolatile.shards[i].invalidate();
     }
 
     HollowListTypeDataElements[] currentDataElements() {
-        HollowListTypeDataElements currentDataElements[] = new HollowListTypeDataElements[shards.length];
+        HollowListTypeDataElements currentDataElements[] = new HollowListTypeDataElements[shardsVolatile.shards.length];
         
-        for(int i=0; i<shards.length; i++)
-            currentDataElements[i] = shards[i].currentDataElements();
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            currentDataElements[i] = shardsVolatile.shards[i].currentDataElements();
         
         return currentDataElements;
     }
 
     void setCurrentData(HollowListTypeDataElements data) {
-        if(shards.length > 1)
+        if(shardsVolatile.shards.length > 1)
             throw new UnsupportedOperationException("Cannot directly set data on sharded type state");
-        shards[0].setCurrentData(data);
+        shardsVolatile.shards[0].setCurrentData(data);
         maxOrdinal = data.maxOrdinal;
     }
 
@@ -236,16 +391,16 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
         
         BitSet populatedOrdinals = getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
 
-        for(int i=0; i<shards.length; i++)
-            shards[i].applyToChecksum(checksum, populatedOrdinals, i, shards.length);
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            shardsVolatile.shards[i].applyToChecksum(checksum, populatedOrdinals, i, shardsVolatile.shards.length);
     }
 
 	@Override
 	public long getApproximateHeapFootprintInBytes() {
         long totalApproximateHeapFootprintInBytes = 0;
         
-        for(int i=0; i<shards.length; i++)
-            totalApproximateHeapFootprintInBytes += shards[i].getApproximateHeapFootprintInBytes();
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            totalApproximateHeapFootprintInBytes += shardsVolatile.shards[i].getApproximateHeapFootprintInBytes();
         
         return totalApproximateHeapFootprintInBytes;
 	}
@@ -256,15 +411,25 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
         
         BitSet populatedOrdinals = getPopulatedOrdinals();
 
-        for(int i=0; i<shards.length; i++)
-            totalApproximateHoleCostInBytes += shards[i].getApproximateHoleCostInBytes(populatedOrdinals, i, shards.length);
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            totalApproximateHoleCostInBytes += shardsVolatile.shards[i].getApproximateHoleCostInBytes(populatedOrdinals, i, shardsVolatile.shards.length);
         
         return totalApproximateHoleCostInBytes;
     }
 
+    private boolean readWasUnsafe(ShardsHolder shardsHolder, int ordinal, HollowListTypeReadStateShard shard) {
+        // Use a load (acquire) fence so that the reads performed on the shard cannot be reordered below the volatile
+        // load of shardsVolatile, see HollowObjectTypeReadState for details. A read is only invalidated if the shard
+        // serving the ordinal was replaced by resharding, updates to the shard's data are validated by the shard.
+        HollowUnsafeHandle.getUnsafe().loadFence();
+        ShardsHolder currShardsHolder = shardsVolatile;
+        return shardsHolder != currShardsHolder
+            && (shard != currShardsHolder.shards[ordinal & currShardsHolder.shardNumberMask]);
+    }
+
     @Override
     public int numShards() {
-        return shards.length;
+        return shardsVolatile.shards.length;
     }
 
 }
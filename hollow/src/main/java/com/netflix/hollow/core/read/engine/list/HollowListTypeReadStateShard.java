@@ -26,6 +26,13 @@ class HollowListTypeReadStateShard {
 
     private volatile HollowListTypeDataElements currentDataVolatile;
 
+    final int shardOrdinalShift;
+
+    HollowListTypeReadStateShard(HollowListTypeDataElements dataElements, int shardOrdinalShift) {
+        this.currentDataVolatile = dataElements;
+        this.shardOrdinalShift = shardOrdinalShift;
+    }
+
     public int getElementOrdinal(int ordinal, int listIndex) {
         HollowListTypeDataElements currentData;
         int elementOrdinal;
@@ -19,10 +19,12 @@ package com.netflix.hollow.core.read.engine.map;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryRemapper;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -52,14 +54,26 @@ public class HollowMapTypeDataElements {
 
     final ArraySegmentRecycler memoryRecycler;
     final MemoryMode memoryMode;
+    final File sharedMemoryStagingDirectory;
 
     public HollowMapTypeDataElements(ArraySegmentRecycler memoryRecycler) {
         this(MemoryMode.ON_HEAP, memoryRecycler);
     }
 
     public HollowMapTypeDataElements(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
+        this(memoryMode, memoryRecycler, null);
+    }
+
+    /**
+     * @param memoryMode the memory mode of the data
+     * @param memoryRecycler the recycler of on heap segments
+     * @param sharedMemoryStagingDirectory the directory in which data is staged when it is remapped into shared memory,
+     *                                     or null for the default temporary-file directory
+     */
+    public HollowMapTypeDataElements(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler, File sharedMemoryStagingDirectory) {
         this.memoryMode = memoryMode;
         this.memoryRecycler = memoryRecycler;
+        this.sharedMemoryStagingDirectory = sharedMemoryStagingDirectory;
     }
 
     void readSnapshot(HollowBlobInput in) throws IOException {
@@ -117,8 +131,40 @@ public class HollowMapTypeDataElements {
         }
     }
 
-    public void applyDelta(HollowMapTypeDataElements fromData, HollowMapTypeDataElements deltaData) {
+    long getStartBucket(int ordinal) {
+        return ordinal == 0 ? 0 : mapPointerAndSizeData.getElementValue((long)(ordinal - 1) * bitsPerFixedLengthMapPortion, bitsPerMapPointer);
+    }
+
+    long getEndBucket(int ordinal) {
+        return mapPointerAndSizeData.getElementValue((long)ordinal * bitsPerFixedLengthMapPortion, bitsPerMapPointer);
+    }
+
+    int getMapSize(int ordinal) {
+        return (int)mapPointerAndSizeData.getElementValue(((long)ordinal * bitsPerFixedLengthMapPortion) + bitsPerMapPointer, bitsPerMapSizeValue);
+    }
+
+    public void applyDelta(HollowMapTypeDataElements fromData, HollowMapTypeDataElements deltaData) throws IOException {
         new HollowMapDeltaApplicator(fromData, deltaData, this).applyDelta();
+        if(!memoryMode.equals(MemoryMode.ON_HEAP))
+            remapToSharedMemory();
+    }
+
+    /**
+     * Moves data assembled on heap by a delta transition back into virtual memory.
+     */
+    void remapToSharedMemory() throws IOException {
+        try(SharedMemoryRemapper remapper = new SharedMemoryRemapper(memoryMode, sharedMemoryStagingDirectory)) {
+            remapper.write(mapPointerAndSizeData, ((long)maxOrdinal + 1) * bitsPerFixedLengthMapPortion);
+            remapper.write(entryData, totalNumberOfBuckets * bitsPerMapEntry);
+
+            HollowBlobInput in = remapper.map();
+            FixedLengthData stagedMapPointerAndSizeData = mapPointerAndSizeData;
+            mapPointerAndSizeData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedMapPointerAndSizeData, memoryRecycler);
+            FixedLengthData stagedEntryData = entryData;
+            entryData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedEntryData, memoryRecycler);
+        }
     }
 
     public void destroy() {
@@ -0,0 +1,110 @@
+package com.netflix.hollow.core.read.engine.map;
+
+import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
+
+
+/**
+ * Join multiple {@code HollowMapTypeDataElements}s into 1 {@code HollowMapTypeDataElements}.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * The no. of passed data elements must be a power of 2.
+ */
+class HollowMapTypeDataElementsJoiner {
+
+    HollowMapTypeDataElements join(HollowMapTypeDataElements[] from) throws IOException {
+        final int fromMask = from.length - 1;
+        final int fromOrdinalShift = 31 - Integer.numberOfLeadingZeros(from.length);
+
+        if (from.length<=0 || !((from.length&(from.length-1))==0)) {
+            throw new IllegalStateException("No. of DataElements to be joined must be a power of 2");
+        }
+
+        HollowMapTypeDataElements to = new HollowMapTypeDataElements(from[0].memoryMode, from[0].memoryRecycler, from[0].sharedMemoryStagingDirectory);
+
+        populateStats(to, from);
+
+        GapEncodedVariableLengthIntegerReader[] fromRemovals = new GapEncodedVariableLengthIntegerReader[from.length];
+        for (int i=0;i<from.length;i++) {
+            fromRemovals[i] = from[i].encodedRemovals;
+        }
+        to.encodedRemovals = GapEncodedVariableLengthIntegerReader.join(fromRemovals);
+
+        for (HollowMapTypeDataElements elements : from) {
+            if (elements.encodedAdditions != null) {
+                throw new IllegalStateException("Encountered encodedAdditions in data elements joiner- this is not expected " +
+                        "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                        "delta data elements are never split/joined");
+            }
+        }
+
+        long currentWriteBucket = 0;
+        for(int ordinal=0;ordinal<=to.maxOrdinal;ordinal++) {
+            int fromIndex = ordinal & fromMask;
+            int fromOrdinal = ordinal >> fromOrdinalShift;
+            long startBit = (long)ordinal * to.bitsPerFixedLengthMapPortion;
+
+            // lopsided shards could result for consumers that skip type shards with no additions, such ordinals
+            // are written as empty maps
+            if (fromOrdinal <= from[fromIndex].maxOrdinal) {
+                HollowMapTypeDataElements source = from[fromIndex];
+                long startBucket = source.getStartBucket(fromOrdinal);
+                long endBucket = source.getEndBucket(fromOrdinal);
+
+                if (source.bitsPerKeyElement == to.bitsPerKeyElement && source.bitsPerValueElement == to.bitsPerValueElement) {
+                    to.entryData.copyBits(source.entryData, startBucket * source.bitsPerMapEntry,
+                            currentWriteBucket * to.bitsPerMapEntry, (endBucket - startBucket) * source.bitsPerMapEntry);
+                } else {
+                    for(long bucket=startBucket;bucket<endBucket;bucket++) {
+                        long bucketKey = source.entryData.getElementValue(bucket * source.bitsPerMapEntry, source.bitsPerKeyElement);
+                        long bucketValue = source.entryData.getElementValue(bucket * source.bitsPerMapEntry + source.bitsPerKeyElement, source.bitsPerValueElement);
+                        if(bucketKey == source.emptyBucketKeyValue)
+                            bucketKey = to.emptyBucketKeyValue;
+                        long writeBucketBit = (currentWriteBucket + bucket - startBucket) * to.bitsPerMapEntry;
+                        to.entryData.setElementValue(writeBucketBit, to.bitsPerKeyElement, bucketKey);
+                        to.entryData.setElementValue(writeBucketBit + to.bitsPerKeyElement, to.bitsPerValueElement, bucketValue);
+                    }
+                }
+                currentWriteBucket += endBucket - startBucket;
+
+                to.mapPointerAndSizeData.setElementValue(startBit + to.bitsPerMapPointer, to.bitsPerMapSizeValue, source.getMapSize(fromOrdinal));
+            }
+
+            to.mapPointerAndSizeData.setElementValue(startBit, to.bitsPerMapPointer, currentWriteBucket);
+        }
+
+        if(!to.memoryMode.equals(MemoryMode.ON_HEAP))
+            to.remapToSharedMemory();
+
+        return to;
+    }
+
+    void populateStats(HollowMapTypeDataElements to, HollowMapTypeDataElements[] from) {
+        long totalOfMapBuckets = 0;
+
+        to.maxOrdinal = -1;
+        for(int fromIndex=0;fromIndex<from.length;fromIndex++) {
+            if(from[fromIndex].maxOrdinal != -1)
+                totalOfMapBuckets += from[fromIndex].getEndBucket(from[fromIndex].maxOrdinal);
+
+            // do not assume bit widths will be uniform
+            to.bitsPerKeyElement = Math.max(to.bitsPerKeyElement, from[fromIndex].bitsPerKeyElement);
+            to.bitsPerValueElement = Math.max(to.bitsPerValueElement, from[fromIndex].bitsPerValueElement);
+            to.bitsPerMapSizeValue = Math.max(to.bitsPerMapSizeValue, from[fromIndex].bitsPerMapSizeValue);
+
+            int mappedMaxOrdinal = from[fromIndex].maxOrdinal == -1 ? -1 : (from[fromIndex].maxOrdinal * from.length) + fromIndex;
+            to.maxOrdinal = Math.max(to.maxOrdinal, mappedMaxOrdinal);
+        }
+
+        to.bitsPerMapEntry = to.bitsPerKeyElement + to.bitsPerValueElement;
+        to.emptyBucketKeyValue = (1 << to.bitsPerKeyElement) - 1;
+        to.bitsPerMapPointer = 64 - Long.numberOfLeadingZeros(totalOfMapBuckets);
+        to.bitsPerFixedLengthMapPortion = to.bitsPerMapPointer + to.bitsPerMapSizeValue;
+        to.totalNumberOfBuckets = totalOfMapBuckets;
+
+        to.mapPointerAndSizeData = FixedLengthDataFactory.get((long)to.bitsPerFixedLengthMapPortion * (to.maxOrdinal + 1), to.memoryMode, to.memoryRecycler);
+        to.entryData = FixedLengthDataFactory.get(to.bitsPerMapEntry * to.totalNumberOfBuckets, to.memoryMode, to.memoryRecycler);
+    }
+}
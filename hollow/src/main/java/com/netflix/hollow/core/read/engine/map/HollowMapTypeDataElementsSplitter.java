@@ -0,0 +1,97 @@
+package com.netflix.hollow.core.read.engine.map;
+
+import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
+
+/**
+ * Split a {@code HollowMapTypeDataElements} into multiple {@code HollowMapTypeDataElements}s.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * {@code numSplits} must be a power of 2.
+ */
+public class HollowMapTypeDataElementsSplitter {
+
+    HollowMapTypeDataElements[] split(HollowMapTypeDataElements from, int numSplits) throws IOException {
+        final int toMask = numSplits - 1;
+        final int toOrdinalShift = 31 - Integer.numberOfLeadingZeros(numSplits);
+
+        if (numSplits<=0 || !((numSplits&(numSplits-1))==0)) {
+            throw new IllegalStateException("Must split by power of 2");
+        }
+
+        HollowMapTypeDataElements[] to = new HollowMapTypeDataElements[numSplits];
+        for(int i=0;i<to.length;i++) {
+            to[i] = new HollowMapTypeDataElements(from.memoryMode, from.memoryRecycler, from.sharedMemoryStagingDirectory);
+            to[i].maxOrdinal = -1;
+        }
+
+        populateStats(to, from, toMask, toOrdinalShift);
+
+        if (from.encodedRemovals != null) {
+            GapEncodedVariableLengthIntegerReader[] splitRemovals = from.encodedRemovals.split(numSplits);
+            for(int i=0;i<to.length;i++) {
+                to[i].encodedRemovals = splitRemovals[i];
+            }
+        }
+        if (from.encodedAdditions != null) {
+            throw new IllegalStateException("Encountered encodedAdditions in data elements splitter- this is not expected " +
+                    "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                    "delta data elements are never split/joined");
+        }
+
+        for(int i=0;i<to.length;i++) {
+            to[i].mapPointerAndSizeData = FixedLengthDataFactory.get((long)to[i].bitsPerFixedLengthMapPortion * (to[i].maxOrdinal + 1), to[i].memoryMode, to[i].memoryRecycler);
+            to[i].entryData = FixedLengthDataFactory.get(to[i].bitsPerMapEntry * to[i].totalNumberOfBuckets, to[i].memoryMode, to[i].memoryRecycler);
+        }
+
+        long[] currentWriteBucket = new long[numSplits];
+        for(int ordinal=0;ordinal<=from.maxOrdinal;ordinal++) {
+            int toIndex = ordinal & toMask;
+            int toOrdinal = ordinal >> toOrdinalShift;
+
+            long startBucket = from.getStartBucket(ordinal);
+            long endBucket = from.getEndBucket(ordinal);
+            HollowMapTypeDataElements target = to[toIndex];
+
+            // entry bit widths (and hence the empty bucket key value) are retained on split, so buckets can be copied in bulk
+            target.entryData.copyBits(from.entryData, startBucket * from.bitsPerMapEntry,
+                    currentWriteBucket[toIndex] * target.bitsPerMapEntry, (endBucket - startBucket) * from.bitsPerMapEntry);
+            currentWriteBucket[toIndex] += endBucket - startBucket;
+
+            long startBit = (long)toOrdinal * target.bitsPerFixedLengthMapPortion;
+            target.mapPointerAndSizeData.setElementValue(startBit, target.bitsPerMapPointer, currentWriteBucket[toIndex]);
+            target.mapPointerAndSizeData.setElementValue(startBit + target.bitsPerMapPointer, target.bitsPerMapSizeValue, from.getMapSize(ordinal));
+        }
+
+        if(!from.memoryMode.equals(MemoryMode.ON_HEAP)) {
+            for(int i=0;i<to.length;i++)
+                to[i].remapToSharedMemory();
+        }
+        return to;
+    }
+
+    private void populateStats(HollowMapTypeDataElements[] to, HollowMapTypeDataElements from, int toMask, int toOrdinalShift) {
+        long[] totalOfMapBuckets = new long[to.length];
+
+        for(int ordinal=0;ordinal<=from.maxOrdinal;ordinal++) {
+            int toIndex = ordinal & toMask;
+            int toOrdinal = ordinal >> toOrdinalShift;
+            to[toIndex].maxOrdinal = toOrdinal;
+
+            totalOfMapBuckets[toIndex] += from.getEndBucket(ordinal) - from.getStartBucket(ordinal);
+        }
+
+        for(int toIndex=0;toIndex<to.length;toIndex++) {
+            to[toIndex].bitsPerKeyElement = from.bitsPerKeyElement;
+            to[toIndex].bitsPerValueElement = from.bitsPerValueElement;
+            to[toIndex].bitsPerMapEntry = from.bitsPerMapEntry;
+            to[toIndex].emptyBucketKeyValue = from.emptyBucketKeyValue;
+            to[toIndex].bitsPerMapSizeValue = from.bitsPerMapSizeValue;
+            to[toIndex].bitsPerMapPointer = 64 - Long.numberOfLeadingZeros(totalOfMapBuckets[toIndex]);
+            to[toIndex].bitsPerFixedLengthMapPortion = to[toIndex].bitsPerMapPointer + to[toIndex].bitsPerMapSizeValue;
+            to[toIndex].totalNumberOfBuckets = totalOfMapBuckets[toIndex];
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.netflix.hollow.api.sampling.HollowMapSampler;
 import com.netflix.hollow.api.sampling.HollowSampler;
 import com.netflix.hollow.api.sampling.HollowSamplingDirector;
 import com.netflix.hollow.core.index.key.HollowPrimaryKeyValueDeriver;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
@@ -42,7 +43,10 @@ import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.Executor;
 
 /**
  * A {@link HollowTypeReadState} for MAP type records. 
@@ -51,14 +55,22 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
 
     private final HollowMapSampler sampler;
     
-    private final int shardNumberMask;
-    private final int shardOrdinalShift;
-    private final HollowMapTypeReadStateShard shards[];
+    volatile ShardsHolder shardsVolatile;
     
     private HollowPrimaryKeyValueDeriver keyDeriver;
     
     private int maxOrdinal;
 
+    static class ShardsHolder {
+        final HollowMapTypeReadStateShard shards[];
+        final int shardNumberMask;
+
+        private ShardsHolder(HollowMapTypeReadStateShard[] fromShards) {
+            this.shards = fromShards;
+            this.shardNumberMask = fromShards.length - 1;
+        }
+    }
+
     public HollowMapTypeReadState(HollowReadStateEngine stateEngine, HollowMapSchema schema, int numShards) {
         this(stateEngine, MemoryMode.ON_HEAP, schema, numShards);
     }
@@ -66,17 +78,16 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     public HollowMapTypeReadState(HollowReadStateEngine stateEngine, MemoryMode memoryMode, HollowMapSchema schema, int numShards) {
         super(stateEngine, memoryMode, schema);
         this.sampler = new HollowMapSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
-        this.shardNumberMask = numShards - 1;
-        this.shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
-        
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+
         if(numShards < 1 || 1 << shardOrdinalShift != numShards)
             throw new IllegalArgumentException("Number of shards must be a power of 2!");
-        
+
         HollowMapTypeReadStateShard shards[] = new HollowMapTypeReadStateShard[numShards];
-        for(int i=0; i<shards.length; i++)
-            shards[i] = new HollowMapTypeReadStateShard();
-        
-        this.shards = shards;
+        for(int i=0;i<shards.length;i++)
+            shards[i] = new HollowMapTypeReadStateShard(null, shardOrdinalShift);
+
+        this.shardsVolatile = new ShardsHolder(shards);
         
     }
 
@@ -87,67 +98,191 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
 
     @Override
     public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
-        if(shards.length > 1)
+        if(shardsVolatile.shards.length > 1)
             maxOrdinal = VarInt.readVInt(in);
         
-        for(int i=0; i<shards.length; i++) {
-            HollowMapTypeDataElements snapshotData = new HollowMapTypeDataElements(memoryMode, memoryRecycler);
+        for(int i=0; i<shardsVolatile.shards.length; i++) {
+            HollowMapTypeDataElements snapshotData = new HollowMapTypeDataElements(memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
             snapshotData.readSnapshot(in);
-            shards[i].setCurrentData(snapshotData);
+            shardsVolatile.shards[i].setCurrentData(snapshotData);
         }
         
-        if(shards.length == 1)
-            maxOrdinal = shards[0].currentDataElements().maxOrdinal;
+        if(shardsVolatile.shards.length == 1)
+            maxOrdinal = shardsVolatile.shards[0].currentDataElements().maxOrdinal;
         
         SnapshotPopulatedOrdinalsReader.readOrdinals(in, stateListeners);
     }
 
     @Override
     public void applyDelta(HollowBlobInput in, HollowSchema schema, ArraySegmentRecycler memoryRecycler, int deltaNumShards) throws IOException {
-        if (shouldReshard(shards.length, deltaNumShards)) {
-            throw new UnsupportedOperationException("Dynamic type sharding not supported for " + schema.getName()
-                    + ". Current numShards=" + shards.length + ", delta numShards=" + deltaNumShards);
+        applyDelta(in, schema, memoryRecycler, deltaNumShards, null);
+    }
+
+    @Override
+    public void applyDelta(HollowBlobInput in, HollowSchema schema, ArraySegmentRecycler memoryRecycler, int deltaNumShards, Executor executor) throws IOException {
+        if (shouldReshard(shardsVolatile.shards.length, deltaNumShards)) {
+            reshard(deltaNumShards);
         }
-        if(shards.length > 1)
+        if(shardsVolatile.shards.length > 1)
             maxOrdinal = VarInt.readVInt(in);
 
-        for(int i=0; i<shards.length; i++) {
-            HollowMapTypeDataElements deltaData = new HollowMapTypeDataElements(memoryMode, memoryRecycler);
+        for(int i=0; i<shardsVolatile.shards.length; i++) {
+            HollowMapTypeDataElements deltaData = new HollowMapTypeDataElements(memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
             deltaData.readDelta(in);
-            if(stateEngine.isSkipTypeShardUpdateWithNoAdditions() && deltaData.encodedAdditions.isEmpty()) {
+            if(executor == null) {
+                applyDeltaToShard(i, deltaData, memoryRecycler);
+                stateEngine.getMemoryRecycler().swap();
+            } else {
+                int shardIndex = i;
+                executor.execute(() -> {
+                    try {
+                        applyDeltaToShard(shardIndex, deltaData, memoryRecycler);
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    private void applyDeltaToShard(int i, HollowMapTypeDataElements deltaData, ArraySegmentRecycler memoryRecycler) throws IOException {
+        if(stateEngine.isSkipTypeShardUpdateWithNoAdditions() && deltaData.encodedAdditions.isEmpty()) {
 
-                if(!deltaData.encodedRemovals.isEmpty())
-                    notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shards.length);
+            if(!deltaData.encodedRemovals.isEmpty())
+                notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
 
-                HollowMapTypeDataElements currentData = shards[i].currentDataElements();
-                GapEncodedVariableLengthIntegerReader oldRemovals = currentData.encodedRemovals == null ? GapEncodedVariableLengthIntegerReader.EMPTY_READER : currentData.encodedRemovals;
-                if(oldRemovals.isEmpty()) {
-                    currentData.encodedRemovals = deltaData.encodedRemovals;
+            HollowMapTypeDataElements currentData = shardsVolatile.shards[i].currentDataElements();
+            GapEncodedVariableLengthIntegerReader oldRemovals = currentData.encodedRemovals == null ? GapEncodedVariableLengthIntegerReader.EMPTY_READER : currentData.encodedRemovals;
+            if(oldRemovals.isEmpty()) {
+                currentData.encodedRemovals = deltaData.encodedRemovals;
+                oldRemovals.destroy();
+            } else {
+                if(!deltaData.encodedRemovals.isEmpty()) {
+                    currentData.encodedRemovals = GapEncodedVariableLengthIntegerReader.combine(oldRemovals, deltaData.encodedRemovals, memoryRecycler);
                     oldRemovals.destroy();
-                } else {
-                    if(!deltaData.encodedRemovals.isEmpty()) {
-                        currentData.encodedRemovals = GapEncodedVariableLengthIntegerReader.combine(oldRemovals, deltaData.encodedRemovals, memoryRecycler);
-                        oldRemovals.destroy();
-                    }
-                    deltaData.encodedRemovals.destroy();
                 }
+                deltaData.encodedRemovals.destroy();
+            }
 
-                deltaData.encodedAdditions.destroy();
-            } else {
-                HollowMapTypeDataElements nextData = new HollowMapTypeDataElements(memoryMode, memoryRecycler);
-                HollowMapTypeDataElements oldData = shards[i].currentDataElements();
-                nextData.applyDelta(oldData, deltaData);
-                shards[i].setCurrentData(nextData);
-                notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shards.length);
-                deltaData.encodedAdditions.destroy();
-                oldData.destroy();
+            deltaData.encodedAdditions.destroy();
+        } else {
+            HollowMapTypeDataElements nextData = new HollowMapTypeDataElements(memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
+            HollowMapTypeDataElements oldData = shardsVolatile.shards[i].currentDataElements();
+            nextData.applyDelta(oldData, deltaData);
+            shardsVolatile.shards[i].setCurrentData(nextData);
+            notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
+            deltaData.encodedAdditions.destroy();
+            oldData.destroy();
+        }
+        deltaData.destroy();
+
+        if(shardsVolatile.shards.length == 1)
+            maxOrdinal = shardsVolatile.shards[0].currentDataElements().maxOrdinal;
+    }
+
+    /**
+     * Reshards this type state to the desired shard count using O(shard size) space while supporting concurrent reads
+     * into the underlying data elements.
+     *
+     * @param newNumShards The desired number of shards
+     */
+    void reshard(int newNumShards) throws IOException {
+        int prevNumShards = shardsVolatile.shards.length;
+        int shardingFactor = shardingFactor(prevNumShards, newNumShards);
+
+        if (newNumShards>prevNumShards) { // split existing shards
+            // Step 1: Grow the number of shards. Each child shard references the data elements of its original
+            // shard as-is, along with its original shardOrdinalShift, so reads continue to be served correctly.
+            shardsVolatile = expandWithOriginalDataElements(shardsVolatile, shardingFactor);
+
+            // Step 2: Split the data elements of each original shard into N child data elements where N is the
+            // sharding factor, and assign the splits to the child shards. The original data elements can then be
+            // discarded.
+            for(int i=0; i<prevNumShards; i++) {
+                HollowMapTypeDataElements originalDataElements = shardsVolatile.shards[i].currentDataElements();
+
+                shardsVolatile = splitDataElementsForOneShard(shardsVolatile, i, prevNumShards, shardingFactor);
+
+                destroyOriginalDataElements(originalDataElements);
+            }
+        } else { // join existing shards
+            // Step 1: Join N data elements to create one, where N is the sharding factor. Each of the N shards is
+            // updated to reference the joined result with a new shardOrdinalShift, so reads land at the right
+            // ordinal in the joined data elements. The pre-join data elements can then be discarded.
+            for (int i=0; i<newNumShards; i++) {
+                HollowMapTypeDataElements destroyCandidates[] = joinCandidates(shardsVolatile.shards, i, shardingFactor);
+
+                shardsVolatile = joinDataElementsForOneShard(shardsVolatile, i, shardingFactor);
+
+                for (int j=0; j<shardingFactor; j++) {
+                    destroyOriginalDataElements(destroyCandidates[j]);
+                }
             }
-            deltaData.destroy();
-            stateEngine.getMemoryRecycler().swap();
+
+            // Step 2: Resize the shards array to only keep the first newNumShards shards.
+            shardsVolatile = new ShardsHolder(Arrays.copyOfRange(shardsVolatile.shards, 0, newNumShards));
+        }
+    }
+
+    private HollowMapTypeDataElements[] joinCandidates(HollowMapTypeReadStateShard[] shards, int indexIntoShards, int shardingFactor) {
+        HollowMapTypeDataElements[] result = new HollowMapTypeDataElements[shardingFactor];
+        int newNumShards = shards.length / shardingFactor;
+        for (int i=0; i<shardingFactor; i++) {
+            result[i] = shards[indexIntoShards + (newNumShards*i)].currentDataElements();
+        }
+        return result;
+    }
+
+    ShardsHolder joinDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int shardingFactor) throws IOException {
+        int newNumShards = shardsHolder.shards.length / shardingFactor;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowMapTypeDataElementsJoiner joiner = new HollowMapTypeDataElementsJoiner();
+        HollowMapTypeDataElements joined = joiner.join(joinCandidates(shardsHolder.shards, currentIndex, shardingFactor));
+
+        HollowMapTypeReadStateShard shard = new HollowMapTypeReadStateShard(joined, newShardOrdinalShift);
+        shard.setKeyDeriver(keyDeriver);
+        HollowMapTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (newNumShards*i)] = shard;
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder expandWithOriginalDataElements(ShardsHolder shardsHolder, int shardingFactor) {
+        int prevNumShards = shardsHolder.shards.length;
+        int newNumShards = prevNumShards * shardingFactor;
+        HollowMapTypeReadStateShard[] newShards = new HollowMapTypeReadStateShard[newNumShards];
+
+        for(int i=0; i<prevNumShards; i++) {
+            for (int j=0; j<shardingFactor; j++) {
+                newShards[i+(prevNumShards*j)] = shardsHolder.shards[i];
+            }
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder splitDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int prevNumShards, int shardingFactor) throws IOException {
+        int newNumShards = shardsHolder.shards.length;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowMapTypeDataElementsSplitter splitter = new HollowMapTypeDataElementsSplitter();
+        HollowMapTypeDataElements[] splits = splitter.split(shardsHolder.shards[currentIndex].currentDataElements(), shardingFactor);
+
+        HollowMapTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            HollowMapTypeReadStateShard shard = new HollowMapTypeReadStateShard(splits[i], newShardOrdinalShift);
+            shard.setKeyDeriver(keyDeriver);
+            newShards[currentIndex + (prevNumShards*i)] = shard;
         }
+        return new ShardsHolder(newShards);
+    }
 
-        if(shards.length == 1)
-            maxOrdinal = shards[0].currentDataElements().maxOrdinal;
+    private void destroyOriginalDataElements(HollowMapTypeDataElements dataElements) {
+        dataElements.destroy();
+        if (dataElements.encodedRemovals != null) {
+            dataElements.encodedRemovals.destroy();
+        }
     }
 
     public static void discardSnapshot(HollowBlobInput in, int numShards) throws IOException {
@@ -173,7 +308,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     public int size(int ordinal) {
         sampler.recordSize();
 
-        return shards[ordinal & shardNumberMask].size(ordinal >> shardOrdinalShift);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        int result;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            result = shard.size(ordinal >> shard.shardOrdinalShift);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
     }
 
     @Override
@@ -185,7 +330,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     public int get(int ordinal, int keyOrdinal, int hashCode) {
         sampler.recordGet();
         
-        return shards[ordinal & shardNumberMask].get(ordinal >> shardOrdinalShift, keyOrdinal, hashCode);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        int result;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            result = shard.get(ordinal >> shard.shardOrdinalShift, keyOrdinal, hashCode);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
     }
     
     @Override
@@ -200,7 +355,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         if(hashKey.length != fieldTypes.length)
             return ORDINAL_NONE;
 
-        return shards[ordinal & shardNumberMask].findKey(ordinal >> shardOrdinalShift, hashKey);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        int result;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            result = shard.findKey(ordinal >> shard.shardOrdinalShift, hashKey);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
     }
 
     @Override
@@ -220,7 +385,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         if(hashKey.length != fieldTypes.length)
             return -1L;
 
-        return shards[ordinal & shardNumberMask].findEntry(ordinal >> shardOrdinalShift, hashKey);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        long result;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            result = shard.findEntry(ordinal >> shard.shardOrdinalShift, hashKey);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
     }
 
     @Override
@@ -243,7 +418,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
 
     @Override
     public long relativeBucket(int ordinal, int bucketIndex) {
-        return shards[ordinal & shardNumberMask].relativeBucket(ordinal >> shardOrdinalShift, bucketIndex);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        long result;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            result = shard.relativeBucket(ordinal >> shard.shardOrdinalShift, bucketIndex);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
     }
 
     @Override
@@ -274,23 +459,23 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     @Override
     protected void invalidate() {
         stateListeners = EMPTY_LISTENERS;
-        for(int i=0; i<shards.length; i++)
-            shards[i].invalidate();
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            shardsVolatile.shards[i].invalidate();
     }
 
     HollowMapTypeDataElements[] currentDataElements() {
-        HollowMapTypeDataElements currentDataElements[] = new HollowMapTypeDataElements[shards.length];
+        HollowMapTypeDataElements currentDataElements[] = new HollowMapTypeDataElements[shardsVolatile.shards.length];
         
-        for(int i=0; i<shards.length; i++)
-            currentDataElements[i] = shards[i].currentDataElements();
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            currentDataElements[i] = shardsVolatile.shards[i].currentDataElements();
         
         return currentDataElements;
     }
 
     void setCurrentData(HollowMapTypeDataElements data) {
-        if(shards.length > 1)
+        if(shardsVolatile.shards.length > 1)
             throw new UnsupportedOperationException("Cannot directly set data on sharded type state");
-        shards[0].setCurrentData(data);
+        shardsVolatile.shards[0].setCurrentData(data);
         maxOrdinal = data.maxOrdinal;
     }
 
@@ -301,16 +486,16 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         
         BitSet populatedOrdinals = getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
 
-        for(int i=0; i<shards.length; i++)
-            shards[i].applyToChecksum(checksum, populatedOrdinals, i, shards.length);
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            shardsVolatile.shards[i].applyToChecksum(checksum, populatedOrdinals, i, shardsVolatile.shards.length);
     }
 
     @Override
     public long getApproximateHeapFootprintInBytes() {
         long totalApproximateHeapFootprintInBytes = 0;
         
-        for(int i=0; i<shards.length; i++)
-            totalApproximateHeapFootprintInBytes += shards[i].getApproximateHeapFootprintInBytes();
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            totalApproximateHeapFootprintInBytes += shardsVolatile.shards[i].getApproximateHeapFootprintInBytes();
         
         return totalApproximateHeapFootprintInBytes;
     }
@@ -321,8 +506,8 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         
         BitSet populatedOrdinals = getPopulatedOrdinals();
 
-        for(int i=0; i<shards.length; i++)
-            totalApproximateHoleCostInBytes += shards[i].getApproximateHoleCostInBytes(populatedOrdinals, i, shards.length);
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            totalApproximateHoleCostInBytes += shardsVolatile.shards[i].getApproximateHoleCostInBytes(populatedOrdinals, i, shardsVolatile.shards.length);
         
         return totalApproximateHoleCostInBytes;
     }
@@ -335,13 +520,23 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         if(getSchema().getHashKey() != null)
             this.keyDeriver = new HollowPrimaryKeyValueDeriver(getSchema().getHashKey(), getStateEngine());
         
-        for(int i=0; i<shards.length; i++)
-            shards[i].setKeyDeriver(keyDeriver);
+        for(int i=0; i<shardsVolatile.shards.length; i++)
+            shardsVolatile.shards[i].setKeyDeriver(keyDeriver);
+    }
+
+    private boolean readWasUnsafe(ShardsHolder shardsHolder, int ordinal, HollowMapTypeReadStateShard shard) {
+        // Use a load (acquire) fence so that the reads performed on the shard cannot be reordered below the volatile
+        // load of shardsVolatile, see HollowObjectTypeReadState for details. A read is only invalidated if the shard
+        // serving the ordinal was replaced by resharding, updates to the shard's data are validated by the shard.
+        HollowUnsafeHandle.getUnsafe().loadFence();
+        ShardsHolder currShardsHolder = shardsVolatile;
+        return shardsHolder != currShardsHolder
+            && (shard != currShardsHolder.shards[ordinal & currShardsHolder.shardNumberMask]);
     }
 
     @Override
     public int numShards() {
-        return shards.length;
+        return shardsVolatile.shards.length;
     }
 
 }
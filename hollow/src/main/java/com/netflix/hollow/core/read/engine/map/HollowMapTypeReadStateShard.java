@@ -29,8 +29,15 @@ class HollowMapTypeReadStateShard {
     
     private volatile HollowMapTypeDataElements currentDataVolatile;
 
+    final int shardOrdinalShift;
+
     private HollowPrimaryKeyValueDeriver keyDeriver;
 
+    HollowMapTypeReadStateShard(HollowMapTypeDataElements dataElements, int shardOrdinalShift) {
+        this.currentDataVolatile = dataElements;
+        this.shardOrdinalShift = shardOrdinalShift;
+    }
+
     public int size(int ordinal) {
         HollowMapTypeDataElements currentData;
         int size;
@@ -0,0 +1,220 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.object;
+
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
+import com.netflix.hollow.core.memory.FixedLengthData;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.ZigZag;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+
+/**
+ * Reads a single field of the records of a {@link HollowObjectTypeReadState}, with the location of the field in each
+ * shard resolved ahead of time.
+ * <p>
+ * A read of a fixed length field goes directly to the shard's data, using the bit offset and width of the field
+ * computed when the reader was last bound to the shards of the type state.  The reader is re-bound on the first read
+ * after the shards change, when a delta is applied or the type is resharded; a read which overlaps a change falls
+ * back to the type state, so reads are as safe during a delta as those of the type state.
+ * <p>
+ * Reads of STRING and BYTES fields are passed to the type state.  Reads of fixed length fields are not recorded by
+ * the type state's field access sampler.
+ *
+ * @see HollowObjectTypeReadState#createFieldReader(String)
+ */
+public final class HollowObjectFieldReader {
+
+    private static final Binding UNBOUND = new Binding();
+
+    private final HollowObjectTypeReadState typeState;
+    private final int fieldIndex;
+    private final FieldType fieldType;
+
+    private volatile Binding binding;
+
+    HollowObjectFieldReader(HollowObjectTypeReadState typeState, int fieldIndex) {
+        this.typeState = typeState;
+        this.fieldIndex = fieldIndex;
+        this.fieldType = typeState.getSchema().getFieldType(fieldIndex);
+        this.binding = UNBOUND;
+    }
+
+    /**
+     * @return the index of the field in the schema of the type state
+     */
+    public int getFieldIndex() {
+        return fieldIndex;
+    }
+
+    public int readOrdinal(int ordinal) {
+        Binding b = binding;
+        int shard = ordinal & b.shardNumberMask;
+        long value = b.fixedLengthData[shard].getElementValue(b.bitOffset(shard, ordinal), b.bitsPerField[shard]);
+        if(readWasUnsafe(b))
+            return rebind().typeState.readOrdinal(ordinal, fieldIndex);
+
+        if(value == b.nullValueForField[shard])
+            return ORDINAL_NONE;
+        return (int)value;
+    }
+
+    public int readInt(int ordinal) {
+        Binding b = binding;
+        int shard = ordinal & b.shardNumberMask;
+        long value = b.fixedLengthData[shard].getElementValue(b.bitOffset(shard, ordinal), b.bitsPerField[shard]);
+        if(readWasUnsafe(b))
+            return rebind().typeState.readInt(ordinal, fieldIndex);
+
+        if(value == b.nullValueForField[shard])
+            return Integer.MIN_VALUE;
+        return ZigZag.decodeInt((int)value);
+    }
+
+    public float readFloat(int ordinal) {
+        Binding b = binding;
+        int shard = ordinal & b.shardNumberMask;
+        int value = (int)b.fixedLengthData[shard].getElementValue(b.bitOffset(shard, ordinal), b.bitsPerField[shard]);
+        if(readWasUnsafe(b))
+            return rebind().typeState.readFloat(ordinal, fieldIndex);
+
+        if(value == HollowObjectWriteRecord.NULL_FLOAT_BITS)
+            return Float.NaN;
+        return Float.intBitsToFloat(value);
+    }
+
+    public double readDouble(int ordinal) {
+        Binding b = binding;
+        int shard = ordinal & b.shardNumberMask;
+        long value = b.fixedLengthData[shard].getLargeElementValue(b.bitOffset(shard, ordinal), 64, -1L);
+        if(readWasUnsafe(b))
+            return rebind().typeState.readDouble(ordinal, fieldIndex);
+
+        if(value == HollowObjectWriteRecord.NULL_DOUBLE_BITS)
+            return Double.NaN;
+        return Double.longBitsToDouble(value);
+    }
+
+    public long readLong(int ordinal) {
+        Binding b = binding;
+        int shard = ordinal & b.shardNumberMask;
+        long value = b.fixedLengthData[shard].getLargeElementValue(b.bitOffset(shard, ordinal), b.bitsPerField[shard]);
+        if(readWasUnsafe(b))
+            return rebind().typeState.readLong(ordinal, fieldIndex);
+
+        if(value == b.nullValueForField[shard])
+            return Long.MIN_VALUE;
+        return ZigZag.decodeLong(value);
+    }
+
+    public Boolean readBoolean(int ordinal) {
+        Binding b = binding;
+        int shard = ordinal & b.shardNumberMask;
+        long value = b.fixedLengthData[shard].getElementValue(b.bitOffset(shard, ordinal), b.bitsPerField[shard]);
+        if(readWasUnsafe(b))
+            return rebind().typeState.readBoolean(ordinal, fieldIndex);
+
+        if(value == b.nullValueForField[shard])
+            return null;
+        return value == 1 ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    public byte[] readBytes(int ordinal) {
+        return typeState.readBytes(ordinal, fieldIndex);
+    }
+
+    public String readString(int ordinal) {
+        return typeState.readString(ordinal, fieldIndex);
+    }
+
+    public boolean isStringFieldEqual(int ordinal, String testValue) {
+        return typeState.isStringFieldEqual(ordinal, fieldIndex, testValue);
+    }
+
+    private boolean readWasUnsafe(Binding b) {
+        // see HollowObjectTypeReadState.readWasUnsafe for why the fence is required
+        HollowUnsafeHandle.getUnsafe().loadFence();
+        return b.shardsHolder != typeState.shardsVolatile;
+    }
+
+    /**
+     * Bind to the current shards of the type state, for the next read.  Variable length fields are never bound, so
+     * that their reads always fall back to the type state.
+     */
+    private HollowObjectFieldReader rebind() {
+        HollowObjectTypeReadState.ShardsHolder shardsHolder = typeState.shardsVolatile;
+        if(shardsHolder != null && fieldType != FieldType.STRING && fieldType != FieldType.BYTES)
+            binding = new Binding(shardsHolder, fieldIndex);
+        return this;
+    }
+
+    /**
+     * The location of the field in each shard of a {@link HollowObjectTypeReadState.ShardsHolder}.
+     */
+    private static final class Binding {
+        private final Object shardsHolder;
+        private final int shardNumberMask;
+        private final FixedLengthData[] fixedLengthData;
+        private final int[] shardOrdinalShift;
+        private final long[] bitsPerRecord;
+        private final long[] bitOffsetOfField;
+        private final int[] bitsPerField;
+        private final long[] nullValueForField;
+
+        /**
+         * A binding to no shards, whose reads always fall back to the type state.
+         */
+        private Binding() {
+            this.shardsHolder = new Object();
+            this.shardNumberMask = 0;
+            this.fixedLengthData = new FixedLengthData[] { new FixedLengthElementArray(WastefulRecycler.SMALL_ARRAY_RECYCLER, 64) };
+            this.shardOrdinalShift = new int[] { 31 };
+            this.bitsPerRecord = new long[1];
+            this.bitOffsetOfField = new long[1];
+            this.bitsPerField = new int[] { 1 };
+            this.nullValueForField = new long[1];
+        }
+
+        private Binding(HollowObjectTypeReadState.ShardsHolder shardsHolder, int fieldIndex) {
+            HollowObjectTypeReadStateShard[] shards = shardsHolder.shards;
+            this.shardsHolder = shardsHolder;
+            this.shardNumberMask = shardsHolder.shardNumberMask;
+            this.fixedLengthData = new FixedLengthData[shards.length];
+            this.shardOrdinalShift = new int[shards.length];
+            this.bitsPerRecord = new long[shards.length];
+            this.bitOffsetOfField = new long[shards.length];
+            this.bitsPerField = new int[shards.length];
+            this.nullValueForField = new long[shards.length];
+            for(int i=0;i<shards.length;i++) {
+                HollowObjectTypeDataElements dataElements = shards[i].dataElements;
+                fixedLengthData[i] = dataElements.fixedLengthData;
+                shardOrdinalShift[i] = shards[i].shardOrdinalShift;
+                bitsPerRecord[i] = dataElements.bitsPerRecord;
+                bitOffsetOfField[i] = dataElements.bitOffsetPerField[fieldIndex];
+                bitsPerField[i] = dataElements.bitsPerField[fieldIndex];
+                nullValueForField[i] = dataElements.nullValueForField[fieldIndex];
+            }
+        }
+
+        private long bitOffset(int shard, int ordinal) {
+            return bitsPerRecord[shard] * (ordinal >> shardOrdinalShift[shard]) + bitOffsetOfField[shard];
+        }
+    }
+}
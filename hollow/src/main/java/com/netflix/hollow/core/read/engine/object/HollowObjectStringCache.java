@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the Strings read from a STRING field of a {@link HollowObjectTypeReadState}, which avoids
+ * allocating a new String each time a field value is read.
+ * <p>
+ * The cache is a direct-mapped table of Strings, in which each value's slot is chosen by the offset of its encoded
+ * characters.  No key is held for a slot: a cached String is returned only if it is equal to the characters encoded
+ * at the offset being read, which is checked without allocation.  A cached String therefore can never be returned
+ * for the wrong value, even while a delta is being applied, and the cache is cleared after each delta to release the
+ * Strings of the previous state.
+ * <p>
+ * The cache holds at most {@link #getCapacity()} Strings, each no longer than {@link #getMaxStringLength()}.
+ *
+ * @see HollowObjectTypeReadState#enableStringCache(String, int, int)
+ */
+public class HollowObjectStringCache implements HollowTypeStateListener {
+
+    private final String[] strings;
+    private final int mask;
+    private final int maxStringLength;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    HollowObjectStringCache(int capacity, int maxStringLength) {
+        if(capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30; capacity=" + capacity);
+        if(maxStringLength < 0)
+            throw new IllegalArgumentException("maxStringLength cannot be negative; maxStringLength=" + maxStringLength);
+
+        int tableSize = Integer.highestOneBit(capacity);
+        if(tableSize < capacity)
+            tableSize <<= 1;
+        this.strings = new String[tableSize];
+        this.mask = tableSize - 1;
+        this.maxStringLength = maxStringLength;
+    }
+
+    String readString(HollowObjectTypeReadStateShard shard, int shardNumber, long startByte, long endByte, int numBitsForField, int fieldIndex) {
+        if((endByte & (1L << numBitsForField - 1)) != 0)
+            return null;
+
+        int slot = HashCodes.hashLong(startByte ^ ((long) shardNumber << 48)) & mask;
+        String cached = strings[slot];
+        if(cached != null && shard.isStringFieldEqual(startByte, endByte, numBitsForField, fieldIndex, cached)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        String value = shard.readString(startByte, endByte, numBitsForField, fieldIndex);
+        if(value.length() <= maxStringLength)
+            strings[slot] = value;
+        return value;
+    }
+
+    /**
+     * @return the maximum number of Strings held by the cache
+     */
+    public int getCapacity() {
+        return strings.length;
+    }
+
+    /**
+     * @return the length of the longest String which will be cached
+     */
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    /**
+     * @return the number of non-null field values which were read from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of non-null field values which were decoded because they were not in the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Remove all Strings from the cache.
+     */
+    public void clear() {
+        Arrays.fill(strings, null);
+    }
+
+    @Override
+    public void beginUpdate() { }
+
+    @Override
+    public void addedOrdinal(int ordinal) { }
+
+    @Override
+    public void removedOrdinal(int ordinal) { }
+
+    @Override
+    public void endUpdate() {
+        clear();
+    }
+}
@@ -19,6 +19,7 @@ package com.netflix.hollow.core.read.engine.object;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryRemapper;
 import com.netflix.hollow.core.memory.VariableLengthData;
 import com.netflix.hollow.core.memory.VariableLengthDataFactory;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
@@ -27,6 +28,7 @@ import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -57,12 +59,24 @@ public class HollowObjectTypeDataElements {
 
     final ArraySegmentRecycler memoryRecycler;
     final MemoryMode memoryMode;
+    final File sharedMemoryStagingDirectory;
 
     public HollowObjectTypeDataElements(HollowObjectSchema schema, ArraySegmentRecycler memoryRecycler) {
         this(schema, MemoryMode.ON_HEAP, memoryRecycler);
     }
 
     public HollowObjectTypeDataElements(HollowObjectSchema schema, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
+        this(schema, memoryMode, memoryRecycler, null);
+    }
+
+    /**
+     * @param schema the schema of the type
+     * @param memoryMode the memory mode of the data
+     * @param memoryRecycler the recycler of on heap segments
+     * @param sharedMemoryStagingDirectory the directory in which data is staged when it is remapped into shared memory,
+     *                                     or null for the default temporary-file directory
+     */
+    public HollowObjectTypeDataElements(HollowObjectSchema schema, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler, File sharedMemoryStagingDirectory) {
         varLengthData = new VariableLengthData[schema.numFields()];
         bitsPerField = new int[schema.numFields()];
         bitOffsetPerField = new int[schema.numFields()];
@@ -70,6 +84,7 @@ public class HollowObjectTypeDataElements {
         this.schema = schema;
         this.memoryMode = memoryMode;
         this.memoryRecycler = memoryRecycler;
+        this.sharedMemoryStagingDirectory = sharedMemoryStagingDirectory;
     }
 
     void readSnapshot(HollowBlobInput in, HollowObjectSchema unfilteredSchema) throws IOException {
@@ -92,6 +107,8 @@ public class HollowObjectTypeDataElements {
 
         fixedLengthData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
         removeExcludedFieldsFromFixedLengthData();
+        if(memoryMode.isSharedMemory() && bitsPerField.length < bitsPerUnfilteredField.length)
+            remapFixedLengthDataToSharedMemory();
 
         readVarLengthData(in, unfilteredSchema);
     }
@@ -199,8 +216,50 @@ public class HollowObjectTypeDataElements {
         }
     }
 
-    void applyDelta(HollowObjectTypeDataElements fromData, HollowObjectTypeDataElements deltaData) {
+    void applyDelta(HollowObjectTypeDataElements fromData, HollowObjectTypeDataElements deltaData) throws IOException {
         new HollowObjectDeltaApplicator(fromData, deltaData, this).applyDelta();
+        if(!memoryMode.equals(MemoryMode.ON_HEAP))
+            remapToSharedMemory();
+    }
+
+    /**
+     * Moves data assembled on heap (by a delta transition or a re-shard) back into virtual memory.
+     */
+    void remapToSharedMemory() throws IOException {
+        try(SharedMemoryRemapper remapper = new SharedMemoryRemapper(memoryMode, sharedMemoryStagingDirectory)) {
+            remapper.write(fixedLengthData, (long)bitsPerRecord * (maxOrdinal + 1));
+            for(int i=0;i<varLengthData.length;i++) {
+                if(varLengthData[i] != null)
+                    remapper.write(varLengthData[i], maxOrdinal < 0 ? 0 : varLengthEndByte(this, maxOrdinal, i));
+            }
+
+            HollowBlobInput in = remapper.map();
+            FixedLengthData stagedFixedLengthData = fixedLengthData;
+            fixedLengthData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedFixedLengthData, memoryRecycler);
+            for(int i=0;i<varLengthData.length;i++) {
+                if(varLengthData[i] != null) {
+                    VariableLengthData stagedVarLengthData = varLengthData[i];
+                    varLengthData[i] = SharedMemoryRemapper.readVariableLengthData(in, memoryMode, memoryRecycler);
+                    VariableLengthDataFactory.destroy(stagedVarLengthData);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the fixed length data of a filtered snapshot, which only retains the included fields, back into
+     * virtual memory.
+     */
+    private void remapFixedLengthDataToSharedMemory() throws IOException {
+        try(SharedMemoryRemapper remapper = new SharedMemoryRemapper(memoryMode, sharedMemoryStagingDirectory)) {
+            remapper.write(fixedLengthData, (long)bitsPerRecord * (maxOrdinal + 1));
+
+            HollowBlobInput in = remapper.map();
+            FixedLengthData stagedFixedLengthData = fixedLengthData;
+            fixedLengthData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedFixedLengthData, memoryRecycler);
+        }
     }
 
     public void destroy() {
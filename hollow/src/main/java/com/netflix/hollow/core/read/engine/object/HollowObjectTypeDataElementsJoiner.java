@@ -5,8 +5,10 @@ import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataEle
 import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataElements.writeNullField;
 
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.VariableLengthDataFactory;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
 
 
 /**
@@ -17,7 +19,7 @@ import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerRe
  */
 class HollowObjectTypeDataElementsJoiner {
 
-    HollowObjectTypeDataElements join(HollowObjectTypeDataElements[] from) {
+    HollowObjectTypeDataElements join(HollowObjectTypeDataElements[] from) throws IOException {
         final int fromMask = from.length - 1;
         final int fromOrdinalShift = 31 - Integer.numberOfLeadingZeros(from.length);
         long[] currentWriteVarLengthDataPointers;
@@ -26,7 +28,7 @@ class HollowObjectTypeDataElementsJoiner {
             throw new IllegalStateException("No. of DataElements to be joined must be a power of 2");
         }
 
-        HollowObjectTypeDataElements to = new HollowObjectTypeDataElements(from[0].schema, from[0].memoryMode, from[0].memoryRecycler);
+        HollowObjectTypeDataElements to = new HollowObjectTypeDataElements(from[0].schema, from[0].memoryMode, from[0].memoryRecycler, from[0].sharedMemoryStagingDirectory);
         currentWriteVarLengthDataPointers = new long[from[0].schema.numFields()];
 
         populateStats(to, from);
@@ -57,6 +59,9 @@ class HollowObjectTypeDataElementsJoiner {
             }
         }
 
+        if(!to.memoryMode.equals(MemoryMode.ON_HEAP))
+            to.remapToSharedMemory();
+
         return to;
     }
 
@@ -86,7 +91,7 @@ class HollowObjectTypeDataElementsJoiner {
         for(int fieldIdx=0;fieldIdx<to.schema.numFields();fieldIdx++) {
             for(int i=0;i<from.length;i++) {
                 if(from[i].varLengthData[fieldIdx] != null) { // if any of the join candidates have var len data set for this field
-                    to.varLengthData[fieldIdx] = VariableLengthDataFactory.get(to.memoryMode, to.memoryRecycler);
+                    to.varLengthData[fieldIdx] = VariableLengthDataFactory.allocate(to.memoryMode, to.memoryRecycler);
                     break;
                 }
             }
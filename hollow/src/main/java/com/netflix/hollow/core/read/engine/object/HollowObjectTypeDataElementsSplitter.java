@@ -4,8 +4,10 @@ import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataEle
 import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataElements.varLengthSize;
 
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.VariableLengthDataFactory;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
 
 /**
  * Split a {@code HollowObjectTypeDataElements} into multiple {@code HollowObjectTypeDataElements}s.
@@ -15,7 +17,7 @@ import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerRe
  */
 public class HollowObjectTypeDataElementsSplitter {
 
-    HollowObjectTypeDataElements[] split(HollowObjectTypeDataElements from, int numSplits) {
+    HollowObjectTypeDataElements[] split(HollowObjectTypeDataElements from, int numSplits) throws IOException {
         final int toMask = numSplits - 1;
         final int toOrdinalShift = 31 - Integer.numberOfLeadingZeros(numSplits);
         final long[][] currentWriteVarLengthDataPointers;
@@ -26,7 +28,7 @@ public class HollowObjectTypeDataElementsSplitter {
 
         HollowObjectTypeDataElements[] to = new HollowObjectTypeDataElements[numSplits];
         for(int i=0;i<to.length;i++) {
-            to[i] = new HollowObjectTypeDataElements(from.schema, from.memoryMode, from.memoryRecycler);
+            to[i] = new HollowObjectTypeDataElements(from.schema, from.memoryMode, from.memoryRecycler, from.sharedMemoryStagingDirectory);
             to[i].maxOrdinal = -1;
         }
         currentWriteVarLengthDataPointers = new long[numSplits][from.schema.numFields()];
@@ -49,7 +51,7 @@ public class HollowObjectTypeDataElementsSplitter {
             to[i].fixedLengthData = FixedLengthDataFactory.get((long)to[i].bitsPerRecord * (to[i].maxOrdinal + 1), to[i].memoryMode, to[i].memoryRecycler);
             for(int fieldIdx=0;fieldIdx<from.schema.numFields();fieldIdx++) {
                 if(from.varLengthData[fieldIdx] != null) {
-                    to[i].varLengthData[fieldIdx] = VariableLengthDataFactory.get(from.memoryMode, from.memoryRecycler);
+                    to[i].varLengthData[fieldIdx] = VariableLengthDataFactory.allocate(from.memoryMode, from.memoryRecycler);
                 }
             }
         }
@@ -59,6 +61,11 @@ public class HollowObjectTypeDataElementsSplitter {
             int toOrdinal = i >> toOrdinalShift;
             copyRecord(to[toIndex], toOrdinal, from, i, currentWriteVarLengthDataPointers[toIndex]);
         }
+
+        if(!from.memoryMode.equals(MemoryMode.ON_HEAP)) {
+            for(int i=0;i<to.length;i++)
+                to[i].remapToSharedMemory();
+        }
         return to;
     }
 
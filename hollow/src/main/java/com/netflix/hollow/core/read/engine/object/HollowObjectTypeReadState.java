@@ -35,12 +35,15 @@ import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.engine.SnapshotPopulatedOrdinalsReader;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.Executor;
 
 /**
  * A {@link HollowTypeReadState} for OBJECT type records. 
@@ -51,6 +54,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
     private final HollowObjectSampler sampler;
     private int maxOrdinal;
     volatile ShardsHolder shardsVolatile;
+    private volatile HollowObjectStringCache[] stringCaches;
 
     static class ShardsHolder {
         final HollowObjectTypeReadStateShard shards[];
@@ -116,7 +120,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         HollowObjectTypeReadStateShard[] newShards = new HollowObjectTypeReadStateShard[numShards];
         int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
         for(int i=0; i<numShards; i++) {
-            HollowObjectTypeDataElements shardDataElements = new HollowObjectTypeDataElements(getSchema(), memoryMode, memoryRecycler);
+            HollowObjectTypeDataElements shardDataElements = new HollowObjectTypeDataElements(getSchema(), memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
             shardDataElements.readSnapshot(in, unfilteredSchema);
             newShards[i] = new HollowObjectTypeReadStateShard(getSchema(), shardDataElements, shardOrdinalShift);
         }
@@ -130,6 +134,11 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
 
     @Override
     public void applyDelta(HollowBlobInput in, HollowSchema deltaSchema, ArraySegmentRecycler memoryRecycler, int deltaNumShards) throws IOException {
+        applyDelta(in, deltaSchema, memoryRecycler, deltaNumShards, null);
+    }
+
+    @Override
+    public void applyDelta(HollowBlobInput in, HollowSchema deltaSchema, ArraySegmentRecycler memoryRecycler, int deltaNumShards, Executor executor) throws IOException {
         if (shouldReshard(shardsVolatile.shards.length, deltaNumShards)) {
             reshard(deltaNumShards);
         }
@@ -137,63 +146,68 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
             maxOrdinal = VarInt.readVInt(in);
 
         for(int i=0; i<shardsVolatile.shards.length; i++) {
-            HollowObjectTypeDataElements deltaData = new HollowObjectTypeDataElements((HollowObjectSchema)deltaSchema, memoryMode, memoryRecycler);
+            HollowObjectTypeDataElements deltaData = new HollowObjectTypeDataElements((HollowObjectSchema)deltaSchema, memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
             deltaData.readDelta(in);
-            if(stateEngine.isSkipTypeShardUpdateWithNoAdditions() && deltaData.encodedAdditions.isEmpty()) {
+            if(executor == null) {
+                applyDeltaToShard(i, deltaData, memoryRecycler);
+                stateEngine.getMemoryRecycler().swap();
+            } else {
+                int shardIndex = i;
+                executor.execute(() -> {
+                    try {
+                        applyDeltaToShard(shardIndex, deltaData, memoryRecycler);
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    private void applyDeltaToShard(int i, HollowObjectTypeDataElements deltaData, ArraySegmentRecycler memoryRecycler) throws IOException {
+        if(stateEngine.isSkipTypeShardUpdateWithNoAdditions() && deltaData.encodedAdditions.isEmpty()) {
 
-                if(!deltaData.encodedRemovals.isEmpty())
-                    notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
+            if(!deltaData.encodedRemovals.isEmpty())
+                notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
 
-                HollowObjectTypeDataElements currentData = shardsVolatile.shards[i].dataElements;
-                GapEncodedVariableLengthIntegerReader oldRemovals = currentData.encodedRemovals == null ? GapEncodedVariableLengthIntegerReader.EMPTY_READER : currentData.encodedRemovals;
-                if(oldRemovals.isEmpty()) {
-                    currentData.encodedRemovals = deltaData.encodedRemovals;
+            HollowObjectTypeDataElements currentData = shardsVolatile.shards[i].dataElements;
+            GapEncodedVariableLengthIntegerReader oldRemovals = currentData.encodedRemovals == null ? GapEncodedVariableLengthIntegerReader.EMPTY_READER : currentData.encodedRemovals;
+            if(oldRemovals.isEmpty()) {
+                currentData.encodedRemovals = deltaData.encodedRemovals;
+                oldRemovals.destroy();
+            } else {
+                if(!deltaData.encodedRemovals.isEmpty()) {
+                    currentData.encodedRemovals = GapEncodedVariableLengthIntegerReader.combine(oldRemovals, deltaData.encodedRemovals, memoryRecycler);
                     oldRemovals.destroy();
-                } else {
-                    if(!deltaData.encodedRemovals.isEmpty()) {
-                        currentData.encodedRemovals = GapEncodedVariableLengthIntegerReader.combine(oldRemovals, deltaData.encodedRemovals, memoryRecycler);
-                        oldRemovals.destroy();
-                    }
-                    deltaData.encodedRemovals.destroy();
                 }
+                deltaData.encodedRemovals.destroy();
+            }
 
-                deltaData.encodedAdditions.destroy();
-            } else {
-                HollowObjectTypeDataElements nextData = new HollowObjectTypeDataElements(getSchema(), memoryMode, memoryRecycler);
-                HollowObjectTypeDataElements oldData = shardsVolatile.shards[i].dataElements;
-                nextData.applyDelta(oldData, deltaData);
+            deltaData.encodedAdditions.destroy();
+        } else {
+            HollowObjectTypeDataElements nextData = new HollowObjectTypeDataElements(getSchema(), memoryMode, memoryRecycler, stateEngine.getSharedMemoryStagingDirectory());
+            HollowObjectTypeDataElements oldData = shardsVolatile.shards[i].dataElements;
+            nextData.applyDelta(oldData, deltaData);
 
-                HollowObjectTypeReadStateShard newShard = new HollowObjectTypeReadStateShard(getSchema(), nextData, shardsVolatile.shards[i].shardOrdinalShift);
-                shardsVolatile = new ShardsHolder(shardsVolatile.shards, newShard, i);
+            HollowObjectTypeReadStateShard newShard = new HollowObjectTypeReadStateShard(getSchema(), nextData, shardsVolatile.shards[i].shardOrdinalShift);
+            replaceShard(newShard, i);
 
-                notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
-                deltaData.encodedAdditions.destroy();
-                oldData.destroy();
-            }
-            deltaData.destroy();
-            stateEngine.getMemoryRecycler().swap();
+            notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shardsVolatile.shards.length);
+            deltaData.encodedAdditions.destroy();
+            oldData.destroy();
         }
+        deltaData.destroy();
 
         if(shardsVolatile.shards.length == 1)
             maxOrdinal = shardsVolatile.shards[0].dataElements.maxOrdinal;
     }
 
     /**
-     * Given old and new numShards, this method returns the shard resizing multiplier.
+     * Shards may be updated concurrently by a parallel delta transition, in which case each update must see the
+     * shards replaced by the others.
      */
-    static int shardingFactor(int oldNumShards, int newNumShards) {
-        if (newNumShards <= 0 || oldNumShards <= 0 || newNumShards == oldNumShards) {
-            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
-        }
-
-        boolean isNewGreater = newNumShards > oldNumShards;
-        int dividend = isNewGreater ? newNumShards : oldNumShards;
-        int divisor = isNewGreater ? oldNumShards : newNumShards;
-
-        if (dividend % divisor != 0) {
-            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
-        }
-        return dividend / divisor;
+    private synchronized void replaceShard(HollowObjectTypeReadStateShard newShard, int shardIndex) {
+        shardsVolatile = new ShardsHolder(shardsVolatile.shards, newShard, shardIndex);
     }
 
     /**
@@ -202,7 +216,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
      *
      * @param newNumShards The desired number of shards
      */
-    void reshard(int newNumShards) {
+    void reshard(int newNumShards) throws IOException {
         int prevNumShards = shardsVolatile.shards.length;
         int shardingFactor = shardingFactor(prevNumShards, newNumShards);
         HollowObjectTypeDataElements[] newDataElements;
@@ -279,7 +293,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return result;
     }
 
-    ShardsHolder joinDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int shardingFactor) {
+    ShardsHolder joinDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int shardingFactor) throws IOException {
         int newNumShards = shardsHolder.shards.length / shardingFactor;
         int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
 
@@ -307,7 +321,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return new ShardsHolder(newShards);
     }
 
-    ShardsHolder splitDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int prevNumShards, int shardingFactor) {
+    ShardsHolder splitDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int prevNumShards, int shardingFactor) throws IOException {
         int newNumShards = shardsHolder.shards.length;
         int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
 
@@ -520,6 +534,9 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
     public String readString(int ordinal, int fieldIndex) {
         sampler.recordFieldAccess(fieldIndex);
 
+        HollowObjectStringCache[] stringCaches = this.stringCaches;
+        HollowObjectStringCache stringCache = stringCaches == null ? null : stringCaches[fieldIndex];
+
         HollowObjectTypeReadState.ShardsHolder shardsHolder;
         HollowObjectTypeReadStateShard shard;
         String result;
@@ -541,7 +558,8 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
                 startByte = shardOrdinal != 0 ? shard.dataElements.fixedLengthData.getElementValue(currentBitOffset - shard.dataElements.bitsPerRecord, numBitsForField) : 0;
             } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
-            result = shard.readString(startByte, endByte, numBitsForField, fieldIndex);
+            result = stringCache == null ? shard.readString(startByte, endByte, numBitsForField, fieldIndex)
+                    : stringCache.readString(shard, ordinal & shardsHolder.shardNumberMask, startByte, endByte, numBitsForField, fieldIndex);
         } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
         return result;
@@ -549,6 +567,19 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
 
     @Override
     public boolean isStringFieldEqual(int ordinal, int fieldIndex, String testValue) {
+        return isStringFieldEqual(ordinal, fieldIndex, (CharSequence) testValue);
+    }
+
+    /**
+     * Determine whether a STRING field is equal to a sequence of characters, without the characters needing to be
+     * held in a String.
+     *
+     * @param ordinal the ordinal of the record
+     * @param fieldIndex the index of the STRING field
+     * @param testValue the characters to test, or null to test whether the field is null
+     * @return true if the field is equal to the characters
+     */
+    public boolean isStringFieldEqual(int ordinal, int fieldIndex, CharSequence testValue) {
         sampler.recordFieldAccess(fieldIndex);
 
         HollowObjectTypeReadState.ShardsHolder shardsHolder;
@@ -609,6 +640,263 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return hashCode;
     }
 
+    /**
+     * Read the values of an INT field for a range of ordinals.  This is equivalent to, but much faster than, calling
+     * {@link #readInt(int, int)} for each ordinal in the range.  Null values, and ordinals beyond the max ordinal, are
+     * read as {@code Integer.MIN_VALUE}.
+     *
+     * @param fieldIndex the index of an INT field
+     * @param fromOrdinal the first ordinal of the range
+     * @param length the number of ordinals in the range
+     * @param values the array to populate with the value of each ordinal, starting at index zero
+     * @throws IllegalArgumentException if the field is not an INT field
+     */
+    public void readInts(int fieldIndex, int fromOrdinal, int length, int[] values) {
+        checkRangeRead(fieldIndex, FieldType.INT, fromOrdinal, length, values.length);
+        readRuns(fromOrdinal, length, (shard, shardOrdinal, ordinalStride, count, offset, valueStride) ->
+                shard.readInts(fieldIndex, shardOrdinal, ordinalStride, count, values, offset, valueStride));
+    }
+
+    /**
+     * Read the values of a REFERENCE field for a range of ordinals.  This is equivalent to, but much faster than,
+     * calling {@link #readOrdinal(int, int)} for each ordinal in the range.  Null references, and ordinals beyond the
+     * max ordinal, are read as {@code ORDINAL_NONE}.
+     *
+     * @param fieldIndex the index of a REFERENCE field
+     * @param fromOrdinal the first ordinal of the range
+     * @param length the number of ordinals in the range
+     * @param values the array to populate with the referenced ordinal of each ordinal, starting at index zero
+     * @throws IllegalArgumentException if the field is not a REFERENCE field
+     */
+    public void readOrdinals(int fieldIndex, int fromOrdinal, int length, int[] values) {
+        checkRangeRead(fieldIndex, FieldType.REFERENCE, fromOrdinal, length, values.length);
+        readRuns(fromOrdinal, length, (shard, shardOrdinal, ordinalStride, count, offset, valueStride) ->
+                shard.readOrdinals(fieldIndex, shardOrdinal, ordinalStride, count, values, offset, valueStride));
+    }
+
+    /**
+     * Read the values of a LONG field for a range of ordinals.  This is equivalent to, but much faster than, calling
+     * {@link #readLong(int, int)} for each ordinal in the range.  Null values, and ordinals beyond the max ordinal, are
+     * read as {@code Long.MIN_VALUE}.
+     *
+     * @param fieldIndex the index of a LONG field
+     * @param fromOrdinal the first ordinal of the range
+     * @param length the number of ordinals in the range
+     * @param values the array to populate with the value of each ordinal, starting at index zero
+     * @throws IllegalArgumentException if the field is not a LONG field
+     */
+    public void readLongs(int fieldIndex, int fromOrdinal, int length, long[] values) {
+        checkRangeRead(fieldIndex, FieldType.LONG, fromOrdinal, length, values.length);
+        readRuns(fromOrdinal, length, (shard, shardOrdinal, ordinalStride, count, offset, valueStride) ->
+                shard.readLongs(fieldIndex, shardOrdinal, ordinalStride, count, values, offset, valueStride));
+    }
+
+    /**
+     * Read the values of a FLOAT field for a range of ordinals.  This is equivalent to, but much faster than, calling
+     * {@link #readFloat(int, int)} for each ordinal in the range.  Null values, and ordinals beyond the max ordinal,
+     * are read as {@code Float.NaN}.
+     *
+     * @param fieldIndex the index of a FLOAT field
+     * @param fromOrdinal the first ordinal of the range
+     * @param length the number of ordinals in the range
+     * @param values the array to populate with the value of each ordinal, starting at index zero
+     * @throws IllegalArgumentException if the field is not a FLOAT field
+     */
+    public void readFloats(int fieldIndex, int fromOrdinal, int length, float[] values) {
+        checkRangeRead(fieldIndex, FieldType.FLOAT, fromOrdinal, length, values.length);
+        readRuns(fromOrdinal, length, (shard, shardOrdinal, ordinalStride, count, offset, valueStride) ->
+                shard.readFloats(fieldIndex, shardOrdinal, ordinalStride, count, values, offset, valueStride));
+    }
+
+    /**
+     * Read the values of a DOUBLE field for a range of ordinals.  This is equivalent to, but much faster than, calling
+     * {@link #readDouble(int, int)} for each ordinal in the range.  Null values, and ordinals beyond the max ordinal,
+     * are read as {@code Double.NaN}.
+     *
+     * @param fieldIndex the index of a DOUBLE field
+     * @param fromOrdinal the first ordinal of the range
+     * @param length the number of ordinals in the range
+     * @param values the array to populate with the value of each ordinal, starting at index zero
+     * @throws IllegalArgumentException if the field is not a DOUBLE field
+     */
+    public void readDoubles(int fieldIndex, int fromOrdinal, int length, double[] values) {
+        checkRangeRead(fieldIndex, FieldType.DOUBLE, fromOrdinal, length, values.length);
+        readRuns(fromOrdinal, length, (shard, shardOrdinal, ordinalStride, count, offset, valueStride) ->
+                shard.readDoubles(fieldIndex, shardOrdinal, ordinalStride, count, values, offset, valueStride));
+    }
+
+    /**
+     * Scan the values of an INT field for a set of ordinals, such as the populated ordinals, in ascending ordinal
+     * order.  The values are read in runs with {@link #readInts(int, int, int, int[])}, so a scan is most efficient
+     * when the ordinals are dense.
+     *
+     * @param fieldIndex the index of an INT field
+     * @param ordinals the ordinals to scan
+     * @param consumer receives each ordinal and its value, or {@code Integer.MIN_VALUE} if null
+     * @throws IllegalArgumentException if the field is not an INT field
+     */
+    public void scanInts(int fieldIndex, BitSet ordinals, IntFieldValueConsumer consumer) {
+        int[] values = new int[SCAN_RUN_LENGTH];
+        scanRuns(ordinals, (fromOrdinal, length) -> {
+            readInts(fieldIndex, fromOrdinal, length, values);
+            for(int ordinal = fromOrdinal; ordinal != ORDINAL_NONE && ordinal < fromOrdinal + length; ordinal = ordinals.nextSetBit(ordinal + 1))
+                consumer.accept(ordinal, values[ordinal - fromOrdinal]);
+        });
+    }
+
+    /**
+     * Scan the values of a REFERENCE field for a set of ordinals, as for {@link #scanInts(int, BitSet, IntFieldValueConsumer)}.
+     *
+     * @param fieldIndex the index of a REFERENCE field
+     * @param ordinals the ordinals to scan
+     * @param consumer receives each ordinal and its referenced ordinal, or {@code ORDINAL_NONE} if null
+     * @throws IllegalArgumentException if the field is not a REFERENCE field
+     */
+    public void scanOrdinals(int fieldIndex, BitSet ordinals, IntFieldValueConsumer consumer) {
+        int[] values = new int[SCAN_RUN_LENGTH];
+        scanRuns(ordinals, (fromOrdinal, length) -> {
+            readOrdinals(fieldIndex, fromOrdinal, length, values);
+            for(int ordinal = fromOrdinal; ordinal != ORDINAL_NONE && ordinal < fromOrdinal + length; ordinal = ordinals.nextSetBit(ordinal + 1))
+                consumer.accept(ordinal, values[ordinal - fromOrdinal]);
+        });
+    }
+
+    /**
+     * Scan the values of a LONG field for a set of ordinals, as for {@link #scanInts(int, BitSet, IntFieldValueConsumer)}.
+     *
+     * @param fieldIndex the index of a LONG field
+     * @param ordinals the ordinals to scan
+     * @param consumer receives each ordinal and its value, or {@code Long.MIN_VALUE} if null
+     * @throws IllegalArgumentException if the field is not a LONG field
+     */
+    public void scanLongs(int fieldIndex, BitSet ordinals, LongFieldValueConsumer consumer) {
+        long[] values = new long[SCAN_RUN_LENGTH];
+        scanRuns(ordinals, (fromOrdinal, length) -> {
+            readLongs(fieldIndex, fromOrdinal, length, values);
+            for(int ordinal = fromOrdinal; ordinal != ORDINAL_NONE && ordinal < fromOrdinal + length; ordinal = ordinals.nextSetBit(ordinal + 1))
+                consumer.accept(ordinal, values[ordinal - fromOrdinal]);
+        });
+    }
+
+    /**
+     * Scan the values of a FLOAT field for a set of ordinals, as for {@link #scanInts(int, BitSet, IntFieldValueConsumer)}.
+     *
+     * @param fieldIndex the index of a FLOAT field
+     * @param ordinals the ordinals to scan
+     * @param consumer receives each ordinal and its value, or {@code Float.NaN} if null
+     * @throws IllegalArgumentException if the field is not a FLOAT field
+     */
+    public void scanFloats(int fieldIndex, BitSet ordinals, FloatFieldValueConsumer consumer) {
+        float[] values = new float[SCAN_RUN_LENGTH];
+        scanRuns(ordinals, (fromOrdinal, length) -> {
+            readFloats(fieldIndex, fromOrdinal, length, values);
+            for(int ordinal = fromOrdinal; ordinal != ORDINAL_NONE && ordinal < fromOrdinal + length; ordinal = ordinals.nextSetBit(ordinal + 1))
+                consumer.accept(ordinal, values[ordinal - fromOrdinal]);
+        });
+    }
+
+    /**
+     * Scan the values of a DOUBLE field for a set of ordinals, as for {@link #scanInts(int, BitSet, IntFieldValueConsumer)}.
+     *
+     * @param fieldIndex the index of a DOUBLE field
+     * @param ordinals the ordinals to scan
+     * @param consumer receives each ordinal and its value, or {@code Double.NaN} if null
+     * @throws IllegalArgumentException if the field is not a DOUBLE field
+     */
+    public void scanDoubles(int fieldIndex, BitSet ordinals, DoubleFieldValueConsumer consumer) {
+        double[] values = new double[SCAN_RUN_LENGTH];
+        scanRuns(ordinals, (fromOrdinal, length) -> {
+            readDoubles(fieldIndex, fromOrdinal, length, values);
+            for(int ordinal = fromOrdinal; ordinal != ORDINAL_NONE && ordinal < fromOrdinal + length; ordinal = ordinals.nextSetBit(ordinal + 1))
+                consumer.accept(ordinal, values[ordinal - fromOrdinal]);
+        });
+    }
+
+    @FunctionalInterface
+    public interface IntFieldValueConsumer {
+        void accept(int ordinal, int value);
+    }
+
+    @FunctionalInterface
+    public interface LongFieldValueConsumer {
+        void accept(int ordinal, long value);
+    }
+
+    @FunctionalInterface
+    public interface FloatFieldValueConsumer {
+        void accept(int ordinal, float value);
+    }
+
+    @FunctionalInterface
+    public interface DoubleFieldValueConsumer {
+        void accept(int ordinal, double value);
+    }
+
+    /// the maximum number of ordinals read at once by a scan
+    private static final int SCAN_RUN_LENGTH = 1024;
+
+    private interface ShardRunReader {
+        void read(HollowObjectTypeReadStateShard shard, int fromShardOrdinal, int ordinalStride, int count, int offset, int valueStride);
+    }
+
+    private interface RunScanner {
+        void scan(int fromOrdinal, int length);
+    }
+
+    private void checkRangeRead(int fieldIndex, FieldType fieldType, int fromOrdinal, int length, int valuesLength) {
+        if(getSchema().getFieldType(fieldIndex) != fieldType)
+            throw new IllegalArgumentException("Field " + getSchema().getFieldName(fieldIndex) + " of type " + getSchema().getName()
+                    + " is not a " + fieldType + " field");
+        if(fromOrdinal < 0 || length < 0 || length > valuesLength)
+            throw new IllegalArgumentException("Invalid range; fromOrdinal=" + fromOrdinal + ", length=" + length + ", values=" + valuesLength);
+        sampler.recordFieldAccess(fieldIndex);
+    }
+
+    /**
+     * Read a range of ordinals as one run of records per shard.  Consecutive ordinals of a run are {@code numShards}
+     * apart, so they are read into every {@code numShards}th value.
+     */
+    private void readRuns(int fromOrdinal, int length, ShardRunReader reader) {
+        ShardsHolder shardsHolder;
+        do {
+            shardsHolder = this.shardsVolatile;
+            int numShards = shardsHolder.shards.length;
+            for(int i=0;i<numShards && i<length;i++) {
+                int ordinal = fromOrdinal + i;
+                HollowObjectTypeReadStateShard shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+                // while resharding, a shard of fewer shards may be referenced from more than one index
+                int ordinalStride = numShards >> shard.shardOrdinalShift;
+                int count = (length - i + numShards - 1) / numShards;
+                reader.read(shard, ordinal >> shard.shardOrdinalShift, ordinalStride, count, i, numShards);
+            }
+        } while(readsWereUnsafe(shardsHolder));
+    }
+
+    /**
+     * Scan the set ordinals in runs of at most {@code SCAN_RUN_LENGTH} ordinals, each starting and ending at a set
+     * ordinal.
+     */
+    private void scanRuns(BitSet ordinals, RunScanner scanner) {
+        int maxOrdinal = maxOrdinal();
+        int fromOrdinal = ordinals.nextSetBit(0);
+        while(fromOrdinal != ORDINAL_NONE && fromOrdinal <= maxOrdinal) {
+            int toOrdinal = Math.min(fromOrdinal + SCAN_RUN_LENGTH - 1, maxOrdinal);
+            toOrdinal = ordinals.previousSetBit(toOrdinal);
+            scanner.scan(fromOrdinal, toOrdinal - fromOrdinal + 1);
+            fromOrdinal = ordinals.nextSetBit(toOrdinal + 1);
+        }
+    }
+
+    /**
+     * Whether reads spanning all shards may have been inconsistent.  Unlike {@link #readWasUnsafe}, this is true if
+     * any shard has changed, since the reads of a range cover every shard.
+     */
+    private boolean readsWereUnsafe(ShardsHolder shardsHolder) {
+        // see readWasUnsafe for why the fence is required
+        HollowUnsafeHandle.getUnsafe().loadFence();
+        return shardsHolder != shardsVolatile;
+    }
+
     private boolean readWasUnsafe(ShardsHolder shardsHolder, int ordinal, HollowObjectTypeReadStateShard shard) {
         // Use a load (acquire) fence to constrain the compiler reordering prior plain loads so
         // that they cannot "float down" below the volatile load of shardsVolatile.
@@ -697,6 +985,82 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         sampler.setUpdateThread(t);
     }
 
+    /**
+     * Cache the values of a STRING field, so that {@link #readString(int, int)} returns the same String for repeated
+     * reads of a value rather than allocating a new one each time.  The cache is cleared after each delta update.
+     * <p>
+     * If the field's values are already cached, the existing cache is replaced.
+     *
+     * @param fieldName the name of the STRING field
+     * @param capacity the maximum number of Strings to cache, which is rounded up to a power of two
+     * @param maxStringLength the length of the longest String to cache
+     * @return the cache, which reports how often values were read from it
+     * @throws IllegalArgumentException if the field is not a STRING field of this type
+     */
+    public synchronized HollowObjectStringCache enableStringCache(String fieldName, int capacity, int maxStringLength) {
+        int fieldIndex = stringFieldIndex(fieldName);
+        HollowObjectStringCache stringCache = new HollowObjectStringCache(capacity, maxStringLength);
+
+        HollowObjectStringCache[] newStringCaches = stringCaches == null
+                ? new HollowObjectStringCache[getSchema().numFields()] : stringCaches.clone();
+        if(newStringCaches[fieldIndex] != null)
+            removeListener(newStringCaches[fieldIndex]);
+        newStringCaches[fieldIndex] = stringCache;
+        addListener(stringCache);
+        stringCaches = newStringCaches;
+        return stringCache;
+    }
+
+    /**
+     * Stop caching the values of a STRING field.
+     *
+     * @param fieldName the name of the STRING field
+     * @throws IllegalArgumentException if the field is not a STRING field of this type
+     */
+    public synchronized void disableStringCache(String fieldName) {
+        int fieldIndex = stringFieldIndex(fieldName);
+        if(stringCaches == null || stringCaches[fieldIndex] == null)
+            return;
+
+        HollowObjectStringCache[] newStringCaches = stringCaches.clone();
+        removeListener(newStringCaches[fieldIndex]);
+        newStringCaches[fieldIndex] = null;
+        stringCaches = newStringCaches;
+    }
+
+    /**
+     * @param fieldName the name of the STRING field
+     * @return the cache of the field's values, or null if its values are not cached
+     * @throws IllegalArgumentException if the field is not a STRING field of this type
+     */
+    public HollowObjectStringCache getStringCache(String fieldName) {
+        int fieldIndex = stringFieldIndex(fieldName);
+        HollowObjectStringCache[] stringCaches = this.stringCaches;
+        return stringCaches == null ? null : stringCaches[fieldIndex];
+    }
+
+    /**
+     * Create a reader of a field, which reads fixed length values directly from the shards of this type state.
+     *
+     * @param fieldName the name of the field
+     * @return the reader
+     * @throws IllegalArgumentException if the field is not a field of this type
+     * @see HollowObjectFieldReader
+     */
+    public HollowObjectFieldReader createFieldReader(String fieldName) {
+        int fieldIndex = getSchema().getPosition(fieldName);
+        if(fieldIndex == -1)
+            throw new IllegalArgumentException("Field " + fieldName + " is not a field of type " + getSchema().getName());
+        return new HollowObjectFieldReader(this, fieldIndex);
+    }
+
+    private int stringFieldIndex(String fieldName) {
+        int fieldIndex = getSchema().getPosition(fieldName);
+        if(fieldIndex == -1 || getSchema().getFieldType(fieldIndex) != FieldType.STRING)
+            throw new IllegalArgumentException("Field " + fieldName + " is not a STRING field of type " + getSchema().getName());
+        return fieldIndex;
+    }
+
     HollowObjectTypeDataElements[] currentDataElements() {
         final HollowObjectTypeReadStateShard[] shards = this.shardsVolatile.shards;
         HollowObjectTypeDataElements[] elements = new HollowObjectTypeDataElements[shards.length];
@@ -732,6 +1096,20 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
 	    return totalApproximateHeapFootprintInBytes;
 	}
 	
+    /**
+     * @param fieldIndex the index of a field in the schema of this type
+     * @return the approximate heap footprint of the field's data, which would be saved if the field were filtered out
+     */
+    public long getApproximateHeapFootprintInBytes(int fieldIndex) {
+        final HollowObjectTypeReadStateShard[] shards = this.shardsVolatile.shards;
+        long totalApproximateHeapFootprintInBytes = 0;
+
+        for(int i=0;i<shards.length;i++)
+            totalApproximateHeapFootprintInBytes += shards[i].getApproximateHeapFootprintInBytes(fieldIndex);
+
+        return totalApproximateHeapFootprintInBytes;
+    }
+
 	@Override
 	public long getApproximateHoleCostInBytes() {
         final HollowObjectTypeReadStateShard[] shards = this.shardsVolatile.shards;
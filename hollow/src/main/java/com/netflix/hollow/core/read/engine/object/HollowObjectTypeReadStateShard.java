@@ -21,8 +21,10 @@ import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
 import com.netflix.hollow.core.memory.ByteData;
 import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.memory.encoding.ZigZag;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -86,6 +88,132 @@ class HollowObjectTypeReadStateShard {
         return value;
     }
 
+    /**
+     * Read the values of an INT field for a run of shard ordinals, each {@code ordinalStride} after the last, into every
+     * {@code valueStride}th element of the values array.  Null values, and shard ordinals beyond the last in this
+     * shard, are read as {@code Integer.MIN_VALUE}.
+     */
+    void readInts(int fieldIndex, int fromOrdinal, int ordinalStride, int count, int[] values, int offset, int valueStride) {
+        int numBitsForField = dataElements.bitsPerField[fieldIndex];
+        long mask = (1L << numBitsForField) - 1;
+        long nullValue = dataElements.nullValueForField[fieldIndex];
+        long bitOffset = fieldOffset(fromOrdinal, fieldIndex);
+        long bitStride = (long)dataElements.bitsPerRecord * ordinalStride;
+
+        int numRecords = numRecordsInRun(fromOrdinal, ordinalStride, count);
+        for(int i=0;i<numRecords;i++) {
+            long value = dataElements.fixedLengthData.getElementValue(bitOffset, numBitsForField, mask);
+            values[offset] = value == nullValue ? Integer.MIN_VALUE : ZigZag.decodeInt((int)value);
+            bitOffset += bitStride;
+            offset += valueStride;
+        }
+        for(int i=numRecords;i<count;i++) {
+            values[offset] = Integer.MIN_VALUE;
+            offset += valueStride;
+        }
+    }
+
+    /**
+     * Read the values of a REFERENCE field for a run of shard ordinals, as for {@link #readInts}.  Null references are
+     * read as {@code ORDINAL_NONE}.
+     */
+    void readOrdinals(int fieldIndex, int fromOrdinal, int ordinalStride, int count, int[] values, int offset, int valueStride) {
+        int numBitsForField = dataElements.bitsPerField[fieldIndex];
+        long mask = (1L << numBitsForField) - 1;
+        long nullValue = dataElements.nullValueForField[fieldIndex];
+        long bitOffset = fieldOffset(fromOrdinal, fieldIndex);
+        long bitStride = (long)dataElements.bitsPerRecord * ordinalStride;
+
+        int numRecords = numRecordsInRun(fromOrdinal, ordinalStride, count);
+        for(int i=0;i<numRecords;i++) {
+            long value = dataElements.fixedLengthData.getElementValue(bitOffset, numBitsForField, mask);
+            values[offset] = value == nullValue ? ORDINAL_NONE : (int)value;
+            bitOffset += bitStride;
+            offset += valueStride;
+        }
+        for(int i=numRecords;i<count;i++) {
+            values[offset] = ORDINAL_NONE;
+            offset += valueStride;
+        }
+    }
+
+    /**
+     * Read the values of a LONG field for a run of shard ordinals, as for {@link #readInts}.  Null values are read as
+     * {@code Long.MIN_VALUE}.
+     */
+    void readLongs(int fieldIndex, int fromOrdinal, int ordinalStride, int count, long[] values, int offset, int valueStride) {
+        int numBitsForField = dataElements.bitsPerField[fieldIndex];
+        long mask = numBitsForField == 64 ? -1L : (1L << numBitsForField) - 1;
+        long nullValue = dataElements.nullValueForField[fieldIndex];
+        long bitOffset = fieldOffset(fromOrdinal, fieldIndex);
+        long bitStride = (long)dataElements.bitsPerRecord * ordinalStride;
+
+        int numRecords = numRecordsInRun(fromOrdinal, ordinalStride, count);
+        for(int i=0;i<numRecords;i++) {
+            long value = dataElements.fixedLengthData.getLargeElementValue(bitOffset, numBitsForField, mask);
+            values[offset] = value == nullValue ? Long.MIN_VALUE : ZigZag.decodeLong(value);
+            bitOffset += bitStride;
+            offset += valueStride;
+        }
+        for(int i=numRecords;i<count;i++) {
+            values[offset] = Long.MIN_VALUE;
+            offset += valueStride;
+        }
+    }
+
+    /**
+     * Read the values of a FLOAT field for a run of shard ordinals, as for {@link #readInts}.  Null values are read as
+     * {@code Float.NaN}.
+     */
+    void readFloats(int fieldIndex, int fromOrdinal, int ordinalStride, int count, float[] values, int offset, int valueStride) {
+        int numBitsForField = dataElements.bitsPerField[fieldIndex];
+        long mask = (1L << numBitsForField) - 1;
+        long bitOffset = fieldOffset(fromOrdinal, fieldIndex);
+        long bitStride = (long)dataElements.bitsPerRecord * ordinalStride;
+
+        int numRecords = numRecordsInRun(fromOrdinal, ordinalStride, count);
+        for(int i=0;i<numRecords;i++) {
+            int value = (int)dataElements.fixedLengthData.getElementValue(bitOffset, numBitsForField, mask);
+            values[offset] = value == HollowObjectWriteRecord.NULL_FLOAT_BITS ? Float.NaN : Float.intBitsToFloat(value);
+            bitOffset += bitStride;
+            offset += valueStride;
+        }
+        for(int i=numRecords;i<count;i++) {
+            values[offset] = Float.NaN;
+            offset += valueStride;
+        }
+    }
+
+    /**
+     * Read the values of a DOUBLE field for a run of shard ordinals, as for {@link #readInts}.  Null values are read
+     * as {@code Double.NaN}.
+     */
+    void readDoubles(int fieldIndex, int fromOrdinal, int ordinalStride, int count, double[] values, int offset, int valueStride) {
+        long bitOffset = fieldOffset(fromOrdinal, fieldIndex);
+        long bitStride = (long)dataElements.bitsPerRecord * ordinalStride;
+
+        int numRecords = numRecordsInRun(fromOrdinal, ordinalStride, count);
+        for(int i=0;i<numRecords;i++) {
+            long value = dataElements.fixedLengthData.getLargeElementValue(bitOffset, 64, -1L);
+            values[offset] = value == HollowObjectWriteRecord.NULL_DOUBLE_BITS ? Double.NaN : Double.longBitsToDouble(value);
+            bitOffset += bitStride;
+            offset += valueStride;
+        }
+        for(int i=numRecords;i<count;i++) {
+            values[offset] = Double.NaN;
+            offset += valueStride;
+        }
+    }
+
+    /**
+     * @return the number of records in a run of shard ordinals which are within this shard
+     */
+    private int numRecordsInRun(int fromOrdinal, int ordinalStride, int count) {
+        if(fromOrdinal > dataElements.maxOrdinal)
+            return 0;
+        return Math.min(count, (dataElements.maxOrdinal - fromOrdinal) / ordinalStride + 1);
+    }
+
     public byte[] readBytes(long startByte, long endByte, int numBitsForField, int fieldIndex) {
         byte[] result;
 
@@ -114,7 +242,7 @@ class HollowObjectTypeReadStateShard {
         return readString(dataElements.varLengthData[fieldIndex], startByte, length);
     }
 
-    public boolean isStringFieldEqual(long startByte, long endByte, int numBitsForField, int fieldIndex, String testValue) {
+    public boolean isStringFieldEqual(long startByte, long endByte, int numBitsForField, int fieldIndex, CharSequence testValue) {
         if((endByte & (1L << numBitsForField - 1)) != 0)
             return testValue == null;
         if(testValue == null)
@@ -169,7 +297,7 @@ class HollowObjectTypeReadStateShard {
         return new String(chararr, 0, count);
     }
 
-    private boolean testStringEquality(ByteData data, long position, int length, String testValue) {
+    private boolean testStringEquality(ByteData data, long position, int length, CharSequence testValue) {
         if(length < testValue.length()) // can't check exact length here; the length argument is in bytes, which is equal to or greater than the number of characters.
             return false;
 
@@ -252,6 +380,15 @@ class HollowObjectTypeReadStateShard {
         return requiredBytes;
     }
 
+    public long getApproximateHeapFootprintInBytes(int fieldIndex) {
+        long requiredBytes = (long)dataElements.bitsPerField[fieldIndex] * (dataElements.maxOrdinal + 1) / 8;
+
+        if(dataElements.varLengthData[fieldIndex] != null)
+            requiredBytes += dataElements.varLengthData[fieldIndex].size();
+
+        return requiredBytes;
+    }
+
     public long getApproximateHoleCostInBytes(BitSet populatedOrdinals, int shardNumber, int numShards) {
         long holeBits = 0;
         
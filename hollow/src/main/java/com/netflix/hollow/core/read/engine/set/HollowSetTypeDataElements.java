@@ -19,10 +19,12 @@ package com.netflix.hollow.core.read.engine.set;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryRemapper;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -51,14 +53,26 @@ public class HollowSetTypeDataElements {
 
     final ArraySegmentRecycler memoryRecycler;
     final MemoryMode memoryMode;
+    final File sharedMemoryStagingDirectory;
 
     public HollowSetTypeDataElements(ArraySegmentRecycler memoryRecycler) {
         this(MemoryMode.ON_HEAP, memoryRecycler);
     }
 
     public HollowSetTypeDataElements(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
+        this(memoryMode, memoryRecycler, null);
+    }
+
+    /**
+     * @param memoryMode the memory mode of the data
+     * @param memoryRecycler the recycler of on heap segments
+     * @param sharedMemoryStagingDirectory the directory in which data is staged when it is remapped into shared memory,
+     *                                     or null for the default temporary-file directory
+     */
+    public HollowSetTypeDataElements(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler, File sharedMemoryStagingDirectory) {
         this.memoryMode = memoryMode;
         this.memoryRecycler = memoryRecycler;
+        this.sharedMemoryStagingDirectory = sharedMemoryStagingDirectory;
     }
 
     void readSnapshot(HollowBlobInput in) throws IOException {
@@ -113,8 +127,40 @@ public class HollowSetTypeDataElements {
         }
     }
 
-    public void applyDelta(HollowSetTypeDataElements fromData, HollowSetTypeDataElements deltaData) {
+    long getStartBucket(int ordinal) {
+        return ordinal == 0 ? 0 : setPointerAndSizeData.getElementValue((long)(ordinal - 1) * bitsPerFixedLengthSetPortion, bitsPerSetPointer);
+    }
+
+    long getEndBucket(int ordinal) {
+        return setPointerAndSizeData.getElementValue((long)ordinal * bitsPerFixedLengthSetPortion, bitsPerSetPointer);
+    }
+
+    int getSetSize(int ordinal) {
+        return (int)setPointerAndSizeData.getElementValue(((long)ordinal * bitsPerFixedLengthSetPortion) + bitsPerSetPointer, bitsPerSetSizeValue);
+    }
+
+    public void applyDelta(HollowSetTypeDataElements fromData, HollowSetTypeDataElements deltaData) throws IOException {
         new HollowSetDeltaApplicator(fromData, deltaData, this).applyDelta();
+        if(!memoryMode.equals(MemoryMode.ON_HEAP))
+            remapToSharedMemory();
+    }
+
+    /**
+     * Moves data assembled on heap by a delta transition back into virtual memory.
+     */
+    void remapToSharedMemory() throws IOException {
+        try(SharedMemoryRemapper remapper = new SharedMemoryRemapper(memoryMode, sharedMemoryStagingDirectory)) {
+            remapper.write(setPointerAndSizeData, ((long)maxOrdinal + 1) * bitsPerFixedLengthSetPortion);
+            remapper.write(elementData, totalNumberOfBuckets * bitsPerElement);
+
+            HollowBlobInput in = remapper.map();
+            FixedLengthData stagedSetPointerAndSizeData = setPointerAndSizeData;
+            setPointerAndSizeData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedSetPointerAndSizeData, memoryRecycler);
+            FixedLengthData stagedElementData = elementData;
+            elementData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedElementData, memoryRecycler);
+        }
     }
 
     public void destroy() {
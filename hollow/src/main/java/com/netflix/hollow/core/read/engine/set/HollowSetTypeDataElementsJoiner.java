@@ -0,0 +1,105 @@
+package com.netflix.hollow.core.read.engine.set;
+
+import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
+
+
+/**
+ * Join multiple {@code HollowSetTypeDataElements}s into 1 {@code HollowSetTypeDataElements}.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * The no. of passed data elements must be a power of 2.
+ */
+class HollowSetTypeDataElementsJoiner {
+
+    HollowSetTypeDataElements join(HollowSetTypeDataElements[] from) throws IOException {
+        final int fromMask = from.length - 1;
+        final int fromOrdinalShift = 31 - Integer.numberOfLeadingZeros(from.length);
+
+        if (from.length<=0 || !((from.length&(from.length-1))==0)) {
+            throw new IllegalStateException("No. of DataElements to be joined must be a power of 2");
+        }
+
+        HollowSetTypeDataElements to = new HollowSetTypeDataElements(from[0].memoryMode, from[0].memoryRecycler, from[0].sharedMemoryStagingDirectory);
+
+        populateStats(to, from);
+
+        GapEncodedVariableLengthIntegerReader[] fromRemovals = new GapEncodedVariableLengthIntegerReader[from.length];
+        for (int i=0;i<from.length;i++) {
+            fromRemovals[i] = from[i].encodedRemovals;
+        }
+        to.encodedRemovals = GapEncodedVariableLengthIntegerReader.join(fromRemovals);
+
+        for (HollowSetTypeDataElements elements : from) {
+            if (elements.encodedAdditions != null) {
+                throw new IllegalStateException("Encountered encodedAdditions in data elements joiner- this is not expected " +
+                        "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                        "delta data elements are never split/joined");
+            }
+        }
+
+        long currentWriteBucket = 0;
+        for(int ordinal=0;ordinal<=to.maxOrdinal;ordinal++) {
+            int fromIndex = ordinal & fromMask;
+            int fromOrdinal = ordinal >> fromOrdinalShift;
+            long startBit = (long)ordinal * to.bitsPerFixedLengthSetPortion;
+
+            // lopsided shards could result for consumers that skip type shards with no additions, such ordinals
+            // are written as empty sets
+            if (fromOrdinal <= from[fromIndex].maxOrdinal) {
+                HollowSetTypeDataElements source = from[fromIndex];
+                long startBucket = source.getStartBucket(fromOrdinal);
+                long endBucket = source.getEndBucket(fromOrdinal);
+
+                if (source.bitsPerElement == to.bitsPerElement) {
+                    to.elementData.copyBits(source.elementData, startBucket * source.bitsPerElement,
+                            currentWriteBucket * to.bitsPerElement, (endBucket - startBucket) * source.bitsPerElement);
+                } else {
+                    for(long bucket=startBucket;bucket<endBucket;bucket++) {
+                        long bucketValue = source.elementData.getElementValue(bucket * source.bitsPerElement, source.bitsPerElement);
+                        if(bucketValue == source.emptyBucketValue)
+                            bucketValue = to.emptyBucketValue;
+                        to.elementData.setElementValue((currentWriteBucket + bucket - startBucket) * to.bitsPerElement, to.bitsPerElement, bucketValue);
+                    }
+                }
+                currentWriteBucket += endBucket - startBucket;
+
+                to.setPointerAndSizeData.setElementValue(startBit + to.bitsPerSetPointer, to.bitsPerSetSizeValue, source.getSetSize(fromOrdinal));
+            }
+
+            to.setPointerAndSizeData.setElementValue(startBit, to.bitsPerSetPointer, currentWriteBucket);
+        }
+
+        if(!to.memoryMode.equals(MemoryMode.ON_HEAP))
+            to.remapToSharedMemory();
+
+        return to;
+    }
+
+    void populateStats(HollowSetTypeDataElements to, HollowSetTypeDataElements[] from) {
+        long totalOfSetBuckets = 0;
+
+        to.maxOrdinal = -1;
+        for(int fromIndex=0;fromIndex<from.length;fromIndex++) {
+            if(from[fromIndex].maxOrdinal != -1)
+                totalOfSetBuckets += from[fromIndex].getEndBucket(from[fromIndex].maxOrdinal);
+
+            // do not assume bit widths will be uniform
+            to.bitsPerElement = Math.max(to.bitsPerElement, from[fromIndex].bitsPerElement);
+            to.bitsPerSetSizeValue = Math.max(to.bitsPerSetSizeValue, from[fromIndex].bitsPerSetSizeValue);
+
+            int mappedMaxOrdinal = from[fromIndex].maxOrdinal == -1 ? -1 : (from[fromIndex].maxOrdinal * from.length) + fromIndex;
+            to.maxOrdinal = Math.max(to.maxOrdinal, mappedMaxOrdinal);
+        }
+
+        to.emptyBucketValue = (1 << to.bitsPerElement) - 1;
+        to.bitsPerSetPointer = 64 - Long.numberOfLeadingZeros(totalOfSetBuckets);
+        to.bitsPerFixedLengthSetPortion = to.bitsPerSetPointer + to.bitsPerSetSizeValue;
+        to.totalNumberOfBuckets = totalOfSetBuckets;
+
+        to.setPointerAndSizeData = FixedLengthDataFactory.get((long)to.bitsPerFixedLengthSetPortion * (to.maxOrdinal + 1), to.memoryMode, to.memoryRecycler);
+        to.elementData = FixedLengthDataFactory.get(to.bitsPerElement * to.totalNumberOfBuckets, to.memoryMode, to.memoryRecycler);
+    }
+}
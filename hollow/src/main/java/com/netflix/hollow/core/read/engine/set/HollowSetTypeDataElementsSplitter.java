@@ -0,0 +1,95 @@
+package com.netflix.hollow.core.read.engine.set;
+
+import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+import java.io.IOException;
+
+/**
+ * Split a {@code HollowSetTypeDataElements} into multiple {@code HollowSetTypeDataElements}s.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * {@code numSplits} must be a power of 2.
+ */
+public class HollowSetTypeDataElementsSplitter {
+
+    HollowSetTypeDataElements[] split(HollowSetTypeDataElements from, int numSplits) throws IOException {
+        final int toMask = numSplits - 1;
+        final int toOrdinalShift = 31 - Integer.numberOfLeadingZeros(numSplits);
+
+        if (numSplits<=0 || !((numSplits&(numSplits-1))==0)) {
+            throw new IllegalStateException("Must split by power of 2");
+        }
+
+        HollowSetTypeDataElements[] to = new HollowSetTypeDataElements[numSplits];
+        for(int i=0;i<to.length;i++) {
+            to[i] = new HollowSetTypeDataElements(from.memoryMode, from.memoryRecycler, from.sharedMemoryStagingDirectory);
+            to[i].maxOrdinal = -1;
+        }
+
+        populateStats(to, from, toMask, toOrdinalShift);
+
+        if (from.encodedRemovals != null) {
+            GapEncodedVariableLengthIntegerReader[] splitRemovals = from.encodedRemovals.split(numSplits);
+            for(int i=0;i<to.length;i++) {
+                to[i].encodedRemovals = splitRemovals[i];
+            }
+        }
+        if (from.encodedAdditions != null) {
+            throw new IllegalStateException("Encountered encodedAdditions in data elements splitter- this is not expected " +
+                    "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                    "delta data elements are never split/joined");
+        }
+
+        for(int i=0;i<to.length;i++) {
+            to[i].setPointerAndSizeData = FixedLengthDataFactory.get((long)to[i].bitsPerFixedLengthSetPortion * (to[i].maxOrdinal + 1), to[i].memoryMode, to[i].memoryRecycler);
+            to[i].elementData = FixedLengthDataFactory.get(to[i].bitsPerElement * to[i].totalNumberOfBuckets, to[i].memoryMode, to[i].memoryRecycler);
+        }
+
+        long[] currentWriteBucket = new long[numSplits];
+        for(int ordinal=0;ordinal<=from.maxOrdinal;ordinal++) {
+            int toIndex = ordinal & toMask;
+            int toOrdinal = ordinal >> toOrdinalShift;
+
+            long startBucket = from.getStartBucket(ordinal);
+            long endBucket = from.getEndBucket(ordinal);
+            HollowSetTypeDataElements target = to[toIndex];
+
+            // element bit widths (and hence the empty bucket value) are retained on split, so buckets can be copied in bulk
+            target.elementData.copyBits(from.elementData, startBucket * from.bitsPerElement,
+                    currentWriteBucket[toIndex] * target.bitsPerElement, (endBucket - startBucket) * from.bitsPerElement);
+            currentWriteBucket[toIndex] += endBucket - startBucket;
+
+            long startBit = (long)toOrdinal * target.bitsPerFixedLengthSetPortion;
+            target.setPointerAndSizeData.setElementValue(startBit, target.bitsPerSetPointer, currentWriteBucket[toIndex]);
+            target.setPointerAndSizeData.setElementValue(startBit + target.bitsPerSetPointer, target.bitsPerSetSizeValue, from.getSetSize(ordinal));
+        }
+
+        if(!from.memoryMode.equals(MemoryMode.ON_HEAP)) {
+            for(int i=0;i<to.length;i++)
+                to[i].remapToSharedMemory();
+        }
+        return to;
+    }
+
+    private void populateStats(HollowSetTypeDataElements[] to, HollowSetTypeDataElements from, int toMask, int toOrdinalShift) {
+        long[] totalOfSetBuckets = new long[to.length];
+
+        for(int ordinal=0;ordinal<=from.maxOrdinal;ordinal++) {
+            int toIndex = ordinal & toMask;
+            int toOrdinal = ordinal >> toOrdinalShift;
+            to[toIndex].maxOrdinal = toOrdinal;
+
+            totalOfSetBuckets[toIndex] += from.getEndBucket(ordinal) - from.getStartBucket(ordinal);
+        }
+
+        for(int toIndex=0;toIndex<to.length;toIndex++) {
+            to[toIndex].bitsPerElement = from.bitsPerElement;
+            to[toIndex].emptyBucketValue = from.emptyBucketValue;
+            to[toIndex].bitsPerSetSizeValue = from.bitsPerSetSizeValue;
+            to[toIndex].bitsPerSetPointer = 64 - Long.numberOfLeadingZeros(totalOfSetBuckets[toIndex]);
+            to[toIndex].bitsPerFixedLengthSetPortion = to[toIndex].bitsPerSetPointer + to[toIndex].bitsPerSetSizeValue;
+            to[toIndex].totalNumberOfBuckets = totalOfSetBuckets[toIndex];
+        }
+    }
+}
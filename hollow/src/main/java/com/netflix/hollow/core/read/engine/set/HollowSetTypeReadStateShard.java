@@ -29,8 +29,15 @@ class HollowSetTypeReadStateShard {
 
     private volatile HollowSetTypeDataElements currentDataVolatile;
 
+    final int shardOrdinalShift;
+
     private HollowPrimaryKeyValueDeriver keyDeriver;
 
+    HollowSetTypeReadStateShard(HollowSetTypeDataElements dataElements, int shardOrdinalShift) {
+        this.currentDataVolatile = dataElements;
+        this.shardOrdinalShift = shardOrdinalShift;
+    }
+
     public int size(int ordinal) {
         HollowSetTypeDataElements currentData;
         int size;
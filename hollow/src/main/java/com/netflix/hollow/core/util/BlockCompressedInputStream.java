@@ -0,0 +1,326 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.util;
+
+import static com.netflix.hollow.core.util.BlockCompressedOutputStream.MAGIC;
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a block compressed container written by {@link BlockCompressedOutputStream}.<p>
+ *
+ * When read as a stream, the blocks following the current block are decompressed in parallel ahead of being read.
+ * A container in a file may instead be decompressed in full with {@link #decompress(File, File)}, which decompresses all
+ * blocks in parallel directly to their offsets in the destination file.
+ */
+public class BlockCompressedInputStream extends InputStream {
+
+    private final DataInputStream in;
+    private final int maxPendingBlocks;
+    private final ExecutorService executor;
+    private final Queue<Future<byte[]>> pendingBlocks;
+
+    private byte[] block;
+    private int blockPosition;
+    private boolean endOfInput;
+
+    /**
+     * @param in a stream positioned at the start of a block compressed container
+     * @throws IOException if the container header could not be read
+     */
+    public BlockCompressedInputStream(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        int magic = this.in.readInt();
+        if(magic != MAGIC)
+            throw new IOException("Not a block compressed container");
+        this.in.readInt(); /// block size, which is implied by the uncompressed length of each block
+
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        this.maxPendingBlocks = numThreads * 2;
+        this.executor = Executors.newFixedThreadPool(numThreads,
+                r -> daemonThread(r, BlockCompressedInputStream.class, "decompress"));
+        this.pendingBlocks = new ArrayDeque<>();
+        this.block = new byte[0];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if(!ensureBlock())
+            return -1;
+        return block[blockPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if(len == 0)
+            return 0;
+        if(!ensureBlock())
+            return -1;
+
+        int bytesToCopy = Math.min(len, block.length - blockPosition);
+        System.arraycopy(block, blockPosition, b, off, bytesToCopy);
+        blockPosition += bytesToCopy;
+        return bytesToCopy;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while(skipped < n && ensureBlock()) {
+            int bytesToSkip = (int) Math.min(n - skipped, block.length - blockPosition);
+            blockPosition += bytesToSkip;
+            skipped += bytesToSkip;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return block.length - blockPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        in.close();
+    }
+
+    private boolean ensureBlock() throws IOException {
+        while(blockPosition == block.length) {
+            fillPendingBlocks();
+            if(pendingBlocks.isEmpty())
+                return false;
+
+            block = awaitBlock(pendingBlocks.poll());
+            blockPosition = 0;
+        }
+        return true;
+    }
+
+    private void fillPendingBlocks() throws IOException {
+        while(!endOfInput && pendingBlocks.size() < maxPendingBlocks) {
+            int uncompressedLength;
+            try {
+                uncompressedLength = in.readInt();
+            } catch (EOFException e) {
+                endOfInput = true;
+                executor.shutdown();
+                return;
+            }
+            byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+
+            pendingBlocks.add(executor.submit(() -> inflate(compressed, 0, compressed.length, uncompressedLength)));
+        }
+    }
+
+    private static byte[] awaitBlock(Future<byte[]> pendingBlock) throws IOException {
+        try {
+            return pendingBlock.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int off, int len, int uncompressedLength) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed, off, len);
+            byte[] uncompressed = new byte[uncompressedLength];
+            int position = 0;
+            while(position < uncompressedLength) {
+                int inflated = inflater.inflate(uncompressed, position, uncompressedLength - position);
+                if(inflated == 0 && (inflater.finished() || inflater.needsInput()))
+                    throw new DataFormatException("Truncated block");
+                position += inflated;
+            }
+            return uncompressed;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Returns a stream which reads the given stream, decompressing it if it is a block compressed container.  The
+     * format is detected when the returned stream is first read.
+     *
+     * @param in the stream
+     * @return a stream of the decompressed data if the given stream is block compressed, otherwise of the given data
+     */
+    public static InputStream decompressIfBlockCompressed(InputStream in) {
+        return new DetectingInputStream(in);
+    }
+
+    /**
+     * @param file the file
+     * @return whether the file contains a block compressed container
+     * @throws IOException if the file could not be read
+     */
+    public static boolean isBlockCompressed(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return raf.length() >= 8 && raf.readInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Decompress a block compressed container into the destination file, decompressing all blocks in parallel.
+     *
+     * @param source the file containing the block compressed container
+     * @param destination the file to write the decompressed data to
+     * @throws IOException if the container could not be read or the destination could not be written
+     */
+    public static void decompress(File source, File destination) throws IOException {
+        try (RandomAccessFile src = new RandomAccessFile(source, "r");
+             RandomAccessFile dest = new RandomAccessFile(destination, "rw")) {
+            if(src.readInt() != MAGIC)
+                throw new IOException("Not a block compressed container: " + source);
+            long blockSize = src.readInt();
+
+            FileChannel srcChannel = src.getChannel();
+            FileChannel destChannel = dest.getChannel();
+
+            SimultaneousExecutor executor = new SimultaneousExecutor(BlockCompressedInputStream.class, "decompress-file");
+            long blockHeaderPosition = src.getFilePointer();
+            long uncompressedPosition = 0;
+
+            while(blockHeaderPosition < src.length()) {
+                src.seek(blockHeaderPosition);
+                final int uncompressedLength = src.readInt();
+                final int compressedLength = src.readInt();
+                final long compressedPosition = blockHeaderPosition + 8;
+                final long destinationPosition = uncompressedPosition;
+
+                executor.execute(() -> {
+                    try {
+                        ByteBuffer compressed = ByteBuffer.allocate(compressedLength);
+                        readFully(srcChannel, compressed, compressedPosition);
+                        byte[] uncompressed = inflate(compressed.array(), 0, compressedLength, uncompressedLength);
+                        writeFully(destChannel, ByteBuffer.wrap(uncompressed), destinationPosition);
+                    } catch (IOException | DataFormatException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+
+                blockHeaderPosition = compressedPosition + compressedLength;
+                uncompressedPosition += blockSize;
+            }
+
+            try {
+                executor.awaitSuccessfulCompletion();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                throw new IOException("Could not decompress " + source, e.getCause());
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while(buf.hasRemaining()) {
+            int read = channel.read(buf, position + buf.position());
+            if(read < 0)
+                throw new EOFException();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while(buf.hasRemaining()) {
+            channel.write(buf, position + buf.position());
+        }
+    }
+
+    /**
+     * Defers detection of the format until the stream is first read, since detection may block.
+     */
+    private static class DetectingInputStream extends InputStream {
+        private InputStream in;
+        private boolean detected;
+
+        DetectingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return delegate().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return delegate().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return delegate().skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return detected ? in.available() : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private InputStream delegate() throws IOException {
+            if(!detected) {
+                detected = true;
+
+                InputStream buffered = in.markSupported() ? in : new BufferedInputStream(in);
+                buffered.mark(4);
+                int magic = 0;
+                int bytesRead = 0;
+                while(bytesRead < 4) {
+                    int b = buffered.read();
+                    if(b == -1)
+                        break;
+                    magic = (magic << 8) | b;
+                    bytesRead++;
+                }
+                buffered.reset();
+
+                in = (bytesRead == 4 && magic == MAGIC) ? new BlockCompressedInputStream(buffered) : buffered;
+            }
+            return in;
+        }
+    }
+}
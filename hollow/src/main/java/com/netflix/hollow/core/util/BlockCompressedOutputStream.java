@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.util;
+
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a block compressed container: data is divided into fixed size blocks, each of which is compressed
+ * independently, so that blocks can later be decompressed in parallel or in any order.<p>
+ *
+ * The container starts with the int {@link #MAGIC} and the int uncompressed block size.  Each block is then written as
+ * the int length of its uncompressed data, the int length of its compressed data, and the raw deflated data.  Every
+ * block other than the last holds exactly the block size of uncompressed data, so the uncompressed offset of a block
+ * is implied by its position, and the block headers serve as an index which can be read by seeking from block to block.<p>
+ *
+ * Blocks are compressed in parallel while later blocks are still being written.
+ *
+ * @see BlockCompressedInputStream
+ */
+public class BlockCompressedOutputStream extends OutputStream {
+
+    public static final int MAGIC = 0x48424331; /// "HBC1"
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final ExecutorService executor;
+    private final Queue<Future<CompressedBlock>> pendingBlocks;
+
+    private byte[] block;
+    private int blockPosition;
+    private boolean closed;
+
+    public BlockCompressedOutputStream(OutputStream out) throws IOException {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockCompressedOutputStream(OutputStream out, int blockSize) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.blockSize = blockSize;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        this.maxPendingBlocks = numThreads * 2;
+        this.executor = Executors.newFixedThreadPool(numThreads,
+                r -> daemonThread(r, BlockCompressedOutputStream.class, "compress"));
+        this.pendingBlocks = new ArrayDeque<>();
+        this.block = new byte[blockSize];
+
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(blockSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        block[blockPosition++] = (byte) b;
+        if(blockPosition == blockSize)
+            submitBlock();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while(len > 0) {
+            int bytesToCopy = Math.min(len, blockSize - blockPosition);
+            System.arraycopy(b, off, block, blockPosition, bytesToCopy);
+            blockPosition += bytesToCopy;
+            off += bytesToCopy;
+            len -= bytesToCopy;
+
+            if(blockPosition == blockSize)
+                submitBlock();
+        }
+    }
+
+    /**
+     * Writes all completely filled blocks which have been compressed.  A partially filled block is not written,
+     * since only the final block of the container may be shorter than the block size.
+     */
+    @Override
+    public void flush() throws IOException {
+        while(!pendingBlocks.isEmpty() && pendingBlocks.peek().isDone())
+            writeBlock(pendingBlocks.poll());
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+
+        try {
+            if(blockPosition > 0)
+                submitBlock();
+            while(!pendingBlocks.isEmpty())
+                writeBlock(pendingBlocks.poll());
+            out.close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] uncompressed = block;
+        final int length = blockPosition;
+        pendingBlocks.add(executor.submit(() -> compress(uncompressed, length)));
+
+        block = new byte[blockSize];
+        blockPosition = 0;
+
+        while(pendingBlocks.size() > maxPendingBlocks)
+            writeBlock(pendingBlocks.poll());
+    }
+
+    private void writeBlock(Future<CompressedBlock> pendingBlock) throws IOException {
+        CompressedBlock compressed;
+        try {
+            compressed = pendingBlock.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        out.writeInt(compressed.uncompressedLength);
+        out.writeInt(compressed.length);
+        out.write(compressed.data, 0, compressed.length);
+    }
+
+    private static CompressedBlock compress(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+
+            byte[] compressed = new byte[Math.max(64, length / 2)];
+            int compressedLength = 0;
+            while(!deflater.finished()) {
+                if(compressedLength == compressed.length)
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+
+            return new CompressedBlock(length, compressed, compressedLength);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static class CompressedBlock {
+        private final int uncompressedLength;
+        private final byte[] data;
+        private final int length;
+
+        CompressedBlock(int uncompressedLength, byte[] data, int length) {
+            this.uncompressedLength = uncompressedLength;
+            this.data = data;
+            this.length = length;
+        }
+    }
+}
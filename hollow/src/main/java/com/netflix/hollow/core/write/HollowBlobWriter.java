@@ -31,6 +31,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * A {@link HollowBlobWriter} is used to serialize snapshot, delta, and reverse delta blobs based on the data state
@@ -68,9 +71,9 @@ public class HollowBlobWriter {
     }
 
     public void writeSnapshot(OutputStream os, ProducerOptionalBlobPartConfig.OptionalBlobPartOutputStreams partStreams) throws IOException {
-        Map<String, DataOutputStream> partStreamsByType = Collections.emptyMap();
-        if(partStreams != null)
-            partStreamsByType = partStreams.getStreamsByType();
+        Map<String, DataOutputStream> partStreamsByType = partStreams == null
+                ? Collections.emptyMap()
+                : partStreams.getStreamsByType();
 
         stateEngine.prepareForWrite();
 
@@ -78,23 +81,7 @@ public class HollowBlobWriter {
         HollowBlobHeaderWrapper hollowBlobHeaderWrapper = buildHeader(partStreams, stateEngine.getSchemas(), false);
         writeHeaders(dos, partStreams, false, hollowBlobHeaderWrapper);
 
-        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "write-snapshot");
-
-        for(final HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            executor.execute(new Runnable() {
-                public void run() {
-                    typeState.calculateSnapshot();
-                }
-            });
-        }
-
-        try {
-            executor.awaitSuccessfulCompletion();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-
-        for(HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
+        calculateAndWriteInOrder("write-snapshot", stateEngine.getOrderedTypeStates(), HollowTypeWriteState::calculateSnapshot, typeState -> {
             DataOutputStream partStream = partStreamsByType.get(typeState.getSchema().getName());
             if(partStream == null)
                 partStream = dos;
@@ -105,7 +92,8 @@ public class HollowBlobWriter {
             writeNumShards(partStream, typeState.getNumShards());
 
             typeState.writeSnapshot(partStream);
-        }
+            partStream.flush();
+        });
 
         os.flush();
         if(partStreams != null)
@@ -129,9 +117,9 @@ public class HollowBlobWriter {
     }
 
     public void writeDelta(OutputStream os, ProducerOptionalBlobPartConfig.OptionalBlobPartOutputStreams partStreams) throws IOException {
-        Map<String, DataOutputStream> partStreamsByType = Collections.emptyMap();
-        if(partStreams != null)
-            partStreamsByType = partStreams.getStreamsByType();
+        Map<String, DataOutputStream> partStreamsByType = partStreams == null
+                ? Collections.emptyMap()
+                : partStreams.getStreamsByType();
 
         stateEngine.prepareForWrite();
         
@@ -144,37 +132,19 @@ public class HollowBlobWriter {
         HollowBlobHeaderWrapper hollowBlobHeaderWrapper = buildHeader(partStreams, changedTypes, false);
         writeHeaders(dos, partStreams, false, hollowBlobHeaderWrapper);
 
-        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "write-delta");
-
-        for(final HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            executor.execute(new Runnable() {
-                public void run() {
-                    if(typeState.hasChangedSinceLastCycle())
-                        typeState.calculateDelta();
-                }
-            });
-        }
-
-        try {
-            executor.awaitSuccessfulCompletion();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-
-        for(HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            if(typeState.hasChangedSinceLastCycle()) {
-                DataOutputStream partStream = partStreamsByType.get(typeState.getSchema().getName());
-                if(partStream == null)
-                    partStream = dos;
+        calculateAndWriteInOrder("write-delta", changedTypeStates(), HollowTypeWriteState::calculateDelta, typeState -> {
+            DataOutputStream partStream = partStreamsByType.get(typeState.getSchema().getName());
+            if(partStream == null)
+                partStream = dos;
 
-                HollowSchema schema = typeState.getSchema();
-                schema.writeTo(partStream);
+            HollowSchema schema = typeState.getSchema();
+            schema.writeTo(partStream);
 
-                writeNumShards(partStream, typeState.getNumShards());
+            writeNumShards(partStream, typeState.getNumShards());
 
-                typeState.writeDelta(partStream);
-            }
-        }
+            typeState.writeDelta(partStream);
+            partStream.flush();
+        });
 
         os.flush();
         if(partStreams != null)
@@ -197,9 +167,9 @@ public class HollowBlobWriter {
     }
 
     public void writeReverseDelta(OutputStream os, ProducerOptionalBlobPartConfig.OptionalBlobPartOutputStreams partStreams) throws IOException {
-        Map<String, DataOutputStream> partStreamsByType = Collections.emptyMap();
-        if(partStreams != null)
-            partStreamsByType = partStreams.getStreamsByType();
+        Map<String, DataOutputStream> partStreamsByType = partStreams == null
+                ? Collections.emptyMap()
+                : partStreams.getStreamsByType();
 
         stateEngine.prepareForWrite();
         
@@ -212,41 +182,70 @@ public class HollowBlobWriter {
         HollowBlobHeaderWrapper hollowBlobHeaderWrapper = buildHeader(partStreams, changedTypes, true);
         writeHeaders(dos, partStreams, true, hollowBlobHeaderWrapper);
 
-        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "write-reverse-delta");
+        calculateAndWriteInOrder("write-reverse-delta", changedTypeStates(), HollowTypeWriteState::calculateReverseDelta, typeState -> {
+            DataOutputStream partStream = partStreamsByType.get(typeState.getSchema().getName());
+            if(partStream == null)
+                partStream = dos;
 
-        for(final HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            executor.execute(new Runnable() {
-                public void run() {
-                    if(typeState.hasChangedSinceLastCycle())
-                        typeState.calculateReverseDelta();
-                }
-            });
-        }
+            HollowSchema schema = typeState.getSchema();
+            schema.writeTo(partStream);
+
+            writeNumShards(partStream, typeState.getNumShards());
+
+            typeState.writeReverseDelta(partStream);
+            partStream.flush();
+        });
+
+        os.flush();
+        if(partStreams != null)
+            partStreams.flush();
+    }
+
+    /**
+     * Calculate the given type states in parallel, and write each one as soon as it and all of the type states preceding
+     * it have been calculated.  Types are written in the given order while later types are still being calculated, and
+     * each type state releases its calculated data once written.  No more types than the executor has threads are
+     * calculated ahead of the type being written, so the calculated data held in memory is bounded by that window
+     * rather than by the complete blob.
+     */
+    private void calculateAndWriteInOrder(String description, List<HollowTypeWriteState> typeStates,
+            Consumer<HollowTypeWriteState> calculator, TypeStateWriter writer) throws IOException {
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), description);
+        int maxCalculationsAhead = executor.getCorePoolSize();
 
         try {
+            List<Future<?>> calculations = new ArrayList<>(typeStates.size());
+            for(int i=0;i<typeStates.size();i++) {
+                while(calculations.size() < typeStates.size() && calculations.size() <= i + maxCalculationsAhead) {
+                    final HollowTypeWriteState typeState = typeStates.get(calculations.size());
+                    calculations.add(executor.submit(() -> calculator.accept(typeState)));
+                }
+
+                calculations.get(i).get();
+                writer.write(typeStates.get(i));
+            }
+
             executor.awaitSuccessfulCompletion();
-        } catch (Exception e) {
+        } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        for(HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            if(typeState.hasChangedSinceLastCycle()) {
-                DataOutputStream partStream = partStreamsByType.get(typeState.getSchema().getName());
-                if(partStream == null)
-                    partStream = dos;
-
-                HollowSchema schema = typeState.getSchema();
-                schema.writeTo(partStream);
+    private interface TypeStateWriter {
+        void write(HollowTypeWriteState typeState) throws IOException;
+    }
 
-                writeNumShards(partStream, typeState.getNumShards());
+    private List<HollowTypeWriteState> changedTypeStates() {
+        List<HollowTypeWriteState> changedTypeStates = new ArrayList<HollowTypeWriteState>();
 
-                typeState.writeReverseDelta(partStream);
-            }
+        for(HollowTypeWriteState writeState : stateEngine.getOrderedTypeStates()) {
+            if(writeState.hasChangedSinceLastCycle())
+                changedTypeStates.add(writeState);
         }
 
-        os.flush();
-        if(partStreams != null)
-            partStreams.flush();
+        return changedTypeStates;
     }
 
     private List<HollowSchema> changedTypes() {
@@ -190,6 +190,25 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
             numShards *= 2;
     }
 
+    @Override
+    public void writeRecordWithoutHashesTo(int ordinal, ByteDataArray buf) {
+        ByteData data = ordinalMap.getByteData().getUnderlyingArray();
+        long pointer = ordinalMap.getPointerForData(ordinal);
+        int size = VarInt.readVInt(data, pointer);
+        pointer += VarInt.sizeOfVInt(size);
+
+        VarInt.writeVInt(buf, size);
+        for(int i=0;i<size;i++) {
+            int keyOrdinalDelta = VarInt.readVInt(data, pointer);
+            pointer += VarInt.sizeOfVInt(keyOrdinalDelta);
+            int valueOrdinal = VarInt.readVInt(data, pointer);
+            pointer += VarInt.sizeOfVInt(valueOrdinal);
+            pointer += VarInt.nextVLongSize(data, pointer);  /// skip the hash bucket
+            VarInt.writeVInt(buf, keyOrdinalDelta);
+            VarInt.writeVInt(buf, valueOrdinal);
+        }
+    }
+
     @Override
     public void calculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
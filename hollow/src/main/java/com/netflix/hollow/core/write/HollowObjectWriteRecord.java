@@ -87,8 +87,10 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     }
 
     public void setNull(String fieldName) {
-        int fieldIndex = getSchema().getPosition(fieldName);
+        setNull(getSchema().getPosition(fieldName));
+    }
 
+    public void setNull(int fieldIndex) {
         ByteDataArray fieldBuffer = getFieldBuffer(fieldIndex);
         FieldType fieldType = getSchema().getFieldType(fieldIndex);
 
@@ -96,12 +98,14 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     }
 
     public void setInt(String fieldName, int value) {
+        setInt(getSchema().getPosition(fieldName), value);
+    }
+
+    public void setInt(int fieldIndex, int value) {
         if(value == Integer.MIN_VALUE) {
-            setNull(fieldName);
+            setNull(fieldIndex);
         } else {
-            int fieldIndex = getSchema().getPosition(fieldName);
-
-            validateFieldType(fieldIndex, fieldName, FieldType.INT);
+            validateFieldType(fieldIndex, FieldType.INT);
 
             ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -111,12 +115,14 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     }
 
     public void setLong(String fieldName, long value) {
+        setLong(getSchema().getPosition(fieldName), value);
+    }
+
+    public void setLong(int fieldIndex, long value) {
         if(value == Long.MIN_VALUE) {
-            setNull(fieldName);
+            setNull(fieldIndex);
         } else {
-            int fieldIndex = getSchema().getPosition(fieldName);
-
-            validateFieldType(fieldIndex, fieldName, FieldType.LONG);
+            validateFieldType(fieldIndex, FieldType.LONG);
 
             ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -126,9 +132,11 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     }
 
     public void setFloat(String fieldName, float value) {
-        int fieldIndex = getSchema().getPosition(fieldName);
+        setFloat(getSchema().getPosition(fieldName), value);
+    }
 
-        validateFieldType(fieldIndex, fieldName, FieldType.FLOAT);
+    public void setFloat(int fieldIndex, float value) {
+        validateFieldType(fieldIndex, FieldType.FLOAT);
 
         ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -137,9 +145,11 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     }
 
     public void setDouble(String fieldName, double value) {
-        int fieldIndex = getSchema().getPosition(fieldName);
+        setDouble(getSchema().getPosition(fieldName), value);
+    }
 
-        validateFieldType(fieldIndex, fieldName, FieldType.DOUBLE);
+    public void setDouble(int fieldIndex, double value) {
+        validateFieldType(fieldIndex, FieldType.DOUBLE);
 
         ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -148,9 +158,11 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     }
 
     public void setBoolean(String fieldName, boolean value) {
-        int fieldIndex = getSchema().getPosition(fieldName);
+        setBoolean(getSchema().getPosition(fieldName), value);
+    }
 
-        validateFieldType(fieldIndex, fieldName, FieldType.BOOLEAN);
+    public void setBoolean(int fieldIndex, boolean value) {
+        validateFieldType(fieldIndex, FieldType.BOOLEAN);
 
         ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -160,9 +172,13 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     public void setBytes(String fieldName, byte[] value) {
         if(value == null)  return;
 
-        int fieldIndex = getSchema().getPosition(fieldName);
+        setBytes(getSchema().getPosition(fieldName), value);
+    }
+
+    public void setBytes(int fieldIndex, byte[] value) {
+        if(value == null)  return;
 
-        validateFieldType(fieldIndex, fieldName, FieldType.BYTES);
+        validateFieldType(fieldIndex, FieldType.BYTES);
 
         ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -174,9 +190,13 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     public void setString(String fieldName, String value) {
         if(value == null)  return;
 
-        int fieldIndex = getSchema().getPosition(fieldName);
+        setString(getSchema().getPosition(fieldName), value);
+    }
+
+    public void setString(int fieldIndex, String value) {
+        if(value == null)  return;
 
-        validateFieldType(fieldIndex, fieldName, FieldType.STRING);
+        validateFieldType(fieldIndex, FieldType.STRING);
 
         ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -186,9 +206,11 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
     }
 
     public void setReference(String fieldName, int ordinal) {
-        int fieldIndex = getSchema().getPosition(fieldName);
+        setReference(getSchema().getPosition(fieldName), ordinal);
+    }
 
-        validateFieldType(fieldIndex, fieldName, FieldType.REFERENCE);
+    public void setReference(int fieldIndex, int ordinal) {
+        validateFieldType(fieldIndex, FieldType.REFERENCE);
 
         ByteDataArray buf = getFieldBuffer(fieldIndex);
 
@@ -260,9 +282,9 @@ public class HollowObjectWriteRecord implements HollowWriteRecord {
         fieldBuffer.write((byte) (intBits));
     }
 
-    private void validateFieldType(int fieldIndex, String fieldName, FieldType attemptedFieldType) {
+    private void validateFieldType(int fieldIndex, FieldType attemptedFieldType) {
         if(getSchema().getFieldType(fieldIndex) != attemptedFieldType) {
-            throw new IllegalArgumentException("Attempting to serialize " + attemptedFieldType + " in field " + fieldName + ".  Carefully check your schema for type " + getSchema().getName() + ".");
+            throw new IllegalArgumentException("Attempting to serialize " + attemptedFieldType + " in field " + getSchema().getFieldName(fieldIndex) + ".  Carefully check your schema for type " + getSchema().getName() + ".");
         }
     }
 }
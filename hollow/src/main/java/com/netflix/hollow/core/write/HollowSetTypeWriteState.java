@@ -170,6 +170,22 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
             numShards *= 2;
     }
 
+    @Override
+    public void writeRecordWithoutHashesTo(int ordinal, ByteDataArray buf) {
+        ByteData data = ordinalMap.getByteData().getUnderlyingArray();
+        long pointer = ordinalMap.getPointerForData(ordinal);
+        int size = VarInt.readVInt(data, pointer);
+        pointer += VarInt.sizeOfVInt(size);
+
+        VarInt.writeVInt(buf, size);
+        for(int i=0;i<size;i++) {
+            int elementOrdinalDelta = VarInt.readVInt(data, pointer);
+            pointer += VarInt.sizeOfVInt(elementOrdinalDelta);
+            pointer += VarInt.nextVLongSize(data, pointer);  /// skip the hash bucket
+            VarInt.writeVInt(buf, elementOrdinalDelta);
+        }
+    }
+
     @Override
     public void calculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
@@ -41,7 +41,7 @@ public abstract class HollowTypeWriteState {
 
     protected final HollowSchema schema;
 
-    protected final ByteArrayOrdinalMap ordinalMap;
+    protected ByteArrayOrdinalMap ordinalMap;
     
     protected int numShards;
 
@@ -259,6 +259,8 @@ public abstract class HollowTypeWriteState {
 
         currentCyclePopulated.clearAll();
 
+        if(restoredMap != null)
+            restoredMap.destroy();
         restoredMap = null;
         restoredSchema = null;
         restoredReadState = null;
@@ -319,7 +321,7 @@ public abstract class HollowTypeWriteState {
 
         // Size the restore ordinal map to avoid resizing when adding ordinals
         int size = populatedOrdinals.cardinality();
-        restoredMap = new ByteArrayOrdinalMap(size);
+        restoredMap = stateEngine.createOrdinalMap(size);
         int ordinal = populatedOrdinals.nextSetBit(0);
         while(ordinal != -1) {
             previousCyclePopulated.set(ordinal);
@@ -345,6 +347,20 @@ public abstract class HollowTypeWriteState {
         scratch.reset();
     }
 
+    /**
+     * Write the serialized representation of the record with the given ordinal, which was populated in either this
+     * or the prior cycle, to the given buffer.  The hash positions of SET and MAP elements are omitted, so that the
+     * representation matches a record copied from a read state with {@link HashBehavior#IGNORED_HASHES}.
+     * <p>
+     * This state must have been prepared for writing.
+     *
+     * @param ordinal the ordinal of the record
+     * @param buf the buffer to write the record to
+     */
+    public void writeRecordWithoutHashesTo(int ordinal, ByteDataArray buf) {
+        buf.copyFrom(ordinalMap.getByteData().getUnderlyingArray(), ordinalMap.getPointerForData(ordinal), ordinalMap.getDataLength(ordinal));
+    }
+
     /**
      * Get or create a scratch byte array.  Each thread will need its own array, so these
      * are referenced via a ThreadLocal variable.
@@ -361,6 +377,8 @@ public abstract class HollowTypeWriteState {
     
     void setStateEngine(HollowWriteStateEngine writeEngine) {
         this.stateEngine = writeEngine;
+        if(writeEngine.isOffHeapStorage() && ordinalMap.getDataSize() == 0)
+            this.ordinalMap = writeEngine.createOrdinalMap(256);
     }
     
     public HollowWriteStateEngine getStateEngine() {
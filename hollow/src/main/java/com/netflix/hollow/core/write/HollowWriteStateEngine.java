@@ -19,6 +19,9 @@ package com.netflix.hollow.core.write;
 import com.netflix.hollow.api.error.HollowWriteStateException;
 import com.netflix.hollow.api.error.SchemaNotFoundException;
 import com.netflix.hollow.core.HollowStateEngine;
+import com.netflix.hollow.core.memory.ByteArrayOrdinalMap;
+import com.netflix.hollow.core.memory.ByteDataArray;
+import com.netflix.hollow.core.memory.OffHeapSegmentedByteArray;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -28,6 +31,7 @@ import com.netflix.hollow.core.util.HollowWriteStateCreator;
 import com.netflix.hollow.core.util.SimultaneousExecutor;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
 import com.netflix.hollow.core.write.objectmapper.HollowTypeMapper;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -73,6 +77,9 @@ public class HollowWriteStateEngine implements HollowStateEngine {
     //// focus filling ordinal holes in as few shards as possible to make delta application more efficient for consumers
     private boolean focusHoleFillInFewestShards = false;
 
+    private boolean offHeapStorage = false;
+    private File offHeapStorageDirectory = null;
+
     private List<String> restoredStates;
     private boolean preparedForNextCycle = true;
     private long previousStateRandomizedTag = -1L;
@@ -435,6 +442,31 @@ public class HollowWriteStateEngine implements HollowStateEngine {
         return focusHoleFillInFewestShards;
     }
 
+    /**
+     * Experimental: Retain the serialized records of each type outside of the JVM heap, so that large datasets
+     * do not require a correspondingly large heap and do not contribute to garbage collection pauses.
+     * <p>
+     * Should be called before any type states are added.
+     *
+     * @param offHeapStorage whether serialized records are retained off-heap
+     * @param directory the directory in which to create memory mapped files backing the serialized records, or
+     * null to allocate direct memory, which is limited by {@code -XX:MaxDirectMemorySize}
+     */
+    public void setOffHeapStorage(boolean offHeapStorage, File directory) {
+        this.offHeapStorage = offHeapStorage;
+        this.offHeapStorageDirectory = directory;
+    }
+
+    boolean isOffHeapStorage() {
+        return offHeapStorage;
+    }
+
+    ByteArrayOrdinalMap createOrdinalMap(int size) {
+        if(!offHeapStorage)
+            return new ByteArrayOrdinalMap(size);
+        return new ByteArrayOrdinalMap(size, new ByteDataArray(new OffHeapSegmentedByteArray(offHeapStorageDirectory)));
+    }
+
     private long mintNewRandomizedStateTag() {
         Random rand = new Random();
         
@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.write.objectmapper;
+
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+
+/**
+ * Copies the fields of a POJO into a {@link HollowObjectWriteRecord}, without the reflection with which a
+ * {@link HollowObjectMapper} otherwise reads them.
+ * <p>
+ * Implementations are generated by {@link com.netflix.hollow.api.codegen.HollowObjectRecordWriterGenerator}.  A
+ * {@link HollowObjectMapper} uses the generated writer for a class if one is found on the class path, named
+ * {@link #writerClassName(Class)}, and it writes the fields of the schema the mapper derives for the class.
+ *
+ * @param <T> the type of the POJO
+ */
+public interface HollowObjectRecordWriter<T> {
+
+    /**
+     * @return the names of the fields which this writer writes, in the order of the fields of the schema
+     */
+    String[] getFieldNames();
+
+    /**
+     * Copy the fields of a POJO into a record.
+     *
+     * @param obj the POJO
+     * @param rec the record, whose schema has the fields returned by {@link #getFieldNames()}
+     * @param references the writer of referenced objects
+     */
+    void write(T obj, HollowObjectWriteRecord rec, ReferenceWriter references);
+
+    /**
+     * Writes the objects referenced by the fields of a POJO.
+     */
+    interface ReferenceWriter {
+        /**
+         * @param fieldIndex the index of the REFERENCE field
+         * @param value the referenced object
+         * @return the ordinal of the referenced object
+         */
+        int writeReference(int fieldIndex, Object value);
+    }
+
+    /**
+     * @param clazz the class of the POJO
+     * @return the fully qualified name of the generated writer for a class, which is in the package of the class
+     */
+    static String writerClassName(Class<?> clazz) {
+        String name = clazz.getName();
+        int packageEnd = name.lastIndexOf('.') + 1;
+        return name.substring(0, packageEnd) + name.substring(packageEnd).replace('$', '_') + "HollowWriter";
+    }
+}
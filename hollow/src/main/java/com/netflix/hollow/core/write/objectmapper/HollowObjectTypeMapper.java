@@ -37,6 +37,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Logger;
 import sun.misc.Unsafe;
 
 @SuppressWarnings("restriction")
@@ -45,6 +46,7 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
     private static Set<Class<?>> BOXED_WRAPPERS = new HashSet<>(Arrays.asList(Boolean.class, Integer.class, Short.class, Byte.class, Character.class, Long.class, Float.class, Double.class, String.class, byte[].class, Date.class));
     
     private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
+    private static final Logger LOG = Logger.getLogger(HollowObjectTypeMapper.class.getName());
     private final HollowObjectMapper parentMapper;
 
     private final String typeName;
@@ -56,6 +58,9 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
     private final long assignedOrdinalFieldOffset;
 
     private final List<MappedField> mappedFields;
+
+    private final HollowObjectRecordWriter<Object> recordWriter;
+    private final HollowObjectRecordWriter.ReferenceWriter references;
     
     private volatile int primaryKeyFieldPathIdx[][];
 
@@ -131,6 +136,39 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
 
         this.assignedOrdinalFieldOffset = assignedOrdinalFieldOffset;
         this.hasAssignedOrdinalField = hasAssignedOrdinalField;
+
+        this.recordWriter = findRecordWriter();
+        this.references = (fieldIndex, value) -> mappedFields.get(fieldIndex).subTypeMapper.write(value);
+    }
+
+    /**
+     * Find the generated writer of the fields of the mapped class, if there is one which writes the fields of the
+     * schema.
+     */
+    @SuppressWarnings("unchecked")
+    private HollowObjectRecordWriter<Object> findRecordWriter() {
+        if(BOXED_WRAPPERS.contains(clazz) || clazz.isEnum())
+            return null;
+
+        HollowObjectRecordWriter<Object> writer;
+        try {
+            Class<?> writerClass = Class.forName(HollowObjectRecordWriter.writerClassName(clazz), true, clazz.getClassLoader());
+            writer = (HollowObjectRecordWriter<Object>) writerClass.getDeclaredConstructor().newInstance();
+        } catch(ClassNotFoundException e) {
+            return null;
+        } catch(ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Unable to create the generated writer for " + clazz.getName(), e);
+        }
+
+        String[] fieldNames = new String[mappedFields.size()];
+        for(int i=0;i<fieldNames.length;i++)
+            fieldNames[i] = mappedFields.get(i).getFieldName();
+        if(!Arrays.equals(fieldNames, writer.getFieldNames())) {
+            LOG.warning("The generated writer for " + clazz.getName() + " writes the fields " + Arrays.toString(writer.getFieldNames())
+                    + " rather than " + Arrays.toString(fieldNames) + "; it should be regenerated");
+            return null;
+        }
+        return writer;
     }
 
     private static String[] getKeyFieldPaths(Class<?> clazz) {
@@ -183,6 +221,12 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
 
         HollowObjectWriteRecord rec = (HollowObjectWriteRecord) writeRecord();
 
+        if (recordWriter != null) {
+            recordWriter.write(obj, rec, flatRecordWriter == null ? references
+                    : (fieldIndex, value) -> mappedFields.get(fieldIndex).subTypeMapper.writeFlat(value, flatRecordWriter));
+            return rec;
+        }
+
         for (int i = 0; i < mappedFields.size(); i++) {
             mappedFields.get(i).copy(obj, rec, flatRecordWriter);
         }
@@ -19,6 +19,7 @@ package com.netflix.hollow.tools.history;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryKeyIndex;
+import java.io.File;
 import java.util.Map;
 
 /**
@@ -30,8 +31,9 @@ public class HollowHistoricalState {
 
     private final long version;
     private final HollowHistoricalStateKeyOrdinalMapping keyOrdinalMapping;
-    private final HollowHistoricalStateDataAccess dataAccess;
     private final Map<String, String> headerEntries;
+    private volatile HollowHistoricalStateDataAccess dataAccess;
+    private File spillFile;
     private HollowHistoricalState nextState;
 
     public HollowHistoricalState(long version, HollowHistoricalStateKeyOrdinalMapping keyOrdinalMapping, HollowHistoricalStateDataAccess dataAccess, Map<String, String> headerEntries) {
@@ -87,11 +89,34 @@ public class HollowHistoricalState {
         return headerEntries;
     }
 
+    /**
+     * @return true if the data of this state has been spilled to a file on local disk, from which it is paged in
+     * as it is accessed.
+     * @see HollowHistory#spillToDisk(File, int)
+     */
+    public boolean isSpilledToDisk() {
+        return spillFile != null;
+    }
+
     void setNextState(HollowHistoricalState nextState) {
         this.nextState = nextState;
     }
 
+    File getSpillFile() {
+        return spillFile;
+    }
+
+    void setSpilledDataAccess(HollowHistoricalStateDataAccess dataAccess, File spillFile) {
+        this.dataAccess = dataAccess;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * @return the approximate heap footprint of the data of this state, which is zero once it has been spilled to disk
+     */
     public long getApproximateHeapFootprintInBytes() {
+        if (spillFile != null)
+            return 0L;
         long total = 0L;
         for (HollowHistoricalTypeDataAccess typeDataAccess : dataAccess.getTypeDataAccessMap().values()) {
                 total += typeDataAccess.removedRecords.getApproximateHeapFootprintInBytes();
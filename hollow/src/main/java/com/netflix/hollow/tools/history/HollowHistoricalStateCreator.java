@@ -16,6 +16,7 @@
  */
 package com.netflix.hollow.tools.history;
 
+import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.engine.HollowBlobReader;
@@ -47,7 +48,10 @@ import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 import java.io.BufferedOutputStream;
 import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.ArrayList;
@@ -312,6 +316,38 @@ public class HollowHistoricalStateCreator {
         return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), roundTripStateEngine(writeEngine), typeRemovedOrdinalRemapping, previous.getSchemaChanges());
     }
 
+    /**
+     * Copy a historical state to a snapshot blob in the supplied file, and map the copy back from the file rather than
+     * the heap.  Records of the copy are paged in from the file as they are accessed.
+     * <p>
+     * The copied records keep their ordinals, so the copy shares the ordinal mapping and schema changes of the
+     * supplied state.  The file must not be modified or truncated while the copy is in use.
+     *
+     * @param previous the historical state to copy
+     * @param file the file to which the copy is written
+     * @return the data access for the copy
+     * @throws IOException if the copy cannot be written to or mapped from the file
+     */
+    public HollowHistoricalStateDataAccess copyToFile(HollowHistoricalStateDataAccess previous, File file) throws IOException {
+        HollowWriteStateEngine writeEngine = HollowWriteStateCreator.createWithSchemas(schemasWithoutKeys(previous.getSchemas()));
+
+        for(String typeName : previous.getAllTypes()) {
+            HollowHistoricalTypeDataAccess typeDataAccess = (HollowHistoricalTypeDataAccess) previous.getTypeDataAccess(typeName);
+            copyRemappedRecords(typeDataAccess.getRemovedRecords(), IdentityOrdinalRemapper.INSTANCE, writeEngine);
+        }
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            new HollowBlobWriter(writeEngine).writeSnapshot(out);
+        }
+
+        HollowReadStateEngine removedRecordCopies = new HollowReadStateEngine();
+        try (HollowBlobInput in = HollowBlobInput.randomAccess(file, MemoryMode.SHARED_MEMORY_LAZY)) {
+            new HollowBlobReader(removedRecordCopies, MemoryMode.SHARED_MEMORY_LAZY).readSnapshot(in);
+        }
+
+        return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), removedRecordCopies, previous.getOrdinalMapping(), previous.getSchemaChanges());
+    }
+
     private void copyRemappedRecords(HollowTypeReadState readTypeState, OrdinalRemapper ordinalRemapper, HollowWriteStateEngine writeEngine) {
         String typeName = readTypeState.getSchema().getName();
         HollowTypeWriteState typeState = writeEngine.getTypeState(typeName);
@@ -34,6 +34,9 @@ import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateTypeKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryKeyIndex;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
@@ -52,6 +55,10 @@ import java.util.concurrent.ExecutionException;
  * <p>
  * Each retained state is accessible via a {@link HollowHistoricalState}, from which a {@link HollowDataAccess} can
  * be obtained and used interchangeably with a (current) {@link HollowReadStateEngine} for many operations.
+ * <p>
+ * To hold a longer history than fits on the heap, the data of older states can be spilled to memory-mapped files
+ * on local disk with {@link #spillToDisk(File, int)}.  Spilled states are accessed in the same way, and their data
+ * is paged in from disk as it is accessed.
  *
  * This class is not thread safe.
  *
@@ -90,6 +97,9 @@ public class HollowHistory {
     private Map<String, String> latestHeaderEntries;
     private boolean ignoreListOrderingOnDoubleSnapshot = false;
 
+    private File spillDirectory;
+    private int numHistoricalStatesToKeepOnHeap = Integer.MAX_VALUE;
+
     /**
      * @param initialHollowStateEngine The HollowReadStateEngine at an initial (earliest) state.
      * @param initialVersion The initial version of the HollowReadStateEngine
@@ -214,6 +224,30 @@ public class HollowHistory {
         this.ignoreListOrderingOnDoubleSnapshot = true;
     }
 
+    /**
+     * Call this method to spill the data of all but the most recent {@code numHistoricalStatesToKeepOnHeap} historical
+     * states to memory-mapped files in {@code directory}.  States are spilled as they age past the most recent, and
+     * their files are deleted when they are removed from this history.  The key ordinal mappings of spilled states
+     * remain on the heap.
+     *
+     * @param directory the directory to which historical states are spilled
+     * @param numHistoricalStatesToKeepOnHeap the number of most recent historical states to keep on the heap
+     * @throws IllegalArgumentException if {@code directory} is not a directory or the number of states is negative
+     */
+    public void spillToDisk(File directory, int numHistoricalStatesToKeepOnHeap) {
+        requireNonNull(directory, "Spill directory required");
+        if (!directory.isDirectory()) {
+            throw new IllegalArgumentException("Spill directory is not a directory: " + directory);
+        }
+        if (numHistoricalStatesToKeepOnHeap < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Number of states to keep on heap is negative: %d", numHistoricalStatesToKeepOnHeap));
+        }
+        this.spillDirectory = directory;
+        this.numHistoricalStatesToKeepOnHeap = numHistoricalStatesToKeepOnHeap;
+        spillHistoricalStates();
+    }
+
     /**
      * @return The {@link HollowHistoryKeyIndex}, responsible for identifying keyOrdinals.
      */
@@ -386,8 +420,9 @@ public class HollowHistory {
 
         HollowHistoricalStateDataAccess[] remappedDataAccesses = new HollowHistoricalStateDataAccess[historicalStates.size()];
         HollowHistoricalStateKeyOrdinalMapping[] remappedKeyOrdinalMappings = new HollowHistoricalStateKeyOrdinalMapping[historicalStates.size()];
+        File[] remappedSpillFiles = new File[historicalStates.size()];
 
-        remapHistoricalStateOrdinals(remapper, remappedDataAccesses, remappedKeyOrdinalMappings);
+        remapHistoricalStateOrdinals(remapper, remappedDataAccesses, remappedKeyOrdinalMappings, remappedSpillFiles);
 
         for(int i=0;i<historicalStates.size();i++) {
             HollowHistoricalState historicalStateToRemap = historicalStates.get(i);
@@ -397,8 +432,11 @@ public class HollowHistory {
             remappedDataAccess.setNextState(nextRemappedDataAccess);
             nextRemappedDataAccess = remappedDataAccess;
             HollowHistoricalState remappedState = new HollowHistoricalState(historicalStateToRemap.getVersion(), remappedKeyOrdinalMapping, remappedDataAccess, historicalStateToRemap.getHeaderEntries());
+            if(remappedSpillFiles[i] != null)
+                remappedState.setSpilledDataAccess(remappedDataAccess, remappedSpillFiles[i]);
             remappedState.setNextState(nextRemappedState);
             nextRemappedState = remappedState;
+            deleteSpillFile(historicalStateToRemap);
             historicalStates.set(i, remappedState);
             historicalStateLookupMap.put(remappedState.getVersion(), remappedState);
         }
@@ -415,7 +453,10 @@ public class HollowHistory {
     }
 
     // only called when doing a double snapshot
-    private void remapHistoricalStateOrdinals(final DiffEqualityMappingOrdinalRemapper remapper, final HollowHistoricalStateDataAccess[] remappedDataAccesses, final HollowHistoricalStateKeyOrdinalMapping[] remappedKeyOrdinalMappings) {
+    //
+    // the states which will be older than those kept on the heap once the new state is added are spilled as soon as
+    // each is remapped, so that no more than one remapped copy per thread is on the heap at a time
+    private void remapHistoricalStateOrdinals(final DiffEqualityMappingOrdinalRemapper remapper, final HollowHistoricalStateDataAccess[] remappedDataAccesses, final HollowHistoricalStateKeyOrdinalMapping[] remappedKeyOrdinalMappings, final File[] remappedSpillFiles) {
         SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "remap");
         final int numThreads = executor.getCorePoolSize();
 
@@ -424,7 +465,13 @@ public class HollowHistory {
             executor.execute(() -> {
                 for(int t=threadNumber;t<historicalStates.size();t+=numThreads) {
                     HollowHistoricalState historicalStateToRemap = historicalStates.get(t);
-                    remappedDataAccesses[t] = creator.copyButRemapOrdinals(historicalStateToRemap.getDataAccess(), remapper);
+                    HollowHistoricalStateDataAccess remappedDataAccess = creator.copyButRemapOrdinals(historicalStateToRemap.getDataAccess(), remapper);
+                    if(spillDirectory != null && t + 1 >= numHistoricalStatesToKeepOnHeap) {
+                        File spillFile = createSpillFile(historicalStateToRemap.getVersion());
+                        remappedDataAccess = copyToSpillFile(remappedDataAccess, spillFile);
+                        remappedSpillFiles[t] = spillFile;
+                    }
+                    remappedDataAccesses[t] = remappedDataAccess;
                     remappedKeyOrdinalMappings[t] = historicalStateToRemap.getKeyOrdinalMapping().remap(remapper);
                 }
             });
@@ -433,6 +480,10 @@ public class HollowHistory {
         try {
             executor.awaitSuccessfulCompletion();
         } catch (InterruptedException | ExecutionException e) {
+            for(File spillFile : remappedSpillFiles) {
+                if(spillFile != null)
+                    spillFile.delete();
+            }
             throw new RuntimeException(e);
         }
     }
@@ -550,6 +601,8 @@ public class HollowHistory {
         if(historicalStates.size() > maxHistoricalStatesToKeep) {
             removeHistoricalStates(1);
         }
+
+        spillHistoricalStates();
     }
 
     // place historicalState at the end of historicalStates
@@ -571,6 +624,53 @@ public class HollowHistory {
             // drop old read state because we won't be building history in reverse after we get here
             oldestHollowReadStateEngine = null;
         }
+
+        spillHistoricalStates();
+    }
+
+    // spill the data of the states older than those kept on the heap, replacing the data access of each in the chain
+    // of data accesses
+    private void spillHistoricalStates() {
+        if(spillDirectory == null)
+            return;
+
+        for(int i=numHistoricalStatesToKeepOnHeap;i<historicalStates.size();i++) {
+            HollowHistoricalState historicalState = historicalStates.get(i);
+            if(historicalState.isSpilledToDisk())
+                continue;
+
+            HollowHistoricalStateDataAccess dataAccess = historicalState.getDataAccess();
+            File spillFile = createSpillFile(historicalState.getVersion());
+            HollowHistoricalStateDataAccess spilledDataAccess = copyToSpillFile(dataAccess, spillFile);
+            spilledDataAccess.setNextState(dataAccess.getNextState());
+            if(i + 1 < historicalStates.size())
+                historicalStates.get(i + 1).getDataAccess().setNextState(spilledDataAccess);
+            historicalState.setSpilledDataAccess(spilledDataAccess, spillFile);
+        }
+    }
+
+    private File createSpillFile(long version) {
+        try {
+            return File.createTempFile("hollow-history-" + version + "-", ".blob", spillDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill historical state " + version, e);
+        }
+    }
+
+    // the spill file is deleted if the data cannot be copied to it
+    private HollowHistoricalStateDataAccess copyToSpillFile(HollowHistoricalStateDataAccess dataAccess, File spillFile) {
+        try {
+            return creator.copyToFile(dataAccess, spillFile);
+        } catch (IOException e) {
+            spillFile.delete();
+            throw new UncheckedIOException("Failed to spill historical state " + dataAccess.getVersion(), e);
+        }
+    }
+
+    // a spilled file remains mapped by any data access still referencing it, and may not be deleted on all platforms
+    private void deleteSpillFile(HollowHistoricalState historicalState) {
+        if(historicalState.isSpilledToDisk())
+            historicalState.getSpillFile().delete();
     }
 
     /**
@@ -599,6 +699,7 @@ public class HollowHistory {
             HollowHistoricalState removedState;
             removedState = historicalStates.remove(historicalStates.size() - 1);
             historicalStateLookupMap.remove(removedState.getVersion());
+            deleteSpillFile(removedState);
         }
     }
 }
@@ -0,0 +1,639 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.query;
+
+import com.netflix.hollow.core.index.FieldPaths;
+import com.netflix.hollow.core.index.HollowHashIndex;
+import com.netflix.hollow.core.index.HollowHashIndexResult;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.tools.query.HollowQueryPredicate.Composite;
+import com.netflix.hollow.tools.query.HollowQueryPredicate.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A HollowQueryEngine finds the records of a type which match a {@link HollowQueryPredicate}.
+ * <p>
+ * Predicates are evaluated over ranges of ordinals in parallel on a {@link ForkJoinPool}, reading numeric and
+ * reference fields a column at a time.  A predicate on a path through a reference is evaluated over the referenced
+ * type first, and then matched against the reference field's ordinals.
+ * <p>
+ * An equality or IN predicate is looked up in an index rather than evaluated over every record if an index on its
+ * field path has been added with {@link #addIndex(HollowPrimaryKeyIndex)} or {@link #addIndex(HollowHashIndex)}.
+ * Indexes should be {@link HollowPrimaryKeyIndex#listenForDeltaUpdates() kept up to date} with the state engine.
+ * <p>
+ * For example, to find the movies released in the 1990s whose title starts with "The":
+ * <pre>{@code
+ * HollowQueryEngine queryEngine = new HollowQueryEngine(readEngine);
+ * BitSet movieOrdinals = queryEngine.findMatchingRecords("Movie", and(
+ *         between("releaseYear", 1990, 1999),
+ *         startsWith("title", "The")));
+ * }</pre>
+ */
+public class HollowQueryEngine {
+    /**
+     * The number of 64-bit words of matches evaluated by each task.
+     */
+    private static final int TASK_WORDS = 128;
+
+    private final HollowReadStateEngine readEngine;
+    private final ForkJoinPool pool;
+    private final Map<String, List<IndexedField>> indexedFields = new ConcurrentHashMap<>();
+
+    /**
+     * Create a query engine which evaluates predicates on the common fork/join pool.
+     *
+     * @param readEngine the state engine to query
+     */
+    public HollowQueryEngine(HollowReadStateEngine readEngine) {
+        this(readEngine, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param readEngine the state engine to query
+     * @param pool the pool on which to evaluate predicates
+     */
+    public HollowQueryEngine(HollowReadStateEngine readEngine, ForkJoinPool pool) {
+        this.readEngine = readEngine;
+        this.pool = pool;
+    }
+
+    /**
+     * Use a primary key index to look up equality and IN predicates on its field.
+     *
+     * @param index a primary key index of a single field over the queried state engine
+     * @throws IllegalArgumentException if the index is not of a single field, or is over another state engine
+     */
+    public void addIndex(HollowPrimaryKeyIndex index) {
+        PrimaryKey primaryKey = index.getPrimaryKey();
+        if(index.getTypeState().getStateEngine() != readEngine)
+            throw new IllegalArgumentException("Index of " + primaryKey + " is over another state engine");
+        if(primaryKey.numFields() != 1)
+            throw new IllegalArgumentException("Only a primary key index of a single field may be used for queries; primaryKey=" + primaryKey);
+
+        int[] fieldPath = primaryKey.getFieldPathIndex(readEngine, 0);
+        addIndexedField(primaryKey.getType(), fieldPath, values -> {
+            int[] ordinals = new int[values.length];
+            index.getMatchingOrdinals(values, ordinals);
+
+            BitSet matches = new BitSet();
+            for(int ordinal : ordinals) {
+                if(ordinal != -1)
+                    matches.set(ordinal);
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Use a hash index to look up equality and IN predicates on its match field.
+     *
+     * @param index a hash index of a single match field which selects the records of its type, over the queried state
+     * engine
+     * @throws IllegalArgumentException if the index is of more than one match field, does not select the records of
+     * its type, matches a field through a collection, or is over another state engine
+     */
+    public void addIndex(HollowHashIndex index) {
+        if(index.getHollowDataAccess() != readEngine)
+            throw new IllegalArgumentException("Index of " + index.getType() + " is over another state engine");
+        if(index.getMatchFields().length != 1 || !"".equals(index.getSelectField()))
+            throw new IllegalArgumentException("Only a hash index of a single match field which selects its type may be used for queries; type="
+                    + index.getType() + ", selectField=" + index.getSelectField() + ", matchFields=" + Arrays.toString(index.getMatchFields()));
+
+        List<FieldPaths.FieldSegment> segments = FieldPaths.createFieldPathForHashIndex(readEngine, index.getType(), index.getMatchFields()[0]).getSegments();
+        int[] fieldPath = new int[segments.size()];
+        for(int i=0;i<fieldPath.length;i++) {
+            if(!(segments.get(i) instanceof FieldPaths.ObjectFieldSegment))
+                throw new IllegalArgumentException("Only a hash index whose match field is not within a collection may be used for queries; matchField=" + index.getMatchFields()[0]);
+            fieldPath[i] = ((FieldPaths.ObjectFieldSegment) segments.get(i)).getIndex();
+        }
+
+        addIndexedField(index.getType(), fieldPath, values -> {
+            Object[][] queries = new Object[values.length][];
+            for(int i=0;i<values.length;i++)
+                queries[i] = new Object[] { values[i] };
+            HollowHashIndexResult[] results = new HollowHashIndexResult[values.length];
+            index.findMatches(queries, results);
+
+            BitSet matches = new BitSet();
+            for(HollowHashIndexResult result : results) {
+                if(result == null)
+                    continue;
+                HollowOrdinalIterator iter = result.iterator();
+                for(int ordinal = iter.next(); ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS; ordinal = iter.next())
+                    matches.set(ordinal);
+            }
+            return matches;
+        });
+    }
+
+    private void addIndexedField(String type, int[] fieldPath, Function<Object[], BitSet> lookup) {
+        indexedFields.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(new IndexedField(fieldPath, lookup));
+    }
+
+    /**
+     * Find the records of a type which match a predicate.
+     *
+     * @param type the type name
+     * @param predicate the predicate
+     * @return a BitSet which is set at the ordinals of the matching records, which is empty if the type is not
+     * present in the state engine
+     * @throws IllegalArgumentException if the type is not an OBJECT type, a field path cannot be bound to the type,
+     * or a predicate is not supported for the type of its field
+     */
+    public BitSet findMatchingRecords(String type, HollowQueryPredicate predicate) {
+        HollowTypeReadState typeState = readEngine.getTypeState(type);
+        if(typeState == null)
+            return new BitSet();
+        if(!(typeState instanceof HollowObjectTypeReadState))
+            throw new IllegalArgumentException("Only records of an OBJECT type may be queried; type=" + type);
+
+        HollowObjectTypeReadState objectTypeState = (HollowObjectTypeReadState) typeState;
+        return evaluate(objectTypeState, compile(objectTypeState, predicate));
+    }
+
+    private BitSet evaluate(HollowObjectTypeReadState typeState, Node node) {
+        BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+        long[] words = new long[(typeState.maxOrdinal() >> 6) + 1];
+        pool.invoke(new EvaluateTask(node, words, 0, words.length));
+
+        BitSet matches = BitSet.valueOf(words);
+        matches.and(populatedOrdinals);
+        return matches;
+    }
+
+    private Node compile(HollowObjectTypeReadState typeState, HollowQueryPredicate predicate) {
+        if(predicate instanceof Composite) {
+            Composite composite = (Composite) predicate;
+            List<Node> nodes = new ArrayList<>();
+            for(HollowQueryPredicate p : composite.predicates)
+                nodes.add(compile(typeState, p));
+            // Evaluate the precomputed matches first, which may rule out whole ranges without reading any fields
+            nodes.sort((n1, n2) -> Boolean.compare(!(n1 instanceof MatchesNode), !(n2 instanceof MatchesNode)));
+            return new CompositeNode(composite.and, nodes.toArray(new Node[0]));
+        }
+
+        Field field = (Field) predicate;
+        int[] fieldPath = PrimaryKey.getFieldPathIndex(readEngine, typeState.getSchema().getName(), field.fieldPath);
+
+        HollowObjectSchema schema = typeState.getSchema();
+        for(int i=0;i<fieldPath.length-1;i++)
+            schema = (HollowObjectSchema) readEngine.getSchema(schema.getReferencedType(fieldPath[i]));
+        FieldTest test = new FieldTest(field, schema.getFieldType(fieldPath[fieldPath.length - 1]));
+
+        return compileField(typeState, field, test, fieldPath, 0);
+    }
+
+    private Node compileField(HollowObjectTypeReadState typeState, Field field, FieldTest test, int[] fieldPath, int depth) {
+        List<Object> values = field.equalityValues();
+        if(values != null) {
+            IndexedField index = findIndex(typeState.getSchema().getName(), Arrays.copyOfRange(fieldPath, depth, fieldPath.length));
+            if(index != null)
+                return new MatchesNode(index.lookup.apply(test.indexKeys(values)));
+        }
+
+        int fieldIndex = fieldPath[depth];
+        if(depth < fieldPath.length - 1) {
+            HollowObjectTypeReadState referencedTypeState = (HollowObjectTypeReadState) readEngine.getTypeState(typeState.getSchema().getReferencedType(fieldIndex));
+            BitSet referencedMatches = referencedTypeState == null ? new BitSet()
+                    : evaluate(referencedTypeState, compileField(referencedTypeState, field, test, fieldPath, depth + 1));
+            return new ReferenceNode(typeState, fieldIndex, referencedMatches);
+        }
+
+        switch(test.fieldType) {
+            case INT:
+                return new IntNode(typeState, fieldIndex, test.longTest);
+            case LONG:
+                return new LongNode(typeState, fieldIndex, test.longTest);
+            case REFERENCE:
+                return new OrdinalNode(typeState, fieldIndex, test.longTest);
+            case FLOAT:
+                return new FloatNode(typeState, fieldIndex, test.doubleTest);
+            case DOUBLE:
+                return new DoubleNode(typeState, fieldIndex, test.doubleTest);
+            case STRING:
+                if(values != null && values.size() == 1)
+                    return new StringEqualsNode(typeState, fieldIndex, (String) values.get(0));
+                // fall through
+            default:
+                return new RecordNode(typeState, fieldIndex, test.fieldType, test.objectTest);
+        }
+    }
+
+    private IndexedField findIndex(String type, int[] fieldPath) {
+        List<IndexedField> fields = indexedFields.get(type);
+        if(fields != null) {
+            for(IndexedField field : fields) {
+                if(Arrays.equals(field.fieldPath, fieldPath))
+                    return field;
+            }
+        }
+        return null;
+    }
+
+    private static class IndexedField {
+        final int[] fieldPath;
+        final Function<Object[], BitSet> lookup;
+
+        IndexedField(int[] fieldPath, Function<Object[], BitSet> lookup) {
+            this.fieldPath = fieldPath;
+            this.lookup = lookup;
+        }
+    }
+
+    /**
+     * The test of a field predicate against values of the type of its field.
+     */
+    private static class FieldTest {
+        final FieldType fieldType;
+        final LongPredicate longTest;
+        final DoublePredicate doubleTest;
+        final Predicate<Object> objectTest;
+
+        FieldTest(Field field, FieldType fieldType) {
+            this.fieldType = fieldType;
+            switch(fieldType) {
+                case INT:
+                case LONG:
+                case REFERENCE:
+                    longTest = field.longTest(fieldType);
+                    doubleTest = null;
+                    objectTest = null;
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    longTest = null;
+                    doubleTest = field.doubleTest(fieldType);
+                    objectTest = null;
+                    break;
+                default:
+                    longTest = null;
+                    doubleTest = null;
+                    objectTest = field.objectTest(fieldType);
+            }
+        }
+
+        /**
+         * @return the values as keys of an index of the field, excluding values which cannot be present in the field
+         */
+        Object[] indexKeys(List<Object> values) {
+            List<Object> keys = new ArrayList<>();
+            for(Object value : values) {
+                switch(fieldType) {
+                    case INT:
+                    case REFERENCE:
+                        long l = ((Number) value).longValue();
+                        if(l == (int) l)
+                            keys.add((int) l);
+                        break;
+                    case LONG:
+                        keys.add(((Number) value).longValue());
+                        break;
+                    case FLOAT:
+                        keys.add(((Number) value).floatValue());
+                        break;
+                    case DOUBLE:
+                        keys.add(((Number) value).doubleValue());
+                        break;
+                    default:
+                        keys.add(value);
+                }
+            }
+            return keys.toArray();
+        }
+    }
+
+    /**
+     * Sets the bits of a range of words of matches.
+     */
+    private static class EvaluateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Node node;
+        private final long[] words;
+        private final int fromWord;
+        private final int toWord;
+
+        EvaluateTask(Node node, long[] words, int fromWord, int toWord) {
+            this.node = node;
+            this.words = words;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected void compute() {
+            int numWords = toWord - fromWord;
+            if(numWords > TASK_WORDS) {
+                int midWord = fromWord + numWords / 2;
+                invokeAll(new EvaluateTask(node, words, fromWord, midWord), new EvaluateTask(node, words, midWord, toWord));
+                return;
+            }
+
+            long[] taskWords = new long[numWords];
+            node.evaluate(fromWord << 6, numWords, taskWords);
+            System.arraycopy(taskWords, 0, words, fromWord, numWords);
+        }
+    }
+
+    private interface Node {
+        /**
+         * Set the bits of the ordinals which match, starting with the lowest bit of the first word for the ordinal
+         * {@code fromOrdinal}.  Bits for unpopulated ordinals may be set.
+         *
+         * @param fromOrdinal the first ordinal, a multiple of 64
+         * @param numWords the number of words of matches
+         * @param words the words of matches, which are initially zero
+         */
+        void evaluate(int fromOrdinal, int numWords, long[] words);
+    }
+
+    private static class CompositeNode implements Node {
+        private final boolean and;
+        private final Node[] nodes;
+
+        CompositeNode(boolean and, Node[] nodes) {
+            this.and = and;
+            this.nodes = nodes;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            nodes[0].evaluate(fromOrdinal, numWords, words);
+            if(nodes.length == 1)
+                return;
+
+            long[] nodeWords = new long[numWords];
+            for(int i=1;i<nodes.length;i++) {
+                if(and && isEmpty(words, numWords))
+                    return;
+
+                Arrays.fill(nodeWords, 0L);
+                nodes[i].evaluate(fromOrdinal, numWords, nodeWords);
+                for(int w=0;w<numWords;w++)
+                    words[w] = and ? words[w] & nodeWords[w] : words[w] | nodeWords[w];
+            }
+        }
+
+        private static boolean isEmpty(long[] words, int numWords) {
+            for(int w=0;w<numWords;w++) {
+                if(words[w] != 0)
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Matches precomputed ordinals, such as those looked up in an index.
+     */
+    private static class MatchesNode implements Node {
+        private final long[] matchWords;
+
+        MatchesNode(BitSet matches) {
+            this.matchWords = matches.toLongArray();
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            int fromWord = fromOrdinal >> 6;
+            int length = Math.min(numWords, matchWords.length - fromWord);
+            if(length > 0)
+                System.arraycopy(matchWords, fromWord, words, 0, length);
+        }
+    }
+
+    /**
+     * Matches records which reference one of a set of matching records.
+     */
+    private static class ReferenceNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final BitSet referencedMatches;
+
+        ReferenceNode(HollowObjectTypeReadState typeState, int fieldIndex, BitSet referencedMatches) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.referencedMatches = referencedMatches;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            if(referencedMatches.isEmpty())
+                return;
+
+            int[] values = new int[numWords << 6];
+            typeState.readOrdinals(fieldIndex, fromOrdinal, values.length, values);
+            for(int i=0;i<values.length;i++) {
+                if(values[i] != -1 && referencedMatches.get(values[i]))
+                    words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private static class IntNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final LongPredicate test;
+
+        IntNode(HollowObjectTypeReadState typeState, int fieldIndex, LongPredicate test) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            int[] values = new int[numWords << 6];
+            typeState.readInts(fieldIndex, fromOrdinal, values.length, values);
+            for(int i=0;i<values.length;i++) {
+                if(values[i] != Integer.MIN_VALUE && test.test(values[i]))
+                    words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private static class OrdinalNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final LongPredicate test;
+
+        OrdinalNode(HollowObjectTypeReadState typeState, int fieldIndex, LongPredicate test) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            int[] values = new int[numWords << 6];
+            typeState.readOrdinals(fieldIndex, fromOrdinal, values.length, values);
+            for(int i=0;i<values.length;i++) {
+                if(values[i] != -1 && test.test(values[i]))
+                    words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private static class LongNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final LongPredicate test;
+
+        LongNode(HollowObjectTypeReadState typeState, int fieldIndex, LongPredicate test) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            long[] values = new long[numWords << 6];
+            typeState.readLongs(fieldIndex, fromOrdinal, values.length, values);
+            for(int i=0;i<values.length;i++) {
+                if(values[i] != Long.MIN_VALUE && test.test(values[i]))
+                    words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private static class FloatNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final DoublePredicate test;
+
+        FloatNode(HollowObjectTypeReadState typeState, int fieldIndex, DoublePredicate test) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            float[] values = new float[numWords << 6];
+            typeState.readFloats(fieldIndex, fromOrdinal, values.length, values);
+            for(int i=0;i<values.length;i++) {
+                if(!Float.isNaN(values[i]) && test.test(values[i]))
+                    words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private static class DoubleNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final DoublePredicate test;
+
+        DoubleNode(HollowObjectTypeReadState typeState, int fieldIndex, DoublePredicate test) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            double[] values = new double[numWords << 6];
+            typeState.readDoubles(fieldIndex, fromOrdinal, values.length, values);
+            for(int i=0;i<values.length;i++) {
+                if(!Double.isNaN(values[i]) && test.test(values[i]))
+                    words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Matches records whose STRING field is equal to a value, without decoding the field of each record.
+     */
+    private static class StringEqualsNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final String value;
+
+        StringEqualsNode(HollowObjectTypeReadState typeState, int fieldIndex, String value) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.value = value;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+            int toOrdinal = fromOrdinal + (numWords << 6);
+            for(int ordinal = populatedOrdinals.nextSetBit(fromOrdinal); ordinal != -1 && ordinal < toOrdinal; ordinal = populatedOrdinals.nextSetBit(ordinal + 1)) {
+                if(typeState.isStringFieldEqual(ordinal, fieldIndex, value))
+                    words[(ordinal - fromOrdinal) >>> 6] |= 1L << ordinal;
+            }
+        }
+    }
+
+    /**
+     * Matches records by reading the BOOLEAN, STRING or BYTES field of each record.
+     */
+    private static class RecordNode implements Node {
+        private final HollowObjectTypeReadState typeState;
+        private final int fieldIndex;
+        private final FieldType fieldType;
+        private final Predicate<Object> test;
+
+        RecordNode(HollowObjectTypeReadState typeState, int fieldIndex, FieldType fieldType, Predicate<Object> test) {
+            this.typeState = typeState;
+            this.fieldIndex = fieldIndex;
+            this.fieldType = fieldType;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate(int fromOrdinal, int numWords, long[] words) {
+            BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+            int toOrdinal = fromOrdinal + (numWords << 6);
+            for(int ordinal = populatedOrdinals.nextSetBit(fromOrdinal); ordinal != -1 && ordinal < toOrdinal; ordinal = populatedOrdinals.nextSetBit(ordinal + 1)) {
+                Object value = read(ordinal);
+                if(value != null && test.test(value))
+                    words[(ordinal - fromOrdinal) >>> 6] |= 1L << ordinal;
+            }
+        }
+
+        private Object read(int ordinal) {
+            switch(fieldType) {
+                case BOOLEAN:
+                    return typeState.readBoolean(ordinal, fieldIndex);
+                case STRING:
+                    return typeState.readString(ordinal, fieldIndex);
+                default:
+                    return typeState.readBytes(ordinal, fieldIndex);
+            }
+        }
+    }
+}
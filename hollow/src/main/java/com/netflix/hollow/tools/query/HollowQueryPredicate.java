@@ -0,0 +1,365 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.query;
+
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A predicate over the records of a type, evaluated by a {@link HollowQueryEngine}.
+ * <p>
+ * A field predicate tests the value of a field, identified by a path of field names from the queried type in the
+ * same form as a {@link com.netflix.hollow.core.index.key.PrimaryKey} field path.  The path may traverse references,
+ * and a path ending in a reference to a type with a single field, such as a {@code String} type, is expanded to that
+ * field.  Values are given as Java objects of the field's type: a {@link Number} for INT, LONG, FLOAT, DOUBLE and
+ * REFERENCE (ordinal) fields, a {@link String} for STRING fields, a {@link Boolean} for BOOLEAN fields and a
+ * {@code byte[]} for BYTES fields.  Null field values never match.
+ * <p>
+ * Predicates may be composed with {@link #and(HollowQueryPredicate...)} and {@link #or(HollowQueryPredicate...)}.
+ */
+public abstract class HollowQueryPredicate {
+
+    HollowQueryPredicate() { }
+
+    /**
+     * @param fieldPath the field path
+     * @param value the value
+     * @return a predicate matching records whose field is equal to the value
+     */
+    public static HollowQueryPredicate equalTo(String fieldPath, Object value) {
+        return new In(fieldPath, Collections.singletonList(value));
+    }
+
+    /**
+     * @param fieldPath the field path
+     * @param values the values
+     * @return a predicate matching records whose field is equal to any of the values
+     */
+    public static HollowQueryPredicate in(String fieldPath, Object... values) {
+        return new In(fieldPath, Arrays.asList(values));
+    }
+
+    /**
+     * @param fieldPath the field path of a numeric or STRING field
+     * @param min the minimum value, inclusive
+     * @param max the maximum value, inclusive
+     * @return a predicate matching records whose field is within the range
+     */
+    public static HollowQueryPredicate between(String fieldPath, Object min, Object max) {
+        return new Range(fieldPath, min, true, max, true);
+    }
+
+    /**
+     * @param fieldPath the field path of a numeric or STRING field
+     * @param min the exclusive minimum value
+     * @return a predicate matching records whose field is greater than the value
+     */
+    public static HollowQueryPredicate greaterThan(String fieldPath, Object min) {
+        return new Range(fieldPath, min, false, null, false);
+    }
+
+    /**
+     * @param fieldPath the field path of a numeric or STRING field
+     * @param min the inclusive minimum value
+     * @return a predicate matching records whose field is greater than or equal to the value
+     */
+    public static HollowQueryPredicate atLeast(String fieldPath, Object min) {
+        return new Range(fieldPath, min, true, null, false);
+    }
+
+    /**
+     * @param fieldPath the field path of a numeric or STRING field
+     * @param max the exclusive maximum value
+     * @return a predicate matching records whose field is less than the value
+     */
+    public static HollowQueryPredicate lessThan(String fieldPath, Object max) {
+        return new Range(fieldPath, null, false, max, false);
+    }
+
+    /**
+     * @param fieldPath the field path of a numeric or STRING field
+     * @param max the inclusive maximum value
+     * @return a predicate matching records whose field is less than or equal to the value
+     */
+    public static HollowQueryPredicate atMost(String fieldPath, Object max) {
+        return new Range(fieldPath, null, false, max, true);
+    }
+
+    /**
+     * @param fieldPath the field path of a STRING field
+     * @param prefix the prefix
+     * @return a predicate matching records whose field starts with the prefix
+     */
+    public static HollowQueryPredicate startsWith(String fieldPath, String prefix) {
+        return new StartsWith(fieldPath, prefix);
+    }
+
+    /**
+     * @param predicates the predicates
+     * @return a predicate matching records which match all of the predicates
+     */
+    public static HollowQueryPredicate and(HollowQueryPredicate... predicates) {
+        return new Composite(true, Arrays.asList(predicates));
+    }
+
+    /**
+     * @param predicates the predicates
+     * @return a predicate matching records which match any of the predicates
+     */
+    public static HollowQueryPredicate or(HollowQueryPredicate... predicates) {
+        return new Composite(false, Arrays.asList(predicates));
+    }
+
+    static final class Composite extends HollowQueryPredicate {
+        final boolean and;
+        final List<HollowQueryPredicate> predicates;
+
+        Composite(boolean and, List<HollowQueryPredicate> predicates) {
+            if(predicates.isEmpty())
+                throw new IllegalArgumentException("at least one predicate is required");
+            this.and = and;
+            this.predicates = new ArrayList<>(predicates);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("(");
+            for(int i=0;i<predicates.size();i++) {
+                if(i > 0)
+                    sb.append(and ? " AND " : " OR ");
+                sb.append(predicates.get(i));
+            }
+            return sb.append(")").toString();
+        }
+    }
+
+    /**
+     * A predicate over the value of one field, which is compiled into a test of the field's decoded values.
+     */
+    abstract static class Field extends HollowQueryPredicate {
+        final String fieldPath;
+
+        Field(String fieldPath) {
+            this.fieldPath = fieldPath;
+        }
+
+        /**
+         * @return the values this predicate matches by equality, for lookup in an index, or null if it is not an
+         * equality predicate
+         */
+        List<Object> equalityValues() {
+            return null;
+        }
+
+        abstract LongPredicate longTest(FieldType fieldType);
+
+        abstract DoublePredicate doubleTest(FieldType fieldType);
+
+        abstract Predicate<Object> objectTest(FieldType fieldType);
+
+        IllegalArgumentException unsupported(FieldType fieldType) {
+            return new IllegalArgumentException(this + " is not supported for " + fieldType + " fields");
+        }
+    }
+
+    static final class In extends Field {
+        final List<Object> values;
+
+        In(String fieldPath, List<Object> values) {
+            super(fieldPath);
+            for(Object value : values) {
+                if(value == null)
+                    throw new IllegalArgumentException("querying by null unsupported; fieldPath=" + fieldPath);
+            }
+            this.values = new ArrayList<>(values);
+        }
+
+        @Override
+        List<Object> equalityValues() {
+            return values;
+        }
+
+        @Override
+        LongPredicate longTest(FieldType fieldType) {
+            long[] longValues = values.stream().mapToLong(v -> toLong(v, fieldType)).sorted().toArray();
+            if(longValues.length == 1) {
+                long value = longValues[0];
+                return v -> v == value;
+            }
+            return v -> Arrays.binarySearch(longValues, v) >= 0;
+        }
+
+        @Override
+        DoublePredicate doubleTest(FieldType fieldType) {
+            double[] doubleValues = values.stream().mapToDouble(v -> toDouble(v, fieldType)).toArray();
+            return v -> {
+                for(double value : doubleValues) {
+                    if(v == value)
+                        return true;
+                }
+                return false;
+            };
+        }
+
+        @Override
+        Predicate<Object> objectTest(FieldType fieldType) {
+            if(fieldType == FieldType.BYTES) {
+                List<byte[]> byteValues = new ArrayList<>();
+                for(Object value : values)
+                    byteValues.add(cast(value, byte[].class, fieldType));
+                return v -> byteValues.stream().anyMatch(b -> Arrays.equals(b, (byte[]) v));
+            }
+
+            Class<?> valueClass = fieldType == FieldType.STRING ? String.class : Boolean.class;
+            Set<Object> valueSet = new HashSet<>();
+            for(Object value : values)
+                valueSet.add(cast(value, valueClass, fieldType));
+            return valueSet::contains;
+        }
+
+        @Override
+        public String toString() {
+            return values.size() == 1 ? fieldPath + " = " + values.get(0) : fieldPath + " IN " + values;
+        }
+    }
+
+    static final class Range extends Field {
+        final Object min;
+        final boolean minInclusive;
+        final Object max;
+        final boolean maxInclusive;
+
+        Range(String fieldPath, Object min, boolean minInclusive, Object max, boolean maxInclusive) {
+            super(fieldPath);
+            if(min == null && max == null)
+                throw new IllegalArgumentException("a range requires a minimum or maximum; fieldPath=" + fieldPath);
+            this.min = min;
+            this.minInclusive = minInclusive;
+            this.max = max;
+            this.maxInclusive = maxInclusive;
+        }
+
+        @Override
+        LongPredicate longTest(FieldType fieldType) {
+            if(fieldType == FieldType.REFERENCE)
+                throw unsupported(fieldType);
+            long lo = min == null ? Long.MIN_VALUE : toLong(min, fieldType);
+            long hi = max == null ? Long.MAX_VALUE : toLong(max, fieldType);
+            boolean loInclusive = min == null || minInclusive;
+            boolean hiInclusive = max == null || maxInclusive;
+            return v -> (loInclusive ? v >= lo : v > lo) && (hiInclusive ? v <= hi : v < hi);
+        }
+
+        @Override
+        DoublePredicate doubleTest(FieldType fieldType) {
+            double lo = min == null ? Double.NEGATIVE_INFINITY : toDouble(min, fieldType);
+            double hi = max == null ? Double.POSITIVE_INFINITY : toDouble(max, fieldType);
+            boolean loInclusive = min == null || minInclusive;
+            boolean hiInclusive = max == null || maxInclusive;
+            return v -> (loInclusive ? v >= lo : v > lo) && (hiInclusive ? v <= hi : v < hi);
+        }
+
+        @Override
+        Predicate<Object> objectTest(FieldType fieldType) {
+            if(fieldType != FieldType.STRING)
+                throw unsupported(fieldType);
+            String lo = min == null ? null : cast(min, String.class, fieldType);
+            String hi = max == null ? null : cast(max, String.class, fieldType);
+            return v -> {
+                String s = (String) v;
+                if(lo != null) {
+                    int c = s.compareTo(lo);
+                    if(minInclusive ? c < 0 : c <= 0)
+                        return false;
+                }
+                if(hi != null) {
+                    int c = s.compareTo(hi);
+                    if(maxInclusive ? c > 0 : c >= 0)
+                        return false;
+                }
+                return true;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return fieldPath + " IN " + (min == null ? "(" : minInclusive ? "[" : "(") + (min == null ? "" : min)
+                    + ", " + (max == null ? "" : max) + (max == null ? ")" : maxInclusive ? "]" : ")");
+        }
+    }
+
+    static final class StartsWith extends Field {
+        final String prefix;
+
+        StartsWith(String fieldPath, String prefix) {
+            super(fieldPath);
+            if(prefix == null)
+                throw new IllegalArgumentException("querying by null unsupported; fieldPath=" + fieldPath);
+            this.prefix = prefix;
+        }
+
+        @Override
+        LongPredicate longTest(FieldType fieldType) {
+            throw unsupported(fieldType);
+        }
+
+        @Override
+        DoublePredicate doubleTest(FieldType fieldType) {
+            throw unsupported(fieldType);
+        }
+
+        @Override
+        Predicate<Object> objectTest(FieldType fieldType) {
+            if(fieldType != FieldType.STRING)
+                throw unsupported(fieldType);
+            return v -> ((String) v).startsWith(prefix);
+        }
+
+        @Override
+        public String toString() {
+            return fieldPath + " STARTS WITH " + prefix;
+        }
+    }
+
+    private static long toLong(Object value, FieldType fieldType) {
+        Number n = cast(value, Number.class, fieldType);
+        if(n instanceof Double || n instanceof Float)
+            throw new IllegalArgumentException("Value " + value + " is not an integer, as required for a " + fieldType + " field");
+        return n.longValue();
+    }
+
+    private static double toDouble(Object value, FieldType fieldType) {
+        Number n = cast(value, Number.class, fieldType);
+        // FLOAT values are compared at the precision at which they are stored
+        return fieldType == FieldType.FLOAT ? n.floatValue() : n.doubleValue();
+    }
+
+    private static <T> T cast(Object value, Class<T> valueClass, FieldType fieldType) {
+        if(!valueClass.isInstance(value))
+            throw new IllegalArgumentException("Value " + value + " of " + value.getClass().getSimpleName()
+                    + " cannot be matched against a " + fieldType + " field");
+        return valueClass.cast(value);
+    }
+}
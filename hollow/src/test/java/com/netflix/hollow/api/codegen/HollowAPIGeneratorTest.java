@@ -1,5 +1,9 @@
 package com.netflix.hollow.api.codegen;
 
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import org.junit.Test;
 
 public class HollowAPIGeneratorTest extends AbstractHollowAPIGeneratorTest {
@@ -42,6 +46,16 @@ public class HollowAPIGeneratorTest extends AbstractHollowAPIGeneratorTest {
         assertFileDoesNotExist("codegen/api/StringGenerated.java");
     }
 
+    @Test
+    public void testGenerateWithDirectAccess() throws Exception {
+        runGenerator("DirectAccessTestAPI", "codegen.api", DirectAccessClass.class,
+                builder -> builder.withDirectAccess().withErgonomicShortcuts());
+        assertNonEmptyFileExists("codegen/api/DirectAccessClassTypeAPI.java");
+        String typeAPI = new String(Files.readAllBytes(Paths.get(sourceFolder, "codegen/api/DirectAccessClassTypeAPI.java")));
+        assertTrue(typeAPI.contains("private final HollowObjectFieldReader fieldReader0;"));
+        assertTrue(typeAPI.contains("public final int getId(int ordinal) {"));
+    }
+
     @SuppressWarnings("unused")
     private static class MyClass {
         int id;
@@ -52,4 +66,21 @@ public class HollowAPIGeneratorTest extends AbstractHollowAPIGeneratorTest {
             this.foo = foo;
         }
     }
+
+    @SuppressWarnings("unused")
+    private static class DirectAccessClass {
+        int id;
+        long l;
+        float f;
+        double d;
+        boolean b;
+        Integer boxedInt;
+        Long boxedLong;
+        Float boxedFloat;
+        Double boxedDouble;
+        Boolean boxedBoolean;
+        String foo;
+        byte[] bytes;
+        MyClass ref;
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowObjectRecordWriterGeneratorTest {
+    private static final String MOVIE_SOURCE = String.join("\n",
+            "package writergen;",
+            "",
+            "import com.netflix.hollow.core.write.objectmapper.HollowInline;",
+            "import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;",
+            "import com.netflix.hollow.core.write.objectmapper.NullablePrimitiveBoolean;",
+            "import java.util.ArrayList;",
+            "import java.util.List;",
+            "",
+            "@HollowPrimaryKey(fields=\"id\")",
+            "public class Movie {",
+            "    public static int titleReads;",
+            "",
+            "    int id;",
+            "    private String title;",
+            "    short s; byte b; char c; long l; boolean flag; float f; double d;",
+            "    byte[] bytes; char[] chars;",
+            "    @HollowInline Integer inlinedInt; @HollowInline Character inlinedChar; @HollowInline String inlinedString;",
+            "    NullablePrimitiveBoolean nullableBoolean;",
+            "    Actor lead;",
+            "    List<Actor> cast;",
+            "    transient int ignored;",
+            "",
+            "    public String getTitle() {",
+            "        titleReads++;",
+            "        return title;",
+            "    }",
+            "",
+            "    public static Movie create(int i) {",
+            "        Movie m = new Movie();",
+            "        m.id = i;",
+            "        m.title = i % 3 == 0 ? null : \"Movie \" + i;",
+            "        m.s = (short) -i; m.b = (byte) i; m.c = (char) ('a' + i % 26); m.l = i * 1_000_000_007L; m.flag = i % 2 == 0;",
+            "        m.f = i % 4 == 0 ? Float.NaN : i / 3f; m.d = i % 5 == 0 ? Double.NaN : i / 7d;",
+            "        m.bytes = i % 6 == 0 ? null : new byte[] { (byte) i, 1, 2 }; m.chars = i % 7 == 0 ? null : (\"c\" + i).toCharArray();",
+            "        m.inlinedInt = i % 2 == 0 ? null : i; m.inlinedChar = i % 3 == 0 ? null : (char) ('A' + i % 26);",
+            "        m.inlinedString = i % 4 == 0 ? null : \"s\" + i;",
+            "        m.nullableBoolean = i % 3 == 0 ? null : NullablePrimitiveBoolean.TRUE;",
+            "        m.lead = i % 5 == 0 ? null : new Actor(\"Actor \" + i % 10, i % 10);",
+            "        m.cast = new ArrayList<>();",
+            "        for (int j = 0; j < i % 4; j++) m.cast.add(new Actor(\"Actor \" + j, j));",
+            "        m.ignored = i;",
+            "        return m;",
+            "    }",
+            "",
+            "    public static class Actor {",
+            "        String name;",
+            "        int age;",
+            "        Actor(String name, int age) { this.name = name; this.age = age; }",
+            "    }",
+            "}",
+            "");
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("writergen").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        HollowCodeGenerationCompileUtil.cleanupFolder(dir, null);
+    }
+
+    @Test
+    public void generatedWritersWriteTheSameRecordsAsReflection() throws Exception {
+        ClassLoader reflectionLoader = compile("reflection", false);
+        ClassLoader generatedLoader = compile("generated", true);
+
+        Assert.assertNotNull(generatedLoader.loadClass("writergen.MovieHollowWriter"));
+        Assert.assertNotNull(generatedLoader.loadClass("writergen.Movie_ActorHollowWriter"));
+
+        HollowReadStateEngine reflectionEngine = populate(reflectionLoader);
+        HollowReadStateEngine generatedEngine = populate(generatedLoader);
+
+        // only the generated writer reads the private title with its getter
+        Assert.assertEquals(0, reflectionLoader.loadClass("writergen.Movie").getField("titleReads").getInt(null));
+        Assert.assertEquals(100, generatedLoader.loadClass("writergen.Movie").getField("titleReads").getInt(null));
+
+        Assert.assertEquals(HollowChecksum.forStateEngineWithCommonSchemas(reflectionEngine, generatedEngine),
+                HollowChecksum.forStateEngineWithCommonSchemas(generatedEngine, reflectionEngine));
+        Assert.assertEquals(100, generatedEngine.getTypeState("Movie").getPopulatedOrdinals().cardinality());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInaccessibleFields() {
+        new HollowObjectRecordWriterClassGenerator(PrivateField.class).generate();
+    }
+
+    @Test
+    public void includesReferencedClasses() {
+        HollowObjectRecordWriterGenerator generator = new HollowObjectRecordWriterGenerator(Outer.class);
+        Assert.assertTrue(generator.getClasses().contains(Outer.class));
+        Assert.assertTrue(generator.getClasses().contains(Inner.class));
+        Assert.assertEquals(2, generator.getClasses().size());
+    }
+
+    private ClassLoader compile(String name, boolean generateWriters) throws Exception {
+        File srcDir = new File(dir, name + "/src");
+        File classDir = new File(dir, name + "/classes");
+        File packageDir = new File(srcDir, "writergen");
+        packageDir.mkdirs();
+        classDir.mkdirs();
+        File movieSource = new File(packageDir, "Movie.java");
+        Files.write(movieSource.toPath(), MOVIE_SOURCE.getBytes(StandardCharsets.UTF_8));
+        compile(classDir, movieSource);
+
+        if (generateWriters) {
+            try (URLClassLoader loader = new URLClassLoader(new URL[] { classDir.toURI().toURL() }, getClass().getClassLoader())) {
+                new HollowObjectRecordWriterGenerator(loader.loadClass("writergen.Movie")).generateFiles(srcDir);
+            }
+            compile(classDir, new File(packageDir, "MovieHollowWriter.java"), new File(packageDir, "Movie_ActorHollowWriter.java"));
+        }
+
+        return new URLClassLoader(new URL[] { classDir.toURI().toURL() }, getClass().getClassLoader());
+    }
+
+    private static void compile(File classDir, File... sources) {
+        List<String> args = new ArrayList<>();
+        args.add("-d");
+        args.add(classDir.getAbsolutePath());
+        args.add("-classpath");
+        args.add(System.getProperty("java.class.path") + File.pathSeparator + classDir.getAbsolutePath());
+        for (File source : sources) {
+            args.add(source.getAbsolutePath());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assert.assertEquals(0, compiler.run(null, System.out, System.out, args.toArray(new String[0])));
+    }
+
+    private static HollowReadStateEngine populate(ClassLoader loader) throws Exception {
+        Class<?> movieClass = loader.loadClass("writergen.Movie");
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for (int i = 0; i < 100; i++) {
+            mapper.add(movieClass.getMethod("create", int.class).invoke(null, i));
+        }
+        return StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+    }
+
+    static class PrivateField {
+        private int id;
+    }
+
+    static class Outer {
+        int id;
+        List<Inner> inners;
+    }
+
+    static class Inner {
+        String name;
+    }
+}
@@ -476,16 +476,14 @@ public class HollowProducerConsumerTests {
         consumer.triggerRefreshTo(version);
         Assert.assertEquals(version, consumer.getCurrentVersionId());
 
-        // Filtering is not supported in shared memory mode
-        try {
+        // Filtering is also supported in shared memory modes
+        for (MemoryMode memoryMode : new MemoryMode[] {MemoryMode.SHARED_MEMORY_LAZY, MemoryMode.SHARED_MEMORY_EAGER}) {
+            Assert.assertTrue(memoryMode.supportsFiltering());
             HollowConsumer.withBlobRetriever(blobStore)
-                    .withMemoryMode(MemoryMode.SHARED_MEMORY_LAZY)
+                    .withMemoryMode(memoryMode)
                     .withTypeFilter(filterConfig)
                     .build();
-        } catch (UnsupportedOperationException e) {
-            return;
         }
-        Assert.fail();  // fail if UnsupportedOperationException was not thrown
     }
 
     private long runCycle(HollowProducer producer, final int cycleNumber) {
@@ -0,0 +1,281 @@
+package com.netflix.hollow.api.consumer;
+
+import com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowFilesystemPublisher;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowSharedMemoryConsumerTest {
+
+    private File localDir;
+    private HollowProducer producer;
+    private int cycleNumber;
+
+    @Before
+    public void setUp() throws IOException {
+        localDir = Files.createTempDirectory("hollow_shm").toFile();
+        localDir.deleteOnExit();
+        producer = HollowProducer.withPublisher(new HollowFilesystemPublisher(localDir.toPath()))
+                .withNumStatesBetweenSnapshots(100)
+                .build();
+    }
+
+    @Test
+    public void appliesDeltasInSharedMemoryLazyMode() {
+        appliesDeltasInSharedMemoryMode(MemoryMode.SHARED_MEMORY_LAZY);
+    }
+
+    @Test
+    public void appliesDeltasInSharedMemoryEagerMode() {
+        appliesDeltasInSharedMemoryMode(MemoryMode.SHARED_MEMORY_EAGER);
+    }
+
+    private void appliesDeltasInSharedMemoryMode(MemoryMode memoryMode) {
+        long v1 = runCycle(0, 100);
+
+        HollowConsumer sharedMemoryConsumer = newConsumer(memoryMode);
+        sharedMemoryConsumer.triggerRefreshTo(v1);
+
+        long v2 = runCycle(20, 130);    // removals, additions and modifications
+        long v3 = runCycle(20, 2000);   // field widths grow
+        long v4 = runCycle(1500, 1600);
+
+        for(long version : new long[] {v2, v3, v4}) {
+            sharedMemoryConsumer.triggerRefreshTo(version);
+            Assert.assertEquals(version, sharedMemoryConsumer.getCurrentVersionId());
+
+            HollowConsumer onHeapConsumer = newConsumer(MemoryMode.ON_HEAP);
+            onHeapConsumer.triggerRefreshTo(version);
+
+            Assert.assertEquals(
+                    HollowChecksum.forStateEngine(onHeapConsumer.getStateEngine()),
+                    HollowChecksum.forStateEngine(sharedMemoryConsumer.getStateEngine()));
+        }
+
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(sharedMemoryConsumer.getStateEngine(), "Entity", "id");
+        GenericHollowObject entity = new GenericHollowObject(sharedMemoryConsumer.getStateEngine(), "Entity", idx.getMatchingOrdinal(1551));
+        Assert.assertEquals("name1551-4", entity.getObject("name").getString("value"));
+        Assert.assertEquals(1, entity.getList("values").size());
+        Assert.assertEquals(3, entity.getSet("tags").size());
+        Assert.assertEquals(1, entity.getMap("attributes").size());
+        Assert.assertEquals(-1, idx.getMatchingOrdinal(20));
+    }
+
+    @Test
+    public void filtersTypesAndFieldsInSharedMemoryMode() {
+        long v1 = runCycle(0, 100);
+        long v2 = runCycle(20, 2000);
+
+        TypeFilter filter = TypeFilter.newTypeFilter()
+                .excludeAll()
+                .include("Entity", "id")
+                .includeRecursive("Entity", "values")
+                .build();
+
+        for(MemoryMode memoryMode : new MemoryMode[] {MemoryMode.ON_HEAP, MemoryMode.SHARED_MEMORY_LAZY, MemoryMode.SHARED_MEMORY_EAGER}) {
+            HollowConsumer consumer = newConsumer(memoryMode, filter);
+            for(long version : new long[] {v1, v2}) {
+                consumer.triggerRefreshTo(version);
+                HollowReadStateEngine stateEngine = consumer.getStateEngine();
+
+                Assert.assertNull(stateEngine.getTypeState("String"));
+                Assert.assertNull(stateEngine.getTypeState("SetOfString"));
+                Assert.assertNull(stateEngine.getTypeState("MapOfStringToLong"));
+                Assert.assertNotNull(stateEngine.getTypeState("ListOfInteger"));
+                HollowObjectSchema schema = (HollowObjectSchema) stateEngine.getSchema("Entity");
+                Assert.assertEquals(-1, schema.getPosition("name"));
+                Assert.assertEquals(-1, schema.getPosition("tags"));
+                Assert.assertEquals(-1, schema.getPosition("attributes"));
+
+                int id = version == v1 ? 99 : 1999;
+                HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(stateEngine, "Entity", "id");
+                GenericHollowObject entity = new GenericHollowObject(stateEngine, "Entity", idx.getMatchingOrdinal(id));
+                Assert.assertEquals(id, entity.getInt("id"));
+                Assert.assertEquals(id % 5, entity.getList("values").size());
+                Assert.assertEquals(id * (id % 5 - 1), entity.getList("values").getObject(id % 5 - 1).getInt("value"));
+            }
+        }
+    }
+
+    @Test
+    public void loadsSnapshotInParallel() {
+        long v1 = runCycle(0, 2000);
+
+        HollowConsumer serialConsumer = newConsumer(MemoryMode.ON_HEAP);
+        serialConsumer.triggerRefreshTo(v1);
+
+        for(MemoryMode memoryMode : new MemoryMode[] {MemoryMode.ON_HEAP, MemoryMode.SHARED_MEMORY_LAZY}) {
+            HollowConsumer parallelConsumer = HollowConsumer.newHollowConsumer()
+                    .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                    .withMemoryMode(memoryMode)
+                    .withSnapshotLoadParallelism(4)
+                    .build();
+            parallelConsumer.triggerRefreshTo(v1);
+
+            Assert.assertEquals(
+                    HollowChecksum.forStateEngine(serialConsumer.getStateEngine()),
+                    HollowChecksum.forStateEngine(parallelConsumer.getStateEngine()));
+            Assert.assertEquals(
+                    serialConsumer.getStateEngine().getAllTypes(),
+                    parallelConsumer.getStateEngine().getAllTypes());
+        }
+    }
+
+    @Test
+    public void appliesDeltasInParallel() {
+        producer = HollowProducer.withPublisher(new HollowFilesystemPublisher(localDir.toPath()))
+                .withNumStatesBetweenSnapshots(100)
+                .withTargetMaxTypeShardSize(4096)
+                .build();
+        long v1 = runCycle(0, 1000);
+
+        for(MemoryMode memoryMode : new MemoryMode[] {MemoryMode.ON_HEAP, MemoryMode.SHARED_MEMORY_LAZY}) {
+            HollowConsumer parallelConsumer = HollowConsumer.newHollowConsumer()
+                    .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                    .withMemoryMode(memoryMode)
+                    .withDeltaApplyParallelism(4)
+                    .build();
+            parallelConsumer.triggerRefreshTo(v1);
+            Assert.assertTrue(parallelConsumer.getStateEngine().getTypeState("Entity").numShards() > 1);
+
+            long[] versions = new long[] {runCycle(20, 1030), runCycle(20, 3000), runCycle(1500, 1600)};
+            for(long version : versions) {
+                parallelConsumer.triggerRefreshTo(version);
+                Assert.assertEquals(version, parallelConsumer.getCurrentVersionId());
+
+                HollowConsumer serialConsumer = newConsumer(MemoryMode.ON_HEAP);
+                serialConsumer.triggerRefreshTo(version);
+
+                Assert.assertEquals(
+                        HollowChecksum.forStateEngine(serialConsumer.getStateEngine()),
+                        HollowChecksum.forStateEngine(parallelConsumer.getStateEngine()));
+            }
+        }
+    }
+
+    @Test
+    public void readsBlockCompressedBlobs() {
+        producer = HollowProducer.withPublisher(new HollowFilesystemPublisher(localDir.toPath()))
+                .withNumStatesBetweenSnapshots(100)
+                .withBlobCompressor(HollowProducer.BlobCompressor.BLOCK_COMPRESSION)
+                .build();
+        long v1 = runCycle(0, 1000);
+        long v2 = runCycle(20, 3000);
+
+        for(MemoryMode memoryMode : new MemoryMode[] {MemoryMode.ON_HEAP, MemoryMode.SHARED_MEMORY_LAZY}) {
+            HollowConsumer consumer = newConsumer(memoryMode);
+            consumer.triggerRefreshTo(v1);
+            consumer.triggerRefreshTo(v2);
+            Assert.assertEquals(v2, consumer.getCurrentVersionId());
+
+            HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(consumer.getStateEngine(), "Entity", "id");
+            GenericHollowObject entity = new GenericHollowObject(consumer.getStateEngine(), "Entity", idx.getMatchingOrdinal(2997));
+            Assert.assertEquals("name2997-2", entity.getObject("name").getString("value"));
+            Assert.assertEquals(-1, idx.getMatchingOrdinal(19));
+        }
+
+        // only the published blobs remain once the decompressed files are closed
+        Assert.assertEquals(0, localDir.list((dir, name) -> name.startsWith("hollow-decompressed-")).length);
+    }
+
+    @Test
+    public void stagesDeltasInTheConfiguredDirectory() throws IOException {
+        long v1 = runCycle(0, 100);
+        long v2 = runCycle(20, 2000);
+
+        // by default data is staged alongside the snapshot blob
+        HollowConsumer consumer = newConsumer(MemoryMode.SHARED_MEMORY_LAZY);
+        consumer.triggerRefreshTo(v1);
+        Assert.assertEquals(localDir.getAbsoluteFile(), consumer.getStateEngine().getSharedMemoryStagingDirectory());
+
+        File missingDir = new File(localDir, "missing");
+        consumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withMemoryMode(MemoryMode.SHARED_MEMORY_LAZY)
+                .withSharedMemoryStagingDirectory(missingDir)
+                .build();
+        consumer.triggerRefreshTo(v1);
+        Assert.assertEquals(missingDir, consumer.getStateEngine().getSharedMemoryStagingDirectory());
+        try {
+            consumer.triggerRefreshTo(v2);
+            Assert.fail("expected the delta to fail to stage in a missing directory");
+        } catch(RuntimeException expected) {
+        }
+        Assert.assertEquals(v1, consumer.getCurrentVersionId());
+
+        File stagingDir = Files.createTempDirectory("hollow_shm_staging").toFile();
+        stagingDir.deleteOnExit();
+        consumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withMemoryMode(MemoryMode.SHARED_MEMORY_LAZY)
+                .withSharedMemoryStagingDirectory(stagingDir)
+                .build();
+        consumer.triggerRefreshTo(v1);
+        consumer.triggerRefreshTo(v2);
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        // staging files are unlinked once mapped
+        Assert.assertEquals(0, stagingDir.list().length);
+    }
+
+    private HollowConsumer newConsumer(MemoryMode memoryMode) {
+        return newConsumer(memoryMode, null);
+    }
+
+    private HollowConsumer newConsumer(MemoryMode memoryMode, TypeFilter filter) {
+        return HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withMemoryMode(memoryMode)
+                .withTypeFilter(filter)
+                .build();
+    }
+
+    private long runCycle(int fromId, int toId) {
+        int cycle = ++cycleNumber;
+        return producer.runCycle(state -> {
+            for(int i=fromId;i<toId;i++)
+                state.add(new Entity(i, i % 3 == 0 ? "name" + i + "-" + cycle : "name" + i));
+        });
+    }
+
+    @HollowPrimaryKey(fields="id")
+    static class Entity {
+        int id;
+        String name;
+        List<Integer> values;
+        Set<String> tags;
+        Map<String, Long> attributes;
+
+        Entity(int id, String name) {
+            this.id = id;
+            this.name = name;
+            this.values = new ArrayList<>();
+            this.tags = new HashSet<>();
+            this.attributes = new HashMap<>();
+            for(int i=0;i<id%5;i++)
+                values.add(id * i);
+            for(int i=0;i<id%4;i++)
+                tags.add("tag" + (id+i));
+            for(int i=0;i<id%2;i++)
+                attributes.put(name, (long)id);
+        }
+    }
+}
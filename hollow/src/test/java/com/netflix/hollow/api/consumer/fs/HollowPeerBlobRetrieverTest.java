@@ -0,0 +1,220 @@
+package com.netflix.hollow.api.consumer.fs;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowPeerBlobRetrieverTest {
+
+    private InMemoryBlobStore blobStore;
+    private HollowProducer producer;
+    private CountingBlobRetriever origin;
+    private Path peerDir;
+    private HollowPeerBlobServer peerServer;
+
+    @Before
+    public void setUp() throws IOException {
+        blobStore = new InMemoryBlobStore();
+        producer = HollowProducer.withPublisher(blobStore).withBlobStager(new HollowInMemoryBlobStager()).build();
+        origin = new CountingBlobRetriever(blobStore);
+        peerDir = Files.createTempDirectory("hollow_peer");
+        peerServer = new HollowPeerBlobServer(peerDir, 0, 2);
+    }
+
+    @After
+    public void tearDown() {
+        peerServer.close();
+    }
+
+    @Test
+    public void retrievesBlobsFromPeers() throws IOException {
+        long v1 = runCycle(0, 100);
+        long v2 = runCycle(50, 150);
+
+        HollowConsumer peer = HollowConsumer.withBlobRetriever(
+                new HollowPeerBlobRetriever(peerDir, Collections.emptyList(), origin)).build();
+        peer.triggerRefreshTo(v1);
+        peer.triggerRefreshTo(v2);
+        Assert.assertEquals(2, origin.blobStreamsOpened.get());
+
+        // an unreachable peer is skipped
+        URI unreachablePeer = URI.create("http://localhost:1/");
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(new HollowPeerBlobRetriever(
+                Files.createTempDirectory("hollow_peer"), Arrays.asList(unreachablePeer, peerServer.getURI()), origin)).build();
+        consumer.triggerRefreshTo(v1);
+        consumer.triggerRefreshTo(v2);
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        assertRecords(consumer, 50, 150);
+        Assert.assertEquals(2, origin.blobStreamsOpened.get());
+    }
+
+    @Test
+    public void fallsBackToOriginOnMissOrChecksumMismatch() throws IOException {
+        long v1 = runCycle(0, 100);
+
+        HollowConsumer peer = HollowConsumer.withBlobRetriever(
+                new HollowPeerBlobRetriever(peerDir, Collections.emptyList(), origin)).build();
+        peer.triggerRefreshTo(v1);
+        Assert.assertEquals(1, origin.blobStreamsOpened.get());
+
+        // the peer's copy of the snapshot no longer matches its checksum
+        Path snapshot = peerDir.resolve("snapshot-" + v1);
+        byte[] corrupted = Files.readAllBytes(snapshot);
+        corrupted[corrupted.length - 1] ^= 1;
+        Files.write(snapshot, corrupted);
+
+        long v2 = runCycle(50, 150);
+        Path consumerDir = Files.createTempDirectory("hollow_peer");
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(new HollowPeerBlobRetriever(
+                consumerDir, Collections.singletonList(peerServer.getURI()), origin)).build();
+        consumer.triggerRefreshTo(v1);
+        consumer.triggerRefreshTo(v2);
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        assertRecords(consumer, 50, 150);
+        // the snapshot, then the delta which the peer has not retrieved, are retrieved from the origin
+        Assert.assertEquals(3, origin.blobStreamsOpened.get());
+        Assert.assertTrue(Files.exists(consumerDir.resolve("snapshot-" + v1 + HollowPeerBlobRetriever.CHECKSUM_SUFFIX)));
+    }
+
+    @Test
+    public void requestsABlobFromAFewPeers() throws IOException {
+        long v1 = runCycle(0, 100);
+
+        AtomicInteger peerRequests = new AtomicInteger();
+        List<HttpServer> missingPeers = new ArrayList<>();
+        List<URI> peers = new ArrayList<>();
+        try {
+            for (int i = 0; i < 10; i++) {
+                HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+                server.createContext("/", exchange -> {
+                    peerRequests.incrementAndGet();
+                    exchange.sendResponseHeaders(404, -1);
+                    exchange.close();
+                });
+                server.start();
+                missingPeers.add(server);
+                peers.add(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/"));
+            }
+
+            HollowConsumer consumer = HollowConsumer.withBlobRetriever(new HollowPeerBlobRetriever(
+                    Files.createTempDirectory("hollow_peer"), peers, origin, 1000, 30000, 2, 1000)).build();
+            consumer.triggerRefreshTo(v1);
+            assertRecords(consumer, 0, 100);
+            Assert.assertEquals(2, peerRequests.get());
+            Assert.assertEquals(1, origin.blobStreamsOpened.get());
+        } finally {
+            missingPeers.forEach(server -> server.stop(0));
+        }
+    }
+
+    @Test
+    public void seedersRetrieveEachBlobFromTheOriginOnce() throws IOException {
+        long v1 = runCycle(0, 100);
+        long v2 = runCycle(50, 150);
+
+        HollowPeerBlobRetriever seeder = new HollowPeerBlobRetriever(
+                Files.createTempDirectory("hollow_seeder"), Collections.emptyList(), origin);
+        try (HollowPeerBlobServer seederServer = new HollowPeerBlobServer(
+                seeder, InetAddress.getLoopbackAddress(), 0, 2, true)) {
+            // consumers miss both blobs at once, and wait for the seeder to retrieve them
+            for (int i = 0; i < 3; i++) {
+                HollowConsumer consumer = HollowConsumer.withBlobRetriever(new HollowPeerBlobRetriever(
+                        Files.createTempDirectory("hollow_peer"), Collections.singletonList(seederServer.getURI()), origin)).build();
+                consumer.triggerRefreshTo(v1);
+                consumer.triggerRefreshTo(v2);
+                assertRecords(consumer, 50, 150);
+            }
+        }
+        Assert.assertEquals(2, origin.blobStreamsOpened.get());
+    }
+
+    @Test
+    public void servesOnTheLoopbackInterfaceByDefault() throws IOException {
+        Assert.assertTrue(InetAddress.getByName(peerServer.getURI().getHost()).isLoopbackAddress());
+    }
+
+    private long runCycle(int from, int to) {
+        return producer.runCycle(state -> {
+            for (int i = from; i < to; i++) {
+                state.add(new Entity(i));
+            }
+        });
+    }
+
+    private static void assertRecords(HollowConsumer consumer, int from, int to) {
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(consumer.getStateEngine(), "Entity", "id");
+        Assert.assertEquals(to - from, consumer.getStateEngine().getTypeState("Entity").getPopulatedOrdinals().cardinality());
+        for (int i = from; i < to; i++) {
+            int ordinal = idx.getMatchingOrdinal(i);
+            Assert.assertNotEquals(-1, ordinal);
+            Assert.assertEquals(i, new GenericHollowObject(consumer.getStateEngine(), "Entity", ordinal).getInt("id"));
+        }
+    }
+
+    private static class CountingBlobRetriever implements HollowConsumer.BlobRetriever {
+        private final HollowConsumer.BlobRetriever delegate;
+        private final AtomicInteger blobStreamsOpened = new AtomicInteger();
+
+        CountingBlobRetriever(HollowConsumer.BlobRetriever delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+            return counting(delegate.retrieveSnapshotBlob(desiredVersion));
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+            return counting(delegate.retrieveDeltaBlob(currentVersion));
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+            return counting(delegate.retrieveReverseDeltaBlob(currentVersion));
+        }
+
+        private HollowConsumer.Blob counting(HollowConsumer.Blob blob) {
+            if (blob == null) {
+                return null;
+            }
+            return new HollowConsumer.Blob(blob.getFromVersion(), blob.getToVersion()) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    blobStreamsOpened.incrementAndGet();
+                    return blob.getInputStream();
+                }
+            };
+        }
+    }
+
+    @HollowPrimaryKey(fields = "id")
+    static class Entity {
+        int id;
+
+        Entity(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.netflix.hollow.api.consumer.fs;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowPrefetchingBlobRetrieverTest {
+
+    @Test
+    public void prefetchesPublishedDeltasBeforeRefresh() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore).withBlobStager(new HollowInMemoryBlobStager()).build();
+        long v1 = runCycle(producer, 0, 100);
+
+        File prefetchDir = Files.createTempDirectory("hollow_prefetch").toFile();
+        prefetchDir.deleteOnExit();
+        CountingBlobRetriever remote = new CountingBlobRetriever(blobStore);
+        HollowPrefetchingBlobRetriever retriever =
+                new HollowPrefetchingBlobRetriever(prefetchDir.toPath(), remote, 10, 32);
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(retriever)
+                .withRefreshListener(retriever)
+                .build();
+        consumer.triggerRefreshTo(v1);
+        // the snapshot is removed once it has been applied
+        Assert.assertFalse(new File(prefetchDir, "snapshot-" + v1).exists());
+
+        long v2 = runCycle(producer, 50, 150);
+        long v3 = runCycle(producer, 100, 200);
+
+        // both deltas are downloaded before the consumer is asked to refresh
+        awaitFile(new File(prefetchDir, "delta-" + v1 + "-" + v2));
+        awaitFile(new File(prefetchDir, "delta-" + v2 + "-" + v3));
+        int downloads = remote.blobStreamsOpened.get();
+
+        consumer.triggerRefreshTo(v3);
+        Assert.assertEquals(v3, consumer.getCurrentVersionId());
+        Assert.assertEquals(downloads, remote.blobStreamsOpened.get());
+        assertRecords(consumer, 100, 200);
+
+        // deltas from versions before the current version are removed
+        Assert.assertFalse(new File(prefetchDir, "delta-" + v1 + "-" + v2).exists());
+        Assert.assertFalse(new File(prefetchDir, "delta-" + v2 + "-" + v3).exists());
+
+        retriever.close();
+    }
+
+    @Test
+    public void builderConfiguresPrefetching() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore).withBlobStager(new HollowInMemoryBlobStager()).build();
+        long v1 = runCycle(producer, 0, 100);
+        long v2 = runCycle(producer, 50, 150);
+
+        File prefetchDir = Files.createTempDirectory("hollow_prefetch").toFile();
+        prefetchDir.deleteOnExit();
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withBlobPrefetching(prefetchDir)
+                .build();
+        consumer.triggerRefreshTo(v1);
+        consumer.triggerRefreshTo(v2);
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        assertRecords(consumer, 50, 150);
+
+        long v3 = runCycle(producer, 0, 10);
+        consumer.triggerRefreshTo(v3);
+        assertRecords(consumer, 0, 10);
+
+        HollowConsumer pollingConsumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withBlobPrefetching(prefetchDir, 10, 1)
+                .build();
+        pollingConsumer.triggerRefreshTo(v1);
+        pollingConsumer.triggerRefreshTo(v3);
+        assertRecords(pollingConsumer, 0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builderRejectsANegativePollInterval() throws Exception {
+        HollowConsumer.withBlobRetriever(new InMemoryBlobStore())
+                .withBlobPrefetching(Files.createTempDirectory("hollow_prefetch").toFile(), -1, 1);
+    }
+
+    @Test
+    public void downloadsSnapshotsWhenFirstRead() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore).withBlobStager(new HollowInMemoryBlobStager()).build();
+        long v1 = runCycle(producer, 0, 100);
+
+        File prefetchDir = Files.createTempDirectory("hollow_prefetch").toFile();
+        prefetchDir.deleteOnExit();
+        CountingBlobRetriever remote = new CountingBlobRetriever(blobStore);
+        HollowPrefetchingBlobRetriever retriever =
+                new HollowPrefetchingBlobRetriever(prefetchDir.toPath(), remote, 0, 32);
+
+        // a snapshot which is retrieved but never read is not downloaded
+        HollowConsumer.Blob unread = retriever.retrieveSnapshotBlob(v1);
+        Thread.sleep(100);
+        Assert.assertEquals(0, remote.blobStreamsOpened.get());
+
+        retriever.refreshFailed(HollowConstants.VERSION_NONE, HollowConstants.VERSION_NONE, v1, null);
+        try {
+            unread.getInputStream();
+            Assert.fail("Expected a removed snapshot to be unreadable");
+        } catch (IOException expected) {
+        }
+        Assert.assertEquals(0, remote.blobStreamsOpened.get());
+
+        HollowConsumer.Blob snapshot = retriever.retrieveSnapshotBlob(v1);
+        Assert.assertEquals(0, remote.blobStreamsOpened.get());
+        Assert.assertTrue(snapshot.getFile().exists());
+        snapshot.getInputStream().close();
+        Assert.assertEquals(1, remote.blobStreamsOpened.get());
+
+        retriever.close();
+    }
+
+    private static long runCycle(HollowProducer producer, int from, int to) {
+        return producer.runCycle(state -> {
+            for (int i = from; i < to; i++) {
+                state.add(new Entity(i));
+            }
+        });
+    }
+
+    private static void assertRecords(HollowConsumer consumer, int from, int to) {
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(consumer.getStateEngine(), "Entity", "id");
+        Assert.assertEquals(to - from, consumer.getStateEngine().getTypeState("Entity").getPopulatedOrdinals().cardinality());
+        for (int i = from; i < to; i++) {
+            int ordinal = idx.getMatchingOrdinal(i);
+            Assert.assertNotEquals(-1, ordinal);
+            Assert.assertEquals(i, new GenericHollowObject(consumer.getStateEngine(), "Entity", ordinal).getInt("id"));
+        }
+    }
+
+    private static void awaitFile(File file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!file.exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue("Expected " + file + " to be prefetched", file.exists());
+    }
+
+    private static class CountingBlobRetriever implements HollowConsumer.BlobRetriever {
+        private final HollowConsumer.BlobRetriever delegate;
+        private final AtomicInteger blobStreamsOpened = new AtomicInteger();
+
+        CountingBlobRetriever(HollowConsumer.BlobRetriever delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+            return counting(delegate.retrieveSnapshotBlob(desiredVersion));
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+            return counting(delegate.retrieveDeltaBlob(currentVersion));
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+            return counting(delegate.retrieveReverseDeltaBlob(currentVersion));
+        }
+
+        private HollowConsumer.Blob counting(HollowConsumer.Blob blob) {
+            if (blob == null) {
+                return null;
+            }
+            return new HollowConsumer.Blob(blob.getFromVersion(), blob.getToVersion()) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    blobStreamsOpened.incrementAndGet();
+                    return blob.getInputStream();
+                }
+            };
+        }
+    }
+
+    @HollowPrimaryKey(fields = "id")
+    static class Entity {
+        int id;
+
+        Entity(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowHashKey;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IncrementalIntegrityCheckTest {
+
+    @Test
+    public void producesConsumableDeltaChain() {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withIncrementalIntegrityCheck()
+                .build();
+
+        long v1 = producer.runCycle(state -> addRecords(state, 0, 1000));
+        long v2 = producer.runCycle(state -> addRecords(state, 500, 1500));
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        consumer.triggerRefreshTo(v1);
+        assertRecords(consumer, 0, 1000);
+        consumer.triggerRefreshTo(v2);
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        assertRecords(consumer, 500, 1500);
+
+        // the producer's read state remains consistent across further cycles
+        long v3 = producer.runCycle(state -> addRecords(state, 1000, 2000));
+        consumer.triggerRefreshTo(v3);
+        Assert.assertEquals(v3, consumer.getCurrentVersionId());
+        assertRecords(consumer, 1000, 2000);
+
+        // snapshots are not staged for the integrity check between snapshot cycles
+        HollowProducer restoredProducer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withIncrementalIntegrityCheck()
+                .withNumStatesBetweenSnapshots(5)
+                .build();
+        restoredProducer.initializeDataModel(Rec.class);
+        restoredProducer.restore(v3, blobStore);
+        long v4 = restoredProducer.runCycle(state -> addRecords(state, 1500, 2500));
+        long v5 = restoredProducer.runCycle(state -> addRecords(state, 2000, 3000));
+
+        consumer.triggerRefreshTo(v5);
+        Assert.assertEquals(v5, consumer.getCurrentVersionId());
+        assertRecords(consumer, 2000, 3000);
+        Assert.assertNotNull(blobStore.retrieveDeltaBlob(v4));
+    }
+
+    @Test
+    public void fallsBackToFullCheckOnSchemaChange() {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withIncrementalIntegrityCheck()
+                .build();
+
+        producer.runCycle(state -> addRecords(state, 0, 100));
+        long v2 = producer.runCycle(state -> {
+            addRecords(state, 0, 100);
+            state.add(new Other(1));
+        });
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        consumer.triggerRefreshTo(v2);
+        assertRecords(consumer, 0, 100);
+        Assert.assertEquals(1, consumer.getStateEngine().getTypeState("Other").getPopulatedOrdinals().cardinality());
+    }
+
+    @Test
+    public void detectsMismatchedReadState() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for (int i = 0; i < 100; i++) {
+            mapper.add(newRec(i));
+        }
+
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        StateEngineRoundTripper.roundTripSnapshot(writeEngine, readEngine);
+
+        for (int i = 50; i < 150; i++) {
+            mapper.add(newRec(i));
+        }
+        writeEngine.prepareForWrite();
+
+        IncrementalIntegrityCheck check = new IncrementalIntegrityCheck(writeEngine);
+        Assert.assertFalse(check.validateDelta(readEngine));
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeDelta(delta);
+        try (HollowBlobInput in = HollowBlobInput.serial(delta.toByteArray())) {
+            new HollowBlobReader(readEngine).applyDelta(in);
+        }
+        Assert.assertTrue(check.validateDelta(readEngine));
+        Assert.assertFalse(check.validateReverseDelta(readEngine));
+    }
+
+    private static void addRecords(HollowProducer.WriteState state, int from, int to) {
+        for (int i = from; i < to; i++) {
+            state.add(newRec(i));
+        }
+    }
+
+    private static Rec newRec(int id) {
+        Set<String> tags = new HashSet<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int j = 0; j < id % 7; j++) {
+            tags.add("tag" + (id + j) % 50);
+            counts.put("count" + (id + j) % 30, j);
+        }
+        return new Rec(id, "value" + id, Arrays.asList(id, id + 1), tags, counts);
+    }
+
+    private void assertRecords(HollowConsumer consumer, int from, int to) {
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(consumer.getStateEngine(), "Rec", "id");
+        Assert.assertEquals(to - from, consumer.getStateEngine().getTypeState("Rec").getPopulatedOrdinals().cardinality());
+        for (int i = from; i < to; i++) {
+            int ordinal = idx.getMatchingOrdinal(i);
+            Assert.assertNotEquals(-1, ordinal);
+            GenericHollowObject rec = new GenericHollowObject(consumer.getStateEngine(), "Rec", ordinal);
+            Assert.assertEquals("value" + i, rec.getObject("value").getString("value"));
+            Assert.assertEquals(i % 7, rec.getSet("tags").size());
+        }
+    }
+
+    @HollowPrimaryKey(fields = "id")
+    static class Rec {
+        int id;
+        String value;
+        List<Integer> list;
+        @HollowHashKey(fields = "value")
+        Set<String> tags;
+        Map<String, Integer> counts;
+
+        Rec(int id, String value, List<Integer> list, Set<String> tags, Map<String, Integer> counts) {
+            this.id = id;
+            this.value = value;
+            this.list = list;
+            this.tags = tags;
+            this.counts = counts;
+        }
+    }
+
+    static class Other {
+        int id;
+
+        Other(int id) {
+            this.id = id;
+        }
+    }
+}
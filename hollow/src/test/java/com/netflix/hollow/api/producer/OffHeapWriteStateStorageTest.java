@@ -0,0 +1,155 @@
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapWriteStateStorageTest {
+
+    @Test
+    public void directMemory() {
+        runCycles(HollowProducer.withPublisher(new InMemoryBlobStore()).withOffHeapWriteStateStorage());
+    }
+
+    @Test
+    public void memoryMappedFiles() throws IOException {
+        File dir = Files.createTempDirectory("hollow-off-heap").toFile();
+        try {
+            runCycles(HollowProducer.withPublisher(new InMemoryBlobStore()).withOffHeapWriteStateStorage(dir));
+            // segment files are unlinked once mapped
+            Assert.assertEquals(0, dir.listFiles().length);
+        } finally {
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void releasesTheFilesOfRestoredRecords() throws IOException {
+        File fdDir = new File("/proc/self/fd");
+        if (!fdDir.isDirectory()) {
+            return; // open files can only be listed where procfs is available
+        }
+
+        File dir = Files.createTempDirectory("hollow-off-heap").toFile();
+        try {
+            InMemoryBlobStore blobStore = new InMemoryBlobStore();
+            HollowProducer producer = HollowProducer.withPublisher(blobStore).withBlobStager(new HollowInMemoryBlobStager()).build();
+            long v1 = producer.runCycle(state -> {
+                for (int i = 0; i < 1000; i++) {
+                    state.add(new TestRec(i, "value" + i));
+                }
+            });
+
+            HollowProducer restoredProducer = HollowProducer.withPublisher(blobStore)
+                    .withBlobStager(new HollowInMemoryBlobStager())
+                    .withOffHeapWriteStateStorage(dir)
+                    .build();
+            restoredProducer.initializeDataModel(TestRec.class);
+            restoredProducer.restore(v1, blobStore);
+            Assert.assertEquals(2, openFiles(fdDir, dir));
+
+            restoredProducer.runCycle(state -> {
+                for (int i = 500; i < 1500; i++) {
+                    state.add(new TestRec(i, "value" + i));
+                }
+            });
+            Assert.assertEquals(4, openFiles(fdDir, dir));
+
+            restoredProducer.runCycle(state -> {
+                for (int i = 1000; i < 2000; i++) {
+                    state.add(new TestRec(i, "value" + i));
+                }
+            });
+
+            // the records restored for TestRec and String are released once the first cycle after the restore is done
+            Assert.assertEquals(2, openFiles(fdDir, dir));
+        } finally {
+            dir.delete();
+        }
+    }
+
+    private static int openFiles(File fdDir, File dir) throws IOException {
+        int count = 0;
+        for (File fd : fdDir.listFiles()) {
+            try {
+                if (Files.readSymbolicLink(fd.toPath()).toString().startsWith(dir.getCanonicalPath())) {
+                    count++;
+                }
+            } catch (IOException e) {
+                // the descriptor was closed while listing
+            }
+        }
+        return count;
+    }
+
+    private void runCycles(HollowProducer.Builder<?> builder) {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = builder.withPublisher(blobStore).withBlobStager(new HollowInMemoryBlobStager()).build();
+        producer.initializeDataModel(TestRec.class);
+
+        long v1 = producer.runCycle(state -> {
+            for (int i = 0; i < 10000; i++) {
+                state.add(new TestRec(i, "value" + i));
+            }
+        });
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        consumer.triggerRefreshTo(v1);
+        assertRecords(consumer, 0, 10000);
+
+        long v2 = producer.runCycle(state -> {
+            for (int i = 5000; i < 15000; i++) {
+                state.add(new TestRec(i, "value" + i));
+            }
+        });
+
+        consumer.triggerRefreshTo(v2);
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        assertRecords(consumer, 5000, 15000);
+
+        // a restored producer continues the delta chain with its restored records also held off-heap
+        HollowProducer restoredProducer = builder.withPublisher(blobStore).withBlobStager(new HollowInMemoryBlobStager()).build();
+        restoredProducer.initializeDataModel(TestRec.class);
+        restoredProducer.restore(v2, blobStore);
+
+        long v3 = restoredProducer.runCycle(state -> {
+            for (int i = 10000; i < 20000; i++) {
+                state.add(new TestRec(i, "value" + i));
+            }
+        });
+
+        consumer.triggerRefreshTo(v3);
+        Assert.assertEquals(v3, consumer.getCurrentVersionId());
+        assertRecords(consumer, 10000, 20000);
+    }
+
+    private void assertRecords(HollowConsumer consumer, int from, int to) {
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(consumer.getStateEngine(), "TestRec", "id");
+        Assert.assertEquals(to - from, consumer.getStateEngine().getTypeState("TestRec").getPopulatedOrdinals().cardinality());
+        for (int i = from; i < to; i++) {
+            int ordinal = idx.getMatchingOrdinal(i);
+            Assert.assertNotEquals(-1, ordinal);
+            GenericHollowObject rec = new GenericHollowObject(consumer.getStateEngine(), "TestRec", ordinal);
+            Assert.assertEquals("value" + i, rec.getObject("value").getString("value"));
+        }
+    }
+
+    @HollowPrimaryKey(fields = "id")
+    static class TestRec {
+        int id;
+        String value;
+
+        TestRec(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.producer.HollowProducer.Blob;
+import com.netflix.hollow.api.producer.HollowProducer.PublishArtifact;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StreamingPublisherTest {
+
+    @Test
+    public void streamsBlobsAsTheyAreWritten() throws IOException {
+        StreamingBlobStore blobStore = new StreamingBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobCompressor(new GZipCompressor())
+                .build();
+
+        producer.runCycle(state -> {
+            for (int i = 0; i < 1000; i++) {
+                state.add(new Rec(i, "value" + i));
+            }
+        });
+        long v2 = producer.runCycle(state -> {
+            for (int i = 500; i < 1500; i++) {
+                state.add(new Rec(i, "value" + i));
+            }
+        });
+
+        // snapshot, delta, reverse delta and snapshot
+        Assert.assertEquals(4, blobStore.published.size());
+        for (Blob blob : blobStore.published) {
+            ByteArrayOutputStream streamed = blobStore.streams.get(blob);
+            Assert.assertNotNull(streamed);
+            Assert.assertTrue(blobStore.closed.contains(streamed));
+            // the streamed bytes are the compressed contents of the staged blob
+            try (InputStream decompressed = new GZIPInputStream(new ByteArrayInputStream(streamed.toByteArray()))) {
+                Assert.assertArrayEquals(blobStore.staged.get(blob), readFully(decompressed));
+            }
+        }
+
+        // the streamed snapshot of the latest state is consumable
+        Blob snapshot = blobStore.published.get(3);
+        Assert.assertEquals(Blob.Type.SNAPSHOT, snapshot.getType());
+        Assert.assertEquals(v2, snapshot.getToVersion());
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        try (HollowBlobInput in = HollowBlobInput.serial(
+                new GZIPInputStream(new ByteArrayInputStream(blobStore.streams.get(snapshot).toByteArray())))) {
+            new HollowBlobReader(readEngine).readSnapshot(in);
+        }
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(readEngine, "Rec", "id");
+        Assert.assertNotEquals(-1, idx.getMatchingOrdinal(1499));
+        Assert.assertEquals(-1, idx.getMatchingOrdinal(499));
+    }
+
+    @Test
+    public void abortsTheStreamOfABlobWhichFailedToBeWritten() {
+        StreamingBlobStore blobStore = new StreamingBlobStore();
+        blobStore.failWrites = true;
+        HollowProducer producer = HollowProducer.withPublisher(blobStore).build();
+
+        try {
+            producer.runCycle(state -> state.add(new Rec(1, "value1")));
+            Assert.fail("Expected the cycle to fail");
+        } catch (RuntimeException expected) {
+        }
+
+        Assert.assertEquals(1, blobStore.streams.size());
+        ByteArrayOutputStream streamed = blobStore.streams.values().iterator().next();
+        // a truncated blob is aborted rather than completed, and is not published
+        Assert.assertEquals(Collections.singletonList(streamed), blobStore.aborted);
+        Assert.assertTrue(blobStore.closed.isEmpty());
+        Assert.assertTrue(blobStore.published.isEmpty());
+    }
+
+    @Test
+    public void failsACycleWhenTheStreamCannotBeOpened() {
+        StreamingBlobStore blobStore = new StreamingBlobStore();
+        blobStore.failOpens = true;
+        HollowProducer producer = HollowProducer.withPublisher(blobStore).build();
+
+        try {
+            producer.runCycle(state -> state.add(new Rec(1, "value1")));
+            Assert.fail("Expected the cycle to fail");
+        } catch (RuntimeException expected) {
+        }
+        Assert.assertTrue(blobStore.published.isEmpty());
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int n;
+        while ((n = is.read(buf)) != -1) {
+            baos.write(buf, 0, n);
+        }
+        return baos.toByteArray();
+    }
+
+    private static class StreamingBlobStore implements HollowProducer.StreamingPublisher {
+        final Map<Blob, ByteArrayOutputStream> streams = new HashMap<>();
+        final List<ByteArrayOutputStream> closed = new ArrayList<>();
+        final List<OutputStream> aborted = new ArrayList<>();
+        final List<Blob> published = new ArrayList<>();
+        final Map<Blob, byte[]> staged = new HashMap<>();
+
+        boolean failWrites;
+        boolean failOpens;
+
+        @Override
+        public OutputStream openStream(Blob blob) throws IOException {
+            if (failOpens) {
+                throw new IOException("failed to open stream");
+            }
+            ByteArrayOutputStream os = new ByteArrayOutputStream() {
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    if (failWrites) {
+                        throw new IllegalStateException("failed to write");
+                    }
+                    super.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    closed.add(this);
+                }
+            };
+            streams.put(blob, os);
+            return os;
+        }
+
+        @Override
+        public void abortStream(Blob blob, OutputStream stream) {
+            aborted.add(stream);
+        }
+
+        @Override
+        public void publish(PublishArtifact artifact) {
+            if (artifact instanceof Blob) {
+                published.add((Blob) artifact);
+                try (InputStream is = artifact.newInputStream()) {
+                    staged.put((Blob) artifact, readFully(is));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    private static class GZipCompressor implements HollowProducer.BlobCompressor {
+        @Override
+        public OutputStream compress(OutputStream os) {
+            try {
+                return new GZIPOutputStream(os);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) {
+            try {
+                return new GZIPInputStream(is);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @HollowPrimaryKey(fields = "id")
+    static class Rec {
+        int id;
+        String value;
+
+        Rec(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.netflix.hollow.api.sampling;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowAccessHeatProfilerTest {
+    private InMemoryBlobStore blobStore;
+    private HollowProducer producer;
+    private HollowConsumer consumer;
+
+    @Before
+    public void setUp() {
+        blobStore = new InMemoryBlobStore();
+        producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+        consumer = HollowConsumer.withBlobRetriever(blobStore).build();
+
+        consumer.triggerRefreshTo(runCycle(100));
+    }
+
+    @Test
+    public void recommendsAFilterOfTheFieldsAndTypesNotAccessed() {
+        HollowAccessHeatProfiler profiler = new HollowAccessHeatProfiler(consumer, new EnabledSamplingDirector(), 100);
+        profiler.start();
+        readTitles();
+        HollowAccessHeat heat = profiler.stop();
+
+        Assert.assertEquals(100L, (long) heat.getFieldAccessCounts().get("Movie").get("title"));
+        Assert.assertEquals(0L, (long) heat.getFieldAccessCounts().get("Movie").get("budget"));
+        Assert.assertEquals(0L, (long) heat.getTypeAccessCounts().get("Award"));
+
+        // the primary key is retained though it was not accessed
+        Assert.assertEquals(Collections.singletonMap("Movie", new TreeSet<>(Arrays.asList("awards", "budget"))),
+                heat.getExcludedFields());
+        Assert.assertEquals(new TreeSet<>(Arrays.asList("Award", "ListOfAward")), heat.getExcludedTypes());
+
+        HollowObjectTypeReadState movies = (HollowObjectTypeReadState) consumer.getStateEngine().getTypeState("Movie");
+        long expectedHeapSaved = consumer.getStateEngine().getTypeState("Award").getApproximateHeapFootprintInBytes()
+                + consumer.getStateEngine().getTypeState("ListOfAward").getApproximateHeapFootprintInBytes()
+                + movies.getApproximateHeapFootprintInBytes(movies.getSchema().getPosition("budget"))
+                + movies.getApproximateHeapFootprintInBytes(movies.getSchema().getPosition("awards"));
+        Assert.assertTrue(expectedHeapSaved > 0);
+        Assert.assertEquals(expectedHeapSaved, heat.getEstimatedHeapSavedInBytes());
+
+        TypeFilter filter = heat.getRecommendedTypeFilter().resolve(consumer.getStateEngine().getSchemas());
+        Assert.assertTrue(filter.includes("Movie", "id"));
+        Assert.assertTrue(filter.includes("Movie", "title"));
+        Assert.assertFalse(filter.includes("Movie", "budget"));
+        Assert.assertFalse(filter.includes("Award"));
+    }
+
+    @Test
+    public void appliesTheFilterOnTheNextDoubleSnapshot() {
+        HollowAccessHeatProfiler profiler = new HollowAccessHeatProfiler(consumer, new EnabledSamplingDirector(), 100);
+        profiler.start();
+        readTitles();
+
+        HollowAccessHeat heat = profiler.applyRecommendedFilter();
+        Assert.assertTrue(heat.getEstimatedHeapSavedInBytes() > 0);
+
+        // a delta does not apply the filter
+        consumer.triggerRefreshTo(runCycle(101));
+        Assert.assertNotNull(consumer.getStateEngine().getTypeState("Award"));
+
+        consumer.forceDoubleSnapshotNextUpdate();
+        consumer.triggerRefreshTo(runCycle(102));
+        Assert.assertNull(consumer.getStateEngine().getTypeState("Award"));
+        HollowObjectSchema schema = (HollowObjectSchema) consumer.getStateEngine().getSchema("Movie");
+        Assert.assertEquals(-1, schema.getPosition("budget"));
+        Assert.assertEquals(-1, schema.getPosition("awards"));
+
+        // accesses are aggregated across the double snapshot
+        readTitles();
+        heat = profiler.stop();
+        Assert.assertEquals(202L, (long) heat.getFieldAccessCounts().get("Movie").get("title"));
+        Assert.assertEquals(0, heat.getEstimatedHeapSavedInBytes());
+    }
+
+    @Test
+    public void recordsEveryAccessByDefault() {
+        HollowAccessHeatProfiler profiler = new HollowAccessHeatProfiler(consumer);
+        profiler.start();
+        readTitles();
+        HollowAccessHeat heat = profiler.stop();
+
+        Assert.assertEquals(100L, (long) heat.getFieldAccessCounts().get("Movie").get("title"));
+        Assert.assertEquals(100L, heat.getTotalSamples());
+        Assert.assertEquals(HollowAccessHeat.DEFAULT_MIN_SAMPLES, heat.getMinSamples());
+    }
+
+    @Test
+    public void recommendsNoExclusionsFromTooFewSamples() {
+        HollowAccessHeatProfiler profiler = new HollowAccessHeatProfiler(consumer, new EnabledSamplingDirector(), 101);
+        profiler.start();
+        readTitles();
+        HollowAccessHeat heat = profiler.applyRecommendedFilter();
+
+        Assert.assertTrue(heat.getExcludedTypes().isEmpty());
+        Assert.assertTrue(heat.getExcludedFields().isEmpty());
+        Assert.assertEquals(0, heat.getEstimatedHeapSavedInBytes());
+
+        consumer.forceDoubleSnapshotNextUpdate();
+        consumer.triggerRefreshTo(runCycle(101));
+        Assert.assertNotNull(consumer.getStateEngine().getTypeState("Award"));
+        Assert.assertNotEquals(-1, ((HollowObjectSchema) consumer.getStateEngine().getSchema("Movie")).getPosition("budget"));
+        profiler.stop();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void reportsNoHeatBeforeProfiling() {
+        new HollowAccessHeatProfiler(consumer).getAccessHeat();
+    }
+
+    private long runCycle(int numMovies) {
+        return producer.runCycle(ws -> {
+            for (int i = 0; i < numMovies; i++) {
+                ws.add(new Movie(i, "title" + i, i * 1000L, Arrays.asList(new Award("award" + i))));
+            }
+        });
+    }
+
+    private void readTitles() {
+        HollowObjectTypeReadState movies = (HollowObjectTypeReadState) consumer.getStateEngine().getTypeState("Movie");
+        for (int ordinal = movies.getPopulatedOrdinals().nextSetBit(0); ordinal != -1; ordinal = movies.getPopulatedOrdinals().nextSetBit(ordinal + 1)) {
+            Assert.assertNotNull(new GenericHollowObject(movies, ordinal).getString("title"));
+        }
+    }
+
+    @HollowPrimaryKey(fields = "id")
+    @SuppressWarnings("unused")
+    static class Movie {
+        int id;
+        @HollowInline
+        String title;
+        long budget;
+        List<Award> awards;
+
+        Movie(int id, String title, long budget, List<Award> awards) {
+            this.id = id;
+            this.title = title;
+            this.budget = budget;
+            this.awards = awards;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class Award {
+        @HollowInline
+        String name;
+
+        Award(String name) {
+            this.name = name;
+        }
+    }
+}
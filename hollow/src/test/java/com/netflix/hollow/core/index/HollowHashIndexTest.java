@@ -21,12 +21,17 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
 import com.netflix.hollow.core.write.objectmapper.HollowInline;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.IntStream;
 import org.junit.Assert;
@@ -67,6 +72,41 @@ public class HollowHashIndexTest extends AbstractStateEngineTest {
 
     }
 
+    @Test
+    public void testBatchFindMatches() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            mapper.add(new TypeA(i % 500, i, new TypeB("b" + (i % 500)), new TypeB("b" + i)));
+        }
+
+        roundTripSnapshot();
+
+        HollowHashIndex index = new HollowHashIndex(readStateEngine, "TypeA", "", "a1", "ab.element.b1.value");
+
+        int numQueries = 2000;
+        Object[][] queries = new Object[numQueries][];
+        for (int q = 0; q < numQueries; q++) {
+            int a1 = (q * 7919) % numQueries - 500;
+            queries[q] = new Object[] {a1, "b" + a1};
+        }
+
+        HollowHashIndexResult[] results = new HollowHashIndexResult[numQueries];
+        index.findMatches(queries, results);
+
+        for (int q = 0; q < numQueries; q++) {
+            HollowHashIndexResult expected = index.findMatches(queries[q]);
+            int a1 = (Integer) queries[q][0];
+            if (a1 < 0 || a1 >= 500) {
+                Assert.assertNull(expected);
+                Assert.assertNull(results[q]);
+            } else {
+                Assert.assertEquals(2, expected.numResults());
+                Assert.assertEquals(expected.stream().boxed().collect(toSet()), results[q].stream().boxed().collect(toSet()));
+            }
+        }
+
+        index.findMatches(new Object[0][], new HollowHashIndexResult[0]);
+    }
+
     @Test
     public void testIndexingStringTypeFieldWithNullValues() throws Exception {
         mapper.add(new TypeB(null));
@@ -307,6 +347,129 @@ public class HollowHashIndexTest extends AbstractStateEngineTest {
         assertIteratorContainsAll(preUpdateIterator, 4, 5);
     }
     
+    @Test
+    public void testDeltaUpdatesMatchRebuiltIndex() throws Exception {
+        Random rand = new Random(1234);
+        List<TypeA> records = new ArrayList<>();
+        for(int i=0;i<1000;i++)
+            records.add(randomTypeA(rand, 40));
+        records.forEach(mapper::add);
+
+        roundTripSnapshot();
+
+        String[][] indexDefinitions = {
+                {"", "a1"},
+                {"", "a1", "ab.element.b1.value"},
+                {"", "ab.element.b1.value"},
+                {"a1", "ab.element.b1.value"}
+        };
+        List<HollowHashIndex> indexes = new ArrayList<>();
+        for(String[] definition : indexDefinitions) {
+            HollowHashIndex index = new HollowHashIndex(readStateEngine, "TypeA", definition[0], Arrays.copyOfRange(definition, 1, definition.length));
+            index.listenForDeltaUpdates();
+            indexes.add(index);
+        }
+
+        for(int cycle=0;cycle<10;cycle++) {
+            /// remove, modify and add a few records, introducing new keys and retiring others
+            for(int i=0;i<20;i++)
+                records.remove(rand.nextInt(records.size()));
+            for(int i=0;i<10;i++)
+                records.set(rand.nextInt(records.size()), randomTypeA(rand, 40 + cycle));
+            for(int i=0;i<25;i++)
+                records.add(cycle % 2 == 0 ? new TypeA(cycle, 0.1d * i, new TypeB("b" + i)) : randomTypeA(rand, 40 + cycle));
+            records.forEach(mapper::add);
+
+            roundTripDelta();
+
+            for(HollowHashIndex index : indexes) {
+                HollowHashIndex rebuiltIndex = new HollowHashIndex(readStateEngine, "TypeA", index.getSelectField(), index.getMatchFields());
+                for(int a1=0;a1<50;a1++) {
+                    for(int b=0;b<50;b++) {
+                        Object[] query = index.getMatchFields().length == 2 ? new Object[] {a1, "b" + b}
+                                : index.getMatchFields()[0].equals("a1") ? new Object[] {a1} : new Object[] {"b" + b};
+                        assertSameMatches(rebuiltIndex.findMatches(query), index.findMatches(query));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelBuildMatchesSerialBuild() throws Exception {
+        Random rand = new Random(4321);
+        for(int i=0;i<5000;i++)
+            mapper.add(randomTypeA(rand, 500));
+
+        roundTripSnapshot();
+
+        for(String[] definition : new String[][] {{"", "a1", "ab.element.b1.value"}, {"a1", "ab.element.b1.value"}, {"ab.element", "a1"}}) {
+            String[] matchFields = Arrays.copyOfRange(definition, 1, definition.length);
+            HollowHashIndexBuilder serialBuilder = new HollowHashIndexBuilder(readStateEngine, "TypeA", definition[0], matchFields);
+            serialBuilder.buildIndex(1);
+            HollowHashIndexBuilder parallelBuilder = new HollowHashIndexBuilder(readStateEngine, "TypeA", definition[0], matchFields);
+            parallelBuilder.buildIndex(4);
+
+            Map<List<Long>, Set<Integer>> serialMatches = decodeMatches(serialBuilder);
+            Assert.assertFalse(serialMatches.isEmpty());
+            Assert.assertEquals(serialMatches, decodeMatches(parallelBuilder));
+        }
+    }
+
+    private Map<List<Long>, Set<Integer>> decodeMatches(HollowHashIndexBuilder builder) {
+        Map<List<Long>, Set<Integer>> matches = new HashMap<>();
+        int bitsPerMatchHashEntry = builder.getFinalBitsPerMatchHashEntry();
+        int bitsPerSelectHashEntry = builder.getBitsPerSelectHashEntry();
+
+        for(long bucket=0;bucket<=builder.getFinalMatchHashMask();bucket++) {
+            long bucketBit = bucket * bitsPerMatchHashEntry;
+            if(builder.getFinalMatchHashTable().getElementValue(bucketBit, builder.getBitsPerTraverserField()[0]) == 0)
+                continue;
+
+            List<Long> key = new ArrayList<>();
+            for(int i=0;i<builder.getBitsPerTraverserField().length;i++) {
+                if(builder.getOffsetPerTraverserField()[i] < builder.getBitsPerMatchHashKey())
+                    key.add(builder.getFinalMatchHashTable().getElementValue(bucketBit + builder.getOffsetPerTraverserField()[i], builder.getBitsPerTraverserField()[i]));
+            }
+
+            long sizeBit = bucketBit + builder.getBitsPerMatchHashKey();
+            int selectTableSize = (int)builder.getFinalMatchHashTable().getElementValue(sizeBit, builder.getFinalBitsPerSelectTableSize());
+            long selectTablePointer = builder.getFinalMatchHashTable().getElementValue(sizeBit + builder.getFinalBitsPerSelectTableSize(), builder.getFinalBitsPerSelectTablePointer());
+
+            Set<Integer> selectOrdinals = new HashSet<>();
+            for(long selectBucket=selectTablePointer;selectBucket<selectTablePointer + HashCodes.hashTableSize(selectTableSize);selectBucket++) {
+                long selectOrdinal = builder.getFinalSelectHashArray().getElementValue(selectBucket * bitsPerSelectHashEntry, bitsPerSelectHashEntry) - 1;
+                if(selectOrdinal != -1)
+                    selectOrdinals.add((int)selectOrdinal);
+            }
+            Assert.assertEquals(selectTableSize, selectOrdinals.size());
+            Assert.assertNull(matches.put(key, selectOrdinals));
+        }
+
+        return matches;
+    }
+
+    private TypeA randomTypeA(Random rand, int numKeys) {
+        TypeB[] ab = new TypeB[rand.nextInt(4)];
+        for(int i=0;i<ab.length;i++)
+            ab[i] = new TypeB("b" + rand.nextInt(50));
+        return new TypeA(rand.nextInt(numKeys), rand.nextDouble(), ab);
+    }
+
+    private void assertSameMatches(HollowHashIndexResult expected, HollowHashIndexResult actual) {
+        if(expected == null) {
+            Assert.assertNull(actual);
+            return;
+        }
+
+        Assert.assertNotNull(actual);
+        Assert.assertEquals(expected.numResults(), actual.numResults());
+        Set<Integer> expectedOrdinals = expected.stream().boxed().collect(toSet());
+        Assert.assertEquals(expectedOrdinals, actual.stream().boxed().collect(toSet()));
+        for(int ordinal : expectedOrdinals)
+            Assert.assertTrue(actual.contains(ordinal));
+    }
+
     @Test
     public void testGettingPropertiesValues() throws Exception {
         mapper.add(new TypeInlinedString(null));
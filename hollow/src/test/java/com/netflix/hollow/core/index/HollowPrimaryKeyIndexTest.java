@@ -17,12 +17,14 @@
 package com.netflix.hollow.core.index;
 
 import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
 import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
 import java.io.IOException;
@@ -132,6 +134,102 @@ public class HollowPrimaryKeyIndexTest extends AbstractStateEngineTest {
         Assert.assertFalse(idx.containsDuplicates());
     }
 
+    @Test
+    public void typedLookupsMatchBoxedLookups() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        for (int i = 0; i < 1000; i++) {
+            String name = i % 3 == 0 ? "name" + i : i % 3 == 1 ? "n\u00e9me" + i : "\u540d\u5b57" + i;
+            mapper.add(new TypeC(i, i * 10_000_000_000L, name));
+        }
+        roundTripSnapshot();
+
+        HollowPrimaryKeyIndex intIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c1");
+        HollowPrimaryKeyIndex longIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c2");
+        HollowPrimaryKeyIndex stringIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c3");
+        HollowPrimaryKeyIndex compoundIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c2", "c1");
+
+        for (int i = -1; i < 1001; i++) {
+            long l = i * 10_000_000_000L;
+            String name = i % 3 == 0 ? "name" + i : i % 3 == 1 ? "n\u00e9me" + i : "\u540d\u5b57" + i;
+
+            int expected = intIdx.getMatchingOrdinal((Object) i);
+            Assert.assertEquals(expected, intIdx.getMatchingOrdinal(i));
+            Assert.assertEquals(expected, intIdx.getMatchingOrdinal((long) i));
+            Assert.assertEquals(expected, longIdx.getMatchingOrdinal(l));
+            Assert.assertEquals(expected, longIdx.getMatchingOrdinal((Object) l));
+            Assert.assertEquals(expected, stringIdx.getMatchingOrdinal((Object) name));
+            Assert.assertEquals(expected, stringIdx.getMatchingOrdinal(new StringBuilder(name)));
+            Assert.assertEquals(expected, compoundIdx.getMatchingOrdinal(l, i));
+            Assert.assertEquals(expected, compoundIdx.getMatchingOrdinal(l, (long) i));
+            Assert.assertEquals(expected, compoundIdx.getMatchingOrdinal((Object) l, (Object) i));
+            Assert.assertEquals(HashCodes.hashCode(name), HashCodes.hashCode(new StringBuilder(name)));
+            if (i >= 0 && i < 1000) {
+                Assert.assertNotEquals(-1, expected);
+            }
+        }
+
+        // keys outside the range of an INT field do not match
+        Assert.assertEquals(-1, intIdx.getMatchingOrdinal(1L << 32));
+        Assert.assertEquals(-1, stringIdx.getMatchingOrdinal(new StringBuilder("name")));
+        Assert.assertEquals(-1, stringIdx.getMatchingOrdinal((CharSequence) null));
+    }
+
+    @Test
+    public void batchLookupsMatchSingleLookups() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        for (int i = 0; i < 1000; i++) {
+            mapper.add(new TypeC(i, i * 10_000_000_000L, "name" + i));
+        }
+        roundTripSnapshot();
+
+        HollowPrimaryKeyIndex intIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c1");
+        HollowPrimaryKeyIndex longIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c2");
+        HollowPrimaryKeyIndex stringIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c3");
+        HollowPrimaryKeyIndex compoundIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c2", "c1");
+
+        // more keys than are looked up in one chunk, half of which are not present
+        int numKeys = 2000;
+        Object[] intKeys = new Object[numKeys];
+        long[] longKeys = new long[numKeys];
+        CharSequence[] stringKeys = new CharSequence[numKeys];
+        Object[][] compoundKeys = new Object[numKeys][];
+        for (int k = 0; k < numKeys; k++) {
+            int i = (k * 7919) % numKeys - 500;
+            intKeys[k] = i;
+            longKeys[k] = i * 10_000_000_000L;
+            stringKeys[k] = new StringBuilder("name" + i);
+            compoundKeys[k] = new Object[] {i * 10_000_000_000L, i};
+        }
+
+        int[] intOrdinals = new int[numKeys];
+        int[] longOrdinals = new int[numKeys];
+        int[] stringOrdinals = new int[numKeys];
+        int[] compoundOrdinals = new int[numKeys + 1];
+        intIdx.getMatchingOrdinals(intKeys, intOrdinals);
+        longIdx.getMatchingOrdinals(longKeys, longOrdinals);
+        stringIdx.getMatchingOrdinals(stringKeys, stringOrdinals);
+        compoundIdx.getMatchingOrdinals(compoundKeys, compoundOrdinals);
+
+        for (int k = 0; k < numKeys; k++) {
+            int expected = intIdx.getMatchingOrdinal(intKeys[k]);
+            Assert.assertEquals(expected, intOrdinals[k]);
+            Assert.assertEquals(expected, longOrdinals[k]);
+            Assert.assertEquals(expected, stringOrdinals[k]);
+            Assert.assertEquals(expected, compoundOrdinals[k]);
+        }
+
+        // keys with the wrong number of fields do not match
+        compoundIdx.getMatchingOrdinals(new Object[][] {{0L}}, compoundOrdinals);
+        Assert.assertEquals(-1, compoundOrdinals[0]);
+        intIdx.getMatchingOrdinals(new long[0], new int[0]);
+
+        try {
+            intIdx.getMatchingOrdinals(longKeys, new int[numKeys - 1]);
+            Assert.fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
     @Test
     public void testSnapshotAndDeltaWithStateEngineMemoryRecycler() throws IOException {
         HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
@@ -323,6 +421,19 @@ public class HollowPrimaryKeyIndexTest extends AbstractStateEngineTest {
         }
     }
 
+    private static class TypeC {
+        private final int c1;
+        private final long c2;
+        @HollowInline
+        private final String c3;
+
+        public TypeC(int c1, long c2, String c3) {
+            this.c1 = c1;
+            this.c2 = c2;
+            this.c3 = c3;
+        }
+    }
+
     private static class TypeB {
         private final String b1;
         private final boolean isDuplicate;
@@ -178,6 +178,38 @@ public class HollowUniqueKeyIndexTest extends HollowPrimaryKeyIndexTest {
         assertEquals(idx.getRecordKey(3), 3, 3.3d, "three");
     }
 
+    @Test
+    public void testBatchLookups() throws IOException {
+        addDataForDupTesting(writeStateEngine, 0, 1, 1000);
+        roundTripSnapshot();
+
+        HollowUniqueKeyIndex a1Idx = new HollowUniqueKeyIndex(readStateEngine, "TypeA", "a1");
+        HollowUniqueKeyIndex idx = new HollowUniqueKeyIndex(readStateEngine, "TypeA", "a1", "a2", "ab.b1.value");
+
+        int numKeys = 2000;
+        Object[] a1Keys = new Object[numKeys];
+        Object[][] keys = new Object[numKeys][];
+        for (int k = 0; k < numKeys; k++) {
+            int a1 = (k * 7919) % numKeys - 500;
+            a1Keys[k] = a1;
+            keys[k] = new Object[] {a1, 1d, "commonTypeB"};
+        }
+
+        int[] a1Ordinals = new int[numKeys];
+        int[] ordinals = new int[numKeys];
+        a1Idx.getMatchingOrdinals(a1Keys, a1Ordinals);
+        idx.getMatchingOrdinals(keys, ordinals);
+
+        for (int k = 0; k < numKeys; k++) {
+            int expected = a1Idx.getMatchingOrdinal(a1Keys[k]);
+            Assert.assertEquals(expected, a1Ordinals[k]);
+            Assert.assertEquals(expected, ordinals[k]);
+            Assert.assertEquals(expected, idx.getMatchingOrdinal(keys[k]));
+            int a1 = (Integer) a1Keys[k];
+            Assert.assertEquals(a1 >= 0 && a1 < 1000, expected != -1);
+        }
+    }
+
     @Test
     public void testDups() throws IOException {
         String typeA = "TypeA";
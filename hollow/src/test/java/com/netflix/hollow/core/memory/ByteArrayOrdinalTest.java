@@ -16,6 +16,14 @@
  */
 package com.netflix.hollow.core.memory;
 
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -60,6 +68,93 @@ public class ByteArrayOrdinalTest {
         Assert.assertArrayEquals(ordinals, newOrdinals);
     }
 
+    @Test
+    public void testConcurrentAssignment() throws Exception {
+        ByteArrayOrdinalMap m = new ByteArrayOrdinalMap();
+
+        int numThreads = 8;
+        int numRecords = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int offset = t * 997;
+                futures.add(executor.submit((Callable<int[]>) () -> {
+                    // every thread adds every record, in a different order
+                    int[] ordinals = new int[numRecords];
+                    for (int i = 0; i < numRecords; i++) {
+                        int record = (i + offset) % numRecords;
+                        ordinals[record] = m.getOrAssignOrdinal(createBuffer(record(record)));
+                    }
+                    return ordinals;
+                }));
+            }
+
+            int[] expected = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                Assert.assertArrayEquals(expected, future.get());
+            }
+
+            BitSet assigned = new BitSet();
+            for (int i = 0; i < numRecords; i++) {
+                Assert.assertEquals(expected[i], m.get(createBuffer(record(i))));
+                assigned.set(expected[i]);
+            }
+            Assert.assertEquals(numRecords, assigned.cardinality());
+            Assert.assertEquals(numRecords - 1, m.maxOrdinal());
+
+            ThreadSafeBitSet usedOrdinals = new ThreadSafeBitSet();
+            for (int i = 0; i < numRecords; i += 2) {
+                usedOrdinals.set(expected[i]);
+            }
+            m.compact(usedOrdinals, 1, false);
+
+            for (int i = 0; i < numRecords; i++) {
+                Assert.assertEquals(i % 2 == 0 ? expected[i] : -1, m.get(createBuffer(record(i))));
+            }
+            for (int i = 1; i < numRecords; i += 2) {
+                Assert.assertFalse(usedOrdinals.get(m.getOrAssignOrdinal(createBuffer(record(i)))));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDataSizeIsBoundedByRecordLengths() {
+        ByteArrayOrdinalMap m = new ByteArrayOrdinalMap();
+
+        long recordLengths = 0;
+        for (int i = 0; i < 5000; i++) {
+            // mostly small records, interleaved with records which fill a large part of a write region or exceed it
+            int length = i % 3 == 0 ? 3000 : i % 97 == 0 ? 20000 : 1 + (i * 37) % 600;
+            StringBuilder sb = new StringBuilder().append(i).append(':');
+            while (sb.length() < length) {
+                sb.append('x');
+            }
+            ByteDataArray buffer = createBuffer(sb.toString());
+            m.getOrAssignOrdinal(buffer);
+            recordLengths += VarInt.sizeOfVInt((int) buffer.length()) + buffer.length();
+        }
+
+        // the unused tail of each write region is small relative to the region, and the last region may be unfilled
+        long overhead = m.getDataSize() - recordLengths;
+        Assert.assertTrue("overhead of " + overhead + " bytes for " + recordLengths + " bytes of records",
+                overhead <= recordLengths / 14 + (1 << 13));
+    }
+
+    private static String record(int i) {
+        // include records larger than a write region
+        if (i % 1000 == 0) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 2000; j++) {
+                sb.append("LARGE").append(i);
+            }
+            return sb.toString();
+        }
+        return "TEST" + i;
+    }
+
     static ByteDataArray createBuffer(String s) {
         return write(new ByteDataArray(), s);
     }
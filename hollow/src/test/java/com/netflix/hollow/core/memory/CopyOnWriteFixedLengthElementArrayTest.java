@@ -0,0 +1,64 @@
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CopyOnWriteFixedLengthElementArrayTest {
+    private static final int BITS_PER_ELEMENT = 17;
+    private static final WastefulRecycler RECYCLER = WastefulRecycler.SMALL_ARRAY_RECYCLER;
+    private static final long BITS_PER_SEGMENT = 64L << RECYCLER.getLog2OfLongSegmentSize();
+
+    @Test
+    public void copiesOnlyTheSegmentsWhichAreWritten() {
+        int numElements = 1000;
+        FixedLengthElementArray source = new FixedLengthElementArray(RECYCLER, numElements * BITS_PER_ELEMENT);
+        for (int i = 0; i < numElements; i++) {
+            source.setElementValue(i * BITS_PER_ELEMENT, BITS_PER_ELEMENT, i);
+        }
+
+        CopyOnWriteFixedLengthElementArray copy = new CopyOnWriteFixedLengthElementArray(RECYCLER, source, numElements * BITS_PER_ELEMENT);
+        Assert.assertEquals(0, copy.getNumOwnedSegments());
+
+        // an element in the middle of the third segment
+        int written = (int) ((2 * BITS_PER_SEGMENT + BITS_PER_SEGMENT / 2) / BITS_PER_ELEMENT);
+        copy.clearElementValue(written * BITS_PER_ELEMENT, BITS_PER_ELEMENT);
+        copy.setElementValue(written * BITS_PER_ELEMENT, BITS_PER_ELEMENT, 12345);
+        Assert.assertEquals(1, copy.getNumOwnedSegments());
+
+        for (int i = 0; i < numElements; i++) {
+            Assert.assertEquals(i, source.getElementValue(i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+            Assert.assertEquals(i == written ? 12345 : i, copy.getElementValue(i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+        }
+    }
+
+    @Test
+    public void copiesThePrecedingSegmentWhenItsFencepostIsWritten() {
+        FixedLengthElementArray source = new FixedLengthElementArray(RECYCLER, 4 * BITS_PER_SEGMENT);
+        source.setElementValue(BITS_PER_SEGMENT - 8, 16, 0xABCD);
+
+        CopyOnWriteFixedLengthElementArray copy = new CopyOnWriteFixedLengthElementArray(RECYCLER, source, 4 * BITS_PER_SEGMENT);
+        copy.clearElementValue(BITS_PER_SEGMENT - 8, 16);
+        copy.setElementValue(BITS_PER_SEGMENT - 8, 16, 0x1234);
+        Assert.assertEquals(2, copy.getNumOwnedSegments());
+
+        // an unaligned read across the boundary uses the fencepost long at the end of the first segment
+        Assert.assertEquals(0xABCD, source.getElementValue(BITS_PER_SEGMENT - 8, 16));
+        Assert.assertEquals(0x1234, copy.getElementValue(BITS_PER_SEGMENT - 8, 16));
+    }
+
+    @Test
+    public void allocatesSegmentsBeyondTheSource() {
+        FixedLengthElementArray source = new FixedLengthElementArray(RECYCLER, 2 * BITS_PER_SEGMENT);
+        source.setElementValue(0, 16, 0xABCD);
+
+        CopyOnWriteFixedLengthElementArray copy = new CopyOnWriteFixedLengthElementArray(RECYCLER, source, 5 * BITS_PER_SEGMENT);
+        Assert.assertEquals(3, copy.getNumOwnedSegments());
+
+        copy.setElementValue(4 * BITS_PER_SEGMENT + 3, 16, 0x1234);
+        Assert.assertEquals(3, copy.getNumOwnedSegments());
+        Assert.assertEquals(0xABCD, copy.getElementValue(0, 16));
+        Assert.assertEquals(0x1234, copy.getElementValue(4 * BITS_PER_SEGMENT + 3, 16));
+    }
+}
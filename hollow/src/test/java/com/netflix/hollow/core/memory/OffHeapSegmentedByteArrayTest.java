@@ -0,0 +1,119 @@
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapSegmentedByteArrayTest {
+
+    @Test
+    public void testSetGetAndCopyAcrossSegments() throws IOException {
+        OffHeapSegmentedByteArray arr = new OffHeapSegmentedByteArray(8, null);
+
+        byte[] data = new byte[2000];
+        new Random(1).nextBytes(data);
+        for (int i = 0; i < data.length; i++) {
+            arr.set(i, data[i]);
+        }
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(data[i], arr.get(i));
+        }
+        Assert.assertEquals(8 * 256, arr.size());
+
+        byte[] copied = new byte[1000];
+        Assert.assertEquals(1000, arr.copy(100, copied, 0, 1000));
+        for (int i = 0; i < copied.length; i++) {
+            Assert.assertEquals(data[100 + i], copied[i]);
+        }
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        arr.writeTo(os, 300, 1500);
+        byte[] written = os.toByteArray();
+        Assert.assertEquals(1500, written.length);
+        for (int i = 0; i < written.length; i++) {
+            Assert.assertEquals(data[300 + i], written[i]);
+        }
+
+        // overlapping copy towards the start of the array, as performed on compaction
+        arr.copy(arr, 500, 10, 1000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(data[500 + i], arr.get(10 + i));
+        }
+
+        // on-heap arrays copy from off-heap arrays
+        SegmentedByteArray onHeap = new SegmentedByteArray(WastefulRecycler.SMALL_ARRAY_RECYCLER);
+        onHeap.copy(arr, 1500, 0, 500);
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals(data[1500 + i], onHeap.get(i));
+        }
+    }
+
+    @Test
+    public void testSegmentsSlicedFromMappedRegions() throws IOException {
+        File dir = Files.createTempDirectory("hollow_offheap").toFile();
+        try {
+            // regions of at most 4 segments
+            OffHeapSegmentedByteArray arr = new OffHeapSegmentedByteArray(8, 10, dir);
+
+            byte[] data = new byte[10000];
+            new Random(2).nextBytes(data);
+            for (int i = 0; i < data.length; i++) {
+                arr.set(i, data[i]);
+            }
+            Assert.assertEquals(40 * 256, arr.size());
+            // the backing file is unlinked once it is opened
+            Assert.assertEquals(0, dir.listFiles().length);
+
+            // overlapping copy spanning regions
+            arr.copy(arr, 3000, 100, 6000);
+            for (int i = 0; i < 6000; i++) {
+                Assert.assertEquals(data[3000 + i], arr.get(100 + i));
+            }
+
+            // copies from an on-heap array and from generic byte data
+            SegmentedByteArray onHeap = new SegmentedByteArray(WastefulRecycler.SMALL_ARRAY_RECYCLER);
+            for (int i = 0; i < data.length; i++) {
+                onHeap.set(i, data[i]);
+            }
+            arr.copy(onHeap, 10, 20000, 5000);
+            arr.copy(new ArrayByteData(data), 0, 30000, 1000);
+            for (int i = 0; i < 5000; i++) {
+                Assert.assertEquals(data[10 + i], arr.get(20000 + i));
+            }
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals(data[i], arr.get(30000 + i));
+            }
+            arr.destroy();
+        } finally {
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testOrdinalMap() {
+        ByteArrayOrdinalMap m = new ByteArrayOrdinalMap(256, new ByteDataArray(new OffHeapSegmentedByteArray(null)));
+
+        int[] ordinals = new int[10000];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = m.getOrAssignOrdinal(ByteArrayOrdinalTest.createBuffer("TEST" + i));
+        }
+        for (int i = 0; i < ordinals.length; i++) {
+            Assert.assertEquals(ordinals[i], m.get(ByteArrayOrdinalTest.createBuffer("TEST" + i)));
+        }
+
+        ThreadSafeBitSet usedOrdinals = new ThreadSafeBitSet();
+        for (int i = 0; i < ordinals.length; i += 3) {
+            usedOrdinals.set(ordinals[i]);
+        }
+        m.compact(usedOrdinals, 1, false);
+
+        for (int i = 0; i < ordinals.length; i++) {
+            Assert.assertEquals(i % 3 == 0 ? ordinals[i] : -1, m.get(ByteArrayOrdinalTest.createBuffer("TEST" + i)));
+        }
+    }
+}
@@ -61,6 +61,9 @@ public class HollowBlobInputTest {
         assertTrue((HollowBlobInput.modeBasedSelector(MemoryMode.ON_HEAP, mockBlob)).getInput() instanceof DataInputStream);
         assertTrue((HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_LAZY, mockBlob)).getInput() instanceof RandomAccessFile);
         assertNotNull((HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_LAZY, mockBlob)).getBuffer());
+        assertTrue((HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_EAGER, mockBlob)).getInput() instanceof RandomAccessFile);
+        assertNotNull((HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_EAGER, mockBlob)).getBuffer());
+        assertEquals(MemoryMode.SHARED_MEMORY_EAGER, HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_EAGER, mockBlob).getMemoryMode());
     }
 
     @Test
@@ -72,6 +75,10 @@ public class HollowBlobInputTest {
         HollowBlobInput inBuffer = HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_LAZY, mockBlob);
         assertEquals(0, inBuffer.read()); // first byte is 0
         assertEquals(1, inBuffer.read()); // second byte is 1
+
+        HollowBlobInput inEagerBuffer = HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_EAGER, mockBlob);
+        assertEquals(0, inEagerBuffer.read()); // first byte is 0
+        assertEquals(1, inEagerBuffer.read()); // second byte is 1
     }
 
     @Test
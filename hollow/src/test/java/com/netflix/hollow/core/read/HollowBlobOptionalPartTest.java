@@ -354,7 +354,42 @@ public class HollowBlobOptionalPartTest {
         Assert.assertNull(consumer.getStateEngine().getTypeState("TypeC"));
     }
 
+    @Test
+    public void optionalPartsWithParallelSnapshotLoad() throws IOException {
+        File localBlobStore = createLocalDir();
+        HollowFilesystemPublisher publisher = new HollowFilesystemPublisher(localBlobStore.toPath());
+        HollowInMemoryBlobStager stager = new HollowInMemoryBlobStager(newPartConfig());
+
+        HollowProducer producer = HollowProducer
+                .withPublisher(publisher)
+                .withBlobStager(stager)
+                .build();
+
+        producer.initializeDataModel(TypeA.class);
 
+        producer.runCycle(state -> {
+            state.add(new TypeA("1", 1, new TypeB((short)1, 1L, 1f, new char[] {'1'}, new byte[] { 1 }), Collections.singleton(new TypeC('1', null))));
+            state.add(new TypeA("2", 2, new TypeB((short)2, 2L, 2f, new char[] {'2'}, new byte[] { 2 }), Collections.singleton(new TypeC('2', null))));
+            state.add(new TypeA("3", 3, new TypeB((short)3, 3L, 3f, new char[] {'3'}, new byte[] { 3 }), Collections.singleton(new TypeC('3', null))));
+        });
+
+        for(MemoryMode memoryMode : new MemoryMode[] {MemoryMode.ON_HEAP, MemoryMode.SHARED_MEMORY_LAZY}) {
+            HollowConsumer consumer = HollowConsumer.newHollowConsumer()
+                    .withBlobRetriever(new HollowFilesystemBlobRetriever(localBlobStore.toPath(), new HashSet<>(Arrays.asList("B", "C"))))
+                    .withMemoryMode(memoryMode)
+                    .withSnapshotLoadParallelism(4)
+                    .build();
+
+            consumer.triggerRefresh();
+
+            GenericHollowObject obj = new GenericHollowObject(consumer.getStateEngine(), "TypeA", 1);
+
+            Assert.assertEquals("2", obj.getObject("a1").getString("value"));
+            Assert.assertEquals(2, obj.getInt("a2"));
+            Assert.assertEquals(2L, obj.getObject("b").getLong("b2"));
+            Assert.assertEquals('2', ((GenericHollowObject) obj.getSet("cList").iterator().next()).getInt("c1"));
+        }
+    }
 
     private ProducerOptionalBlobPartConfig newPartConfig() {
         ProducerOptionalBlobPartConfig partConfig = new ProducerOptionalBlobPartConfig();
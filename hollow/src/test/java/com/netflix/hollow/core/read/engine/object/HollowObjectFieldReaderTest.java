@@ -0,0 +1,161 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowObjectFieldReaderTest extends AbstractStateEngineTest {
+    private static final int NUM_RECORDS = 1000;
+
+    private HollowObjectSchema schema;
+
+    @Override
+    protected void initializeTypeStates() {
+        schema = new HollowObjectSchema("TestObject", 8);
+        schema.addField("id", FieldType.INT);
+        schema.addField("i", FieldType.INT);
+        schema.addField("l", FieldType.LONG);
+        schema.addField("f", FieldType.FLOAT);
+        schema.addField("d", FieldType.DOUBLE);
+        schema.addField("b", FieldType.BOOLEAN);
+        schema.addField("ref", FieldType.REFERENCE, "TestObject");
+        schema.addField("s", FieldType.STRING);
+
+        writeStateEngine.setTargetMaxTypeShardSize(4 * 1024);
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+    }
+
+    @Test
+    public void readsTheSameValuesAsTheTypeState() throws IOException {
+        addRecords(0, NUM_RECORDS, 1);
+        roundTripSnapshot();
+        HollowObjectTypeReadState typeState = typeState();
+        Assert.assertTrue(typeState.numShards() > 1);
+
+        assertReadersMatch(typeState, 1);
+    }
+
+    @Test
+    public void rebindsAfterADelta() throws IOException {
+        addRecords(0, NUM_RECORDS, 1);
+        roundTripSnapshot();
+        HollowObjectTypeReadState typeState = typeState();
+        HollowObjectFieldReader l = typeState.createFieldReader("l");
+        Assert.assertEquals(expectedLong(1, 1), l.readLong(1));
+
+        // wider values change the bits per field
+        writeStateEngine.prepareForNextCycle();
+        addRecords(NUM_RECORDS / 2, NUM_RECORDS * 2, 1_000_000);
+        roundTripDelta();
+        assertReadersMatch(typeState, 1_000_000);
+
+        BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+        for (int ordinal = populatedOrdinals.nextSetBit(0); ordinal != -1; ordinal = populatedOrdinals.nextSetBit(ordinal + 1)) {
+            Assert.assertEquals(typeState.readLong(ordinal, 2), l.readLong(ordinal));
+        }
+    }
+
+    @Test
+    public void rebindsAfterResharding() throws IOException {
+        addRecords(0, NUM_RECORDS, 1);
+        roundTripSnapshot();
+        HollowObjectTypeReadState typeState = typeState();
+        HollowObjectFieldReader i = typeState.createFieldReader("i");
+        Assert.assertEquals(expectedInt(1, 1), i.readInt(1));
+
+        typeState.reshard(typeState.numShards() * 2);
+        for (int ordinal = 0; ordinal < NUM_RECORDS; ordinal++) {
+            Assert.assertEquals(typeState.readInt(ordinal, 1), i.readInt(ordinal));
+        }
+        typeState.reshard(1);
+        for (int ordinal = 0; ordinal < NUM_RECORDS; ordinal++) {
+            Assert.assertEquals(typeState.readInt(ordinal, 1), i.readInt(ordinal));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingFields() throws IOException {
+        addRecords(0, 10, 1);
+        roundTripSnapshot();
+        typeState().createFieldReader("missing");
+    }
+
+    private void assertReadersMatch(HollowObjectTypeReadState typeState, int multiplier) {
+        HollowObjectFieldReader id = typeState.createFieldReader("id");
+        HollowObjectFieldReader i = typeState.createFieldReader("i");
+        HollowObjectFieldReader l = typeState.createFieldReader("l");
+        HollowObjectFieldReader f = typeState.createFieldReader("f");
+        HollowObjectFieldReader d = typeState.createFieldReader("d");
+        HollowObjectFieldReader b = typeState.createFieldReader("b");
+        HollowObjectFieldReader ref = typeState.createFieldReader("ref");
+        HollowObjectFieldReader s = typeState.createFieldReader("s");
+        Assert.assertEquals(6, ref.getFieldIndex());
+
+        BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+        int matched = 0;
+        for (int ordinal = populatedOrdinals.nextSetBit(0); ordinal != -1; ordinal = populatedOrdinals.nextSetBit(ordinal + 1)) {
+            Assert.assertEquals(typeState.readInt(ordinal, 0), id.readInt(ordinal));
+            Assert.assertEquals(typeState.readInt(ordinal, 1), i.readInt(ordinal));
+            Assert.assertEquals(typeState.readLong(ordinal, 2), l.readLong(ordinal));
+            Assert.assertEquals(typeState.readFloat(ordinal, 3), f.readFloat(ordinal), 0);
+            Assert.assertEquals(typeState.readDouble(ordinal, 4), d.readDouble(ordinal), 0);
+            Assert.assertEquals(typeState.readBoolean(ordinal, 5), b.readBoolean(ordinal));
+            Assert.assertEquals(typeState.readOrdinal(ordinal, 6), ref.readOrdinal(ordinal));
+            Assert.assertEquals(typeState.readString(ordinal, 7), s.readString(ordinal));
+
+            int recordId = id.readInt(ordinal);
+            if (recordId % 10 == 0) {
+                Assert.assertEquals(Integer.MIN_VALUE, i.readInt(ordinal));
+                Assert.assertEquals(Long.MIN_VALUE, l.readLong(ordinal));
+                Assert.assertTrue(Float.isNaN(f.readFloat(ordinal)));
+                Assert.assertTrue(Double.isNaN(d.readDouble(ordinal)));
+                Assert.assertNull(b.readBoolean(ordinal));
+                Assert.assertEquals(HollowConstants.ORDINAL_NONE, ref.readOrdinal(ordinal));
+                Assert.assertNull(s.readString(ordinal));
+            } else if (recordId * multiplier == expectedInt(recordId, multiplier)) {
+                Assert.assertEquals(expectedLong(recordId, multiplier), l.readLong(ordinal));
+                Assert.assertTrue(s.isStringFieldEqual(ordinal, "s" + recordId));
+                matched++;
+            }
+        }
+        Assert.assertTrue(matched > 0);
+    }
+
+    private HollowObjectTypeReadState typeState() {
+        return (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+    }
+
+    private void addRecords(int from, int to, int multiplier) {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        for (int id = from; id < to; id++) {
+            rec.reset();
+            rec.setInt("id", id);
+            // every tenth record has null values
+            if (id % 10 != 0) {
+                rec.setInt("i", expectedInt(id, multiplier));
+                rec.setLong("l", expectedLong(id, multiplier));
+                rec.setFloat("f", id * 0.5f);
+                rec.setDouble("d", id * 0.25d);
+                rec.setBoolean("b", id % 3 == 0);
+                rec.setReference("ref", 0);
+                rec.setString("s", "s" + id);
+            }
+            writeStateEngine.add("TestObject", rec);
+        }
+    }
+
+    private static int expectedInt(int id, int multiplier) {
+        return (id % 2 == 0 ? id : -id) * multiplier;
+    }
+
+    private static long expectedLong(int id, int multiplier) {
+        return (long) expectedInt(id, multiplier) * multiplier;
+    }
+}
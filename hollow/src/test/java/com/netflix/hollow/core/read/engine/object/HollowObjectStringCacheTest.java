@@ -0,0 +1,138 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowObjectStringCacheTest extends AbstractStateEngineTest {
+    private static final int NUM_RECORDS = 1000;
+
+    private HollowObjectSchema schema;
+
+    @Override
+    protected void initializeTypeStates() {
+        schema = new HollowObjectSchema("TestObject", 2);
+        schema.addField("id", FieldType.INT);
+        schema.addField("name", FieldType.STRING);
+
+        writeStateEngine.setTargetMaxTypeShardSize(4 * 1024);
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+    }
+
+    @Test
+    public void repeatedReadsReturnCachedStrings() throws IOException {
+        addRecords(0, NUM_RECORDS, "name");
+        roundTripSnapshot();
+        HollowObjectTypeReadState typeState = typeState();
+        Assert.assertTrue(typeState.numShards() > 1);
+
+        HollowObjectStringCache cache = typeState.enableStringCache("name", 4096, 16);
+        Assert.assertEquals(4096, cache.getCapacity());
+        Assert.assertSame(cache, typeState.getStringCache("name"));
+
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            String first = typeState.readString(i, 1);
+            Assert.assertEquals(expectedName("name", i), first);
+            if (first == null) {
+                continue;
+            }
+            String second = typeState.readString(i, 1);
+            Assert.assertEquals(first, second);
+            if (first.length() <= 16) {
+                Assert.assertSame(first, second);
+            } else {
+                Assert.assertNotSame(first, second);
+            }
+        }
+        Assert.assertTrue(cache.getHitCount() > 0);
+        Assert.assertEquals(2 * nonNullNames("name") - cache.getHitCount(), cache.getMissCount());
+    }
+
+    @Test
+    public void cachedStringsAreNotReturnedForOtherValues() throws IOException {
+        addRecords(0, NUM_RECORDS, "name");
+        roundTripSnapshot();
+        HollowObjectTypeReadState typeState = typeState();
+
+        // with a single slot, every value displaces the last
+        HollowObjectStringCache cache = typeState.enableStringCache("name", 1, 100);
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            Assert.assertEquals(expectedName("name", i), typeState.readString(i, 1));
+        }
+
+        // after a delta, the offsets of the removed records hold other values
+        writeStateEngine.prepareForNextCycle();
+        addRecords(0, NUM_RECORDS, "other");
+        roundTripDelta();
+        BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+        for (int ordinal = populatedOrdinals.nextSetBit(0); ordinal != -1; ordinal = populatedOrdinals.nextSetBit(ordinal + 1)) {
+            int id = typeState.readInt(ordinal, 0);
+            Assert.assertEquals(expectedName("other", id), typeState.readString(ordinal, 1));
+            Assert.assertEquals(expectedName("other", id), typeState.readString(ordinal, 1));
+        }
+        Assert.assertTrue(cache.getHitCount() > 0);
+    }
+
+    @Test
+    public void disableStringCache() throws IOException {
+        addRecords(0, 10, "name");
+        roundTripSnapshot();
+        HollowObjectTypeReadState typeState = typeState();
+
+        HollowObjectStringCache cache = typeState.enableStringCache("name", 16, 100);
+        typeState.disableStringCache("name");
+        Assert.assertNull(typeState.getStringCache("name"));
+
+        typeState.readString(1, 1);
+        typeState.readString(1, 1);
+        Assert.assertEquals(0, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFieldsOfOtherTypes() throws IOException {
+        addRecords(0, 10, "name");
+        roundTripSnapshot();
+        typeState().enableStringCache("id", 16, 100);
+    }
+
+    private HollowObjectTypeReadState typeState() {
+        return (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+    }
+
+    private void addRecords(int from, int to, String prefix) {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        for (int i = from; i < to; i++) {
+            rec.reset();
+            rec.setInt("id", i);
+            String name = expectedName(prefix, i);
+            if (name != null) {
+                rec.setString("name", name);
+            }
+            writeStateEngine.add("TestObject", rec);
+        }
+    }
+
+    private static String expectedName(String prefix, int i) {
+        if (i % 10 == 0) {
+            return null;
+        }
+        // some names are longer than the longest cached String
+        return i % 10 == 1 ? prefix + " with a long suffix " + i : prefix + (i % 50);
+    }
+
+    private static long nonNullNames(String prefix) {
+        long count = 0;
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            if (expectedName(prefix, i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
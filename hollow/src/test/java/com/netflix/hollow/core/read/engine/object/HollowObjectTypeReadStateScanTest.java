@@ -0,0 +1,154 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowObjectTypeReadStateScanTest extends AbstractStateEngineTest {
+    private static final int NUM_RECORDS = 10000;
+
+    private HollowObjectSchema schema;
+
+    @Override
+    protected void initializeTypeStates() {
+        schema = new HollowObjectSchema("TestObject", 5);
+        schema.addField("intField", FieldType.INT);
+        schema.addField("longField", FieldType.LONG);
+        schema.addField("floatField", FieldType.FLOAT);
+        schema.addField("doubleField", FieldType.DOUBLE);
+        schema.addField("refField", FieldType.REFERENCE, "TestObject");
+
+        writeStateEngine.setTargetMaxTypeShardSize(16 * 1024);
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+    }
+
+    @Test
+    public void rangeReadsMatchSingleReads() throws IOException {
+        HollowObjectTypeReadState typeState = populate();
+        Assert.assertTrue(typeState.numShards() > 1);
+        Assert.assertEquals(NUM_RECORDS - 1, typeState.maxOrdinal());
+
+        assertRangeReadsMatchSingleReads(typeState, 0, NUM_RECORDS);
+        assertRangeReadsMatchSingleReads(typeState, 37, 1001);
+        assertRangeReadsMatchSingleReads(typeState, 5, 0);
+        // ordinals beyond the max ordinal are read as null
+        assertRangeReadsMatchSingleReads(typeState, NUM_RECORDS - 10, 50);
+    }
+
+    @Test
+    public void rangeReadsWhileResharding() throws IOException {
+        HollowObjectTypeReadState typeState = populate();
+        int numShards = typeState.numShards();
+
+        // shards of the original data elements are referenced from more than one index
+        typeState.shardsVolatile = typeState.expandWithOriginalDataElements(typeState.shardsVolatile, 4);
+        assertRangeReadsMatchSingleReads(typeState, 3, NUM_RECORDS);
+
+        for (int i = 0; i < numShards; i++) {
+            typeState.shardsVolatile = typeState.splitDataElementsForOneShard(typeState.shardsVolatile, i, numShards, 4);
+            assertRangeReadsMatchSingleReads(typeState, 3, NUM_RECORDS);
+        }
+    }
+
+    @Test
+    public void scansVisitEachOrdinal() throws IOException {
+        HollowObjectTypeReadState typeState = populate();
+
+        BitSet ordinals = new BitSet();
+        for (int i = 0; i < NUM_RECORDS; i += (i % 7) + 1) {
+            ordinals.set(i);
+        }
+        ordinals.set(NUM_RECORDS + 5); // beyond the max ordinal
+
+        BitSet visited = new BitSet();
+        typeState.scanInts(0, ordinals, (ordinal, value) -> {
+            Assert.assertFalse(visited.get(ordinal));
+            visited.set(ordinal);
+            Assert.assertEquals(typeState.readInt(ordinal, 0), value);
+        });
+        ordinals.clear(NUM_RECORDS + 5);
+        Assert.assertEquals(ordinals, visited);
+
+        visited.clear();
+        typeState.scanLongs(1, ordinals, (ordinal, value) -> {
+            visited.set(ordinal);
+            Assert.assertEquals(typeState.readLong(ordinal, 1), value);
+        });
+        typeState.scanFloats(2, ordinals, (ordinal, value) ->
+                Assert.assertEquals(Float.floatToIntBits(typeState.readFloat(ordinal, 2)), Float.floatToIntBits(value)));
+        typeState.scanDoubles(3, ordinals, (ordinal, value) ->
+                Assert.assertEquals(Double.doubleToLongBits(typeState.readDouble(ordinal, 3)), Double.doubleToLongBits(value)));
+        typeState.scanOrdinals(4, ordinals, (ordinal, value) ->
+                Assert.assertEquals(typeState.readOrdinal(ordinal, 4), value));
+        Assert.assertEquals(ordinals, visited);
+
+        typeState.scanInts(0, new BitSet(), (ordinal, value) -> Assert.fail());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFieldsOfOtherTypes() throws IOException {
+        populate().readInts(1, 0, 10, new int[10]);
+    }
+
+    private HollowObjectTypeReadState populate() throws IOException {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            rec.reset();
+            // each field is null in every fifth record
+            if (i % 5 != 0) {
+                rec.setInt("intField", i - 5000);
+            }
+            if (i % 5 != 1) {
+                rec.setLong("longField", (i - 5000) * 10_000_000_000L);
+            }
+            if (i % 5 != 2) {
+                rec.setFloat("floatField", i / 3f);
+            }
+            if (i % 5 != 3) {
+                rec.setDouble("doubleField", i / 7d);
+            }
+            if (i % 5 != 4) {
+                rec.setReference("refField", i);
+            }
+            writeStateEngine.add("TestObject", rec);
+        }
+        roundTripSnapshot();
+        return (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+    }
+
+    private static void assertRangeReadsMatchSingleReads(HollowObjectTypeReadState typeState, int fromOrdinal, int length) {
+        int[] ints = new int[length + 1];
+        long[] longs = new long[length];
+        float[] floats = new float[length];
+        double[] doubles = new double[length];
+        int[] refs = new int[length];
+        typeState.readInts(0, fromOrdinal, length, ints);
+        typeState.readLongs(1, fromOrdinal, length, longs);
+        typeState.readFloats(2, fromOrdinal, length, floats);
+        typeState.readDoubles(3, fromOrdinal, length, doubles);
+        typeState.readOrdinals(4, fromOrdinal, length, refs);
+
+        for (int i = 0; i < length; i++) {
+            int ordinal = fromOrdinal + i;
+            if (ordinal > typeState.maxOrdinal()) {
+                Assert.assertEquals(Integer.MIN_VALUE, ints[i]);
+                Assert.assertEquals(Long.MIN_VALUE, longs[i]);
+                Assert.assertTrue(Float.isNaN(floats[i]));
+                Assert.assertTrue(Double.isNaN(doubles[i]));
+                Assert.assertEquals(-1, refs[i]);
+                continue;
+            }
+            Assert.assertEquals(typeState.readInt(ordinal, 0), ints[i]);
+            Assert.assertEquals(typeState.readLong(ordinal, 1), longs[i]);
+            Assert.assertEquals(Float.floatToIntBits(typeState.readFloat(ordinal, 2)), Float.floatToIntBits(floats[i]));
+            Assert.assertEquals(Double.doubleToLongBits(typeState.readDouble(ordinal, 3)), Double.doubleToLongBits(doubles[i]));
+            Assert.assertEquals(typeState.readOrdinal(ordinal, 4), refs[i]);
+        }
+    }
+}
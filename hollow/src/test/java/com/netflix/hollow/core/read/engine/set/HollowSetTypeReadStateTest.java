@@ -0,0 +1,156 @@
+package com.netflix.hollow.core.read.engine.set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowSetSchema;
+import com.netflix.hollow.core.write.HollowSetTypeWriteState;
+import com.netflix.hollow.core.write.HollowSetWriteRecord;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.Test;
+
+public class HollowSetTypeReadStateTest extends AbstractStateEngineTest {
+
+    private static final int LARGE_ORDINAL_OFFSET = 1 << 20;
+
+    private final HollowSetSchema schema = new HollowSetSchema("TestSet", "TestElement");
+    private int numShards = -1;
+
+    @Override
+    protected void initializeTypeStates() {
+        writeStateEngine.setTargetMaxTypeShardSize(16 * 1024);
+        writeStateEngine.addTypeState(new HollowSetTypeWriteState(schema, numShards));
+    }
+
+    @Test
+    public void testSplitThenJoin() throws IOException {
+        HollowSetTypeDataElementsSplitter splitter = new HollowSetTypeDataElementsSplitter();
+        HollowSetTypeDataElementsJoiner joiner = new HollowSetTypeDataElementsJoiner();
+
+        for (int numRecords : new int[]{1, 2, 3, 17, 100, 1000}) {
+            HollowSetTypeReadState typeReadState = populateTypeStateWith(numRecords, 0, 1);
+
+            for (int numSplits : new int[]{1, 2, 4, 8, 16, 32}) {
+                HollowSetTypeDataElements[] splitElements = splitter.split(typeReadState.currentDataElements()[0], numSplits);
+                HollowSetTypeDataElements joinedElements = joiner.join(splitElements);
+
+                HollowSetTypeReadState resultTypeReadState = new HollowSetTypeReadState(readStateEngine, schema, 1);
+                resultTypeReadState.setCurrentData(joinedElements);
+                assertDataUnchanged(resultTypeReadState, numRecords, 0);
+            }
+        }
+    }
+
+    @Test
+    public void testJoinWithNonUniformBitWidths() throws IOException {
+        int numRecords = 100;
+        HollowSetTypeDataElements small = populateTypeStateWith(numRecords - 1, 0, 1).currentDataElements()[0];
+        HollowSetTypeDataElements large = populateTypeStateWith(numRecords, LARGE_ORDINAL_OFFSET, 1).currentDataElements()[0];
+
+        HollowSetTypeDataElementsJoiner joiner = new HollowSetTypeDataElementsJoiner();
+        HollowSetTypeDataElements joined = joiner.join(new HollowSetTypeDataElements[] {small, large});
+
+        HollowSetTypeReadState typeState = new HollowSetTypeReadState(readStateEngine, schema, 1);
+        typeState.setCurrentData(joined);
+
+        assertEquals(2 * numRecords - 1, typeState.maxOrdinal());
+        for (int i=0;i<numRecords-1;i++) {
+            assertRecord(typeState, 2 * i, i, 0);
+        }
+        assertEquals(0, typeState.size(2 * (numRecords - 1)));   // lopsided join
+        for (int i=0;i<numRecords;i++) {
+            assertRecord(typeState, 2 * i + 1, i, LARGE_ORDINAL_OFFSET);
+        }
+    }
+
+    @Test
+    public void testResharding() throws Exception {
+        for (int shardingFactor : new int[]{2, 4, 8}) {
+            for (int numRecords : new int[]{1, 10, 1000, 5000}) {
+                HollowSetTypeReadState typeState = populateTypeStateWith(numRecords, 0, -1);
+                assertDataUnchanged(typeState, numRecords, 0);
+
+                int prevShardCount = typeState.numShards();
+                typeState.reshard(shardingFactor * prevShardCount);
+                assertEquals(shardingFactor * prevShardCount, typeState.numShards());
+                assertDataUnchanged(typeState, numRecords, 0);
+
+                typeState.reshard(prevShardCount);
+                assertEquals(prevShardCount, typeState.numShards());
+                assertDataUnchanged(typeState, numRecords, 0);
+            }
+        }
+    }
+
+    @Test
+    public void testDeltaWithChangedNumShards() throws Exception {
+        for (int numShards : new int[]{1, 4}) {
+            for (int readerNumShards : new int[]{1, 2, 8}) {
+                if (readerNumShards == numShards)
+                    continue;
+
+                HollowSetTypeReadState typeState = populateTypeStateWith(2000, 0, numShards);
+                typeState.reshard(readerNumShards);
+
+                // removes the first 1000 records and adds 1000 new ones
+                for (int i=1000;i<3000;i++) {
+                    addRecord(i, 0);
+                }
+                roundTripDelta();
+
+                assertEquals(numShards, typeState.numShards());
+
+                BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+                BitSet records = new BitSet();
+                for (int ordinal = populatedOrdinals.nextSetBit(0); ordinal != -1; ordinal = populatedOrdinals.nextSetBit(ordinal + 1)) {
+                    int i = Integer.MAX_VALUE;
+                    HollowOrdinalIterator iter = typeState.ordinalIterator(ordinal);
+                    for (int element = iter.next(); element != HollowOrdinalIterator.NO_MORE_ORDINALS; element = iter.next()) {
+                        i = Math.min(i, element);
+                    }
+                    assertRecord(typeState, ordinal, i, 0);
+                    records.set(i);
+                }
+                assertEquals(2000, records.cardinality());
+                assertEquals(1000, records.nextSetBit(0));
+                assertEquals(2999, records.length() - 1);
+            }
+        }
+    }
+
+    private HollowSetTypeReadState populateTypeStateWith(int numRecords, int ordinalOffset, int numShards) throws IOException {
+        this.numShards = numShards;
+        initWriteStateEngine();
+        for (int i=0;i<numRecords;i++) {
+            addRecord(i, ordinalOffset);
+        }
+        roundTripSnapshot();
+        return (HollowSetTypeReadState) readStateEngine.getTypeState("TestSet");
+    }
+
+    private void addRecord(int i, int ordinalOffset) {
+        HollowSetWriteRecord rec = new HollowSetWriteRecord();
+        for (int j=0;j<=i%4;j++) {
+            rec.addElement(ordinalOffset + i + (j * 10000));
+        }
+        writeStateEngine.add("TestSet", rec);
+    }
+
+    private void assertDataUnchanged(HollowSetTypeReadState typeState, int numRecords, int ordinalOffset) {
+        for (int i=0;i<numRecords;i++) {
+            assertRecord(typeState, i, i, ordinalOffset);
+        }
+    }
+
+    private void assertRecord(HollowSetTypeReadState typeState, int ordinal, int i, int ordinalOffset) {
+        assertEquals(i%4 + 1, typeState.size(ordinal));
+        for (int j=0;j<=i%4;j++) {
+            assertTrue(typeState.contains(ordinal, ordinalOffset + i + (j * 10000)));
+        }
+        assertFalse(typeState.contains(ordinal, ordinalOffset + i + 50000));
+    }
+}
@@ -0,0 +1,88 @@
+package com.netflix.hollow.core.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockCompressedStreamTest {
+
+    @Test
+    public void roundTripsThroughStreams() throws IOException {
+        for (int length : new int[] {0, 1, 1000, 1024, 10000, 100000}) {
+            byte[] data = data(length);
+            byte[] compressed = compress(data, 1024);
+
+            Assert.assertArrayEquals(data, readFully(new BlockCompressedInputStream(new ByteArrayInputStream(compressed))));
+            Assert.assertArrayEquals(data, readFully(BlockCompressedInputStream.decompressIfBlockCompressed(new ByteArrayInputStream(compressed))));
+        }
+    }
+
+    @Test
+    public void passesThroughUncompressedStreams() throws IOException {
+        for (int length : new int[] {0, 3, 4, 1000}) {
+            byte[] data = data(length);
+            Assert.assertArrayEquals(data, readFully(BlockCompressedInputStream.decompressIfBlockCompressed(new ByteArrayInputStream(data))));
+        }
+    }
+
+    @Test
+    public void decompressesFilesInParallel() throws IOException {
+        byte[] data = data(100000);
+        File compressed = File.createTempFile("block-compressed", ".blob");
+        File decompressed = File.createTempFile("block-decompressed", ".blob");
+        try {
+            Files.write(compressed.toPath(), compress(data, 1024));
+            Assert.assertTrue(BlockCompressedInputStream.isBlockCompressed(compressed));
+
+            BlockCompressedInputStream.decompress(compressed, decompressed);
+            Assert.assertArrayEquals(data, Files.readAllBytes(decompressed.toPath()));
+            Assert.assertFalse(BlockCompressedInputStream.isBlockCompressed(decompressed));
+        } finally {
+            compressed.delete();
+            decompressed.delete();
+        }
+    }
+
+    private static byte[] data(int length) {
+        /// compressible, but not trivially
+        Random rand = new Random(length);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) rand.nextInt(16);
+        }
+        return data;
+    }
+
+    private static byte[] compress(byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (BlockCompressedOutputStream os = new BlockCompressedOutputStream(baos, blockSize)) {
+            /// write in uneven chunks spanning block boundaries
+            int position = 0;
+            while (position < data.length) {
+                int len = Math.min(data.length - position, 700);
+                os.write(data, position, len);
+                position += len;
+                os.flush();
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        try (InputStream in = is) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[333];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                baos.write(buf, 0, n);
+            }
+            return baos.toByteArray();
+        }
+    }
+}
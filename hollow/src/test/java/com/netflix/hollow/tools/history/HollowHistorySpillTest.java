@@ -0,0 +1,239 @@
+package com.netflix.hollow.tools.history;
+
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.objects.generic.GenericHollowRecordHelper;
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.util.IntList;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateTypeKeyOrdinalMapping;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowHistorySpillTest extends AbstractStateEngineTest {
+    private static final int NUM_KEYS = 40;
+
+    private HollowObjectSchema aSchema;
+    private HollowObjectSchema stringSchema;
+    private File spillDir;
+
+    @Override
+    @Before
+    public void setUp() {
+        stringSchema = new HollowObjectSchema("String", 1);
+        stringSchema.addField("value", FieldType.STRING);
+
+        aSchema = new HollowObjectSchema("A", 3, "a1");
+        aSchema.addField("a1", FieldType.INT);
+        aSchema.addField("a2", FieldType.INT);
+        aSchema.addField("name", FieldType.REFERENCE, "String");
+
+        super.setUp();
+    }
+
+    @Before
+    public void createSpillDir() throws IOException {
+        spillDir = Files.createTempDirectory("hollow_history_spill").toFile();
+    }
+
+    @After
+    public void deleteSpillDir() {
+        File[] files = spillDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        spillDir.delete();
+    }
+
+    @Test
+    public void readsTheSameRecordsFromSpilledStates() throws IOException {
+        addRecords(1);
+        roundTripSnapshot();
+        HollowHistory expected = new HollowHistory(readStateEngine, 1L, 10);
+        HollowHistory spilled = new HollowHistory(readStateEngine, 1L, 10);
+        spilled.spillToDisk(spillDir, 2);
+
+        for (int version = 2; version <= 6; version++) {
+            addRecords(version);
+            roundTripDelta();
+            expected.deltaOccurred(version);
+            spilled.deltaOccurred(version);
+        }
+
+        assertSpilledStates(spilled, 2);
+        assertSameHistory(expected, spilled);
+    }
+
+    @Test
+    public void respillsStatesRemappedByADoubleSnapshot() throws IOException {
+        addRecords(1);
+        roundTripSnapshot();
+        HollowHistory expected = new HollowHistory(readStateEngine, 1L, 10);
+        HollowHistory spilled = new HollowHistory(readStateEngine, 1L, 10);
+        spilled.spillToDisk(spillDir, 1);
+
+        for (int version = 2; version <= 4; version++) {
+            addRecords(version);
+            roundTripDelta();
+            expected.deltaOccurred(version);
+            spilled.deltaOccurred(version);
+        }
+
+        addRecords(5);
+        roundTripSnapshot();
+        expected.doubleSnapshotOccurred(readStateEngine, 5L);
+        spilled.doubleSnapshotOccurred(readStateEngine, 5L);
+
+        addRecords(6);
+        roundTripDelta();
+        expected.deltaOccurred(6L);
+        spilled.deltaOccurred(6L);
+
+        assertSpilledStates(spilled, 1);
+        assertSameHistory(expected, spilled);
+    }
+
+    @Test
+    public void spillsRemappedStatesOlderThanThoseKeptOnHeap() throws IOException {
+        addRecords(1);
+        roundTripSnapshot();
+        HollowHistory expected = new HollowHistory(readStateEngine, 1L, 10);
+        HollowHistory spilled = new HollowHistory(readStateEngine, 1L, 10);
+        spilled.spillToDisk(spillDir, 2);
+
+        for (int version = 2; version <= 6; version++) {
+            addRecords(version);
+            roundTripDelta();
+            expected.deltaOccurred(version);
+            spilled.deltaOccurred(version);
+        }
+        File[] filesBeforeDoubleSnapshot = spillDir.listFiles();
+
+        addRecords(7);
+        roundTripSnapshot();
+        expected.doubleSnapshotOccurred(readStateEngine, 7L);
+        spilled.doubleSnapshotOccurred(readStateEngine, 7L);
+
+        // the remapped states are spilled to new files, and the files of the states they replace are deleted
+        assertSpilledStates(spilled, 2);
+        for (File file : filesBeforeDoubleSnapshot) {
+            Assert.assertFalse(file.exists());
+        }
+        assertSameHistory(expected, spilled);
+    }
+
+    @Test
+    public void deletesTheFilesOfRemovedStates() throws IOException {
+        addRecords(1);
+        roundTripSnapshot();
+        HollowHistory history = new HollowHistory(readStateEngine, 1L, 3);
+
+        for (int version = 2; version <= 6; version++) {
+            addRecords(version);
+            roundTripDelta();
+            history.deltaOccurred(version);
+        }
+        Assert.assertEquals(0, spillDir.listFiles().length);
+
+        // states which are already held are spilled when spilling is enabled
+        history.spillToDisk(spillDir, 0);
+        assertSpilledStates(history, 0);
+
+        history.removeHistoricalStates(2);
+        assertSpilledStates(history, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAFileAsTheSpillDirectory() throws IOException {
+        addRecords(1);
+        roundTripSnapshot();
+        HollowHistory history = new HollowHistory(readStateEngine, 1L, 3);
+        history.spillToDisk(File.createTempFile("hollow_history_spill", ".blob", spillDir), 1);
+    }
+
+    private void assertSpilledStates(HollowHistory history, int numHistoricalStatesOnHeap) {
+        HollowHistoricalState[] states = history.getHistoricalStates();
+        for (int i = 0; i < states.length; i++) {
+            Assert.assertEquals(i >= numHistoricalStatesOnHeap, states[i].isSpilledToDisk());
+            if (states[i].isSpilledToDisk()) {
+                Assert.assertEquals(0L, states[i].getApproximateHeapFootprintInBytes());
+            }
+        }
+        Assert.assertEquals(states.length - numHistoricalStatesOnHeap, spillDir.listFiles().length);
+    }
+
+    private void assertSameHistory(HollowHistory expected, HollowHistory actual) {
+        Assert.assertEquals(expected.getNumberOfHistoricalStates(), actual.getNumberOfHistoricalStates());
+        int numCompared = 0;
+        for (HollowHistoricalState expectedState : expected.getHistoricalStates()) {
+            HollowHistoricalState actualState = actual.getHistoricalState(expectedState.getVersion());
+            for (int key = 0; key < NUM_KEYS; key++) {
+                HollowHistoricalStateTypeKeyOrdinalMapping expectedMapping = expectedState.getKeyOrdinalMapping().getTypeMapping("A");
+                HollowHistoricalStateTypeKeyOrdinalMapping actualMapping = actualState.getKeyOrdinalMapping().getTypeMapping("A");
+                int expectedKeyOrdinal = keyOrdinal(expected, key);
+                int actualKeyOrdinal = keyOrdinal(actual, key);
+                if (expectedKeyOrdinal == -1) {
+                    Assert.assertEquals(-1, actualKeyOrdinal);
+                    continue;
+                }
+
+                int expectedOrdinal = expectedMapping.findRemovedOrdinal(expectedKeyOrdinal);
+                Assert.assertEquals(expectedOrdinal, actualMapping.findRemovedOrdinal(actualKeyOrdinal));
+                if (expectedOrdinal != -1) {
+                    assertSameRecord(expectedState, actualState, expectedOrdinal);
+                    numCompared++;
+                }
+
+                expectedOrdinal = expectedMapping.findAddedOrdinal(expectedKeyOrdinal);
+                Assert.assertEquals(expectedOrdinal, actualMapping.findAddedOrdinal(actualKeyOrdinal));
+                if (expectedOrdinal != -1) {
+                    assertSameRecord(expectedState, actualState, expectedOrdinal);
+                }
+            }
+        }
+        Assert.assertTrue(numCompared > 0);
+    }
+
+    private int keyOrdinal(HollowHistory history, int key) {
+        IntList queryResult = history.getKeyIndex().getTypeKeyIndexes().get("A").queryIndexedFields(String.valueOf(key));
+        return queryResult.size() == 0 ? -1 : queryResult.get(0);
+    }
+
+    private void assertSameRecord(HollowHistoricalState expectedState, HollowHistoricalState actualState, int ordinal) {
+        GenericHollowObject expected = (GenericHollowObject) GenericHollowRecordHelper.instantiate(expectedState.getDataAccess(), "A", ordinal);
+        GenericHollowObject actual = (GenericHollowObject) GenericHollowRecordHelper.instantiate(actualState.getDataAccess(), "A", ordinal);
+        Assert.assertEquals(expected.getInt("a1"), actual.getInt("a1"));
+        Assert.assertEquals(expected.getInt("a2"), actual.getInt("a2"));
+        Assert.assertEquals(expected.getObject("name").getString("value"), actual.getObject("name").getString("value"));
+    }
+
+    // each version removes a key, adds a key, and modifies a third of the remaining records
+    private void addRecords(int version) {
+        for (int key = version; key < version + NUM_KEYS - 10; key++) {
+            HollowObjectWriteRecord name = new HollowObjectWriteRecord(stringSchema);
+            name.setString("value", "name" + key + (key % 3 == version % 3 ? "v" + version : ""));
+            int nameOrdinal = writeStateEngine.add("String", name);
+
+            HollowObjectWriteRecord rec = new HollowObjectWriteRecord(aSchema);
+            rec.setInt("a1", key);
+            rec.setInt("a2", key % 3 == version % 3 ? key * version : key);
+            rec.setReference("name", nameOrdinal);
+            writeStateEngine.add("A", rec);
+        }
+    }
+
+    @Override
+    protected void initializeTypeStates() {
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(stringSchema));
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(aSchema));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ *  Copyright 2021 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.query;
+
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.and;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.atLeast;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.atMost;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.between;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.equalTo;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.greaterThan;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.in;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.lessThan;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.or;
+import static com.netflix.hollow.tools.query.HollowQueryPredicate.startsWith;
+
+import com.netflix.hollow.core.index.HollowHashIndex;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowQueryEngineTest {
+    private static final int NUM_MOVIES = 20000;
+
+    private HollowWriteStateEngine writeEngine;
+    private HollowReadStateEngine readEngine;
+    private List<Movie> movies;
+    private ForkJoinPool pool;
+    private HollowQueryEngine queryEngine;
+
+    @Before
+    public void setUp() throws IOException {
+        writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(32 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        Studio[] studios = {
+                new Studio("Alpha", 1920),
+                new Studio("Beta", 1950),
+                new Studio("Gamma", 1990)
+        };
+        movies = new ArrayList<>();
+        for(int i=0;i<NUM_MOVIES;i++) {
+            Movie movie = new Movie(i, "The Movie " + (i % 500), 1950 + (i % 70), i * 1_000_000L,
+                    (i % 50) / 10f, i % 7 == 0 ? null : i / 3d, i % 2 == 0, studios[i % studios.length]);
+            movies.add(movie);
+            mapper.add(movie);
+        }
+
+        readEngine = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+        pool = new ForkJoinPool(4);
+        queryEngine = new HollowQueryEngine(readEngine, pool);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void matchesFieldsOfEachType() {
+        Assert.assertTrue(readEngine.getTypeState("Movie").numShards() > 1);
+
+        assertMatches(equalTo("id", 1234), m -> m.id == 1234);
+        assertMatches(in("id", 1, 5, 19999, 20000), m -> m.id == 1 || m.id == 5 || m.id == 19999);
+        assertMatches(between("releaseYear", 1990, 1999), m -> m.releaseYear >= 1990 && m.releaseYear <= 1999);
+        assertMatches(greaterThan("releaseYear", 2010), m -> m.releaseYear > 2010);
+        assertMatches(lessThan("views", 5_000_000_000L), m -> m.views < 5_000_000_000L);
+        assertMatches(atLeast("views", 19_000_000_000L), m -> m.views >= 19_000_000_000L);
+        assertMatches(equalTo("rating", 2.2), m -> m.rating == 2.2f);
+        assertMatches(atMost("rating", 1.5f), m -> m.rating <= 1.5f);
+        assertMatches(greaterThan("score", 6000), m -> m.score != null && m.score > 6000);
+        assertMatches(equalTo("kidFriendly", true), m -> m.kidFriendly);
+        assertMatches(equalTo("title", "The Movie 7"), m -> m.title.equals("The Movie 7"));
+        assertMatches(in("title", "The Movie 7", "The Movie 8", "Not a Movie"), m -> m.title.equals("The Movie 7") || m.title.equals("The Movie 8"));
+        assertMatches(startsWith("title", "The Movie 42"), m -> m.title.startsWith("The Movie 42"));
+        assertMatches(between("title", "The Movie 1", "The Movie 2"), m -> m.title.compareTo("The Movie 1") >= 0 && m.title.compareTo("The Movie 2") <= 0);
+    }
+
+    @Test
+    public void matchesFieldsThroughReferences() {
+        assertMatches(equalTo("studio.name", "Beta"), m -> m.studio.name.equals("Beta"));
+        assertMatches(atLeast("studio.founded", 1950), m -> m.studio.founded >= 1950);
+        assertMatches(startsWith("studio.name", "Z"), m -> false);
+    }
+
+    @Test
+    public void matchesCompositePredicates() {
+        assertMatches(and(between("releaseYear", 1990, 1999), startsWith("title", "The Movie 1")),
+                m -> m.releaseYear >= 1990 && m.releaseYear <= 1999 && m.title.startsWith("The Movie 1"));
+        assertMatches(or(equalTo("id", 3), equalTo("studio.name", "Gamma"), lessThan("rating", 0.1)),
+                m -> m.id == 3 || m.studio.name.equals("Gamma") || m.rating < 0.1f);
+        assertMatches(and(equalTo("kidFriendly", false), or(equalTo("releaseYear", 1960), equalTo("releaseYear", 2000))),
+                m -> !m.kidFriendly && (m.releaseYear == 1960 || m.releaseYear == 2000));
+        assertMatches(and(equalTo("id", 3), equalTo("id", 4)), m -> false);
+    }
+
+    @Test
+    public void looksUpIndexedFields() {
+        queryEngine.addIndex(new HollowPrimaryKeyIndex(readEngine, "Movie", "id"));
+        queryEngine.addIndex(new HollowHashIndex(readEngine, "Movie", "", "releaseYear"));
+        queryEngine.addIndex(new HollowHashIndex(readEngine, "Studio", "", "name.value"));
+
+        assertMatches(equalTo("id", 1234), m -> m.id == 1234);
+        assertMatches(in("id", 1, 5L, 19999, 20000, Long.MAX_VALUE), m -> m.id == 1 || m.id == 5 || m.id == 19999);
+        assertMatches(in("releaseYear", 1960, 2000), m -> m.releaseYear == 1960 || m.releaseYear == 2000);
+        assertMatches(and(equalTo("studio.name", "Alpha"), equalTo("releaseYear", 1975)),
+                m -> m.studio.name.equals("Alpha") && m.releaseYear == 1975);
+    }
+
+    @Test
+    public void excludesRemovedRecords() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        writeEngine.prepareForNextCycle();
+        List<Movie> remaining = new ArrayList<>();
+        for(Movie movie : movies) {
+            if(movie.id % 3 != 0) {
+                mapper.add(movie);
+                remaining.add(movie);
+            }
+        }
+        StateEngineRoundTripper.roundTripDelta(writeEngine, readEngine);
+
+        BitSet matches = queryEngine.findMatchingRecords("Movie", atLeast("releaseYear", 2000));
+        Assert.assertEquals(remaining.stream().filter(m -> m.releaseYear >= 2000).count(), matches.cardinality());
+        for(int ordinal = matches.nextSetBit(0); ordinal != -1; ordinal = matches.nextSetBit(ordinal + 1))
+            Assert.assertTrue(movies.get(ordinal).id % 3 != 0);
+    }
+
+    @Test
+    public void matchesNothingForMissingType() {
+        Assert.assertTrue(queryEngine.findMatchingRecords("Missing", equalTo("id", 1)).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedPredicates() {
+        queryEngine.findMatchingRecords("Movie", startsWith("releaseYear", "19"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsValuesOfOtherTypes() {
+        queryEngine.findMatchingRecords("Movie", equalTo("title", 7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsHashIndexesSelectingOtherTypes() {
+        queryEngine.addIndex(new HollowHashIndex(readEngine, "Movie", "studio", "releaseYear"));
+    }
+
+    private void assertMatches(HollowQueryPredicate predicate, Predicate<Movie> expected) {
+        BitSet expectedOrdinals = new BitSet();
+        for(int i=0;i<movies.size();i++) {
+            if(expected.test(movies.get(i)))
+                expectedOrdinals.set(i);
+        }
+        Assert.assertEquals(predicate.toString(), expectedOrdinals, queryEngine.findMatchingRecords("Movie", predicate));
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+        int releaseYear;
+        long views;
+        float rating;
+        Double score;
+        boolean kidFriendly;
+        Studio studio;
+
+        Movie(int id, String title, int releaseYear, long views, float rating, Double score, boolean kidFriendly, Studio studio) {
+            this.id = id;
+            this.title = title;
+            this.releaseYear = releaseYear;
+            this.views = views;
+            this.rating = rating;
+            this.score = score;
+            this.kidFriendly = kidFriendly;
+            this.studio = studio;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Studio {
+        String name;
+        int founded;
+
+        Studio(String name, int founded) {
+            this.name = name;
+            this.founded = founded;
+        }
+    }
+}